@@ -0,0 +1,20 @@
+-- Catálogo de la cadena para la base embebida H2: las mismas tablas que crea db/db.sql en MySQL, solo en el
+-- esquema principal. Se ejecuta después de db/propiedad.sql (ver Conexion.prepararEsquemaEmbebido).
+
+-- Tabla PROPIEDADES: catálogo de hoteles de la cadena. Cada propiedad guarda sus datos en su propio
+-- esquema (shard) con las mismas tablas; para crear el esquema de un hotel nuevo se usa db/propiedad.sql
+CREATE TABLE PROPIEDADES (
+    id_propiedad INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100) UNIQUE NOT NULL,
+    esquema VARCHAR(64) UNIQUE NOT NULL
+);
+
+INSERT INTO PROPIEDADES (nombre, esquema) VALUES ('Hotel Nova', 'hotel_nova_db');
+
+-- Generación de la base: un ID nuevo cada vez que se crea (db/db.sql la recrea y vuelve a emitir los IDs desde 1),
+-- para que las copias en disco de los datos (ej: el directorio de huéspedes) detecten que ya no son válidas
+CREATE TABLE GENERACION (
+    id_generacion CHAR(36) NOT NULL
+);
+
+INSERT INTO GENERACION (id_generacion) VALUES (UUID());
@@ -1,4 +1,5 @@
--- Script SQL para la base de datos hotel_nova_db
+-- Script SQL para la base de datos hotel_nova_db (MySQL). La base embebida H2 (hotel.db.modo=embebida) no usa
+-- este archivo: crea las mismas tablas con db/propiedad.sql y db/catalogo.sql (ver Conexion.prepararEmbebida)
 
 -- Eliminar la base de datos si ya existe (para empezar limpio en pruebas)
 DROP DATABASE IF EXISTS hotel_nova_db;
@@ -25,7 +26,9 @@ CREATE TABLE HABITACIONES (
     numero_habitacion INT UNIQUE NOT NULL,
     tipo VARCHAR(50) NOT NULL, -- Ej: 'Simple', 'Doble', 'Suite'
     precio_por_noche DECIMAL(10, 2) NOT NULL,
-    estado VARCHAR(50) NOT NULL -- Ej: 'Disponible', 'Ocupada', 'En Limpieza', 'Mantenimiento'
+    estado VARCHAR(50) NOT NULL, -- Ej: 'Disponible', 'Ocupada', 'En Limpieza', 'Mantenimiento'
+    estado_desde DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP -- Último cambio de estado (plazo de limpieza), lo
+    -- actualizan los UPDATE que cambian el estado (HabitacionDAOImpl.SET_ESTADO)
 );
 
 -- Tabla RESERVAS
@@ -42,14 +45,26 @@ CREATE TABLE RESERVAS (
     FOREIGN KEY (id_habitacion) REFERENCES HABITACIONES(id_habitacion)
 );
 
--- Tabla SERVICIOS_ADICIONALES (si quieres implementarlos en el futuro)
+-- Índice de disponibilidad: resuelve "¿tiene esta habitación reservas activas que se solapen con estas fechas?"
+-- sin recorrer todas las reservas (usado por las reservas de grupo)
+CREATE INDEX idx_reservas_disponibilidad ON RESERVAS (id_habitacion, estado_reserva, fecha_checkin, fecha_checkout);
+
+-- Índice para elegir habitaciones por tipo y estado
+CREATE INDEX idx_habitaciones_tipo_estado ON HABITACIONES (tipo, estado, numero_habitacion);
+
+-- Índices de las tareas programadas: reservas confirmadas por fecha (no-show y vencidas)
+-- y habitaciones en limpieza por antigüedad
+CREATE INDEX idx_reservas_estado_fechas ON RESERVAS (estado_reserva, fecha_checkin, fecha_checkout);
+CREATE INDEX idx_habitaciones_estado_desde ON HABITACIONES (estado, estado_desde);
+
+-- Tabla SERVICIOS_ADICIONALES (RFS08: catálogo de servicios adicionales)
 CREATE TABLE SERVICIOS_ADICIONALES (
     id_servicio INT PRIMARY KEY AUTO_INCREMENT,
     nombre_servicio VARCHAR(100) NOT NULL,
     precio_servicio DECIMAL(10, 2) NOT NULL
 );
 
--- Tabla FACTURAS (si quieres implementarlos en el futuro)
+-- Tabla FACTURAS (RFS09, RFS10: una factura por check-out)
 CREATE TABLE FACTURAS (
     id_factura INT PRIMARY KEY AUTO_INCREMENT,
     id_reserva INT NOT NULL,
@@ -61,13 +76,37 @@ CREATE TABLE FACTURAS (
     FOREIGN KEY (id_huesped) REFERENCES HUESPEDES(id_huesped)
 );
 
--- Tabla DETALLE_FACTURA (si quieres implementarlos en el futuro)
+-- Tabla DETALLE_FACTURA (RFS08, RFS09: servicios adicionales cargados a una reserva). Un cargo se guarda al
+-- registrarlo, con id_factura NULL mientras está pendiente, y se asigna a su factura en el check-out
 CREATE TABLE DETALLE_FACTURA (
     id_detalle INT PRIMARY KEY AUTO_INCREMENT,
-    id_factura INT NOT NULL,
+    id_reserva INT NOT NULL,
+    id_factura INT NULL,
     id_servicio INT NOT NULL,
     cantidad INT NOT NULL DEFAULT 1,
     precio_unitario DECIMAL(10, 2) NOT NULL,
+    FOREIGN KEY (id_reserva) REFERENCES RESERVAS(id_reserva),
     FOREIGN KEY (id_factura) REFERENCES FACTURAS(id_factura),
     FOREIGN KEY (id_servicio) REFERENCES SERVICIOS_ADICIONALES(id_servicio)
 );
+
+-- Cargos pendientes de una reserva (id_factura NULL), para el check-out
+CREATE INDEX idx_detalle_pendientes ON DETALLE_FACTURA (id_reserva, id_factura);
+
+-- Tabla PROPIEDADES: catálogo de hoteles de la cadena. Cada propiedad guarda sus datos en su propio
+-- esquema (shard) con las mismas tablas; para crear el esquema de un hotel nuevo se usa db/propiedad.sql
+CREATE TABLE PROPIEDADES (
+    id_propiedad INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100) UNIQUE NOT NULL,
+    esquema VARCHAR(64) UNIQUE NOT NULL
+);
+
+INSERT INTO PROPIEDADES (nombre, esquema) VALUES ('Hotel Nova', 'hotel_nova_db');
+
+-- Generación de la base: un ID nuevo cada vez que se crea (este script la recrea y vuelve a emitir los IDs desde 1),
+-- para que las copias en disco de los datos (ej: el directorio de huéspedes) detecten que ya no son válidas
+CREATE TABLE GENERACION (
+    id_generacion CHAR(36) NOT NULL
+);
+
+INSERT INTO GENERACION (id_generacion) VALUES (UUID());
@@ -0,0 +1,90 @@
+-- Script SQL para crear el esquema (shard) de un hotel de la cadena.
+-- Crea las mismas tablas que db/db.sql en el esquema indicado, sin el catálogo PROPIEDADES
+-- (que solo existe en el esquema principal). Sirve para MySQL y para la base embebida H2 (MODE=MySQL), que
+-- también lo usa para el esquema principal, seguido de db/catalogo.sql. Uso, por ejemplo para 'hotel_sol_db':
+--   CREATE DATABASE hotel_sol_db; USE hotel_sol_db; SOURCE db/propiedad.sql;
+--   INSERT INTO hotel_nova_db.PROPIEDADES (nombre, esquema) VALUES ('Hotel Sol', 'hotel_sol_db');
+-- Con la base embebida basta el INSERT: el esquema del hotel se crea en el siguiente arranque.
+
+-- Tabla HUESPEDES
+CREATE TABLE HUESPEDES (
+    id_huesped INT PRIMARY KEY AUTO_INCREMENT,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    dni VARCHAR(20) UNIQUE NOT NULL,
+    email VARCHAR(100),
+    telefono VARCHAR(20)
+);
+
+-- Tabla HABITACIONES
+CREATE TABLE HABITACIONES (
+    id_habitacion INT PRIMARY KEY AUTO_INCREMENT,
+    numero_habitacion INT UNIQUE NOT NULL,
+    tipo VARCHAR(50) NOT NULL, -- Ej: 'Simple', 'Doble', 'Suite'
+    precio_por_noche DECIMAL(10, 2) NOT NULL,
+    estado VARCHAR(50) NOT NULL, -- Ej: 'Disponible', 'Ocupada', 'En Limpieza', 'Mantenimiento'
+    estado_desde DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP -- Último cambio de estado (plazo de limpieza), lo
+    -- actualizan los UPDATE que cambian el estado (HabitacionDAOImpl.SET_ESTADO)
+);
+
+-- Tabla RESERVAS
+CREATE TABLE RESERVAS (
+    id_reserva INT PRIMARY KEY AUTO_INCREMENT,
+    id_huesped INT NOT NULL,
+    id_habitacion INT, -- Puede ser NULL hasta que se asigne una habitación
+    fecha_checkin DATE NOT NULL,
+    fecha_checkout DATE NOT NULL,
+    cantidad_huespedes INT NOT NULL,
+    estado_reserva VARCHAR(50) NOT NULL, -- Ej: 'Confirmada', 'Check-in', 'Check-out', 'Cancelada'
+    fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (id_huesped) REFERENCES HUESPEDES(id_huesped),
+    FOREIGN KEY (id_habitacion) REFERENCES HABITACIONES(id_habitacion)
+);
+
+-- Índice de disponibilidad: resuelve "¿tiene esta habitación reservas activas que se solapen con estas fechas?"
+-- sin recorrer todas las reservas (usado por las reservas de grupo)
+CREATE INDEX idx_reservas_disponibilidad ON RESERVAS (id_habitacion, estado_reserva, fecha_checkin, fecha_checkout);
+
+-- Índice para elegir habitaciones por tipo y estado
+CREATE INDEX idx_habitaciones_tipo_estado ON HABITACIONES (tipo, estado, numero_habitacion);
+
+-- Índices de las tareas programadas: reservas confirmadas por fecha (no-show y vencidas)
+-- y habitaciones en limpieza por antigüedad
+CREATE INDEX idx_reservas_estado_fechas ON RESERVAS (estado_reserva, fecha_checkin, fecha_checkout);
+CREATE INDEX idx_habitaciones_estado_desde ON HABITACIONES (estado, estado_desde);
+
+-- Tabla SERVICIOS_ADICIONALES (RFS08: catálogo de servicios adicionales)
+CREATE TABLE SERVICIOS_ADICIONALES (
+    id_servicio INT PRIMARY KEY AUTO_INCREMENT,
+    nombre_servicio VARCHAR(100) NOT NULL,
+    precio_servicio DECIMAL(10, 2) NOT NULL
+);
+
+-- Tabla FACTURAS (RFS09, RFS10: una factura por check-out)
+CREATE TABLE FACTURAS (
+    id_factura INT PRIMARY KEY AUTO_INCREMENT,
+    id_reserva INT NOT NULL,
+    id_huesped INT NOT NULL,
+    fecha_emision DATETIME DEFAULT CURRENT_TIMESTAMP,
+    total_factura DECIMAL(10, 2) NOT NULL,
+    estado_pago VARCHAR(50) NOT NULL, -- Ej: 'Pendiente', 'Pagada', 'Cancelada'
+    FOREIGN KEY (id_reserva) REFERENCES RESERVAS(id_reserva),
+    FOREIGN KEY (id_huesped) REFERENCES HUESPEDES(id_huesped)
+);
+
+-- Tabla DETALLE_FACTURA (RFS08, RFS09: servicios adicionales cargados a una reserva). Un cargo se guarda al
+-- registrarlo, con id_factura NULL mientras está pendiente, y se asigna a su factura en el check-out
+CREATE TABLE DETALLE_FACTURA (
+    id_detalle INT PRIMARY KEY AUTO_INCREMENT,
+    id_reserva INT NOT NULL,
+    id_factura INT NULL,
+    id_servicio INT NOT NULL,
+    cantidad INT NOT NULL DEFAULT 1,
+    precio_unitario DECIMAL(10, 2) NOT NULL,
+    FOREIGN KEY (id_reserva) REFERENCES RESERVAS(id_reserva),
+    FOREIGN KEY (id_factura) REFERENCES FACTURAS(id_factura),
+    FOREIGN KEY (id_servicio) REFERENCES SERVICIOS_ADICIONALES(id_servicio)
+);
+
+-- Cargos pendientes de una reserva (id_factura NULL), para el check-out
+CREATE INDEX idx_detalle_pendientes ON DETALLE_FACTURA (id_reserva, id_factura);
@@ -0,0 +1,205 @@
+package hotel.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utilidades JSON mínimas de la API (el proyecto no tiene dependencias de JSON): escapar textos al escribir
+ * y leer los cuerpos de las peticiones, que son objetos planos ({"clave": valor, ...}) con textos,
+ * números, true/false o null.
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * @return El texto como literal JSON entre comillas, o null.
+     */
+    public static String texto(String valor) {
+        if (valor == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(valor.length() + 2).append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Lee un objeto JSON plano.
+     * @param json El texto del objeto.
+     * @return Clave -> valor (String, Double, Boolean o null), en el orden del texto.
+     * @throws IllegalArgumentException Si el texto no es un objeto plano válido.
+     */
+    public static Map<String, Object> leerObjeto(String json) {
+        Lector lector = new Lector(json);
+        Map<String, Object> objeto = lector.objeto();
+        lector.espacios();
+        if (lector.pos < json.length()) {
+            throw lector.error("contenido después del objeto");
+        }
+        return objeto;
+    }
+
+    private static final class Lector {
+        private final String s;
+        private int pos;
+
+        Lector(String s) {
+            this.s = s;
+        }
+
+        Map<String, Object> objeto() {
+            Map<String, Object> objeto = new LinkedHashMap<>();
+            esperar('{');
+            espacios();
+            if (mirar() == '}') {
+                pos++;
+                return objeto;
+            }
+            while (true) {
+                espacios();
+                String clave = cadena();
+                espacios();
+                esperar(':');
+                espacios();
+                objeto.put(clave, valor());
+                espacios();
+                char c = siguiente();
+                if (c == '}') {
+                    return objeto;
+                }
+                if (c != ',') {
+                    throw error("se esperaba ',' o '}'");
+                }
+            }
+        }
+
+        Object valor() {
+            char c = mirar();
+            if (c == '"') {
+                return cadena();
+            }
+            if (s.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (s.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (s.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            int inicio = pos;
+            while (pos < s.length() && "+-0123456789.eE".indexOf(s.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (inicio == pos) {
+                throw error("valor no válido (solo se admiten objetos planos)");
+            }
+            try {
+                return Double.parseDouble(s.substring(inicio, pos));
+            } catch (NumberFormatException e) {
+                throw error("número no válido");
+            }
+        }
+
+        String cadena() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = siguiente();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = siguiente();
+                switch (e) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > s.length()) {
+                            throw error("escape \\u incompleto");
+                        }
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(e); // \" \\ \/
+                }
+            }
+        }
+
+        void espacios() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        char mirar() {
+            if (pos >= s.length()) {
+                throw error("fin inesperado");
+            }
+            return s.charAt(pos);
+        }
+
+        char siguiente() {
+            char c = mirar();
+            pos++;
+            return c;
+        }
+
+        void esperar(char c) {
+            if (siguiente() != c) {
+                throw error("se esperaba '" + c + "'");
+            }
+        }
+
+        IllegalArgumentException error(String mensaje) {
+            return new IllegalArgumentException("JSON no válido en la posición " + pos + ": " + mensaje);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package hotel.api;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga de la API HTTP: N clientes concurrentes (un hilo virtual cada uno) repiten durante un tiempo
+ * una mezcla de peticiones de lectura y al final muestran peticiones por segundo, percentiles de latencia y
+ * cuántas lecturas de habitaciones se resolvieron con 304 gracias al ETag.
+ *
+ * Mezcla: 70% GET /habitaciones (condicional, con el último ETag recibido por el cliente),
+ * 20% GET /reportes/ocupacion y 10% GET /reservas (listado completo por partes).
+ *
+ * Uso: java hotel.api.PruebaCargaApi [urlBase] [clientes] [segundos]
+ * (por defecto http://127.0.0.1:8080/api 50 30). La API debe estar en marcha (hotel.api.puerto).
+ */
+public class PruebaCargaApi {
+
+    public static void main(String[] args) throws InterruptedException {
+        String base = args.length > 0 ? args[0] : "http://127.0.0.1:8080/api";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LongAdder noModificadas = new LongAdder();
+        LongAdder lecturasHabitaciones = new LongAdder();
+        LongAdder errores = new LongAdder();
+        List<long[]> latencias = new ArrayList<>(); // Una lista por cliente, sin contención al medir
+        int[] usadas = new int[clientes];
+        for (int i = 0; i < clientes; i++) {
+            latencias.add(new long[1 << 16]);
+        }
+
+        System.out.println("Prueba de carga contra " + base + ": " + clientes + " clientes durante " + segundos + " s...");
+        long inicio = System.nanoTime();
+        long fin = inicio + TimeUnit.SECONDS.toNanos(segundos);
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                ejecutor.submit(() -> {
+                    String etag = null;
+                    long[] muestras = latencias.get(cliente);
+                    while (System.nanoTime() < fin) {
+                        int tirada = ThreadLocalRandom.current().nextInt(100);
+                        String ruta = tirada < 70 ? "/habitaciones" : tirada < 90 ? "/reportes/ocupacion" : "/reservas";
+                        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(base + ruta)).timeout(Duration.ofSeconds(30));
+                        if (tirada < 70 && etag != null) {
+                            peticion.header("If-None-Match", etag);
+                        }
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = http.send(peticion.build(), HttpResponse.BodyHandlers.discarding());
+                            if (tirada < 70) {
+                                lecturasHabitaciones.increment();
+                                if (respuesta.statusCode() == 304) {
+                                    noModificadas.increment();
+                                }
+                                etag = respuesta.headers().firstValue("ETag").orElse(etag);
+                            }
+                            if (respuesta.statusCode() >= 400) {
+                                errores.increment();
+                            }
+                        } catch (Exception e) {
+                            errores.increment();
+                        }
+                        if (usadas[cliente] == muestras.length) {
+                            muestras = Arrays.copyOf(muestras, muestras.length * 2);
+                            latencias.set(cliente, muestras);
+                        }
+                        muestras[usadas[cliente]++] = System.nanoTime() - t0;
+                    }
+                });
+            }
+        }
+        double duracion = (System.nanoTime() - inicio) / 1e9;
+
+        int total = 0;
+        for (int n : usadas) {
+            total += n;
+        }
+        long[] todas = new long[total];
+        int pos = 0;
+        for (int c = 0; c < clientes; c++) {
+            System.arraycopy(latencias.get(c), 0, todas, pos, usadas[c]);
+            pos += usadas[c];
+        }
+        Arrays.sort(todas);
+
+        System.out.println("\n--- Resultado de la Prueba de Carga ---");
+        System.out.println("Peticiones: " + total + " en " + String.format("%.1f", duracion) + " s (" +
+                String.format("%.0f", total / duracion) + " por segundo), errores: " + errores.sum());
+        System.out.println("Latencia (ms): p50 " + percentil(todas, 0.50) + ", p95 " + percentil(todas, 0.95) +
+                ", p99 " + percentil(todas, 0.99) + ", máxima " + percentil(todas, 1.0));
+        long lecturas = lecturasHabitaciones.sum();
+        System.out.println("GET /habitaciones con 304 (no modificado): " + noModificadas.sum() + " de " + lecturas +
+                (lecturas > 0 ? " (" + String.format("%.1f", 100.0 * noModificadas.sum() / lecturas) + "%)" : ""));
+        System.out.println("------------------------------------");
+    }
+
+    private static String percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return "-";
+        }
+        int i = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return String.format("%.2f", ordenadas[Math.max(0, i)] / 1e6);
+    }
+}
@@ -0,0 +1,452 @@
+package hotel.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hotel.config.Configuracion;
+import hotel.gestion.Habitacion;
+import hotel.gestion.Hotel;
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+import hotel.gestion.MotorPrecios;
+import hotel.gestion.Reserva;
+import hotel.gestion.ResumenPropiedad;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP/JSON local sobre la fachada Hotel, para el channel manager y los quioscos, con el servidor HTTP
+ * incluido en el JDK (com.sun.net.httpserver) y un hilo virtual por petición. Con el objetivo de compilación
+ * del proyecto (Java 24), los monitores del driver de MySQL ya no fijan los hilos virtuales a su portador.
+ *
+ * Rutas (todas bajo /api):
+ * - GET  /habitaciones, GET /habitaciones/{numero}: con ETag; If-None-Match responde 304 sin enviar el cuerpo.
+ * - PUT  /habitaciones/{numero}/estado          {"estado": "En Limpieza"}
+ * - GET  /huespedes?q=texto&amp;limite=20, GET /huespedes/{dni}
+ * - POST /huespedes                              {"nombre", "apellido", "dni", "email", "telefono"}
+ * - GET  /reservas[?estado=Confirmada]: se transmite por partes (chunked) a medida que se lee de la DB.
+ * - GET  /reservas/{id}, DELETE /reservas/{id} (cancelar)
+ * - POST /reservas                               {"dni", "numeroHabitacion", "checkin", "checkout", "huespedes"}
+ * - POST /reservas/{id}/checkin, POST /reservas/{id}/checkout
+ * - GET  /reportes/ocupacion, GET /reportes/cotizacion?checkin=AAAA-MM-DD&amp;checkout=AAAA-MM-DD
+ *
+ * Los errores de negocio (HotelException) responden 409, las peticiones mal formadas 400 y lo que no existe 404,
+ * siempre con {"error": "..."}. El ETag de las habitaciones es un hash del JSON leído de la DB: cambia con
+ * cualquier cambio de los datos, lo haga este proceso u otro, y vale entre reinicios.
+ */
+public class ServidorApi implements AutoCloseable {
+    private static final String JSON = "application/json; charset=utf-8";
+
+    static {
+        // Sin TCP_NODELAY, las respuestas pequeñas (304, errores) esperan al ACK retardado del cliente (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Error de la petición con su código HTTP.
+     */
+    private static final class ErrorApi extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int codigo;
+
+        ErrorApi(int codigo, String mensaje) {
+            super(mensaje);
+            this.codigo = codigo;
+        }
+    }
+
+    private final Hotel hotel;
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+    /**
+     * Constructor de la clase ServidorApi. El servidor no atiende hasta llamar a iniciar().
+     * @param hotel El hotel al que da acceso la API.
+     * @param direccion La dirección en la que escucha (ej: 127.0.0.1 para solo acceso local).
+     * @param puerto El puerto (0 = uno libre cualquiera).
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public ServidorApi(Hotel hotel, String direccion, int puerto) throws IOException {
+        this.hotel = hotel;
+        this.servidor = HttpServer.create(new InetSocketAddress(direccion, puerto),
+                Configuracion.getInt("hotel.api.backlog", 256));
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(hilos);
+        servidor.createContext("/api/", this::atender);
+    }
+
+    public void iniciar() {
+        servidor.start();
+        System.out.println("API HTTP de " + hotel.getNombre() + " escuchando en http://" +
+                servidor.getAddress().getHostString() + ":" + getPuerto() + "/api/");
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Deja de aceptar peticiones y espera como mucho un segundo a que terminen las que están en curso.
+     */
+    @Override
+    public void close() {
+        servidor.stop(1);
+        hilos.shutdown();
+    }
+
+    private void atender(HttpExchange ex) throws IOException {
+        try {
+            String[] ruta = segmentos(ex.getRequestURI().getRawPath());
+            String metodo = ex.getRequestMethod();
+            switch (ruta.length > 0 ? ruta[0] : "") {
+                case "habitaciones":
+                    habitaciones(ex, metodo, ruta);
+                    break;
+                case "huespedes":
+                    huespedes(ex, metodo, ruta);
+                    break;
+                case "reservas":
+                    reservas(ex, metodo, ruta);
+                    break;
+                case "reportes":
+                    reportes(ex, metodo, ruta);
+                    break;
+                default:
+                    throw new ErrorApi(404, "Ruta no encontrada: " + ex.getRequestURI().getPath());
+            }
+        } catch (ErrorApi e) {
+            enviarError(ex, e.codigo, e.getMessage());
+        } catch (HotelException e) {
+            enviarError(ex, 409, e.getMessage());
+        } catch (UncheckedIOException e) {
+            // El cliente cerró la conexión a mitad de la respuesta
+        } catch (RuntimeException e) {
+            System.err.println("API: error inesperado en " + ex.getRequestMethod() + " " + ex.getRequestURI() + ": " + e);
+            enviarError(ex, 500, "Error interno: " + e.getMessage());
+        } finally {
+            ex.close();
+        }
+    }
+
+    // --- Habitaciones ---
+
+    private void habitaciones(HttpExchange ex, String metodo, String[] ruta) throws IOException, HotelException {
+        if (ruta.length == 1 && metodo.equals("GET")) {
+            StringBuilder sb = new StringBuilder("[");
+            List<Habitacion> lista = hotel.obtenerHabitaciones();
+            for (int i = 0; i < lista.size(); i++) {
+                sb.append(i > 0 ? "," : "").append(habitacion(lista.get(i)));
+            }
+            enviarConEtag(ex, sb.append(']').toString());
+        } else if (ruta.length == 2 && metodo.equals("GET")) {
+            Habitacion h = hotel.buscarHabitacionPorNumero(entero(ruta[1], "número de habitación"))
+                    .orElseThrow(() -> new ErrorApi(404, "Habitación " + ruta[1] + " no encontrada."));
+            enviarConEtag(ex, habitacion(h));
+        } else if (ruta.length == 3 && ruta[2].equals("estado") && metodo.equals("PUT")) {
+            int numero = entero(ruta[1], "número de habitación");
+            hotel.actualizarEstadoHabitacion(numero, texto(cuerpo(ex), "estado"));
+            enviar(ex, 200, habitacion(hotel.buscarHabitacionPorNumero(numero).orElseThrow()));
+        } else {
+            throw noPermitido(metodo, ruta);
+        }
+    }
+
+    /**
+     * Envía una respuesta 200 con su ETag (hash SHA-256 del cuerpo), o 304 sin cuerpo si el cliente ya lo tiene.
+     */
+    private static void enviarConEtag(HttpExchange ex, String json) throws IOException {
+        String etag = etag(json);
+        ex.getResponseHeaders().set("ETag", etag);
+        String condicion = ex.getRequestHeaders().getFirst("If-None-Match");
+        if (condicion != null && (condicion.trim().equals("*") || List.of(condicion.split("\\s*,\\s*")).contains(etag))) {
+            ex.sendResponseHeaders(304, -1);
+            return;
+        }
+        enviar(ex, 200, json);
+    }
+
+    private static String etag(String json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Todas las JVM incluyen SHA-256
+        }
+    }
+
+    // --- Huéspedes ---
+
+    private void huespedes(HttpExchange ex, String metodo, String[] ruta) throws IOException, HotelException {
+        if (ruta.length == 1 && metodo.equals("GET")) {
+            Map<String, String> parametros = parametros(ex);
+            String q = parametros.get("q");
+            if (q == null || q.isBlank()) {
+                throw new ErrorApi(400, "Falta el parámetro 'q' con el texto a buscar.");
+            }
+            int limite = parametros.containsKey("limite") ? entero(parametros.get("limite"), "limite") : 20;
+            List<Huesped> encontrados = hotel.buscarHuespedes(q, limite);
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < encontrados.size(); i++) {
+                sb.append(i > 0 ? "," : "").append(huesped(encontrados.get(i)));
+            }
+            enviar(ex, 200, sb.append(']').toString());
+        } else if (ruta.length == 2 && metodo.equals("GET")) {
+            Huesped h = hotel.buscarHuespedPorDni(ruta[1])
+                    .orElseThrow(() -> new ErrorApi(404, "Huésped con DNI " + ruta[1] + " no encontrado."));
+            enviar(ex, 200, huesped(h));
+        } else if (ruta.length == 1 && metodo.equals("POST")) {
+            Map<String, Object> datos = cuerpo(ex);
+            Huesped h = hotel.registrarHuesped(texto(datos, "nombre"), texto(datos, "apellido"), texto(datos, "dni"),
+                    texto(datos, "email"), texto(datos, "telefono"));
+            enviar(ex, 201, huesped(h));
+        } else {
+            throw noPermitido(metodo, ruta);
+        }
+    }
+
+    // --- Reservas ---
+
+    private void reservas(HttpExchange ex, String metodo, String[] ruta) throws IOException, HotelException {
+        if (ruta.length == 1 && metodo.equals("GET")) {
+            transmitirReservas(ex, parametros(ex).get("estado"));
+        } else if (ruta.length == 1 && metodo.equals("POST")) {
+            Map<String, Object> datos = cuerpo(ex);
+            String dni = texto(datos, "dni");
+            Huesped huesped = hotel.buscarHuespedPorDni(dni)
+                    .orElseThrow(() -> new ErrorApi(404, "Huésped con DNI " + dni + " no encontrado."));
+            Reserva reserva = hotel.crearReserva(huesped, (int) numero(datos, "numeroHabitacion"),
+                    fecha(texto(datos, "checkin"), "checkin"), fecha(texto(datos, "checkout"), "checkout"),
+                    (int) numero(datos, "huespedes"));
+            enviar(ex, 201, reserva(reserva));
+        } else if (ruta.length == 2 && metodo.equals("GET")) {
+            enviar(ex, 200, reserva(buscarReserva(ruta[1])));
+        } else if (ruta.length == 2 && metodo.equals("DELETE")) {
+            int id = buscarReserva(ruta[1]).getIdReservaInterno();
+            hotel.cancelarReserva(id);
+            enviar(ex, 200, reserva(buscarReserva(ruta[1])));
+        } else if (ruta.length == 3 && metodo.equals("POST") && (ruta[2].equals("checkin") || ruta[2].equals("checkout"))) {
+            int id = buscarReserva(ruta[1]).getIdReservaInterno();
+            if (ruta[2].equals("checkin")) {
+                hotel.realizarCheckIn(id);
+            } else {
+                hotel.realizarCheckOut(id);
+            }
+            enviar(ex, 200, reserva(buscarReserva(ruta[1])));
+        } else {
+            throw noPermitido(metodo, ruta);
+        }
+    }
+
+    private Reserva buscarReserva(String id) throws HotelException {
+        return hotel.buscarReservaPorId(entero(id, "ID de reserva"))
+                .orElseThrow(() -> new ErrorApi(404, "Reserva con ID " + id + " no encontrada."));
+    }
+
+    /**
+     * Envía las reservas como un array JSON por partes (chunked), escribiendo cada reserva a medida que se lee
+     * de la DB: ni el servidor ni la DB construyen la lista completa. Si falla a mitad, la respuesta se corta
+     * y el cliente ve un cuerpo incompleto (el código 200 ya se envió). Si el cliente se desconecta, la
+     * excepción de escritura corta el recorrido y ReservaDAO.forEach cancela la consulta en la DB.
+     */
+    private void transmitirReservas(HttpExchange ex, String estado) throws IOException, HotelException {
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(200, 0);
+        Writer salida = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8), 64 * 1024);
+        boolean[] primera = {true};
+        salida.write('[');
+        hotel.recorrerReservas(r -> {
+            if (estado != null && !estado.equals(r.getEstado())) {
+                return;
+            }
+            try {
+                if (!primera[0]) {
+                    salida.write(',');
+                }
+                primera[0] = false;
+                salida.write(reserva(r));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Corta el recorrido de la DB
+            }
+        });
+        salida.write(']');
+        salida.flush();
+    }
+
+    // --- Reportes ---
+
+    private void reportes(HttpExchange ex, String metodo, String[] ruta) throws IOException, HotelException {
+        if (!metodo.equals("GET") || ruta.length != 2) {
+            throw noPermitido(metodo, ruta);
+        }
+        switch (ruta[1]) {
+            case "ocupacion": {
+                ResumenPropiedad resumen = hotel.calcularResumen();
+                StringBuilder porEstado = new StringBuilder("{");
+                for (Map.Entry<String, Integer> e : resumen.getHabitacionesPorEstado().entrySet()) {
+                    porEstado.append(porEstado.length() > 1 ? "," : "").append(Json.texto(e.getKey())).append(':').append(e.getValue());
+                }
+                enviar(ex, 200, "{\"hotel\":" + Json.texto(resumen.getNombre()) +
+                        ",\"habitaciones\":" + resumen.getTotalHabitaciones() +
+                        ",\"porEstado\":" + porEstado.append('}') +
+                        ",\"ocupacion\":" + resumen.getPorcentajeOcupacion() +
+                        ",\"ingresos\":" + resumen.getIngresos() + "}");
+                break;
+            }
+            case "cotizacion": {
+                Map<String, String> parametros = parametros(ex);
+                Map<String, MotorPrecios.Cotizacion> cotizaciones = hotel.cotizarEstancia(
+                        fecha(parametros.get("checkin"), "checkin"), fecha(parametros.get("checkout"), "checkout"));
+                StringBuilder sb = new StringBuilder("[");
+                for (MotorPrecios.Cotizacion c : cotizaciones.values()) {
+                    sb.append(sb.length() > 1 ? "," : "").append("{\"tipo\":").append(Json.texto(c.getTipo()))
+                            .append(",\"noches\":").append(c.getNoches()).append(",\"total\":").append(c.getTotal().toPlainString()).append('}');
+                }
+                enviar(ex, 200, sb.append(']').toString());
+                break;
+            }
+            default:
+                throw new ErrorApi(404, "Reporte '" + ruta[1] + "' no encontrado.");
+        }
+    }
+
+    // --- Representación JSON ---
+
+    private static String habitacion(Habitacion h) {
+        return "{\"numero\":" + h.getNumero() + ",\"tipo\":" + Json.texto(h.getTipo()) +
+                ",\"precioPorNoche\":" + h.getPrecioPorNoche() + ",\"costoNoche\":" + h.calcularCostoNoche() +
+                ",\"estado\":" + Json.texto(h.getEstado()) + "}";
+    }
+
+    private static String huesped(Huesped h) {
+        return "{\"id\":" + h.getIdHuespedInterno() + ",\"nombre\":" + Json.texto(h.getNombre()) +
+                ",\"apellido\":" + Json.texto(h.getApellido()) + ",\"dni\":" + Json.texto(h.getDni()) +
+                ",\"email\":" + Json.texto(h.getEmail()) + ",\"telefono\":" + Json.texto(h.getTelefono()) + "}";
+    }
+
+    private static String reserva(Reserva r) {
+        return "{\"id\":" + r.getIdReservaInterno() + ",\"dni\":" + Json.texto(r.getHuesped().getDni()) +
+                ",\"numeroHabitacion\":" + r.getHabitacion().getNumero() +
+                ",\"checkin\":\"" + r.getFechaCheckin() + "\",\"checkout\":\"" + r.getFechaCheckout() + "\"" +
+                ",\"huespedes\":" + r.getCantidadHuespedes() + ",\"estado\":" + Json.texto(r.getEstado()) +
+                ",\"costoTotal\":" + r.calcularCostoTotal() + "}";
+    }
+
+    // --- Petición y respuesta ---
+
+    private static String[] segmentos(String rutaCruda) {
+        String resto = rutaCruda.substring("/api/".length());
+        if (resto.endsWith("/")) {
+            resto = resto.substring(0, resto.length() - 1);
+        }
+        if (resto.isEmpty()) {
+            return new String[0];
+        }
+        String[] segmentos = resto.split("/");
+        for (int i = 0; i < segmentos.length; i++) {
+            segmentos[i] = URLDecoder.decode(segmentos[i], StandardCharsets.UTF_8);
+        }
+        return segmentos;
+    }
+
+    private static Map<String, String> parametros(HttpExchange ex) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = ex.getRequestURI().getRawQuery();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = URLDecoder.decode(igual >= 0 ? par.substring(0, igual) : par, StandardCharsets.UTF_8);
+            String valor = igual >= 0 ? URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8) : "";
+            parametros.put(clave, valor);
+        }
+        return parametros;
+    }
+
+    private static Map<String, Object> cuerpo(HttpExchange ex) throws IOException {
+        try (InputStream entrada = ex.getRequestBody()) {
+            return Json.leerObjeto(new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ErrorApi(400, e.getMessage());
+        }
+    }
+
+    private static String texto(Map<String, Object> datos, String clave) {
+        Object valor = datos.get(clave);
+        if (!(valor instanceof String)) {
+            throw new ErrorApi(400, "Falta el campo de texto '" + clave + "'.");
+        }
+        return (String) valor;
+    }
+
+    private static double numero(Map<String, Object> datos, String clave) {
+        Object valor = datos.get(clave);
+        if (!(valor instanceof Double)) {
+            throw new ErrorApi(400, "Falta el campo numérico '" + clave + "'.");
+        }
+        return (Double) valor;
+    }
+
+    private static int entero(String valor, String nombre) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new ErrorApi(400, "El " + nombre + " debe ser un número entero: '" + valor + "'.");
+        }
+    }
+
+    private static LocalDate fecha(String valor, String nombre) {
+        if (valor == null) {
+            throw new ErrorApi(400, "Falta la fecha '" + nombre + "' (AAAA-MM-DD).");
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new ErrorApi(400, "Fecha '" + nombre + "' no válida (AAAA-MM-DD): '" + valor + "'.");
+        }
+    }
+
+    private static ErrorApi noPermitido(String metodo, String[] ruta) {
+        return new ErrorApi(405, "Método " + metodo + " no permitido en /api/" + String.join("/", ruta) + ".");
+    }
+
+    private static void enviar(HttpExchange ex, int codigo, String json) throws IOException {
+        byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(codigo, cuerpo.length);
+        try (OutputStream salida = ex.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    private static void enviarError(HttpExchange ex, int codigo, String mensaje) {
+        try {
+            enviar(ex, codigo, "{\"error\":" + Json.texto(mensaje) + "}");
+        } catch (IOException e) {
+            // Cliente desconectado, o la respuesta ya había empezado (listado por partes)
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package hotel.carga;
+
+import hotel.config.db.Conexion;
+import hotel.config.db.DataSourcePool;
+import hotel.config.db.dao.impl.BaseDatosMemoria;
+import hotel.config.db.dao.impl.HabitacionDAOImpl;
+import hotel.config.db.dao.impl.HabitacionDAOMemoria;
+import hotel.config.db.dao.impl.HuespedDAOImpl;
+import hotel.config.db.dao.impl.HuespedDAOMemoria;
+import hotel.config.db.dao.impl.ReservaDAOImpl;
+import hotel.config.db.dao.impl.ReservaDAOMemoria;
+import hotel.gestion.HabitacionDoble;
+import hotel.gestion.HabitacionSimple;
+import hotel.gestion.HabitacionSuite;
+import hotel.gestion.Hotel;
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga (y prueba de resistencia) que simula el tráfico del mostrador contra la fachada Hotel,
+ * para planificar capacidad y comparar versiones.
+ *
+ * Es un generador de lazo abierto: las llegadas siguen una tasa fija (constantes o de Poisson) sin esperar a
+ * que terminen las anteriores, y cada llegada se ejecuta en un hilo virtual que ocupa uno de 'clientes'
+ * puestos de mostrador. Para cada operación se registran dos histogramas (HdrHistogram, un Recorder por
+ * operación, que admite registros desde muchos hilos a la vez):
+ * - servicio: desde que un cliente empieza la operación hasta que termina;
+ * - respuesta: desde el momento en que la operación debía empezar según la tasa. Incluye la espera por un
+ *   cliente libre y corrige la omisión coordinada: si el sistema se atasca, las llegadas que no pudieron
+ *   empezar a tiempo cuentan con toda su espera en lugar de desaparecer de la medida.
+ * El informe muestra además el servicio total con la corrección de omisión coordinada de HdrHistogram
+ * (copyCorrectedForCoordinatedOmission, con el intervalo esperado entre llegadas de cada cliente), para
+ * compararla con la respuesta medida. Si la respuesta se separa del servicio, el informe avisa de que el
+ * sistema no sostiene la tasa.
+ *
+ * Operaciones (mezcla por pesos): crearReserva, realizarCheckIn, realizarCheckOut, cancelarReserva, limpieza
+ * (En Limpieza -> Disponible) y reporte (resumen de ocupación y cotización). Las que no tienen sobre qué actuar
+ * (p. ej. un check-in sin reservas confirmadas) hacen una reserva. Los rechazos de negocio (HotelException) se
+ * cuentan aparte de los errores inesperados.
+ *
+ * Uso: java hotel.carga.GeneradorCarga [clave=valor ...], con las claves (y sus valores por defecto):
+ * backend=memoria (o embebida, la base H2 de la carpeta 'directorio', que debe estar vacía o no existir, o mysql,
+ * con la configuración de hotel.properties), tasa=100 (llegadas por segundo; una
+ * lista "100,200,400" ejecuta una etapa por tasa), duracion=30 y calentamiento=5 (segundos por etapa),
+ * clientes=64, llegadas=poisson (o constante), habitaciones=200, huespedes=1000, semilla=42,
+ * mezcla=crearReserva:35,realizarCheckIn:20,realizarCheckOut:20,cancelarReserva:10,limpieza:10,reporte:5,
+ * salida=archivo (guarda el informe como clave=valor y, por etapa, la distribución de percentiles de la
+ * respuesta total en archivo.tasa.hgrm, el formato de HdrHistogram que se puede graficar) y comparar=archivo
+ * (muestra las diferencias con el informe de otra versión).
+ */
+public class GeneradorCarga {
+    private static final String[] OPERACIONES = {
+            "crearReserva", "realizarCheckIn", "realizarCheckOut", "cancelarReserva", "limpieza", "reporte"};
+    private static final String MEZCLA_POR_DEFECTO =
+            "crearReserva:35,realizarCheckIn:20,realizarCheckOut:20,cancelarReserva:10,limpieza:10,reporte:5";
+    private static final int PRIMER_NUMERO = 10_000; // Habitaciones de la prueba, para no pisar las del hotel
+    private static final int DIGITOS = 3; // Cifras significativas de los histogramas (error relativo < 0,1%)
+
+    /**
+     * Medidas de una operación en una etapa, en nanosegundos.
+     */
+    private static final class Medidas {
+        final Recorder servicio = new Recorder(DIGITOS);
+        final Recorder respuesta = new Recorder(DIGITOS);
+        final LongAdder rechazos = new LongAdder();
+        final LongAdder errores = new LongAdder();
+    }
+
+    private final Hotel hotel;
+    private final int clientes;
+    private final boolean poisson;
+    private final String[] ruleta = new String[100]; // Operación de cada punto de la mezcla
+    private final Random azar;
+
+    // Estado de la simulación: qué reservas y habitaciones pueden recibir cada operación
+    private final List<Huesped> huespedes = new ArrayList<>();
+    private final int[] numeros;
+    private final ConcurrentLinkedDeque<Integer> confirmadas = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Integer> conCheckIn = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Integer> enLimpieza = new ConcurrentLinkedDeque<>();
+    private final Map<Integer, Integer> habitacionDeReserva = new ConcurrentHashMap<>();
+
+    private GeneradorCarga(Hotel hotel, Map<String, String> parametros) throws HotelException {
+        this.hotel = hotel;
+        this.clientes = Integer.parseInt(parametros.getOrDefault("clientes", "64"));
+        this.poisson = !parametros.getOrDefault("llegadas", "poisson").equals("constante");
+        this.azar = new Random(Long.parseLong(parametros.getOrDefault("semilla", "42")));
+        leerMezcla(parametros.getOrDefault("mezcla", MEZCLA_POR_DEFECTO));
+        this.numeros = new int[Integer.parseInt(parametros.getOrDefault("habitaciones", "200"))];
+        poblar(Integer.parseInt(parametros.getOrDefault("huespedes", "1000")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new LinkedHashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual <= 0) {
+                System.err.println("Argumento no válido (se espera clave=valor): " + arg);
+                return;
+            }
+            parametros.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        String backend = parametros.getOrDefault("backend", "memoria");
+        int duracion = Integer.parseInt(parametros.getOrDefault("duracion", "30"));
+        int calentamiento = Integer.parseInt(parametros.getOrDefault("calentamiento", "5"));
+
+        // Los mensajes de la aplicación se descartan: el informe va a la consola original
+        PrintStream consola = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Hotel hotel;
+        DataSource embebida = null;
+        switch (backend) {
+            case "memoria": {
+                BaseDatosMemoria db = new BaseDatosMemoria();
+                hotel = new Hotel("Carga", new HabitacionDAOMemoria(db), new HuespedDAOMemoria(db), new ReservaDAOMemoria(db));
+                break;
+            }
+            case "embebida": {
+                embebida = Conexion.getDataSourceEmbebido(Paths.get(parametros.getOrDefault("directorio", "carga-db")), "carga");
+                Conexion.prepararEsquemaEmbebido(embebida, false);
+                hotel = new Hotel("Carga", new HabitacionDAOImpl(embebida), new HuespedDAOImpl(embebida), new ReservaDAOImpl(embebida));
+                break;
+            }
+            case "mysql":
+                hotel = new Hotel("Carga", new HabitacionDAOImpl(), new HuespedDAOImpl(), new ReservaDAOImpl());
+                break;
+            default:
+                consola.println("Backend desconocido: " + backend + " (memoria, embebida o mysql).");
+                return;
+        }
+
+        consola.println("Preparando " + parametros.getOrDefault("habitaciones", "200") + " habitaciones y " +
+                parametros.getOrDefault("huespedes", "1000") + " huéspedes (backend " + backend + ")...");
+        GeneradorCarga generador = new GeneradorCarga(hotel, parametros);
+
+        Map<String, String> informe = new TreeMap<>();
+        informe.put("config.argumentos", String.join(" ", args));
+        informe.put("config.backend", backend);
+        informe.put("config.java", System.getProperty("java.version"));
+        informe.put("config.procesadores", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        String salida = parametros.get("salida");
+        for (String tasa : parametros.getOrDefault("tasa", "100").split(",")) {
+            generador.ejecutarEtapa(Double.parseDouble(tasa.trim()), calentamiento, duracion, consola, informe, salida);
+        }
+        hotel.cerrar();
+        if (embebida instanceof DataSourcePool) {
+            ((DataSourcePool) embebida).close();
+        }
+
+        if (salida != null) {
+            try (Writer w = Files.newBufferedWriter(Paths.get(salida), StandardCharsets.UTF_8)) {
+                w.write("# Informe de GeneradorCarga, " + LocalDateTime.now().withNano(0) + "\n");
+                for (Map.Entry<String, String> e : informe.entrySet()) {
+                    w.write(e.getKey() + "=" + e.getValue() + "\n");
+                }
+            }
+            consola.println("Informe guardado en " + salida + ".");
+        }
+        String anterior = parametros.get("comparar");
+        if (anterior != null) {
+            comparar(anterior, informe, consola);
+        }
+    }
+
+    /**
+     * Ejecuta una etapa a una tasa de llegadas: calentamiento (sin medir) y luego la duración medida.
+     * Espera a que terminen todas las operaciones lanzadas antes de informar.
+     * @param salida El archivo del informe (la distribución de la respuesta va a salida.tasa.hgrm), o null.
+     */
+    private void ejecutarEtapa(double tasa, int calentamiento, int duracion, PrintStream consola,
+                               Map<String, String> informe, String salida) throws InterruptedException, IOException {
+        consola.println("\nEtapa de " + fmt(tasa) + " llegadas/s (" + (poisson ? "Poisson" : "constantes") + ", " +
+                clientes + " clientes): " + calentamiento + " s de calentamiento y " + duracion + " s medidos...");
+        Map<String, Medidas> medidas = new LinkedHashMap<>();
+        for (String operacion : OPERACIONES) {
+            medidas.put(operacion, new Medidas());
+        }
+        Histogram retrasoGenerador = new Histogram(DIGITOS); // Solo lo usa el hilo que genera las llegadas
+        Semaphore puestos = new Semaphore(clientes);
+        double intervaloMedio = 1e9 / tasa;
+
+        long inicio = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        long inicioMedida = inicio + TimeUnit.SECONDS.toNanos(calentamiento);
+        long fin = inicioMedida + TimeUnit.SECONDS.toNanos(duracion);
+        long llegadas = 0;
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            double previsto = inicio;
+            while (previsto < fin) {
+                long espera = (long) previsto - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                long debiaEmpezar = (long) previsto;
+                boolean medir = debiaEmpezar >= inicioMedida;
+                if (medir) {
+                    retrasoGenerador.recordValue(Math.max(0, System.nanoTime() - debiaEmpezar));
+                    llegadas++;
+                }
+                String operacion = ruleta[ThreadLocalRandom.current().nextInt(ruleta.length)];
+                hilos.submit(() -> atender(operacion, debiaEmpezar, medir ? medidas : null, puestos));
+                previsto += poisson ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervaloMedio : intervaloMedio;
+            }
+        }
+        double segundos = (System.nanoTime() - inicioMedida) / 1e9;
+
+        Histogram servicioTotal = new Histogram(DIGITOS);
+        Histogram respuestaTotal = new Histogram(DIGITOS);
+        long rechazos = 0;
+        long errores = 0;
+        String etapa = "etapa." + fmt(tasa) + ".";
+        consola.println(String.format("%-17s %8s %8s  %-30s %-30s", "operación", "cantidad", "rechazos",
+                "servicio p50/p99/p99.9/máx ms", "respuesta p50/p99/p99.9/máx ms"));
+        for (Map.Entry<String, Medidas> e : medidas.entrySet()) {
+            Medidas m = e.getValue();
+            Histogram servicio = m.servicio.getIntervalHistogram();
+            Histogram respuesta = m.respuesta.getIntervalHistogram();
+            if (servicio.getTotalCount() == 0) {
+                continue;
+            }
+            servicioTotal.add(servicio);
+            respuestaTotal.add(respuesta);
+            rechazos += m.rechazos.sum();
+            errores += m.errores.sum();
+            consola.println(String.format("%-17s %8d %8d  %-30s %-30s", e.getKey(), servicio.getTotalCount(),
+                    m.rechazos.sum() + m.errores.sum(), percentiles(servicio), percentiles(respuesta)));
+            String clave = etapa + e.getKey() + ".";
+            informe.put(clave + "cantidad", Long.toString(servicio.getTotalCount()));
+            informe.put(clave + "rechazos", Long.toString(m.rechazos.sum()));
+            informe.put(clave + "errores", Long.toString(m.errores.sum()));
+            guardarPercentiles(informe, clave + "servicio.", servicio);
+            guardarPercentiles(informe, clave + "respuesta.", respuesta);
+        }
+        double rendimiento = servicioTotal.getTotalCount() / segundos;
+        consola.println(String.format("%-17s %8d %8d  %-30s %-30s", "total", servicioTotal.getTotalCount(),
+                rechazos + errores, percentiles(servicioTotal), percentiles(respuestaTotal)));
+        consola.println("Rendimiento: " + fmt(rendimiento) + " operaciones/s (objetivo " + fmt(tasa) + "), " +
+                rechazos + " rechazos de negocio, " + errores + " errores inesperados.");
+        consola.println("Retraso del generador: p99 " + ms(retrasoGenerador.getValueAtPercentile(99)) + " ms, máx " +
+                ms(retrasoGenerador.getMaxValue()) + " ms.");
+        if (retrasoGenerador.getValueAtPercentile(99) > TimeUnit.MILLISECONDS.toNanos(1)) {
+            consola.println("Aviso: el generador se retrasa (p99 > 1 ms) y compite por CPU con el sistema medido; " +
+                    "la respuesta lo incluye, pero conviene bajar la tasa o ejecutarlo en otra máquina.");
+        }
+
+        // Omisión coordinada: la respuesta incluye la espera desde el momento previsto; si se aleja del servicio,
+        // las operaciones se encolan (clientes ocupados) y medir solo el servicio ocultaría esa espera
+        long servicioP99 = servicioTotal.getValueAtPercentile(99);
+        long respuestaP99 = respuestaTotal.getValueAtPercentile(99);
+        boolean omision = respuestaP99 > 2 * servicioP99 && respuestaP99 - servicioP99 > TimeUnit.MILLISECONDS.toNanos(1);
+        if (omision) {
+            consola.println("OMISIÓN COORDINADA: la respuesta p99 (" + ms(respuestaP99) + " ms) supera con creces al servicio p99 (" +
+                    ms(servicioP99) + " ms): las llegadas esperan cliente libre y el sistema no sostiene " + fmt(tasa) +
+                    " llegadas/s con " + clientes + " clientes. Use los percentiles de respuesta.");
+        } else {
+            consola.println("Sin omisión coordinada: la respuesta p99 (" + ms(respuestaP99) + " ms) sigue al servicio p99 (" +
+                    ms(servicioP99) + " ms).");
+        }
+        // La corrección de HdrHistogram estima la respuesta a partir del servicio: cada operación que tardó más que
+        // el intervalo esperado entre llegadas de un mismo cliente añade las llegadas que habría hecho esperar
+        long intervaloCliente = (long) (intervaloMedio * clientes);
+        Histogram servicioCorregido = servicioTotal.copyCorrectedForCoordinatedOmission(intervaloCliente);
+        consola.println("Servicio corregido por HdrHistogram (intervalo " + ms(intervaloCliente) + " ms por cliente): " +
+                percentiles(servicioCorregido) + " ms.");
+        if (salida != null) {
+            String archivo = salida + "." + fmt(tasa) + ".hgrm";
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(Paths.get(archivo)), true, StandardCharsets.UTF_8)) {
+                respuestaTotal.outputPercentileDistribution(hgrm, 1e6); // En milisegundos
+            }
+            consola.println("Distribución de la respuesta guardada en " + archivo + ".");
+        }
+        informe.put(etapa + "llegadas", Long.toString(llegadas));
+        informe.put(etapa + "rendimiento", fmt(rendimiento));
+        informe.put(etapa + "omisionCoordinada", Boolean.toString(omision));
+        informe.put(etapa + "rechazos", Long.toString(rechazos));
+        informe.put(etapa + "errores", Long.toString(errores));
+        guardarPercentiles(informe, etapa + "total.servicio.", servicioTotal);
+        guardarPercentiles(informe, etapa + "total.respuesta.", respuestaTotal);
+        guardarPercentiles(informe, etapa + "total.servicioCorregido.", servicioCorregido);
+        guardarPercentiles(informe, etapa + "retrasoGenerador.", retrasoGenerador);
+    }
+
+    /**
+     * Una llegada: espera un cliente libre, ejecuta la operación y la mide (si 'medidas' no es null).
+     */
+    private void atender(String operacion, long debiaEmpezar, Map<String, Medidas> medidas, Semaphore puestos) {
+        puestos.acquireUninterruptibly();
+        try {
+            long inicio = System.nanoTime();
+            String ejecutada = operacion;
+            boolean rechazo = false;
+            boolean error = false;
+            try {
+                ejecutada = ejecutar(operacion);
+            } catch (HotelException e) {
+                rechazo = true;
+            } catch (RuntimeException e) {
+                error = true;
+            }
+            long fin = System.nanoTime();
+            if (medidas != null) {
+                Medidas m = medidas.get(ejecutada);
+                m.servicio.recordValue(fin - inicio);
+                m.respuesta.recordValue(Math.max(0, fin - debiaEmpezar)); // Un despertar anticipado la haría negativa
+                if (rechazo) {
+                    m.rechazos.increment();
+                } else if (error) {
+                    m.errores.increment();
+                }
+            }
+        } finally {
+            puestos.release();
+        }
+    }
+
+    /**
+     * Ejecuta una operación sobre el hotel.
+     * @return La operación que se ejecutó de verdad (crearReserva si la pedida no tenía sobre qué actuar).
+     */
+    private String ejecutar(String operacion) throws HotelException {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        switch (operacion) {
+            case "realizarCheckIn": {
+                Integer id = confirmadas.pollFirst();
+                if (id == null) {
+                    break;
+                }
+                try {
+                    hotel.realizarCheckIn(id);
+                } catch (HotelException e) {
+                    confirmadas.offerLast(id); // Habitación ocupada por otra estancia: se reintenta más tarde
+                    throw e;
+                }
+                conCheckIn.offerLast(id);
+                return operacion;
+            }
+            case "realizarCheckOut": {
+                Integer id = conCheckIn.pollFirst();
+                if (id == null) {
+                    break;
+                }
+                hotel.realizarCheckOut(id);
+                enLimpieza.offerLast(habitacionDeReserva.remove(id));
+                return operacion;
+            }
+            case "cancelarReserva": {
+                Integer id = confirmadas.pollLast();
+                if (id == null) {
+                    break;
+                }
+                habitacionDeReserva.remove(id);
+                hotel.cancelarReserva(id);
+                return operacion;
+            }
+            case "limpieza": {
+                Integer numero = enLimpieza.pollFirst();
+                if (numero == null) {
+                    break;
+                }
+                hotel.actualizarEstadoHabitacion(numero, "Disponible");
+                return operacion;
+            }
+            case "reporte":
+                if (r.nextBoolean()) {
+                    hotel.calcularResumen();
+                } else {
+                    LocalDate checkin = LocalDate.now().plusDays(1 + r.nextInt(90));
+                    hotel.cotizarEstancia(checkin, checkin.plusDays(1 + r.nextInt(4)));
+                }
+                return operacion;
+            default:
+                break;
+        }
+        // crearReserva, o una operación sin reservas/habitaciones sobre las que actuar
+        Huesped huesped = huespedes.get(r.nextInt(huespedes.size()));
+        int numero = numeros[r.nextInt(numeros.length)];
+        LocalDate checkin = LocalDate.now().plusDays(1 + r.nextInt(90));
+        int id = hotel.crearReserva(huesped, numero, checkin, checkin.plusDays(1 + r.nextInt(4)), 1 + r.nextInt(2))
+                .getIdReservaInterno();
+        habitacionDeReserva.put(id, numero);
+        confirmadas.offerLast(id);
+        return "crearReserva";
+    }
+
+    /**
+     * Crea (o reutiliza, en una DB real) las habitaciones y los huéspedes de la prueba.
+     */
+    private void poblar(int cantidadHuespedes) throws HotelException {
+        for (int i = 0; i < numeros.length; i++) {
+            int numero = PRIMER_NUMERO + i;
+            numeros[i] = numero;
+            if (hotel.buscarHabitacionPorNumero(numero).isEmpty()) {
+                switch (i % 4) {
+                    case 0:
+                    case 1:
+                        hotel.agregarHabitacion(new HabitacionSimple(numero, 50 + azar.nextInt(30)));
+                        break;
+                    case 2:
+                        hotel.agregarHabitacion(new HabitacionDoble(numero, 80 + azar.nextInt(40)));
+                        break;
+                    default:
+                        hotel.agregarHabitacion(new HabitacionSuite(numero, 150 + azar.nextInt(100)));
+                }
+            }
+        }
+        for (int i = 0; i < cantidadHuespedes; i++) {
+            String dni = "CARGA" + i;
+            Huesped huesped = hotel.buscarHuespedPorDni(dni).orElse(null);
+            if (huesped == null) {
+                huesped = hotel.registrarHuesped("Cliente" + i, "Prueba", dni, "cliente" + i + "@carga.local", "600" + i);
+            }
+            huespedes.add(huesped);
+        }
+        // Cachés que la fachada carga la primera vez que se usan: se cargan aquí para no medir esa carga única
+        hotel.precargar();
+    }
+
+    private void leerMezcla(String mezcla) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        int total = 0;
+        for (String par : mezcla.split(",")) {
+            String[] partes = par.trim().split(":");
+            String operacion = partes[0].trim();
+            if (!List.of(OPERACIONES).contains(operacion)) {
+                throw new IllegalArgumentException("Operación desconocida en la mezcla: " + operacion);
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            pesos.put(operacion, peso);
+            total += peso;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("La mezcla no tiene ninguna operación con peso.");
+        }
+        int i = 0;
+        double acumulado = 0;
+        for (Map.Entry<String, Integer> e : pesos.entrySet()) {
+            acumulado += e.getValue() * (double) ruleta.length / total;
+            while (i < Math.round(acumulado)) {
+                ruleta[i++] = e.getKey();
+            }
+        }
+        while (i < ruleta.length) {
+            ruleta[i++] = pesos.keySet().iterator().next();
+        }
+    }
+
+    /**
+     * Compara el informe actual con el de otra versión: muestra cada medida común con su variación y marca
+     * las que empeoran más de un 10% (latencias que suben o rendimiento que baja).
+     */
+    private static void comparar(String archivo, Map<String, String> actual, PrintStream consola) {
+        Properties anterior = new Properties();
+        try (Reader r = Files.newBufferedReader(Paths.get(archivo), StandardCharsets.UTF_8)) {
+            anterior.load(r);
+        } catch (IOException e) {
+            consola.println("No se pudo leer el informe a comparar '" + archivo + "': " + e.getMessage());
+            return;
+        }
+        consola.println("\n--- Comparación con " + archivo + " ---");
+        int peores = 0;
+        for (Map.Entry<String, String> e : actual.entrySet()) {
+            String clave = e.getKey();
+            boolean latencia = clave.endsWith("_ms");
+            boolean rendimiento = clave.endsWith(".rendimiento");
+            String antes = anterior.getProperty(clave);
+            if (antes == null || !(latencia || rendimiento)) {
+                continue;
+            }
+            double a = Double.parseDouble(antes);
+            double b = Double.parseDouble(e.getValue());
+            double variacion = a != 0 ? (b - a) / a * 100 : 0;
+            boolean peor = latencia ? variacion > 10 : variacion < -10;
+            if (peor) {
+                peores++;
+            }
+            consola.println(String.format("%-60s %12s -> %12s (%+.1f%%)%s", clave, antes, e.getValue(), variacion, peor ? "  << PEOR" : ""));
+        }
+        consola.println(peores == 0 ? "Ninguna medida empeora más de un 10%." : peores + " medidas empeoran más de un 10%.");
+    }
+
+    private static void guardarPercentiles(Map<String, String> informe, String prefijo, Histogram h) {
+        informe.put(prefijo + "p50_ms", ms(h.getValueAtPercentile(50)));
+        informe.put(prefijo + "p99_ms", ms(h.getValueAtPercentile(99)));
+        informe.put(prefijo + "p999_ms", ms(h.getValueAtPercentile(99.9)));
+        informe.put(prefijo + "max_ms", ms(h.getMaxValue()));
+    }
+
+    private static String percentiles(Histogram h) {
+        return ms(h.getValueAtPercentile(50)) + "/" + ms(h.getValueAtPercentile(99)) + "/" +
+                ms(h.getValueAtPercentile(99.9)) + "/" + ms(h.getMaxValue());
+    }
+
+    private static String ms(long nanos) {
+        return String.format(java.util.Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String fmt(double valor) {
+        return valor == Math.rint(valor) ? Long.toString((long) valor) : String.format(java.util.Locale.ROOT, "%.1f", valor);
+    }
+}
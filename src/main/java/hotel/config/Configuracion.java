@@ -0,0 +1,299 @@
+package hotel.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Configuración externa del sistema (conexión, réplica, lotes, timeouts y cachés).
+ *
+ * Los valores se resuelven por capas, de menor a mayor prioridad:
+ * 1. hotel.properties incluido en el jar (valores por defecto).
+ * 2. El archivo externo indicado por -Dhotel.config o HOTEL_CONFIG (si no, ./hotel.properties si existe).
+ * 3. Variables de entorno: la clave en mayúsculas con '_' en lugar de '.' (ej: HOTEL_DB_PASSWORD).
+ * 4. Propiedades del sistema (-Dhotel.db.password=...).
+ *
+ * El archivo externo se vigila: cuando cambia se vuelve a leer y se aplican en caliente solo las claves
+ * seguras (RECARGABLES); el resto de cambios se ignoran hasta reiniciar y se avisa por consola.
+ */
+public final class Configuracion {
+    private static final String RECURSO_POR_DEFECTO = "/hotel.properties";
+
+    // Claves que pueden cambiar sin reiniciar: se leen en cada uso o tienen un oyente que las aplica
+    private static final Set<String> RECARGABLES = Set.of(
+            "hotel.dao.tamanoLote",
+            "hotel.dao.fetchSize",
+            "hotel.dao.timeoutConsultaSegundos",
+            "hotel.cache.servicios.ttlSegundos",
+            "hotel.db.replica.retrasoMaximoSegundos",
+            "hotel.overbooking.maximo",
+            "hotel.overbooking.minimoReservas",
+            "hotel.precios.ocupacion",
+            "hotel.precios.ocupacion.Simple",
+            "hotel.precios.ocupacion.Doble",
+            "hotel.precios.ocupacion.Suite",
+            "hotel.precios.finDeSemana",
+            "hotel.tareas.noShow.diasGracia",
+            "hotel.tareas.limpieza.slaMinutos",
+            "hotel.tareas.tamanoLote",
+            "hotel.tareas.pausaEntreLotesMs",
+            "hotel.tareas.maxLotesPorEjecucion",
+            "hotel.habitaciones.escrituraDiferida.maxPendientes");
+
+    private static final Path ARCHIVO = resolverArchivo();
+    private static volatile Properties valores = cargar();
+    private static final List<Runnable> OYENTES = new CopyOnWriteArrayList<>();
+    private static Thread vigilante;
+
+    private Configuracion() {
+    }
+
+    /**
+     * Retorna el valor de una clave.
+     * @param clave La clave (ej: "hotel.db.url").
+     * @return El valor configurado, o null si no está definida en ninguna capa.
+     */
+    public static String get(String clave) {
+        return valores.getProperty(clave);
+    }
+
+    /**
+     * Retorna el valor de una clave, o el valor por defecto si no está definida.
+     */
+    public static String get(String clave, String porDefecto) {
+        String valor = get(clave);
+        return valor != null ? valor : porDefecto;
+    }
+
+    /**
+     * Retorna el valor entero de una clave, o el valor por defecto si no está definida o no es un número.
+     */
+    public static int getInt(String clave, int porDefecto) {
+        String valor = get(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor no numérico para " + clave + ": '" + valor + "'. Se usa " + porDefecto + ".");
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Retorna el valor long de una clave, o el valor por defecto si no está definida o no es un número.
+     */
+    public static long getLong(String clave, long porDefecto) {
+        String valor = get(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor no numérico para " + clave + ": '" + valor + "'. Se usa " + porDefecto + ".");
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Retorna el valor decimal de una clave, o el valor por defecto si no está definida o no es un número.
+     */
+    public static double getDouble(String clave, double porDefecto) {
+        String valor = get(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Double.parseDouble(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor no numérico para " + clave + ": '" + valor + "'. Se usa " + porDefecto + ".");
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Registro de un oyente de recarga; close() lo quita.
+     */
+    public interface Suscripcion extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Registra un oyente que se ejecuta después de cada recarga del archivo, para aplicar los nuevos
+     * valores de las claves recargables que no se leen en cada uso.
+     * @param oyente La acción a ejecutar.
+     * @return La suscripción, para quitar el oyente cuando su dueño se cierra.
+     */
+    public static Suscripcion alRecargar(Runnable oyente) {
+        OYENTES.add(oyente);
+        return () -> OYENTES.remove(oyente);
+    }
+
+    /**
+     * Vuelve a leer todas las capas y publica los cambios de las claves recargables.
+     * Los cambios en claves no recargables se descartan (se mantiene el valor actual).
+     */
+    public static synchronized void recargar() {
+        if (ARCHIVO != null && !archivoLegible()) {
+            return; // Archivo a medio escribir o borrado: se espera al siguiente cambio
+        }
+        Properties actuales = valores;
+        Properties nuevos = cargar();
+        Properties aplicados = new Properties();
+        aplicados.putAll(actuales);
+
+        Set<String> claves = new TreeSet<>(actuales.stringPropertyNames());
+        claves.addAll(nuevos.stringPropertyNames());
+        int cambios = 0;
+        for (String clave : claves) {
+            String anterior = actuales.getProperty(clave);
+            String nuevo = nuevos.getProperty(clave);
+            if (Objects.equals(anterior, nuevo)) {
+                continue;
+            }
+            if (!RECARGABLES.contains(clave)) {
+                System.err.println("Configuración: el cambio de " + clave + " requiere reiniciar, se ignora.");
+                continue;
+            }
+            if (nuevo == null) {
+                aplicados.remove(clave);
+            } else {
+                aplicados.setProperty(clave, nuevo);
+            }
+            System.out.println("Configuración: " + clave + " = " + (nuevo != null ? nuevo : "(por defecto)"));
+            cambios++;
+        }
+        if (cambios == 0) {
+            return;
+        }
+        valores = aplicados;
+        for (Runnable oyente : OYENTES) {
+            try {
+                oyente.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error al aplicar la configuración recargada: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Empieza a vigilar el archivo de configuración externo en un hilo daemon y lo recarga cuando cambia.
+     * No hace nada si no hay archivo externo o si ya se está vigilando.
+     */
+    public static synchronized void vigilarArchivo() {
+        if (ARCHIVO == null || vigilante != null) {
+            return;
+        }
+        Path directorio = ARCHIVO.toAbsolutePath().getParent();
+        Path nombre = ARCHIVO.getFileName();
+        vigilante = new Thread(() -> {
+            try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+                directorio.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean afectado = false;
+                    for (WatchEvent<?> evento : key.pollEvents()) {
+                        if (nombre.equals(evento.context())) {
+                            afectado = true;
+                        }
+                    }
+                    if (afectado) {
+                        recargar();
+                    }
+                    if (!key.reset()) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("No se puede vigilar el archivo de configuración " + ARCHIVO + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException e) {
+                // Fin de la vigilancia
+            }
+        }, "configuracion-vigilante");
+        vigilante.setDaemon(true);
+        vigilante.start();
+    }
+
+    /**
+     * @return La ruta del archivo de configuración externo, o null si no hay ninguno.
+     */
+    public static Path getArchivo() {
+        return ARCHIVO;
+    }
+
+    private static boolean archivoLegible() {
+        try {
+            return Files.isRegularFile(ARCHIVO) && Files.size(ARCHIVO) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path resolverArchivo() {
+        String ruta = System.getProperty("hotel.config", System.getenv("HOTEL_CONFIG"));
+        if (ruta != null && !ruta.isBlank()) {
+            return Paths.get(ruta);
+        }
+        Path local = Paths.get("hotel.properties");
+        return Files.isRegularFile(local) ? local : null;
+    }
+
+    /**
+     * Lee todas las capas y retorna los valores efectivos.
+     */
+    private static Properties cargar() {
+        Properties propiedades = new Properties();
+        try (InputStream in = Configuracion.class.getResourceAsStream(RECURSO_POR_DEFECTO)) {
+            if (in != null) {
+                propiedades.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo leer la configuración por defecto: " + e.getMessage());
+        }
+
+        if (ARCHIVO != null) {
+            try (Reader reader = Files.newBufferedReader(ARCHIVO, StandardCharsets.UTF_8)) {
+                propiedades.load(reader);
+            } catch (IOException e) {
+                System.err.println("No se pudo leer el archivo de configuración " + ARCHIVO + ": " + e.getMessage());
+            }
+        }
+
+        Map<String, String> entorno = System.getenv();
+        for (String clave : propiedades.stringPropertyNames()) {
+            String variable = clave.toUpperCase().replace('.', '_');
+            if (entorno.containsKey(variable)) {
+                propiedades.setProperty(clave, entorno.get(variable));
+            }
+        }
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith("hotel.") && !clave.equals("hotel.config")) {
+                propiedades.setProperty(clave, System.getProperty(clave));
+            }
+        }
+        return propiedades;
+    }
+}
@@ -1,18 +1,265 @@
 package hotel.config.db;
 
+import hotel.config.Configuracion;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Clase de utilidad para gestionar la conexión a la base de datos MySQL.
- * Configura los parámetros de conexión y proporciona un método para obtener una conexión.
+ * Clase de utilidad para gestionar la conexión a la base de datos MySQL, o a la base de datos embebida H2
+ * con hotel.db.modo=embebida (los DAOs JDBC son los mismos en los dos modos).
+ * Los parámetros de conexión se leen de la configuración externa (ver Configuracion y hotel.properties).
  */
 public class Conexion {
-    // Parámetros de conexión a la base de datos
-    private static final String URL = "jdbc:mysql://localhost:12303/hotel_nova_db";
-    private static final String USER = "avnadmin";
-    private static final String PASSWORD = "root_password";
+    // Parámetros de conexión a la base de datos (se fijan al arrancar; cambiarlos requiere reiniciar)
+    private static final String URL_SERVIDOR = Configuracion.get("hotel.db.url", "jdbc:mysql://localhost:12303/");
+    private static final String ESQUEMA_PRINCIPAL = Configuracion.get("hotel.db.esquema", "hotel_nova_db");
+    private static final String OPCIONES = "?" + Configuracion.get("hotel.db.opciones", "rewriteBatchedStatements=true");
+    private static final String USER = Configuracion.get("hotel.db.user");
+    private static final String PASSWORD = Configuracion.get("hotel.db.password");
+
+    // Réplica de lectura opcional para los reportes (hotel.db.replica.url vacío = sin réplica)
+    private static final String REPLICA_URL_SERVIDOR = Configuracion.get("hotel.db.replica.url");
+    private static final String REPLICA_USER = Configuracion.get("hotel.db.replica.user", "");
+    private static final String REPLICA_PASSWORD = Configuracion.get("hotel.db.replica.password", "");
+    private static final long REPLICA_INTERVALO_COMPROBACION_MS = Configuracion.getLong("hotel.db.replica.intervaloComprobacionMs", 5000);
+
+    // Base de datos embebida H2 (hotel.db.modo=embebida): un archivo por esquema en hotel.db.embebida.directorio,
+    // en el mismo proceso y sin servidor MySQL. Con MODE=MySQL acepta los scripts de db/ y el SQL de los DAOs
+    private static final boolean EMBEBIDA = Configuracion.get("hotel.db.modo", "mysql").trim().equals("embebida");
+    private static final String DIRECTORIO_EMBEBIDA = Configuracion.get("hotel.db.embebida.directorio", "datos");
+    private static final String OPCIONES_EMBEBIDA = Configuracion.get("hotel.db.embebida.opciones",
+            "MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+    // Directorio de los scripts SQL (db.sql, propiedad.sql, catalogo.sql)
+    private static final String DIRECTORIO_SCRIPTS = Configuracion.get("hotel.db.scripts", "db");
+
+    // Pool de conexiones de cada esquema (0 = una conexión nueva por cada getConnection)
+    private static final int POOL_MAXIMO = Configuracion.getInt("hotel.db.pool.maximo", 20);
+
+    // Un DataSource por esquema (shard). El esquema principal es el del Hotel Nova y el catálogo de la cadena.
+    private static final Map<String, DataSource> DATA_SOURCES = new ConcurrentHashMap<>();
+    private static final Map<String, DataSourceLecturas> DATA_SOURCES_LECTURA = new ConcurrentHashMap<>();
+
+    static {
+        // El retraso máximo de la réplica se puede ajustar en caliente
+        Configuracion.alRecargar(() -> {
+            for (DataSourceLecturas lecturas : DATA_SOURCES_LECTURA.values()) {
+                lecturas.setRetrasoMaximoSegundos(getRetrasoMaximoReplica());
+            }
+        });
+    }
+
+    /**
+     * Retorna el DataSource del esquema principal (hotel_nova_db).
+     * @return El DataSource por defecto de los DAOs.
+     */
+    public static DataSource getDataSource() {
+        return getDataSource(ESQUEMA_PRINCIPAL);
+    }
+
+    /**
+     * Retorna el DataSource de un esquema del mismo servidor MySQL (o de la base embebida del mismo directorio).
+     * Cada hotel de la cadena vive en su propio esquema, con las mismas tablas (ver db/propiedad.sql).
+     * @param esquema El nombre del esquema.
+     * @return El DataSource de ese esquema (se crea la primera vez y luego se reutiliza).
+     */
+    public static DataSource getDataSource(String esquema) {
+        if (!esquema.matches("[A-Za-z0-9_]+")) {
+            throw new IllegalArgumentException("Nombre de esquema no válido: " + esquema);
+        }
+        return DATA_SOURCES.computeIfAbsent(esquema, e -> {
+            if (EMBEBIDA) {
+                return getDataSourceEmbebido(Paths.get(DIRECTORIO_EMBEBIDA), e);
+            }
+            cargarDriver();
+            DataSource simple = new DataSourceSimple(URL_SERVIDOR + e + OPCIONES, USER, PASSWORD);
+            return POOL_MAXIMO > 0 ? new DataSourcePool(simple, POOL_MAXIMO) : simple;
+        });
+    }
+
+    /**
+     * Crea un DataSource nuevo (con pool, si hotel.db.pool.maximo > 0) sobre la base de datos embebida H2 de un
+     * esquema: el archivo 'esquema'.mv.db del directorio indicado, que H2 crea vacío si no existe
+     * (ver prepararEsquemaEmbebido). El llamador es quien lo cierra, si es un DataSourcePool.
+     * @param directorio El directorio de los archivos de la base de datos.
+     * @param esquema El nombre del esquema.
+     * @return El DataSource de ese esquema.
+     */
+    public static DataSource getDataSourceEmbebido(Path directorio, String esquema) {
+        // H2 no admite rutas relativas sin "./": se usa la ruta absoluta
+        DataSource simple = new DataSourceSimple("jdbc:h2:file:" + directorio.toAbsolutePath().resolve(esquema) +
+                ";" + OPCIONES_EMBEBIDA, "sa", "");
+        return POOL_MAXIMO > 0 ? new DataSourcePool(simple, POOL_MAXIMO) : simple;
+    }
+
+    /**
+     * @return true si se usa la base de datos embebida H2 (hotel.db.modo=embebida) en lugar de MySQL.
+     */
+    public static boolean isEmbebida() {
+        return EMBEBIDA;
+    }
+
+    /**
+     * Indica si una conexión es de MySQL, para lo poco que depende del driver (ej: el fetch size de transmisión).
+     * @param conn La conexión.
+     * @return true si la base de datos es MySQL.
+     * @throws SQLException Si no se pueden leer los metadatos de la conexión.
+     */
+    public static boolean isMySql(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName().equals("MySQL");
+    }
+
+    /**
+     * Retorna la ruta de un script SQL del directorio de scripts (hotel.db.scripts, por defecto "db").
+     * @param nombre El nombre del archivo (ej: "db.sql").
+     * @return La ruta del script.
+     */
+    public static Path getScript(String nombre) {
+        return Paths.get(DIRECTORIO_SCRIPTS, nombre);
+    }
+
+    /**
+     * Crea las tablas que falten en la base de datos embebida: el esquema principal (db/propiedad.sql y
+     * db/catalogo.sql) la primera vez, y el de cada hotel del catálogo PROPIEDADES que aún no las tenga
+     * (db/propiedad.sql). A diferencia de db.sql en MySQL, no borra nada: los datos se conservan entre arranques.
+     * @throws SQLException Si falla alguna sentencia.
+     * @throws IOException Si no se puede leer algún script.
+     */
+    public static void prepararEmbebida() throws SQLException, IOException {
+        prepararEsquemaEmbebido(getDataSource(), true);
+        List<String> esquemas = new ArrayList<>();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT esquema FROM PROPIEDADES")) {
+            while (rs.next()) {
+                esquemas.add(rs.getString("esquema"));
+            }
+        }
+        for (String esquema : esquemas) {
+            if (!esquema.equals(ESQUEMA_PRINCIPAL)) {
+                prepararEsquemaEmbebido(getDataSource(esquema), false);
+            }
+        }
+    }
+
+    /**
+     * Crea las tablas de un esquema de la base de datos embebida si todavía no existen.
+     * @param dataSource El DataSource del esquema.
+     * @param principal true para crear también el catálogo de la cadena (PROPIEDADES y GENERACION).
+     * @return true si se crearon las tablas, false si ya existían.
+     * @throws SQLException Si falla alguna sentencia (el DDL no se deshace: hay que borrar los archivos del esquema).
+     * @throws IOException Si no se puede leer algún script.
+     */
+    public static boolean prepararEsquemaEmbebido(DataSource dataSource, boolean principal) throws SQLException, IOException {
+        try (Connection conn = dataSource.getConnection()) {
+            if (existeTabla(conn, principal ? "PROPIEDADES" : "HABITACIONES")) {
+                return false;
+            }
+            ScriptSql.ejecutar(conn, getScript("propiedad.sql"));
+            if (principal) {
+                ScriptSql.ejecutar(conn, getScript("catalogo.sql"));
+            }
+            return true;
+        }
+    }
+
+    // Sin distinguir mayúsculas: H2 guarda los nombres en minúsculas con DATABASE_TO_LOWER
+    private static boolean existeTabla(Connection conn, String tabla) throws SQLException {
+        DatabaseMetaData metadatos = conn.getMetaData();
+        try (ResultSet rs = metadatos.getTables(null, null, "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                if (rs.getString("TABLE_NAME").equalsIgnoreCase(tabla)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna el DataSource para las consultas de reportes del esquema principal.
+     * @return La réplica de lectura (con fallback a la primaria) si está configurada, o la primaria.
+     */
+    public static DataSource getDataSourceLecturas() {
+        return getDataSourceLecturas(ESQUEMA_PRINCIPAL);
+    }
+
+    /**
+     * Retorna el DataSource para las consultas de reportes de un esquema.
+     * Si hay réplica configurada (hotel.db.replica.url, solo con MySQL), las lecturas van a la réplica mientras su retraso
+     * no supere hotel.db.replica.retrasoMaximoSegundos; si no, se usa la primaria del esquema.
+     * @param esquema El nombre del esquema.
+     * @return El DataSource de lectura de ese esquema.
+     */
+    public static DataSource getDataSourceLecturas(String esquema) {
+        DataSource primaria = getDataSource(esquema);
+        if (EMBEBIDA || REPLICA_URL_SERVIDOR == null || REPLICA_URL_SERVIDOR.isBlank()) {
+            return primaria;
+        }
+        return DATA_SOURCES_LECTURA.computeIfAbsent(esquema, e -> new DataSourceLecturas(primaria,
+                new DataSourceSimple(REPLICA_URL_SERVIDOR + e + OPCIONES,
+                        REPLICA_USER.isEmpty() ? USER : REPLICA_USER,
+                        REPLICA_USER.isEmpty() ? PASSWORD : REPLICA_PASSWORD),
+                getRetrasoMaximoReplica(), REPLICA_INTERVALO_COMPROBACION_MS));
+    }
+
+    /**
+     * @return El número máximo de filas que los DAOs envían en cada lote (hotel.dao.tamanoLote, mínimo 1).
+     */
+    public static int getTamanoLote() {
+        return Math.max(1, Configuracion.getInt("hotel.dao.tamanoLote", 500));
+    }
+
+    /**
+     * Aplica a una sentencia de reporte el fetch size y el timeout configurados
+     * (hotel.dao.fetchSize y hotel.dao.timeoutConsultaSegundos). Se leen en cada uso, por lo que
+     * los cambios en el archivo de configuración afectan a las siguientes consultas.
+     * @param stmt La sentencia a configurar.
+     * @throws SQLException Si el driver rechaza alguno de los valores.
+     */
+    public static void configurarConsultaReporte(Statement stmt) throws SQLException {
+        int fetchSize = Configuracion.getInt("hotel.dao.fetchSize", 0);
+        if (fetchSize > 0) {
+            stmt.setFetchSize(fetchSize);
+        }
+        stmt.setQueryTimeout(Math.max(0, Configuracion.getInt("hotel.dao.timeoutConsultaSegundos", 0)));
+    }
+
+    private static int getRetrasoMaximoReplica() {
+        return Configuracion.getInt("hotel.db.replica.retrasoMaximoSegundos", 5);
+    }
+
+    /**
+     * Abre por adelantado las conexiones del pool del esquema principal (hotel.db.pool.minimo, en paralelo)
+     * y prepara en cada una las sentencias indicadas (se conservan con useServerPrepStmts=true y cachePrepStmts=true
+     * en hotel.db.opciones). Sin pool, solo carga el driver y comprueba que la conexión es válida.
+     * @param sentencias Las sentencias SQL más frecuentes.
+     * @return El número de conexiones abiertas.
+     * @throws SQLException Si no se puede conectar con la base de datos.
+     */
+    public static int precalentar(List<String> sentencias) throws SQLException {
+        DataSource dataSource = getDataSource();
+        if (dataSource instanceof DataSourcePool) {
+            return ((DataSourcePool) dataSource).precalentar(Configuracion.getInt("hotel.db.pool.minimo", 4), sentencias);
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            if (!conn.isValid(5)) {
+                throw new SQLException("La conexión con la base de datos no es válida.");
+            }
+            return 1;
+        }
+    }
 
     /**
      * Establece y retorna una conexión a la base de datos.
@@ -20,15 +267,19 @@ public class Conexion {
      * @throws SQLException Si ocurre un error al conectar con la base de datos.
      */
     public static Connection getConnection() throws SQLException {
-        // Cargar el driver JDBC (no es estrictamente necesario en JDBC 4.0+ pero es buena práctica)
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Carga el driver JDBC (no es estrictamente necesario en JDBC 4.0+ pero es buena práctica). Con el arranque
+     * rápido se hace en segundo plano, dentro de precalentar, mientras arranca el resto de la aplicación.
+     */
+    private static void cargarDriver() {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
         } catch (ClassNotFoundException e) {
-            System.err.println("Error: No se pudo cargar el controlador JDBC de MySQL.");
-            throw new SQLException("No se encontró el controlador JDBC: " + e.getMessage());
+            System.err.println("Error: No se pudo cargar el controlador JDBC de MySQL: " + e.getMessage());
         }
-        // Retornar la conexión utilizando DriverManager
-        return DriverManager.getConnection(URL, USER, PASSWORD);
     }
 
     /**
@@ -44,4 +295,19 @@ public class Conexion {
             }
         }
     }
+
+    /**
+     * Deshace la transacción en curso de una conexión, si no es nula.
+     * Los errores se registran pero no se propagan, para no ocultar el error original.
+     * @param connection La conexión cuya transacción se quiere deshacer.
+     */
+    public static void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error al deshacer la transacción: " + e.getMessage());
+            }
+        }
+    }
 }
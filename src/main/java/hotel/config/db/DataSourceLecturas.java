@@ -0,0 +1,109 @@
+package hotel.config.db;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource para consultas de solo lectura de los reportes (separación lectura/escritura).
+ * Entrega conexiones de la réplica mientras esta responda y su retraso de replicación no supere
+ * el máximo tolerado; en caso contrario entrega conexiones de la primaria (fallback).
+ *
+ * El retraso se consulta como mucho una vez por intervalo de comprobación, para no añadir un viaje
+ * extra a cada consulta. Si la réplica falla al conectar, se da por no disponible hasta la siguiente
+ * comprobación. Las escrituras y las lecturas que deben ver lo recién escrito no pasan por aquí:
+ * los DAOs las hacen siempre contra la primaria.
+ */
+public class DataSourceLecturas extends DataSourceBase {
+    private final DataSource primaria;
+    private final DataSource replica;
+    private volatile int retrasoMaximoSegundos;
+    private final long intervaloComprobacionMs;
+
+    private volatile boolean replicaDisponible = true;
+    private volatile long ultimaComprobacion = 0;
+
+    /**
+     * Constructor de la clase DataSourceLecturas.
+     * @param primaria El DataSource de la base de datos primaria (escrituras y fallback).
+     * @param replica El DataSource de la réplica de lectura.
+     * @param retrasoMaximoSegundos Retraso de replicación máximo tolerado para leer de la réplica.
+     * @param intervaloComprobacionMs Cada cuánto se vuelve a consultar el retraso de la réplica.
+     */
+    public DataSourceLecturas(DataSource primaria, DataSource replica, int retrasoMaximoSegundos,
+                              long intervaloComprobacionMs) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.retrasoMaximoSegundos = retrasoMaximoSegundos;
+        this.intervaloComprobacionMs = intervaloComprobacionMs;
+    }
+
+    /**
+     * Retorna una conexión para consultas de reportes: de la réplica si está sana y al día,
+     * o de la primaria en caso contrario.
+     * @return Una conexión de solo lectura (la de la primaria no se marca como tal).
+     * @throws SQLException Si tampoco se puede conectar con la primaria.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        long ahora = System.currentTimeMillis();
+        if (ahora - ultimaComprobacion >= intervaloComprobacionMs) {
+            ultimaComprobacion = ahora;
+            replicaDisponible = comprobarReplica();
+        }
+        if (replicaDisponible) {
+            try {
+                Connection conn = replica.getConnection();
+                conn.setReadOnly(true);
+                return conn;
+            } catch (SQLException e) {
+                System.err.println("Réplica de lectura no disponible, se usa la primaria: " + e.getMessage());
+                replicaDisponible = false;
+            }
+        }
+        return primaria.getConnection();
+    }
+
+    public boolean isReplicaDisponible() {
+        return replicaDisponible;
+    }
+
+    public int getRetrasoMaximoSegundos() {
+        return retrasoMaximoSegundos;
+    }
+
+    public void setRetrasoMaximoSegundos(int retrasoMaximoSegundos) {
+        this.retrasoMaximoSegundos = retrasoMaximoSegundos;
+    }
+
+    /**
+     * Consulta el retraso de replicación (Seconds_Behind_Source) y decide si la réplica puede usarse.
+     * Si el servidor no es réplica (no devuelve estado) se considera al día; si la replicación está
+     * detenida (retraso NULL) o supera el máximo, no se usa.
+     */
+    private boolean comprobarReplica() {
+        try (Connection conn = replica.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+
+            if (!rs.next()) {
+                return true;
+            }
+            long retraso = rs.getLong("Seconds_Behind_Source");
+            if (rs.wasNull()) {
+                System.err.println("Réplica de lectura con la replicación detenida, se usa la primaria.");
+                return false;
+            }
+            if (retraso > retrasoMaximoSegundos) {
+                System.err.println("Réplica de lectura con " + retraso + " s de retraso (máximo " + retrasoMaximoSegundos + " s), se usa la primaria.");
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("No se pudo comprobar la réplica de lectura, se usa la primaria: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package hotel.config.db;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource con un pool de conexiones sobre otro DataSource (normalmente un DataSourceSimple): las conexiones
+ * cerradas por los DAOs vuelven al pool en lugar de cerrarse, y la siguiente getConnection las reutiliza sin
+ * volver a conectar ni autenticarse.
+ *
+ * Como mucho hay 'maximo' conexiones prestadas a la vez; las demás esperan una libre hasta el login timeout
+ * (30 s si no se fija). Una conexión devuelta con una transacción a medias se deshace y se deja en
+ * auto-commit; las que llevan más de un minuto sin usarse se validan antes de prestarlas.
+ * Con precalentar, se abren conexiones por adelantado (en paralelo) y se preparan en cada una las sentencias
+ * más frecuentes, para que las primeras operaciones no paguen la conexión ni la preparación. La preparación
+ * solo se conserva con sentencias preparadas en el servidor y su caché en el driver
+ * (useServerPrepStmts=true y cachePrepStmts=true en hotel.db.opciones); sin ellas solo se abren las conexiones.
+ */
+public class DataSourcePool extends DataSourceBase implements AutoCloseable {
+    private static final long VALIDAR_TRAS_MS = 60_000;
+
+    /**
+     * Una conexión libre y el momento en que se devolvió.
+     */
+    private static final class Libre {
+        final Connection conexion;
+        final long desde;
+
+        Libre(Connection conexion, long desde) {
+            this.conexion = conexion;
+            this.desde = desde;
+        }
+    }
+
+    private final DataSource origen;
+    private final int maximo;
+    private final Semaphore prestadas;
+    private final LinkedBlockingDeque<Libre> libres = new LinkedBlockingDeque<>();
+    private volatile List<String> sentencias = List.of();
+    private volatile boolean cerrado;
+
+    /**
+     * Constructor de la clase DataSourcePool.
+     * @param origen El DataSource que abre las conexiones reales.
+     * @param maximo El número máximo de conexiones prestadas a la vez.
+     */
+    public DataSourcePool(DataSource origen, int maximo) {
+        this.origen = origen;
+        this.maximo = maximo;
+        this.prestadas = new Semaphore(maximo, true);
+    }
+
+    /**
+     * Abre en paralelo conexiones hasta tener 'cantidad' libres (sin superar el máximo) y prepara en cada una
+     * las sentencias indicadas, que también se prepararán en las conexiones que se abran después.
+     * @param cantidad El número de conexiones a dejar abiertas.
+     * @param sentencias Las sentencias SQL a preparar por adelantado.
+     * @return El número de conexiones abiertas.
+     * @throws SQLException Si no se puede abrir alguna conexión.
+     */
+    public int precalentar(int cantidad, List<String> sentencias) throws SQLException {
+        this.sentencias = List.copyOf(sentencias);
+        int abrir = Math.min(cantidad, maximo) - libres.size();
+        List<Future<Connection>> futuros = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < abrir; i++) {
+                futuros.add(hilos.submit(this::abrir));
+            }
+        }
+        SQLException error = null;
+        int abiertas = 0;
+        for (Future<Connection> futuro : futuros) {
+            try {
+                libres.offerLast(new Libre(futuro.get(), System.currentTimeMillis()));
+                abiertas++;
+            } catch (ExecutionException e) {
+                error = e.getCause() instanceof SQLException ? (SQLException) e.getCause() : new SQLException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Precalentamiento del pool interrumpido.");
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return abiertas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado.");
+        }
+        int espera = getLoginTimeout() > 0 ? getLoginTimeout() : 30;
+        try {
+            if (!prestadas.tryAcquire(espera, TimeUnit.SECONDS)) {
+                throw new SQLException("No hay conexiones libres en el pool (máximo " + maximo + ") tras esperar " + espera + " s.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Espera de una conexión del pool interrumpida.");
+        }
+        try {
+            return prestar(tomar());
+        } catch (SQLException | RuntimeException e) {
+            prestadas.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Las conexiones abiertas sin prestar.
+     */
+    public int getLibres() {
+        return libres.size();
+    }
+
+    /**
+     * Cierra las conexiones libres; las prestadas se cierran al devolverse.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        Libre libre;
+        while ((libre = libres.pollFirst()) != null) {
+            cerrarReal(libre.conexion);
+        }
+    }
+
+    /**
+     * Toma la conexión libre usada más recientemente (validándola si lleva tiempo sin usarse) o abre una nueva.
+     */
+    private Connection tomar() throws SQLException {
+        Libre libre;
+        while ((libre = libres.pollFirst()) != null) {
+            if (System.currentTimeMillis() - libre.desde < VALIDAR_TRAS_MS || libre.conexion.isValid(2)) {
+                return libre.conexion;
+            }
+            cerrarReal(libre.conexion); // Cerrada por el servidor (wait_timeout) o por la red
+        }
+        return abrir();
+    }
+
+    private Connection abrir() throws SQLException {
+        Connection conexion = origen.getConnection();
+        try {
+            for (String sql : sentencias) {
+                // Solo se prepara: al cerrarla queda en la caché de sentencias del driver
+                conexion.prepareStatement(sql).close();
+            }
+        } catch (SQLException e) {
+            cerrarReal(conexion);
+            throw e;
+        }
+        return conexion;
+    }
+
+    /**
+     * Envuelve una conexión real para que close() la devuelva al pool.
+     */
+    private Connection prestar(Connection real) {
+        boolean[] devuelta = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "close":
+                            if (!devuelta[0]) {
+                                devuelta[0] = true;
+                                devolver(real);
+                            }
+                            return null;
+                        case "isClosed":
+                            return devuelta[0] || real.isClosed();
+                        case "unwrap":
+                            return ((Class<?>) args[0]).isInstance(proxy) ? proxy : real.unwrap((Class<?>) args[0]);
+                        case "isWrapperFor":
+                            return ((Class<?>) args[0]).isInstance(proxy) || real.isWrapperFor((Class<?>) args[0]);
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            if (devuelta[0]) {
+                                throw new SQLException("La conexión ya se devolvió al pool.");
+                            }
+                            try {
+                                return metodo.invoke(real, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    /**
+     * Devuelve una conexión al pool, deshaciendo la transacción a medias que pudiera tener.
+     */
+    private void devolver(Connection real) {
+        try {
+            if (cerrado || real.isClosed()) {
+                cerrarReal(real);
+                return;
+            }
+            if (!real.getAutoCommit()) {
+                real.rollback();
+                real.setAutoCommit(true);
+            }
+            if (real.isReadOnly()) {
+                real.setReadOnly(false);
+            }
+            libres.offerFirst(new Libre(real, System.currentTimeMillis()));
+        } catch (SQLException e) {
+            cerrarReal(real); // No se pudo dejar limpia: no se reutiliza
+        } finally {
+            prestadas.release();
+        }
+    }
+
+    private static void cerrarReal(Connection conexion) {
+        try {
+            conexion.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar una conexión del pool: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package hotel.config.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * DataSource mínimo basado en DriverManager: cada getConnection abre una conexión nueva
+ * contra la URL configurada. Permite que los DAOs trabajen contra distintas bases de datos
+ * (por ejemplo, un esquema por hotel de la cadena) sin depender de la configuración estática de Conexion.
+ */
+public class DataSourceSimple extends DataSourceBase {
+    private final String url;
+    private final String user;
+    private final String password;
+
+    /**
+     * Constructor de la clase DataSourceSimple.
+     * @param url La URL JDBC de la base de datos.
+     * @param user El usuario de la base de datos.
+     * @param password La contraseña del usuario.
+     */
+    public DataSourceSimple(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+}
@@ -0,0 +1,70 @@
+package hotel.config.db;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Ejecuta un script SQL de db/ sentencia a sentencia sobre una conexión JDBC, tanto en MySQL como en la base
+ * de datos embebida H2. Entiende lo que usan esos scripts: sentencias de varias líneas terminadas en ';' y
+ * comentarios "--" (también al final de una línea).
+ */
+public class ScriptSql {
+
+    private ScriptSql() {
+    }
+
+    /**
+     * Ejecuta todas las sentencias de un script, en orden.
+     * @param conn La conexión en la que se ejecutan (un USE del script cambia su esquema).
+     * @param archivo El script.
+     * @return El número de sentencias ejecutadas.
+     * @throws SQLException Si falla una sentencia (las anteriores ya se ejecutaron) o la última no termina en ';'.
+     * @throws IOException Si no se puede leer el script.
+     */
+    public static int ejecutar(Connection conn, Path archivo) throws SQLException, IOException {
+        int ejecutadas = 0;
+        StringBuilder sentencia = new StringBuilder();
+        try (Statement stmt = conn.createStatement()) {
+            for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+                linea = quitarComentario(linea).strip();
+                if (linea.isEmpty()) {
+                    continue;
+                }
+                // Las líneas se unen con un salto de línea, como en el archivo
+                sentencia.append(linea).append('\n');
+                if (linea.endsWith(";")) {
+                    stmt.execute(sentencia.substring(0, sentencia.length() - 2)); // Sin el ';' final
+                    sentencia.setLength(0);
+                    ejecutadas++;
+                }
+            }
+        }
+        if (!sentencia.isEmpty()) {
+            throw new SQLException("La última sentencia de " + archivo + " no termina en ';'.");
+        }
+        return ejecutadas;
+    }
+
+    /**
+     * Quita de una línea el comentario "--", si lo hay, salvo dentro de una cadena entre comillas simples.
+     * @param linea La línea del script.
+     * @return La línea sin el comentario.
+     */
+    static String quitarComentario(String linea) {
+        boolean enCadena = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '\'') {
+                enCadena = !enCadena;
+            } else if (!enCadena && c == '-' && i + 1 < linea.length() && linea.charAt(i + 1) == '-') {
+                return linea.substring(0, i);
+            }
+        }
+        return linea;
+    }
+}
@@ -0,0 +1,116 @@
+package hotel.config.db.dao;
+
+import hotel.gestion.HotelException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Agrupa las lecturas idénticas concurrentes (single-flight): si llega una consulta con una clave que ya
+ * se está consultando, en lugar de lanzar otra espera el resultado de la que está en curso.
+ * Por ejemplo, cuando un grupo hace check-in y varios hilos buscan a la vez la misma habitación o el mismo DNI.
+ *
+ * No es una caché: en cuanto la consulta termina se olvida el resultado, y la siguiente llamada vuelve a la DB.
+ * Quien espera recibe una copia (función 'copiar'), porque las entidades son mutables y cada llamador
+ * debe poder modificar la suya. Un llamador que se suma a una consulta en curso puede ver el estado de la
+ * fila de justo antes de una escritura concurrente, igual que si su propia consulta hubiera llegado antes.
+ *
+ * @param <K> El tipo de la clave de búsqueda.
+ * @param <V> El tipo del resultado.
+ */
+public class ConsultaCompartida<K, V> {
+
+    /**
+     * Consulta a la DB que se comparte entre los llamadores con la misma clave.
+     */
+    @FunctionalInterface
+    public interface Cargador<K, V> {
+        V cargar(K clave) throws HotelException;
+    }
+
+    // Todas las instancias, para el reporte de métricas (los DAOs viven lo mismo que la aplicación)
+    private static final List<ConsultaCompartida<?, ?>> INSTANCIAS = new CopyOnWriteArrayList<>();
+
+    private final String nombre;
+    private final UnaryOperator<V> copiar;
+    private final Map<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final LongAdder ejecutadas = new LongAdder();
+    private final LongAdder ahorradas = new LongAdder();
+
+    /**
+     * Constructor de la clase ConsultaCompartida.
+     * @param nombre El nombre de la consulta en las métricas (ej: "HabitacionDAO.findByNumero").
+     * @param copiar Cómo copiar el resultado para cada llamador que se suma a una consulta en curso.
+     */
+    public ConsultaCompartida(String nombre, UnaryOperator<V> copiar) {
+        this.nombre = nombre;
+        this.copiar = copiar;
+        INSTANCIAS.add(this);
+    }
+
+    /**
+     * Retorna el resultado de la consulta para la clave, ejecutándola solo si no hay otra igual en curso.
+     * @param clave La clave de búsqueda.
+     * @param cargador La consulta a la DB.
+     * @return El resultado (una copia si se compartió una consulta en curso).
+     * @throws HotelException Si la consulta (propia o compartida) falla.
+     */
+    public V obtener(K clave, Cargador<K, V> cargador) throws HotelException {
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            ahorradas.increment();
+            return copiar.apply(DAOAsincrono.esperar(existente));
+        }
+
+        ejecutadas.increment();
+        try {
+            V valor = cargador.cargar(clave);
+            propia.complete(valor);
+            return valor;
+        } catch (HotelException | RuntimeException e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return Las consultas que llegaron a la DB.
+     */
+    public long getEjecutadas() {
+        return ejecutadas.sum();
+    }
+
+    /**
+     * @return Las consultas que no llegaron a la DB porque se sumaron a una igual en curso.
+     */
+    public long getAhorradas() {
+        return ahorradas.sum();
+    }
+
+    /**
+     * Suma las métricas de todas las instancias con el mismo nombre (una por DAO, por ejemplo una por shard).
+     * @return Nombre de la consulta -> {ejecutadas, ahorradas}.
+     */
+    public static Map<String, long[]> getMetricas() {
+        Map<String, long[]> metricas = new TreeMap<>();
+        for (ConsultaCompartida<?, ?> consulta : INSTANCIAS) {
+            long[] total = metricas.computeIfAbsent(consulta.nombre, k -> new long[2]);
+            total[0] += consulta.getEjecutadas();
+            total[1] += consulta.getAhorradas();
+        }
+        return metricas;
+    }
+}
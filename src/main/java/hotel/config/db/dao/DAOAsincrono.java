@@ -0,0 +1,107 @@
+package hotel.config.db.dao;
+
+import hotel.config.Configuracion;
+import hotel.gestion.HotelException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fachada asíncrona sobre los DAOs: ejecuta cualquier llamada a un DAO en un pool acotado y
+ * devuelve un CompletableFuture, para que las consultas independientes se solapen en lugar de
+ * sumar sus latencias (por ejemplo, asincrono.ejecutar(() -> habitacionDAO.findByNumero(n))).
+ *
+ * El pool tiene hotel.dao.hilosAsincronos hilos (uno por conexión que se quiera tener abierta a la vez)
+ * y usa hilos de plataforma: el driver de MySQL sincroniza con monitores, lo que fijaría los hilos virtuales.
+ * Las tareas no deben esperar a otras tareas del mismo pool.
+ */
+public class DAOAsincrono {
+
+    /**
+     * Llamada a un DAO que puede lanzar HotelException.
+     * @param <T> El tipo del resultado.
+     */
+    @FunctionalInterface
+    public interface Consulta<T> {
+        T ejecutar() throws HotelException;
+    }
+
+    private static volatile DAOAsincrono compartido;
+
+    private final ExecutorService executor;
+
+    /**
+     * Constructor de la clase DAOAsincrono.
+     * @param hilos El número máximo de consultas en curso a la vez.
+     */
+    public DAOAsincrono(int hilos) {
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, hilos), tarea -> {
+            Thread hilo = new Thread(tarea, "dao-async-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Retorna la instancia compartida por todos los hoteles, dimensionada con hotel.dao.hilosAsincronos.
+     * @return La fachada asíncrona por defecto.
+     */
+    public static DAOAsincrono getCompartido() {
+        if (compartido == null) {
+            synchronized (DAOAsincrono.class) {
+                if (compartido == null) {
+                    compartido = new DAOAsincrono(Configuracion.getInt("hotel.dao.hilosAsincronos", 8));
+                }
+            }
+        }
+        return compartido;
+    }
+
+    /**
+     * Lanza una llamada a un DAO en el pool.
+     * @param consulta La llamada a ejecutar.
+     * @return Un futuro con el resultado; si la llamada falla, se completa con la HotelException
+     *         (envuelta en CompletionException al usar join).
+     */
+    public <T> CompletableFuture<T> ejecutar(Consulta<T> consulta) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return consulta.ejecutar();
+            } catch (HotelException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Espera el resultado de un futuro y, si falló, relanza la HotelException original.
+     * @param futuro El futuro devuelto por ejecutar.
+     * @return El resultado de la llamada.
+     * @throws HotelException Si la llamada falló o la espera se interrumpió.
+     */
+    public static <T> T esperar(CompletableFuture<T> futuro) throws HotelException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof HotelException) {
+                throw (HotelException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new HotelException("Error en la consulta asíncrona: " + causa);
+        } catch (CancellationException e) {
+            throw new HotelException("Consulta asíncrona cancelada.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HotelException("Espera de la consulta asíncrona interrumpida.");
+        }
+    }
+}
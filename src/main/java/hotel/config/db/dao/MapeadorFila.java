@@ -0,0 +1,51 @@
+package hotel.config.db.dao;
+
+import hotel.gestion.HotelException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un ResultSet en un objeto del dominio.
+ *
+ * Los DAOs crean un mapeador por ResultSet (ej: HabitacionDAOImpl.mapeadorHabitacion(rs)), que resuelve
+ * los índices de sus columnas una sola vez con findColumn; después cada fila se lee por índice, sin buscar
+ * las columnas por nombre en cada fila. Las fechas se leen como LocalDate (getObject) sin pasar por
+ * java.sql.Date, y los estados y tipos se internan con internar().
+ *
+ * @param <T> El tipo del objeto construido.
+ */
+@FunctionalInterface
+public interface MapeadorFila<T> {
+
+    T mapear(ResultSet rs) throws SQLException, HotelException;
+
+    /**
+     * Retorna la constante equivalente de los textos de dominio conocidos (tipos de habitación y estados),
+     * para que las entidades de un recorrido grande compartan la misma instancia en lugar de una copia por fila.
+     * @param valor El texto leído de la DB.
+     * @return La constante del mismo valor, o el propio texto si no es uno de los conocidos.
+     */
+    static String internar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        switch (valor) {
+            case "Simple": return "Simple";
+            case "Doble": return "Doble";
+            case "Suite": return "Suite";
+            case "Disponible": return "Disponible";
+            case "Ocupada": return "Ocupada";
+            case "En Limpieza": return "En Limpieza";
+            case "Mantenimiento": return "Mantenimiento";
+            case "Confirmada": return "Confirmada";
+            case "Check-in": return "Check-in";
+            case "Check-out": return "Check-out";
+            case "Cancelada": return "Cancelada";
+            case "No-show": return "No-show";
+            case "Pendiente": return "Pendiente";
+            case "Pagada": return "Pagada";
+            default: return valor;
+        }
+    }
+}
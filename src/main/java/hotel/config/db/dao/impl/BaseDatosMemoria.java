@@ -0,0 +1,366 @@
+package hotel.config.db.dao.impl;
+
+import hotel.gestion.Habitacion;
+import hotel.gestion.HabitacionDoble;
+import hotel.gestion.HabitacionSimple;
+import hotel.gestion.HabitacionSuite;
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+import hotel.gestion.Reserva;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Base de datos en memoria del propio proceso, con las tablas HABITACIONES, HUESPEDES y RESERVAS del esquema
+ * (db/db.sql), para los DAOs *Memoria: pruebas de carga y ensayos sin un servidor MySQL.
+ *
+ * Las filas son inmutables y se guardan normalizadas, como en la DB: cada lectura construye objetos nuevos,
+ * así que los llamadores pueden modificarlos sin tocar lo guardado. Las transacciones se serializan con un
+ * cerrojo de lectura/escritura (muchas lecturas a la vez, una escritura a la vez); si una escritura lanza una
+ * excepción, sus cambios se deshacen. Se respetan las claves únicas del esquema (número de habitación y DNI).
+ * Los datos se pierden al terminar el proceso.
+ */
+public class BaseDatosMemoria {
+
+    /**
+     * Una transacción: lee o modifica las tablas y devuelve un resultado.
+     */
+    @FunctionalInterface
+    interface Transaccion<T> {
+        T ejecutar() throws HotelException;
+    }
+
+    static final class FilaHabitacion {
+        final int id;
+        final int numero;
+        final String tipo;
+        final double precioPorNoche;
+        final String estado;
+        final long estadoDesde; // Momento del último cambio de estado (HABITACIONES.estado_desde), en ms
+
+        FilaHabitacion(int id, int numero, String tipo, double precioPorNoche, String estado, long estadoDesde) {
+            this.id = id;
+            this.numero = numero;
+            this.tipo = tipo;
+            this.precioPorNoche = precioPorNoche;
+            this.estado = estado;
+            this.estadoDesde = estadoDesde;
+        }
+
+        FilaHabitacion conEstado(String nuevoEstado) {
+            return nuevoEstado.equals(estado) ? this
+                    : new FilaHabitacion(id, numero, tipo, precioPorNoche, nuevoEstado, System.currentTimeMillis());
+        }
+    }
+
+    static final class FilaHuesped {
+        final int id;
+        final String nombre;
+        final String apellido;
+        final String dni;
+        final String email;
+        final String telefono;
+
+        FilaHuesped(int id, String nombre, String apellido, String dni, String email, String telefono) {
+            this.id = id;
+            this.nombre = nombre;
+            this.apellido = apellido;
+            this.dni = dni;
+            this.email = email;
+            this.telefono = telefono;
+        }
+    }
+
+    static final class FilaReserva {
+        final int id;
+        final int idHuesped;
+        final int idHabitacion;
+        final LocalDate fechaCheckin;
+        final LocalDate fechaCheckout;
+        final int cantidadHuespedes;
+        final String estado;
+
+        FilaReserva(int id, int idHuesped, int idHabitacion, LocalDate fechaCheckin, LocalDate fechaCheckout,
+                    int cantidadHuespedes, String estado) {
+            this.id = id;
+            this.idHuesped = idHuesped;
+            this.idHabitacion = idHabitacion;
+            this.fechaCheckin = fechaCheckin;
+            this.fechaCheckout = fechaCheckout;
+            this.cantidadHuespedes = cantidadHuespedes;
+            this.estado = estado;
+        }
+
+        FilaReserva conEstado(String nuevoEstado) {
+            return new FilaReserva(id, idHuesped, idHabitacion, fechaCheckin, fechaCheckout, cantidadHuespedes, nuevoEstado);
+        }
+    }
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    // Tablas por clave primaria (en orden de ID, como un recorrido por la clave) y las claves únicas
+    private final TreeMap<Integer, FilaHabitacion> habitaciones = new TreeMap<>();
+    private final Map<Integer, Integer> habitacionesPorNumero = new HashMap<>();
+    private final TreeMap<Integer, FilaHuesped> huespedes = new TreeMap<>();
+    private final Map<String, Integer> huespedesPorDni = new HashMap<>();
+    private final TreeMap<Integer, FilaReserva> reservas = new TreeMap<>();
+    private int ultimoIdHabitacion;
+    private int ultimoIdHuesped;
+    private int ultimoIdReserva;
+
+    // Deshacer de la escritura en curso (solo la usa el hilo que tiene el cerrojo de escritura)
+    private final List<Runnable> deshacer = new ArrayList<>();
+
+    /**
+     * Ejecuta una transacción de solo lectura; puede haber varias a la vez.
+     */
+    <T> T leer(Transaccion<T> transaccion) throws HotelException {
+        cerrojo.readLock().lock();
+        try {
+            return transaccion.ejecutar();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una transacción de escritura, sola; si lanza una excepción, se deshacen todos sus cambios.
+     */
+    <T> T escribir(Transaccion<T> transaccion) throws HotelException {
+        cerrojo.writeLock().lock();
+        try {
+            T resultado = transaccion.ejecutar();
+            deshacer.clear();
+            return resultado;
+        } catch (HotelException | RuntimeException e) {
+            for (int i = deshacer.size() - 1; i >= 0; i--) {
+                deshacer.get(i).run();
+            }
+            deshacer.clear();
+            throw e;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // --- HABITACIONES ---
+
+    FilaHabitacion habitacion(int id) {
+        return habitaciones.get(id);
+    }
+
+    FilaHabitacion habitacionPorNumero(int numero) {
+        Integer id = habitacionesPorNumero.get(numero);
+        return id != null ? habitaciones.get(id) : null;
+    }
+
+    Iterable<FilaHabitacion> habitaciones() {
+        return habitaciones.values();
+    }
+
+    int siguienteIdHabitacion() {
+        int anterior = ultimoIdHabitacion;
+        deshacer.add(() -> ultimoIdHabitacion = anterior);
+        return ++ultimoIdHabitacion;
+    }
+
+    /**
+     * Inserta o reemplaza una habitación por su ID.
+     * @throws HotelException Si otra habitación ya tiene ese número (clave única numero_habitacion).
+     */
+    void ponerHabitacion(FilaHabitacion fila) throws HotelException {
+        Integer idConNumero = habitacionesPorNumero.get(fila.numero);
+        if (idConNumero != null && idConNumero != fila.id) {
+            throw new HotelException("Entrada duplicada '" + fila.numero + "' para la clave numero_habitacion.");
+        }
+        FilaHabitacion anterior = habitaciones.put(fila.id, fila);
+        if (anterior != null && anterior.numero != fila.numero) {
+            habitacionesPorNumero.remove(anterior.numero);
+        }
+        habitacionesPorNumero.put(fila.numero, fila.id);
+        deshacer.add(() -> {
+            habitacionesPorNumero.remove(fila.numero);
+            if (anterior != null) {
+                habitaciones.put(anterior.id, anterior);
+                habitacionesPorNumero.put(anterior.numero, anterior.id);
+            } else {
+                habitaciones.remove(fila.id);
+            }
+        });
+    }
+
+    /**
+     * @throws HotelException Si alguna reserva hace referencia a la habitación (clave foránea).
+     */
+    void quitarHabitacion(int id) throws HotelException {
+        for (FilaReserva r : reservas.values()) {
+            if (r.idHabitacion == id) {
+                throw new HotelException("No se puede borrar la habitación: la reserva " + r.id + " hace referencia a ella.");
+            }
+        }
+        FilaHabitacion anterior = habitaciones.remove(id);
+        if (anterior != null) {
+            habitacionesPorNumero.remove(anterior.numero);
+            deshacer.add(() -> {
+                habitaciones.put(anterior.id, anterior);
+                habitacionesPorNumero.put(anterior.numero, anterior.id);
+            });
+        }
+    }
+
+    // --- HUESPEDES ---
+
+    FilaHuesped huesped(int id) {
+        return huespedes.get(id);
+    }
+
+    FilaHuesped huespedPorDni(String dni) {
+        Integer id = huespedesPorDni.get(dni);
+        return id != null ? huespedes.get(id) : null;
+    }
+
+    Iterable<FilaHuesped> huespedes() {
+        return huespedes.values();
+    }
+
+    int siguienteIdHuesped() {
+        int anterior = ultimoIdHuesped;
+        deshacer.add(() -> ultimoIdHuesped = anterior);
+        return ++ultimoIdHuesped;
+    }
+
+    /**
+     * Inserta o reemplaza un huésped por su ID.
+     * @throws HotelException Si otro huésped ya tiene ese DNI (clave única dni).
+     */
+    void ponerHuesped(FilaHuesped fila) throws HotelException {
+        Integer idConDni = huespedesPorDni.get(fila.dni);
+        if (idConDni != null && idConDni != fila.id) {
+            throw new HotelException("Entrada duplicada '" + fila.dni + "' para la clave dni.");
+        }
+        FilaHuesped anterior = huespedes.put(fila.id, fila);
+        if (anterior != null && !anterior.dni.equals(fila.dni)) {
+            huespedesPorDni.remove(anterior.dni);
+        }
+        huespedesPorDni.put(fila.dni, fila.id);
+        deshacer.add(() -> {
+            huespedesPorDni.remove(fila.dni);
+            if (anterior != null) {
+                huespedes.put(anterior.id, anterior);
+                huespedesPorDni.put(anterior.dni, anterior.id);
+            } else {
+                huespedes.remove(fila.id);
+            }
+        });
+    }
+
+    /**
+     * @throws HotelException Si alguna reserva hace referencia al huésped (clave foránea).
+     */
+    void quitarHuesped(int id) throws HotelException {
+        for (FilaReserva r : reservas.values()) {
+            if (r.idHuesped == id) {
+                throw new HotelException("No se puede borrar el huésped: la reserva " + r.id + " hace referencia a él.");
+            }
+        }
+        FilaHuesped anterior = huespedes.remove(id);
+        if (anterior != null) {
+            huespedesPorDni.remove(anterior.dni);
+            deshacer.add(() -> {
+                huespedes.put(anterior.id, anterior);
+                huespedesPorDni.put(anterior.dni, anterior.id);
+            });
+        }
+    }
+
+    // --- RESERVAS ---
+
+    FilaReserva reserva(int id) {
+        return reservas.get(id);
+    }
+
+    Iterable<FilaReserva> reservas() {
+        return reservas.values();
+    }
+
+    /**
+     * @return Las reservas con ID mayor que 'id', en orden de ID.
+     */
+    Iterable<FilaReserva> reservasDesde(int id) {
+        return reservas.tailMap(id, false).values();
+    }
+
+    int siguienteIdReserva() {
+        int anterior = ultimoIdReserva;
+        deshacer.add(() -> ultimoIdReserva = anterior);
+        return ++ultimoIdReserva;
+    }
+
+    /**
+     * Inserta o reemplaza una reserva por su ID.
+     * @throws HotelException Si su huésped o su habitación no existen (claves foráneas).
+     */
+    void ponerReserva(FilaReserva fila) throws HotelException {
+        if (!huespedes.containsKey(fila.idHuesped) || !habitaciones.containsKey(fila.idHabitacion)) {
+            throw new HotelException("La reserva hace referencia a un huésped o una habitación que no existe.");
+        }
+        FilaReserva anterior = reservas.put(fila.id, fila);
+        deshacer.add(() -> {
+            if (anterior != null) {
+                reservas.put(anterior.id, anterior);
+            } else {
+                reservas.remove(fila.id);
+            }
+        });
+    }
+
+    void quitarReserva(int id) {
+        FilaReserva anterior = reservas.remove(id);
+        if (anterior != null) {
+            deshacer.add(() -> reservas.put(anterior.id, anterior));
+        }
+    }
+
+    // --- Objetos de dominio (cada llamada crea objetos nuevos, como una consulta) ---
+
+    static Habitacion aHabitacion(FilaHabitacion fila) {
+        Habitacion habitacion;
+        switch (fila.tipo) {
+            case "Simple":
+                habitacion = new HabitacionSimple(fila.numero, fila.precioPorNoche);
+                break;
+            case "Doble":
+                habitacion = new HabitacionDoble(fila.numero, fila.precioPorNoche);
+                break;
+            default:
+                habitacion = new HabitacionSuite(fila.numero, fila.precioPorNoche);
+        }
+        habitacion.setEstado(fila.estado);
+        habitacion.setDbId(fila.id);
+        return habitacion;
+    }
+
+    static Huesped aHuesped(FilaHuesped fila) {
+        Huesped huesped = new Huesped(null, fila.nombre, fila.apellido, fila.dni, fila.email, fila.telefono);
+        huesped.setIdHuespedInterno(fila.id);
+        return huesped;
+    }
+
+    /**
+     * Construye una reserva con su huésped y su habitación (el JOIN de ReservaDAOImpl).
+     */
+    Reserva aReserva(FilaReserva fila) throws HotelException {
+        Reserva reserva = new Reserva(String.valueOf(fila.id), aHuesped(huespedes.get(fila.idHuesped)),
+                aHabitacion(habitaciones.get(fila.idHabitacion)), fila.fechaCheckin, fila.fechaCheckout,
+                fila.cantidadHuespedes);
+        reserva.setEstado(fila.estado);
+        reserva.setIdReservaInterno(fila.id);
+        return reserva;
+    }
+}
@@ -0,0 +1,394 @@
+package hotel.config.db.dao.impl;
+
+
+import hotel.config.db.Conexion;
+import hotel.config.db.dao.interfaces.FacturaDAO;
+import hotel.gestion.DetalleFactura;
+import hotel.gestion.Factura;
+import hotel.gestion.HotelException;
+import hotel.gestion.Reserva;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implementación de la interfaz FacturaDAO para operaciones con la base de datos MySQL.
+ * Los cargos (DETALLE_FACTURA) se guardan al registrarlos, sin factura; en el check-out se insertan las
+ * cabeceras (FACTURAS) con una sentencia por lotes y cada cargo facturado se asigna a su factura en el mismo
+ * UPDATE que cambia el estado de la reserva.
+ */
+public class FacturaDAOImpl implements FacturaDAO {
+
+    private final DataSource dataSource;
+    private final DataSource lecturas; // Solo para las consultas de reportes (puede ser una réplica)
+
+    /**
+     * Constructor por defecto: trabaja contra la base de datos principal (Conexion.getDataSource())
+     * y envía los reportes a Conexion.getDataSourceLecturas().
+     */
+    public FacturaDAOImpl() {
+        this(Conexion.getDataSource(), Conexion.getDataSourceLecturas());
+    }
+
+    /**
+     * Constructor que permite elegir la base de datos (por ejemplo, el esquema de otro hotel de la cadena).
+     * @param dataSource El DataSource del que se obtienen las conexiones.
+     */
+    public FacturaDAOImpl(DataSource dataSource) {
+        this(dataSource, dataSource);
+    }
+
+    /**
+     * Constructor con separación de lecturas: los reportes se leen de 'lecturas' y todo lo demás de 'dataSource'.
+     * @param dataSource El DataSource de la primaria (escrituras y lecturas que deben ver lo recién escrito).
+     * @param lecturas El DataSource para las consultas de reportes (ej: DataSourceLecturas sobre una réplica).
+     */
+    public FacturaDAOImpl(DataSource dataSource, DataSource lecturas) {
+        this.dataSource = dataSource;
+        this.lecturas = lecturas;
+    }
+
+    /**
+     * Guarda una nueva factura y sus líneas de detalle en una sola transacción.
+     * @param factura El objeto Factura a guardar. Su ID de DB se asigna al guardar.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void save(Factura factura) throws HotelException {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            insertCabeceras(conn, Collections.singletonList(factura));
+            insertDetalles(conn, factura);
+            conn.commit();
+            System.out.println("Factura " + factura.getIdFactura() + " guardada en la base de datos.");
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al guardar la factura: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Guarda las facturas de un check-out y, en la misma transacción, el nuevo estado de las reservas
+     * y, si se pide, de sus habitaciones. Cada tabla se escribe con una sola sentencia por lotes, así que el número
+     * de viajes a la DB no depende del número de reservas. Las líneas de detalle ya están en DETALLE_FACTURA
+     * (se guardaron al registrar cada cargo): otra sentencia por lotes asigna a cada factura los cargos que
+     * incluye. Los cargos registrados después de calcular la factura siguen pendientes.
+     * Si alguna reserva ya no está en 'Check-in' en la DB (otro check-out simultáneo), algún cargo ya se facturó
+     * en otra factura o algo falla, no se aplica ningún cambio.
+     * @param facturas Las facturas a guardar. Su ID de DB se asigna al guardar.
+     * @param reservas Las reservas con su estado (y el de su habitación) ya actualizado en memoria.
+     * @param conHabitaciones false si el estado de las habitaciones se escribe aparte (escritura diferida).
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void saveWithCheckOut(Collection<Factura> facturas, Collection<Reserva> reservas, boolean conHabitaciones) throws HotelException {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            insertCabeceras(conn, facturas);
+            Map<Integer, Factura> porReserva = new HashMap<>();
+            for (Factura factura : facturas) {
+                porReserva.put(factura.getIdReserva(), factura);
+            }
+            ReservaDAOImpl.updateEstados(conn, reservas, "Check-in", conHabitaciones, porReserva);
+            conn.commit();
+            System.out.println(facturas.size() + " facturas guardadas en la base de datos.");
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al guardar las facturas del check-out: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Encuentra una factura, con sus líneas de detalle, por su ID en la base de datos.
+     * @param id El ID de la factura.
+     * @return Un Optional que contiene la Factura si se encuentra, o un Optional vacío.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public Optional<Factura> findById(int id) throws HotelException {
+        String sql = "SELECT id_factura, id_reserva, id_huesped, fecha_emision, total_factura, estado_pago FROM FACTURAS WHERE id_factura = ?";
+        return findOne(sql, id, "Error al buscar factura por ID: ");
+    }
+
+    /**
+     * Encuentra la factura (la más reciente, si hubiera varias) de una reserva.
+     * @param idReserva El ID de la reserva.
+     * @return Un Optional que contiene la Factura si se encuentra, o un Optional vacío.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public Optional<Factura> findByReserva(int idReserva) throws HotelException {
+        String sql = "SELECT id_factura, id_reserva, id_huesped, fecha_emision, total_factura, estado_pago FROM FACTURAS " +
+                "WHERE id_reserva = ? ORDER BY id_factura DESC LIMIT 1";
+        return findOne(sql, idReserva, "Error al buscar factura por reserva: ");
+    }
+
+    /**
+     * Obtiene todas las facturas de la base de datos, sin sus líneas de detalle.
+     * @return Una lista de objetos Factura.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public List<Factura> findAll() throws HotelException {
+        List<Factura> facturas = new ArrayList<>();
+        String sql = "SELECT id_factura, id_reserva, id_huesped, fecha_emision, total_factura, estado_pago FROM FACTURAS";
+        try (Connection conn = lecturas.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            Conexion.configurarConsultaReporte(stmt);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    facturas.add(createFacturaFromResultSet(rs, Collections.emptyList()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al obtener todas las facturas: " + e.getMessage());
+        }
+        return facturas;
+    }
+
+    /**
+     * Actualiza el estado de pago de una factura (RFS10).
+     * @param idFactura El ID de la factura.
+     * @param estadoPago El nuevo estado de pago (ej: "Pagada").
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void updateEstadoPago(int idFactura, String estadoPago) throws HotelException {
+        String sql = "UPDATE FACTURAS SET estado_pago = ? WHERE id_factura = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, estadoPago);
+            pstmt.setInt(2, idFactura);
+            pstmt.executeUpdate();
+            System.out.println("Factura " + idFactura + " marcada como '" + estadoPago + "'.");
+        } catch (SQLException e) {
+            throw new HotelException("Error al actualizar el estado de pago de la factura: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Guarda un cargo pendiente de una reserva (sin factura) y le asigna el ID generado por la DB.
+     * @param idReserva El ID de la reserva.
+     * @param detalle El cargo a guardar.
+     * @throws HotelException Si ocurre un error de SQL (ej: la reserva no existe).
+     */
+    @Override
+    public void saveCargo(int idReserva, DetalleFactura detalle) throws HotelException {
+        String sql = "INSERT INTO DETALLE_FACTURA (id_reserva, id_servicio, cantidad, precio_unitario) VALUES (?, ?, ?, ?)";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setInt(1, idReserva);
+            pstmt.setInt(2, detalle.getIdServicio());
+            pstmt.setInt(3, detalle.getCantidad());
+            pstmt.setBigDecimal(4, detalle.getPrecioUnitario());
+            pstmt.executeUpdate();
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    detalle.setIdDetalle(generatedKeys.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al guardar el cargo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene, con una sola consulta, los cargos aún no facturados de varias reservas.
+     * @param idsReserva Los IDs de las reservas.
+     * @return Los cargos pendientes por ID de reserva, en el orden en que se registraron (las reservas sin cargos
+     *         no aparecen).
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public Map<Integer, List<DetalleFactura>> findCargosPendientes(Collection<Integer> idsReserva) throws HotelException {
+        Map<Integer, List<DetalleFactura>> cargos = new HashMap<>();
+        Set<Integer> unicos = new LinkedHashSet<>(idsReserva);
+        if (unicos.isEmpty()) {
+            return cargos;
+        }
+        String sql = "SELECT d.id_detalle, d.id_reserva, d.id_servicio, d.cantidad, d.precio_unitario, s.nombre_servicio " +
+                "FROM DETALLE_FACTURA d JOIN SERVICIOS_ADICIONALES s ON s.id_servicio = d.id_servicio " +
+                "WHERE d.id_factura IS NULL AND d.id_reserva IN (" + String.join(", ", Collections.nCopies(unicos.size(), "?")) + ") " +
+                "ORDER BY d.id_detalle";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            for (Integer id : unicos) {
+                pstmt.setInt(i++, id);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    cargos.computeIfAbsent(rs.getInt("id_reserva"), k -> new ArrayList<>()).add(createDetalleFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al buscar los cargos pendientes: " + e.getMessage());
+        }
+        return cargos;
+    }
+
+    /**
+     * Inserta las cabeceras de las facturas en un lote (en tramos de hasta hotel.dao.tamanoLote filas, que con
+     * rewriteBatchedStatements van en un solo INSERT de varias filas). Asigna a cada factura el ID generado por
+     * la DB. No hace commit.
+     */
+    private void insertCabeceras(Connection conn, Collection<Factura> facturas) throws SQLException {
+        if (facturas.isEmpty()) {
+            return;
+        }
+        int tamanoLote = Conexion.getTamanoLote();
+        List<Factura> cabeceras = new ArrayList<>(facturas);
+        String sqlFactura = "INSERT INTO FACTURAS (id_reserva, id_huesped, fecha_emision, total_factura, estado_pago) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlFactura, Statement.RETURN_GENERATED_KEYS)) {
+            for (int desde = 0; desde < cabeceras.size(); desde += tamanoLote) {
+                List<Factura> lote = cabeceras.subList(desde, Math.min(desde + tamanoLote, cabeceras.size()));
+                for (Factura factura : lote) {
+                    pstmt.setInt(1, factura.getIdReserva());
+                    pstmt.setInt(2, factura.getIdHuesped());
+                    pstmt.setTimestamp(3, Timestamp.valueOf(factura.getFechaEmision()));
+                    pstmt.setBigDecimal(4, factura.getTotal());
+                    pstmt.setString(5, factura.getEstadoPago());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+
+                // Las claves generadas llegan en el mismo orden en que se añadieron las filas al lote
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    for (Factura factura : lote) {
+                        if (generatedKeys.next()) {
+                            factura.setIdFactura(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Guarda las líneas de una factura ya insertada: las nuevas se insertan en un lote y los cargos pendientes
+     * (con ID de DB) se asignan a la factura. No hace commit.
+     */
+    private void insertDetalles(Connection conn, Factura factura) throws SQLException {
+        String sqlInsertar = "INSERT INTO DETALLE_FACTURA (id_reserva, id_factura, id_servicio, cantidad, precio_unitario) VALUES (?, ?, ?, ?, ?)";
+        String sqlAsignar = "UPDATE DETALLE_FACTURA SET id_factura = ? WHERE id_detalle = ? AND id_factura IS NULL";
+        List<DetalleFactura> nuevos = new ArrayList<>();
+        try (PreparedStatement pstmtInsertar = conn.prepareStatement(sqlInsertar, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement pstmtAsignar = conn.prepareStatement(sqlAsignar)) {
+            for (DetalleFactura detalle : factura.getDetalles()) {
+                if (detalle.getIdDetalle() > 0) {
+                    pstmtAsignar.setInt(1, factura.getIdFactura());
+                    pstmtAsignar.setInt(2, detalle.getIdDetalle());
+                    pstmtAsignar.addBatch();
+                } else {
+                    pstmtInsertar.setInt(1, factura.getIdReserva());
+                    pstmtInsertar.setInt(2, factura.getIdFactura());
+                    pstmtInsertar.setInt(3, detalle.getIdServicio());
+                    pstmtInsertar.setInt(4, detalle.getCantidad());
+                    pstmtInsertar.setBigDecimal(5, detalle.getPrecioUnitario());
+                    pstmtInsertar.addBatch();
+                    nuevos.add(detalle);
+                }
+            }
+            if (!nuevos.isEmpty()) {
+                pstmtInsertar.executeBatch();
+                try (ResultSet generatedKeys = pstmtInsertar.getGeneratedKeys()) {
+                    for (DetalleFactura detalle : nuevos) {
+                        if (generatedKeys.next()) {
+                            detalle.setIdDetalle(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+            }
+            if (nuevos.size() < factura.getDetalles().size()) {
+                pstmtAsignar.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Busca una única factura con la consulta recibida (un parámetro entero) y carga sus líneas de detalle
+     * usando la misma conexión.
+     */
+    private Optional<Factura> findOne(String sql, int parametro, String mensajeError) throws HotelException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, parametro);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    List<DetalleFactura> detalles = findDetalles(conn, rs.getInt("id_factura"));
+                    return Optional.of(createFacturaFromResultSet(rs, detalles));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException(mensajeError + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Obtiene las líneas de detalle de una factura, con el nombre de cada servicio.
+     */
+    private List<DetalleFactura> findDetalles(Connection conn, int idFactura) throws SQLException {
+        List<DetalleFactura> detalles = new ArrayList<>();
+        String sql = "SELECT d.id_detalle, d.id_servicio, d.cantidad, d.precio_unitario, s.nombre_servicio " +
+                "FROM DETALLE_FACTURA d JOIN SERVICIOS_ADICIONALES s ON s.id_servicio = d.id_servicio " +
+                "WHERE d.id_factura = ? ORDER BY d.id_detalle";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idFactura);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    detalles.add(createDetalleFromResultSet(rs));
+                }
+            }
+        }
+        return detalles;
+    }
+
+    /**
+     * Método auxiliar para construir una línea de detalle a partir de un ResultSet.
+     */
+    private DetalleFactura createDetalleFromResultSet(ResultSet rs) throws SQLException {
+        DetalleFactura detalle = new DetalleFactura(rs.getInt("id_servicio"), rs.getString("nombre_servicio"),
+                rs.getInt("cantidad"), rs.getBigDecimal("precio_unitario"));
+        detalle.setIdDetalle(rs.getInt("id_detalle"));
+        return detalle;
+    }
+
+    /**
+     * Método auxiliar para construir un objeto Factura a partir de un ResultSet.
+     */
+    private Factura createFacturaFromResultSet(ResultSet rs, List<DetalleFactura> detalles) throws SQLException {
+        Timestamp fechaEmision = rs.getTimestamp("fecha_emision");
+        return new Factura(
+                rs.getInt("id_factura"),
+                rs.getInt("id_reserva"),
+                rs.getInt("id_huesped"),
+                fechaEmision != null ? fechaEmision.toLocalDateTime() : null,
+                rs.getBigDecimal("total_factura"),
+                rs.getString("estado_pago"),
+                detalles
+        );
+    }
+}
@@ -2,18 +2,68 @@ package hotel.config.db.dao.impl;
 
 
 import hotel.config.db.Conexion;
+import hotel.config.db.dao.ConsultaCompartida;
+import hotel.config.db.dao.MapeadorFila;
 import hotel.config.db.dao.interfaces.HabitacionDAO;
 import hotel.gestion.*;
 
+import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementación de la interfaz HabitacionDAO para operaciones con la base de datos MySQL.
  */
 public class HabitacionDAOImpl implements HabitacionDAO {
+    private static final String SQL_POR_ID = "SELECT id_habitacion, numero_habitacion, tipo, precio_por_noche, estado FROM HABITACIONES WHERE id_habitacion = ?";
+    private static final String SQL_POR_NUMERO = "SELECT id_habitacion, numero_habitacion, tipo, precio_por_noche, estado FROM HABITACIONES WHERE numero_habitacion = ?";
+    // Consultas del mostrador que conviene preparar al abrir cada conexión (ver Conexion.precalentar)
+    public static final List<String> SENTENCIAS_FRECUENTES = List.of(SQL_POR_ID, SQL_POR_NUMERO);
+    // Cambio de estado que mantiene HABITACIONES.estado_desde (momento del último cambio de estado, para el plazo de
+    // limpieza) en la propia sentencia, sin trigger. estado_desde va primero porque MySQL aplica las asignaciones del
+    // SET en orden y compararía con el estado ya cambiado. Los parámetros se asignan con setEstado
+    static final String SET_ESTADO = "estado_desde = CASE WHEN estado = ? THEN estado_desde ELSE ? END, estado = ?";
+
+    private final DataSource dataSource;
+    private final DataSource lecturas; // Solo para las consultas de reportes (puede ser una réplica)
+    // Búsquedas por número concurrentes de la misma habitación comparten una sola consulta
+    private final ConsultaCompartida<Integer, Optional<Habitacion>> porNumero =
+            new ConsultaCompartida<>("HabitacionDAO.findByNumero", h -> h.map(HabitacionDAOImpl::copiar));
+
+    /**
+     * Constructor por defecto: trabaja contra la base de datos principal (Conexion.getDataSource())
+     * y envía los reportes a Conexion.getDataSourceLecturas().
+     */
+    public HabitacionDAOImpl() {
+        this(Conexion.getDataSource(), Conexion.getDataSourceLecturas());
+    }
+
+    /**
+     * Constructor que permite elegir la base de datos (por ejemplo, el esquema de otro hotel de la cadena).
+     * @param dataSource El DataSource del que se obtienen las conexiones.
+     */
+    public HabitacionDAOImpl(DataSource dataSource) {
+        this(dataSource, dataSource);
+    }
+
+    /**
+     * Constructor con separación de lecturas: los reportes se leen de 'lecturas' y todo lo demás de 'dataSource'.
+     * @param dataSource El DataSource de la primaria (escrituras y lecturas que deben ver lo recién escrito).
+     * @param lecturas El DataSource para las consultas de reportes (ej: DataSourceLecturas sobre una réplica).
+     */
+    public HabitacionDAOImpl(DataSource dataSource, DataSource lecturas) {
+        this.dataSource = dataSource;
+        this.lecturas = lecturas;
+    }
 
     /**
      * Guarda una nueva habitación en la base de datos.
@@ -24,7 +74,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
     @Override
     public void save(Habitacion habitacion) throws HotelException {
         String sql = "INSERT INTO HABITACIONES (numero_habitacion, tipo, precio_por_noche, estado) VALUES (?, ?, ?, ?)";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setInt(1, habitacion.getNumero());
@@ -37,10 +87,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
             // Esto es crucial para que el objeto en memoria refleje el estado de la DB
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
-                    // Si Habitacion tuviera un setter para el ID, lo usaríamos aquí.
-                    // Para este prototipo, el ID de DB es handled internamente si no se setea directamente.
-                    // Podemos asumir que el ID es el numero_habitacion o buscarlo si necesario.
-                    // No se necesita un setter para id_habitacion ya que es AUTO_INCREMENT.
+                    habitacion.setDbId(generatedKeys.getInt(1)); // Asignar el ID autogenerado
                 }
             }
             System.out.println("Habitación " + habitacion.getNumero() + " guardada en la base de datos.");
@@ -58,8 +105,8 @@ public class HabitacionDAOImpl implements HabitacionDAO {
      */
     @Override
     public Optional<Habitacion> findById(int id) throws HotelException {
-        String sql = "SELECT id_habitacion, numero_habitacion, tipo, precio_por_noche, estado FROM HABITACIONES WHERE id_habitacion = ?";
-        try (Connection conn = Conexion.getConnection();
+        String sql = SQL_POR_ID;
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, id);
@@ -82,8 +129,12 @@ public class HabitacionDAOImpl implements HabitacionDAO {
      */
     @Override
     public Optional<Habitacion> findByNumero(int numero) throws HotelException {
-        String sql = "SELECT id_habitacion, numero_habitacion, tipo, precio_por_noche, estado FROM HABITACIONES WHERE numero_habitacion = ?";
-        try (Connection conn = Conexion.getConnection();
+        return porNumero.obtener(numero, this::consultarPorNumero);
+    }
+
+    private Optional<Habitacion> consultarPorNumero(int numero) throws HotelException {
+        String sql = SQL_POR_NUMERO;
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, numero);
@@ -107,12 +158,13 @@ public class HabitacionDAOImpl implements HabitacionDAO {
     public List<Habitacion> findAll() throws HotelException {
         List<Habitacion> habitaciones = new ArrayList<>();
         String sql = "SELECT id_habitacion, numero_habitacion, tipo, precio_por_noche, estado FROM HABITACIONES";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
+            MapeadorFila<Habitacion> mapeador = mapeadorHabitacion(rs);
             while (rs.next()) {
-                habitaciones.add(createHabitacionFromResultSet(rs));
+                habitaciones.add(mapeador.mapear(rs));
             }
         } catch (SQLException e) {
             throw new HotelException("Error al obtener todas las habitaciones: " + e.getMessage());
@@ -127,30 +179,20 @@ public class HabitacionDAOImpl implements HabitacionDAO {
      */
     @Override
     public void update(Habitacion habitacion) throws HotelException {
-        String sql = "UPDATE HABITACIONES SET numero_habitacion = ?, tipo = ?, precio_por_noche = ?, estado = ? WHERE id_habitacion = ?";
-        try (Connection conn = Conexion.getConnection();
+        // Se busca por numero_habitacion (único) en la misma sentencia, sin una consulta previa en otra conexión
+        String sql = "UPDATE HABITACIONES SET tipo = ?, precio_por_noche = ?, " + SET_ESTADO + " WHERE numero_habitacion = ?";
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            // Para que este update funcione, la clase Habitacion necesita tener un id_habitacion (de la DB)
-            // Ya que el prototipo original no lo tenía, podemos asumir que se busca por numero_habitacion
-            // o modificar la clase Habitacion para incluir un campo 'dbId'.
-            // Por simplicidad, se asume que la Habitacion en el objeto ya tiene el ID de la DB
-            // o que la estamos buscando por el numero_habitacion.
-            // Para el prototipo: voy a buscarla por numero_habitacion y actualizar su id_habitacion de DB.
-            Optional<Habitacion> existing = findByNumero(habitacion.getNumero());
-            if (!existing.isPresent()) {
+            pstmt.setString(1, habitacion.getTipo());
+            pstmt.setDouble(2, habitacion.getPrecioPorNoche());
+            int i = setEstado(pstmt, 3, habitacion.getEstado());
+            pstmt.setInt(i, habitacion.getNumero());
+
+            // Filas encontradas (no solo las cambiadas): el driver no usa useAffectedRows
+            if (pstmt.executeUpdate() == 0) {
                 throw new HotelException("Habitación a actualizar no encontrada por número: " + habitacion.getNumero());
             }
-
-            int dbId = existing.get().getDbId();
-
-            pstmt.setInt(1, habitacion.getNumero());
-            pstmt.setString(2, habitacion.getTipo());
-            pstmt.setDouble(3, habitacion.getPrecioPorNoche());
-            pstmt.setString(4, habitacion.getEstado());
-            pstmt.setInt(5, dbId); // Usar el ID de la DB
-
-            pstmt.executeUpdate();
             System.out.println("Habitación " + habitacion.getNumero() + " actualizada en la base de datos.");
         } catch (SQLException e) {
             throw new HotelException("Error al actualizar la habitación: " + e.getMessage());
@@ -165,7 +207,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
     @Override
     public void delete(int id) throws HotelException {
         String sql = "DELETE FROM HABITACIONES WHERE id_habitacion = ?";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, id);
@@ -176,19 +218,298 @@ public class HabitacionDAOImpl implements HabitacionDAO {
         }
     }
 
+    /**
+     * Cambia de estado un conjunto de habitaciones con una única sentencia set-based:
+     * {@code UPDATE ... WHERE numero_habitacion IN (...) AND estado = ?}.
+     * Las filas afectadas se bloquean primero (SELECT ... FOR UPDATE) dentro de la misma transacción,
+     * de modo que el resultado por habitación refleja exactamente lo que hizo el UPDATE.
+     * @param numeros Los números de las habitaciones a cambiar (los duplicados se ignoran).
+     * @param estadoOrigen El estado en el que debe estar cada habitación para poder cambiarla.
+     * @param estadoDestino El nuevo estado.
+     * @return El resultado del cambio para cada número solicitado, en el orden recibido.
+     * @throws HotelException Si ocurre un error de SQL (en ese caso no se cambia ninguna habitación).
+     */
+    @Override
+    public List<ResultadoCambioEstado> updateEstadoByNumeros(Collection<Integer> numeros, String estadoOrigen,
+                                                             String estadoDestino) throws HotelException {
+        Set<Integer> unicos = new LinkedHashSet<>(numeros);
+        List<ResultadoCambioEstado> resultados = new ArrayList<>();
+        if (unicos.isEmpty()) {
+            return resultados;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(unicos.size(), "?"));
+        String sqlSelect = "SELECT numero_habitacion, estado FROM HABITACIONES WHERE numero_habitacion IN (" + placeholders + ") FOR UPDATE";
+        String sqlUpdate = "UPDATE HABITACIONES SET " + SET_ESTADO + " WHERE numero_habitacion IN (" + placeholders + ") AND estado = ?";
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            // Estado actual de cada habitación, bloqueada hasta el commit
+            Map<Integer, String> estadosActuales = new HashMap<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlSelect)) {
+                int i = 1;
+                for (Integer numero : unicos) {
+                    pstmt.setInt(i++, numero);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        estadosActuales.put(rs.getInt("numero_habitacion"), rs.getString("estado"));
+                    }
+                }
+            }
+
+            int actualizadas;
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlUpdate)) {
+                int i = setEstado(pstmt, 1, estadoDestino);
+                for (Integer numero : unicos) {
+                    pstmt.setInt(i++, numero);
+                }
+                pstmt.setString(i, estadoOrigen);
+                actualizadas = pstmt.executeUpdate();
+            }
+            conn.commit();
+
+            for (Integer numero : unicos) {
+                String estadoActual = estadosActuales.get(numero);
+                if (estadoActual == null) {
+                    resultados.add(new ResultadoCambioEstado(numero, null, estadoDestino, false, "habitación no encontrada"));
+                } else if (!estadoActual.equals(estadoOrigen)) {
+                    resultados.add(new ResultadoCambioEstado(numero, estadoActual, estadoDestino, false,
+                            "estado actual '" + estadoActual + "', se esperaba '" + estadoOrigen + "'"));
+                } else {
+                    resultados.add(new ResultadoCambioEstado(numero, estadoActual, estadoDestino, true, null));
+                }
+            }
+            System.out.println(actualizadas + " de " + unicos.size() + " habitaciones actualizadas a '" + estadoDestino + "' en la base de datos.");
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al actualizar el estado de las habitaciones: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+        return resultados;
+    }
+
+    /**
+     * Devuelve a 'Disponible' un lote de habitaciones que superaron el plazo de limpieza, en una transacción corta:
+     * selecciona y bloquea (FOR UPDATE) las que llevan más de 'minutos' minutos 'En Limpieza', las más antiguas
+     * primero, y las cambia con un solo UPDATE ... WHERE id_habitacion IN (...). El momento del último cambio
+     * de estado lo guardan en HABITACIONES.estado_desde las sentencias que cambian el estado (ver SET_ESTADO).
+     * @param minutos Minutos máximos en limpieza.
+     * @param limite Máximo de habitaciones del lote.
+     * @return Los números de las habitaciones liberadas.
+     * @throws HotelException Si ocurre un error de SQL (no se cambia ninguna).
+     */
+    @Override
+    public List<Integer> updateLimpiezaVencida(int minutos, int limite) throws HotelException {
+        List<Integer> numeros = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        String sqlSelect = "SELECT id_habitacion, numero_habitacion FROM HABITACIONES " +
+                "WHERE estado = 'En Limpieza' AND estado_desde < ? " +
+                "ORDER BY estado_desde LIMIT ? FOR UPDATE";
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlSelect)) {
+                pstmt.setObject(1, LocalDateTime.now().minusMinutes(minutos));
+                pstmt.setInt(2, limite);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("id_habitacion"));
+                        numeros.add(rs.getInt("numero_habitacion"));
+                    }
+                }
+            }
+            if (!ids.isEmpty()) {
+                try (PreparedStatement pstmt = conn.prepareStatement("UPDATE HABITACIONES SET " + SET_ESTADO +
+                        " WHERE id_habitacion IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")")) {
+                    int i = setEstado(pstmt, 1, "Disponible");
+                    for (Integer id : ids) {
+                        pstmt.setInt(i++, id);
+                    }
+                    pstmt.executeUpdate();
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al liberar las habitaciones en limpieza: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+        return numeros;
+    }
+
+    /**
+     * Cuenta las habitaciones agrupadas por estado con una sola consulta agregada.
+     * @return Un mapa estado -> número de habitaciones en ese estado.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public Map<String, Integer> countByEstado() throws HotelException {
+        Map<String, Integer> conteo = new HashMap<>();
+        String sql = "SELECT estado, COUNT(*) AS total FROM HABITACIONES GROUP BY estado";
+        try (Connection conn = lecturas.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            Conexion.configurarConsultaReporte(stmt);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    conteo.put(rs.getString("estado"), rs.getInt("total"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al contar las habitaciones por estado: " + e.getMessage());
+        }
+        return conteo;
+    }
+
+    /**
+     * Guarda muchas habitaciones en una sola transacción, con sentencias por lotes de hasta
+     * hotel.dao.tamanoLote filas. Asigna a cada habitación el ID generado por la DB.
+     * @param habitaciones Las habitaciones a guardar.
+     * @throws HotelException Si ocurre un error de SQL (no se guarda ninguna).
+     */
+    @Override
+    public void saveAll(Collection<Habitacion> habitaciones) throws HotelException {
+        if (habitaciones.isEmpty()) {
+            return;
+        }
+        List<Habitacion> lista = new ArrayList<>(habitaciones);
+        String sql = "INSERT INTO HABITACIONES (numero_habitacion, tipo, precio_por_noche, estado) VALUES (?, ?, ?, ?)";
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            int tamanoLote = Conexion.getTamanoLote();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int desde = 0; desde < lista.size(); desde += tamanoLote) {
+                    List<Habitacion> lote = lista.subList(desde, Math.min(desde + tamanoLote, lista.size()));
+                    for (Habitacion habitacion : lote) {
+                        pstmt.setInt(1, habitacion.getNumero());
+                        pstmt.setString(2, habitacion.getTipo());
+                        pstmt.setDouble(3, habitacion.getPrecioPorNoche());
+                        pstmt.setString(4, habitacion.getEstado());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        for (Habitacion habitacion : lote) {
+                            if (generatedKeys.next()) {
+                                habitacion.setDbId(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al guardar las habitaciones: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Aplica muchos cambios de estado en una sola transacción, con una sentencia por lotes de hasta
+     * hotel.dao.tamanoLote cambios: {@code UPDATE ... SET estado = ? WHERE numero_habitacion = ? AND estado = ?}
+     * (más estado_desde, ver SET_ESTADO).
+     * Un cambio cuya habitación ya no está en su estado de origen (otra escritura llegó antes) no se aplica.
+     * @param cambios Los cambios a aplicar (como mucho uno por habitación).
+     * @return El resultado de cada cambio, en el orden recibido.
+     * @throws HotelException Si ocurre un error de SQL (no se aplica ningún cambio).
+     */
+    @Override
+    public List<ResultadoCambioEstado> updateEstados(Collection<CambioEstadoHabitacion> cambios) throws HotelException {
+        List<ResultadoCambioEstado> resultados = new ArrayList<>();
+        if (cambios.isEmpty()) {
+            return resultados;
+        }
+        List<CambioEstadoHabitacion> lista = new ArrayList<>(cambios);
+        String sql = "UPDATE HABITACIONES SET " + SET_ESTADO + " WHERE numero_habitacion = ? AND estado = ?";
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            int tamanoLote = Conexion.getTamanoLote();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int desde = 0; desde < lista.size(); desde += tamanoLote) {
+                    List<CambioEstadoHabitacion> lote = lista.subList(desde, Math.min(desde + tamanoLote, lista.size()));
+                    for (CambioEstadoHabitacion cambio : lote) {
+                        int i = setEstado(pstmt, 1, cambio.getEstadoDestino());
+                        pstmt.setInt(i++, cambio.getNumeroHabitacion());
+                        pstmt.setString(i, cambio.getEstadoOrigen());
+                        pstmt.addBatch();
+                    }
+                    int[] filas = pstmt.executeBatch();
+                    for (int i = 0; i < lote.size(); i++) {
+                        CambioEstadoHabitacion cambio = lote.get(i);
+                        // SUCCESS_NO_INFO: el driver no informa de las filas, se da por aplicado
+                        boolean aplicado = filas[i] > 0 || filas[i] == Statement.SUCCESS_NO_INFO;
+                        resultados.add(new ResultadoCambioEstado(cambio.getNumeroHabitacion(), cambio.getEstadoOrigen(),
+                                cambio.getEstadoDestino(), aplicado,
+                                aplicado ? null : "la habitación ya no estaba en '" + cambio.getEstadoOrigen() + "'"));
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al actualizar el estado de las habitaciones: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+        return resultados;
+    }
+
     /**
      * Método auxiliar para construir un objeto Habitacion a partir de un ResultSet.
      * Esto maneja la creación de las subclases de Habitacion basándose en el tipo.
      * También, para que el objeto tenga el ID de la base de datos, necesito una forma de pasárselo.
      * Crear una interfaz para esto o un campo en Habitacion.
+     * Busca las columnas por nombre: para recorrer muchas filas se usa mapeadorHabitacion.
      */
-    private Habitacion createHabitacionFromResultSet(ResultSet rs) throws SQLException {
-        int dbId = rs.getInt("id_habitacion"); // Obtener el ID de la base de datos
-        int numero = rs.getInt("numero_habitacion");
-        String tipo = rs.getString("tipo");
-        double precioPorNoche = rs.getDouble("precio_por_noche");
-        String estado = rs.getString("estado");
+    static Habitacion createHabitacionFromResultSet(ResultSet rs) throws SQLException {
+        return crearHabitacion(rs.getInt("id_habitacion"), rs.getInt("numero_habitacion"), rs.getString("tipo"),
+                rs.getDouble("precio_por_noche"), rs.getString("estado"));
+    }
 
+    /**
+     * Asigna los tres parámetros de SET_ESTADO a partir de 'indice'. Es de paquete para que ReservaDAOImpl
+     * cambie el estado de las habitaciones igual.
+     * @param estado El nuevo estado.
+     * @return El índice del siguiente parámetro de la sentencia.
+     */
+    static int setEstado(PreparedStatement pstmt, int indice, String estado) throws SQLException {
+        pstmt.setString(indice, estado);
+        pstmt.setObject(indice + 1, LocalDateTime.now());
+        pstmt.setString(indice + 2, estado);
+        return indice + 3;
+    }
+
+    /**
+     * Crea el mapeador de habitaciones de un ResultSet con las columnas de HABITACIONES, resolviendo
+     * sus índices una sola vez. Es de paquete para que ReservaDAOImpl lo reutilice en consultas con JOIN.
+     */
+    static MapeadorFila<Habitacion> mapeadorHabitacion(ResultSet rs) throws SQLException {
+        int colId = rs.findColumn("id_habitacion");
+        int colNumero = rs.findColumn("numero_habitacion");
+        int colTipo = rs.findColumn("tipo");
+        int colPrecio = rs.findColumn("precio_por_noche");
+        int colEstado = rs.findColumn("estado");
+        return fila -> crearHabitacion(fila.getInt(colId), fila.getInt(colNumero), fila.getString(colTipo),
+                fila.getDouble(colPrecio), fila.getString(colEstado));
+    }
+
+    private static Habitacion crearHabitacion(int dbId, int numero, String tipo, double precioPorNoche,
+                                              String estado) throws SQLException {
         Habitacion habitacion;
         switch (tipo) {
             case "Simple":
@@ -203,12 +524,32 @@ public class HabitacionDAOImpl implements HabitacionDAO {
             default:
                 throw new SQLException("Tipo de habitación desconocido en la base de datos: " + tipo);
         }
-        habitacion.setEstado(estado);
+        habitacion.setEstado(MapeadorFila.internar(estado));
 
         habitacion.setDbId(dbId);
 
         return habitacion;
     }
+
+    /**
+     * Crea una copia independiente de una habitación (para los llamadores que comparten una consulta).
+     */
+    static Habitacion copiar(Habitacion original) {
+        Habitacion copia;
+        switch (original.getTipo()) {
+            case "Simple":
+                copia = new HabitacionSimple(original.getNumero(), original.getPrecioPorNoche());
+                break;
+            case "Doble":
+                copia = new HabitacionDoble(original.getNumero(), original.getPrecioPorNoche());
+                break;
+            default:
+                copia = new HabitacionSuite(original.getNumero(), original.getPrecioPorNoche());
+        }
+        copia.setEstado(original.getEstado());
+        copia.setDbId(original.getDbId());
+        return copia;
+    }
 }
 
 
@@ -0,0 +1,174 @@
+package hotel.config.db.dao.impl;
+
+import hotel.config.db.dao.impl.BaseDatosMemoria.FilaHabitacion;
+import hotel.config.db.dao.interfaces.HabitacionDAO;
+import hotel.gestion.CambioEstadoHabitacion;
+import hotel.gestion.Habitacion;
+import hotel.gestion.HotelException;
+import hotel.gestion.ResultadoCambioEstado;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementación de la interfaz HabitacionDAO sobre una BaseDatosMemoria, con la misma semántica que
+ * HabitacionDAOImpl (claves únicas, cambios condicionados al estado de origen, transacciones todo o nada).
+ */
+public class HabitacionDAOMemoria implements HabitacionDAO {
+    private final BaseDatosMemoria db;
+
+    /**
+     * Constructor de la clase HabitacionDAOMemoria.
+     * @param db La base de datos en memoria, compartida con los otros DAOs *Memoria.
+     */
+    public HabitacionDAOMemoria(BaseDatosMemoria db) {
+        this.db = db;
+    }
+
+    @Override
+    public void save(Habitacion habitacion) throws HotelException {
+        db.escribir(() -> {
+            insertar(habitacion);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Habitacion> findById(int id) throws HotelException {
+        return db.leer(() -> Optional.ofNullable(db.habitacion(id)).map(BaseDatosMemoria::aHabitacion));
+    }
+
+    @Override
+    public Optional<Habitacion> findByNumero(int numero) throws HotelException {
+        return db.leer(() -> Optional.ofNullable(db.habitacionPorNumero(numero)).map(BaseDatosMemoria::aHabitacion));
+    }
+
+    @Override
+    public List<Habitacion> findAll() throws HotelException {
+        return db.leer(() -> {
+            List<Habitacion> habitaciones = new ArrayList<>();
+            for (FilaHabitacion fila : db.habitaciones()) {
+                habitaciones.add(BaseDatosMemoria.aHabitacion(fila));
+            }
+            return habitaciones;
+        });
+    }
+
+    @Override
+    public void update(Habitacion habitacion) throws HotelException {
+        db.escribir(() -> {
+            FilaHabitacion actual = db.habitacion(habitacion.getDbId());
+            if (actual != null) {
+                long desde = actual.estado.equals(habitacion.getEstado()) ? actual.estadoDesde : System.currentTimeMillis();
+                db.ponerHabitacion(new FilaHabitacion(actual.id, habitacion.getNumero(), habitacion.getTipo(),
+                        habitacion.getPrecioPorNoche(), habitacion.getEstado(), desde));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(int id) throws HotelException {
+        db.escribir(() -> {
+            db.quitarHabitacion(id);
+            return null;
+        });
+    }
+
+    @Override
+    public List<ResultadoCambioEstado> updateEstadoByNumeros(Collection<Integer> numeros, String estadoOrigen,
+                                                             String estadoDestino) throws HotelException {
+        return db.escribir(() -> {
+            List<ResultadoCambioEstado> resultados = new ArrayList<>();
+            for (Integer numero : new LinkedHashSet<>(numeros)) {
+                FilaHabitacion fila = db.habitacionPorNumero(numero);
+                if (fila == null) {
+                    resultados.add(new ResultadoCambioEstado(numero, null, estadoDestino, false, "habitación no encontrada"));
+                } else if (!fila.estado.equals(estadoOrigen)) {
+                    resultados.add(new ResultadoCambioEstado(numero, fila.estado, estadoDestino, false,
+                            "estado actual '" + fila.estado + "', se esperaba '" + estadoOrigen + "'"));
+                } else {
+                    db.ponerHabitacion(fila.conEstado(estadoDestino));
+                    resultados.add(new ResultadoCambioEstado(numero, fila.estado, estadoDestino, true, null));
+                }
+            }
+            return resultados;
+        });
+    }
+
+    @Override
+    public Map<String, Integer> countByEstado() throws HotelException {
+        return db.leer(() -> {
+            Map<String, Integer> conteo = new HashMap<>();
+            for (FilaHabitacion fila : db.habitaciones()) {
+                conteo.merge(fila.estado, 1, Integer::sum);
+            }
+            return conteo;
+        });
+    }
+
+    @Override
+    public void saveAll(Collection<Habitacion> habitaciones) throws HotelException {
+        db.escribir(() -> {
+            for (Habitacion habitacion : habitaciones) {
+                insertar(habitacion);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<Integer> updateLimpiezaVencida(int minutos, int limite) throws HotelException {
+        long limiteDesde = System.currentTimeMillis() - minutos * 60_000L;
+        return db.escribir(() -> {
+            List<FilaHabitacion> vencidas = new ArrayList<>();
+            for (FilaHabitacion fila : db.habitaciones()) {
+                if (fila.estado.equals("En Limpieza") && fila.estadoDesde < limiteDesde) {
+                    vencidas.add(fila);
+                }
+            }
+            vencidas.sort(Comparator.comparingLong(f -> f.estadoDesde));
+            List<Integer> numeros = new ArrayList<>();
+            for (FilaHabitacion fila : vencidas.subList(0, Math.min(limite, vencidas.size()))) {
+                db.ponerHabitacion(fila.conEstado("Disponible"));
+                numeros.add(fila.numero);
+            }
+            return numeros;
+        });
+    }
+
+    @Override
+    public List<ResultadoCambioEstado> updateEstados(Collection<CambioEstadoHabitacion> cambios) throws HotelException {
+        return db.escribir(() -> {
+            List<ResultadoCambioEstado> resultados = new ArrayList<>();
+            for (CambioEstadoHabitacion cambio : cambios) {
+                FilaHabitacion fila = db.habitacionPorNumero(cambio.getNumeroHabitacion());
+                boolean aplicado = fila != null && fila.estado.equals(cambio.getEstadoOrigen());
+                if (aplicado) {
+                    db.ponerHabitacion(fila.conEstado(cambio.getEstadoDestino()));
+                }
+                resultados.add(new ResultadoCambioEstado(cambio.getNumeroHabitacion(), cambio.getEstadoOrigen(),
+                        cambio.getEstadoDestino(), aplicado,
+                        aplicado ? null : "la habitación ya no estaba en '" + cambio.getEstadoOrigen() + "'"));
+            }
+            return resultados;
+        });
+    }
+
+    private void insertar(Habitacion habitacion) throws HotelException {
+        int id = db.siguienteIdHabitacion();
+        try {
+            db.ponerHabitacion(new FilaHabitacion(id, habitacion.getNumero(), habitacion.getTipo(),
+                    habitacion.getPrecioPorNoche(), habitacion.getEstado(), System.currentTimeMillis()));
+        } catch (HotelException e) {
+            throw new HotelException("Error al guardar la habitación: " + e.getMessage());
+        }
+        habitacion.setDbId(id);
+    }
+}
@@ -0,0 +1,614 @@
+package hotel.config.db.dao.impl;
+
+import hotel.config.db.dao.interfaces.HuespedDAO;
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Directorio de huéspedes fuera del heap, delante de un HuespedDAO: responde findByDni y findById desde
+ * archivos mapeados en memoria y solo consulta la DB cuando el huésped no está en el directorio.
+ *
+ * Se guarda en tres archivos dentro de la carpeta indicada:
+ * - huespedes.dat: los registros de ancho variable (ID de DB y los textos en UTF-8), uno tras otro,
+ *   en segmentos de 64 MB mapeados por separado (ningún registro cruza de un segmento a otro).
+ * - huespedes-dni.idx y huespedes-id.idx: tablas hash de direccionamiento abierto (sondeo lineal) con
+ *   ranuras de ancho fijo [posición del registro, clave], por hash del DNI y por ID de DB.
+ *
+ * Al estar mapeados, los archivos sobreviven a un reinicio: el directorio está lleno desde el arranque,
+ * sin consultas de precarga, y su tamaño no pesa en el heap ni en las pausas del GC (cada búsqueda solo
+ * crea el Huesped que devuelve). Los cambios hechos a través de este DAO (save, update, delete, saveAll)
+ * se reflejan en el directorio; los hechos por otros procesos directamente en la DB no, como en el resto
+ * de cachés del sistema. Una actualización escribe un registro nuevo y deja el anterior sin uso.
+ *
+ * Los archivos solo valen para la base de la que se llenaron: la cabecera de huespedes.dat guarda la huella
+ * de su generación (HuespedDAOImpl.findGeneracion, que cambia cada vez que db/db.sql recrea la base y vuelve
+ * a emitir los IDs) y el directorio empieza vacío si no coincide con la actual. También empieza vacío si no
+ * se cerró con close() (una caída puede dejar los índices a medio escribir: nada se fuerza a disco antes).
+ * Un solo proceso puede abrir la carpeta a la vez (lock sobre huespedes.lock).
+ */
+public class HuespedDAODirectorio implements HuespedDAO, AutoCloseable {
+    private static final int MAGICO_DATOS = 0x48444431; // "HDD1"
+    private static final int MAGICO_INDICE = 0x48444931; // "HDI1"
+    private static final int CABECERA = 64;
+    private static final int BITS_SEGMENTO = 26;
+    private static final int TAMANO_SEGMENTO = 1 << BITS_SEGMENTO;
+    private static final int CAPACIDAD_INICIAL = 1 << 16;
+    // Cabecera de huespedes.dat: int mágico, long fin (en 8), int abierto (en 16) y la huella de la generación (en 20)
+    private static final int POSICION_FIN = 8;
+    private static final int POSICION_ABIERTO = 16;
+    private static final int POSICION_HUELLA = 20;
+
+    private final HuespedDAO delegado;
+    private final FileChannel canalBloqueo;
+    private final FileLock bloqueo;
+    private final FileChannel canalDatos;
+    private final List<MappedByteBuffer> segmentos = new ArrayList<>();
+    private final TablaHash porDni;
+    private final TablaHash porId;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private long fin;
+    private boolean cerrado;
+
+    /**
+     * Constructor de la clase HuespedDAODirectorio. Abre el directorio existente en la carpeta o crea uno vacío
+     * (también si los archivos no son válidos, son de otra generación de la base o no se cerraron bien).
+     * @param delegado El DAO que accede a la DB.
+     * @param carpeta La carpeta de los archivos del directorio.
+     * @param generacion La generación actual de la base (ver HuespedDAOImpl.findGeneracion); null si no se
+     *                   conoce, y entonces el directorio empieza siempre vacío.
+     * @throws HotelException Si no se pueden crear o abrir los archivos, o si otro proceso usa la carpeta.
+     */
+    public HuespedDAODirectorio(HuespedDAO delegado, Path carpeta, String generacion) throws HotelException {
+        this.delegado = delegado;
+        byte[] huella = huella(generacion);
+        FileChannel canal = null;
+        try {
+            Files.createDirectories(carpeta);
+            canal = FileChannel.open(carpeta.resolve("huespedes.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lockArchivo;
+            try {
+                lockArchivo = canal.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lockArchivo = null; // Ya abierto en este mismo proceso
+            }
+            if (lockArchivo == null) {
+                throw new HotelException("El directorio de huéspedes en " + carpeta + " ya está abierto en otro proceso.");
+            }
+            this.canalBloqueo = canal;
+            this.bloqueo = lockArchivo;
+
+            Path datos = carpeta.resolve("huespedes.dat");
+            Path indiceDni = carpeta.resolve("huespedes-dni.idx");
+            Path indiceId = carpeta.resolve("huespedes-id.idx");
+            if (!archivosValidos(datos, indiceDni, indiceId, huella)) {
+                Files.deleteIfExists(datos);
+                Files.deleteIfExists(indiceDni);
+                Files.deleteIfExists(indiceId);
+            }
+            this.canalDatos = FileChannel.open(datos,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer primero = segmento(0);
+            if (primero.getInt(0) != MAGICO_DATOS) {
+                primero.putLong(POSICION_FIN, CABECERA);
+                primero.put(POSICION_HUELLA, huella);
+                primero.putInt(0, MAGICO_DATOS);
+            }
+            this.fin = primero.getLong(POSICION_FIN);
+            segmento((int) ((fin - 1) >>> BITS_SEGMENTO)); // Mapea los segmentos ya escritos
+            this.porDni = new TablaHash(indiceDni);
+            this.porId = new TablaHash(indiceId);
+            // Marca de abierto, en disco antes de cualquier cambio: si no se llega a close(), al abrir se descarta
+            primero.putInt(POSICION_ABIERTO, 1);
+            primero.force();
+        } catch (IOException e) {
+            cerrarSinError(canal);
+            throw new HotelException("Error al abrir el directorio de huéspedes en " + carpeta + ": " + e.getMessage());
+        } catch (HotelException | RuntimeException e) {
+            cerrarSinError(canal);
+            throw e;
+        }
+        System.out.println("Directorio de huéspedes abierto en " + carpeta + " (" + tamano() + " huéspedes).");
+    }
+
+    @Override
+    public void save(Huesped huesped) throws HotelException {
+        delegado.save(huesped);
+        registrar(List.of(huesped));
+    }
+
+    @Override
+    public Optional<Huesped> findById(int id) throws HotelException {
+        lock.readLock().lock();
+        try {
+            long posicion = porId.buscar(id, p -> leerId(p) == id);
+            if (posicion >= 0) {
+                aciertos.increment();
+                return Optional.of(leer(posicion));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        fallos.increment();
+        Optional<Huesped> huesped = delegado.findById(id);
+        if (huesped.isPresent()) {
+            registrar(List.of(huesped.get()));
+        }
+        return huesped;
+    }
+
+    @Override
+    public Optional<Huesped> findByDni(String dni) throws HotelException {
+        if (dni == null) {
+            return delegado.findByDni(null);
+        }
+        lock.readLock().lock();
+        try {
+            long posicion = porDni.buscar(dni.hashCode(), p -> dni.equals(leerDni(p)));
+            if (posicion >= 0) {
+                aciertos.increment();
+                return Optional.of(leer(posicion));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        fallos.increment();
+        Optional<Huesped> huesped = delegado.findByDni(dni);
+        if (huesped.isPresent()) {
+            registrar(List.of(huesped.get()));
+        }
+        return huesped;
+    }
+
+    @Override
+    public List<Huesped> findAll() throws HotelException {
+        return delegado.findAll();
+    }
+
+    @Override
+    public void update(Huesped huesped) throws HotelException {
+        delegado.update(huesped);
+        registrar(List.of(huesped));
+    }
+
+    @Override
+    public void delete(int id) throws HotelException {
+        delegado.delete(id);
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Huesped> huespedes) throws HotelException {
+        delegado.saveAll(huespedes);
+        registrar(huespedes);
+    }
+
+    /**
+     * @return El número de huéspedes en el directorio.
+     */
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return porId.ocupados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Las búsquedas respondidas por el directorio.
+     */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    /**
+     * @return Las búsquedas que tuvieron que ir a la DB.
+     */
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Escribe a disco los cambios pendientes, marca los archivos como cerrados y libera la carpeta.
+     * Llamarlo más de una vez no hace nada.
+     */
+    @Override
+    public void close() throws HotelException {
+        lock.writeLock().lock();
+        if (cerrado) {
+            lock.writeLock().unlock();
+            return;
+        }
+        cerrado = true;
+        try {
+            for (MappedByteBuffer segmento : segmentos) {
+                segmento.force();
+            }
+            porDni.cerrar();
+            porId.cerrar();
+            // Solo con todo en disco se quita la marca de abierto
+            MappedByteBuffer primero = segmentos.get(0);
+            primero.putInt(POSICION_ABIERTO, 0);
+            primero.force();
+            canalDatos.close();
+        } catch (IOException e) {
+            throw new HotelException("Error al cerrar el directorio de huéspedes: " + e.getMessage());
+        } finally {
+            try {
+                bloqueo.release();
+            } catch (IOException e) {
+                System.err.println("Error al liberar el directorio de huéspedes: " + e.getMessage());
+            }
+            cerrarSinError(canalBloqueo);
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza huéspedes persistidos en el directorio. Si no se pueden escribir (ej: disco lleno)
+     * se quitan del directorio, para que las siguientes búsquedas vayan a la DB en lugar de ver datos viejos.
+     */
+    private void registrar(Collection<Huesped> huespedes) {
+        lock.writeLock().lock();
+        try {
+            for (Huesped huesped : huespedes) {
+                int id = huesped.getIdHuespedInterno();
+                if (id <= 0) {
+                    continue; // No persistido
+                }
+                try {
+                    quitar(id);
+                    long posicion = escribir(huesped);
+                    if (posicion < 0) {
+                        continue; // Registro demasiado grande: queda solo en la DB
+                    }
+                    porId.poner(id, posicion);
+                    if (huesped.getDni() != null) {
+                        porDni.poner(huesped.getDni().hashCode(), posicion);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error al escribir en el directorio de huéspedes: " + e.getMessage());
+                    quitar(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un huésped de los dos índices (su registro queda sin uso). Requiere el lock de escritura.
+     */
+    private void quitar(int id) {
+        long posicion = porId.buscar(id, p -> leerId(p) == id);
+        if (posicion < 0) {
+            return;
+        }
+        String dni = leerDni(posicion);
+        porId.quitar(id, posicion);
+        if (dni != null) {
+            porDni.quitar(dni.hashCode(), posicion);
+        }
+    }
+
+    /**
+     * Escribe un registro al final de los datos.
+     * Formato: int longitud total, int ID de DB y los textos (short longitud en bytes, -1 si es null, y UTF-8).
+     * @return La posición del registro, o -1 si no cabe en un segmento.
+     */
+    private long escribir(Huesped huesped) throws IOException {
+        byte[][] textos = {
+                utf8(huesped.getIdHuesped()), utf8(huesped.getNombre()), utf8(huesped.getApellido()),
+                utf8(huesped.getDni()), utf8(huesped.getEmail()), utf8(huesped.getTelefono())};
+        int longitud = 2 * Integer.BYTES;
+        for (byte[] texto : textos) {
+            if (texto != null && texto.length > Short.MAX_VALUE) {
+                return -1;
+            }
+            longitud += Short.BYTES + (texto != null ? texto.length : 0);
+        }
+        if (longitud > TAMANO_SEGMENTO - CABECERA) {
+            return -1;
+        }
+
+        long posicion = fin;
+        if ((posicion & (TAMANO_SEGMENTO - 1)) + longitud > TAMANO_SEGMENTO) {
+            posicion = ((posicion >>> BITS_SEGMENTO) + 1) << BITS_SEGMENTO; // Al principio del siguiente segmento
+        }
+        MappedByteBuffer segmento = segmento((int) (posicion >>> BITS_SEGMENTO));
+        int i = (int) (posicion & (TAMANO_SEGMENTO - 1));
+        segmento.putInt(i, longitud);
+        segmento.putInt(i + 4, huesped.getIdHuespedInterno());
+        i += 8;
+        for (byte[] texto : textos) {
+            if (texto == null) {
+                segmento.putShort(i, (short) -1);
+                i += 2;
+            } else {
+                segmento.putShort(i, (short) texto.length);
+                segmento.put(i + 2, texto);
+                i += 2 + texto.length;
+            }
+        }
+        fin = posicion + longitud;
+        segmentos.get(0).putLong(POSICION_FIN, fin);
+        return posicion;
+    }
+
+    private Huesped leer(long posicion) {
+        ByteBuffer segmento = segmentos.get((int) (posicion >>> BITS_SEGMENTO));
+        int i = (int) (posicion & (TAMANO_SEGMENTO - 1));
+        int id = segmento.getInt(i + 4);
+        String[] textos = new String[6];
+        i += 8;
+        for (int t = 0; t < textos.length; t++) {
+            short longitud = segmento.getShort(i);
+            i += 2;
+            if (longitud >= 0) {
+                byte[] bytes = new byte[longitud];
+                segmento.get(i, bytes);
+                textos[t] = new String(bytes, StandardCharsets.UTF_8);
+                i += longitud;
+            }
+        }
+        Huesped huesped = new Huesped(textos[0], textos[1], textos[2], textos[3], textos[4], textos[5]);
+        huesped.setIdHuespedInterno(id);
+        return huesped;
+    }
+
+    private int leerId(long posicion) {
+        return segmentos.get((int) (posicion >>> BITS_SEGMENTO)).getInt((int) (posicion & (TAMANO_SEGMENTO - 1)) + 4);
+    }
+
+    /**
+     * Lee solo el DNI de un registro (el cuarto texto), para comprobar las colisiones del hash.
+     */
+    private String leerDni(long posicion) {
+        ByteBuffer segmento = segmentos.get((int) (posicion >>> BITS_SEGMENTO));
+        int i = (int) (posicion & (TAMANO_SEGMENTO - 1)) + 8;
+        for (int t = 0; t < 3; t++) {
+            i += 2 + Math.max(0, segmento.getShort(i));
+        }
+        short longitud = segmento.getShort(i);
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        segmento.get(i + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retorna el segmento de datos indicado, mapeándolo (y extendiendo el archivo) si aún no lo está.
+     */
+    private MappedByteBuffer segmento(int indice) throws IOException {
+        while (segmentos.size() <= indice) {
+            segmentos.add(canalDatos.map(FileChannel.MapMode.READ_WRITE,
+                    (long) segmentos.size() * TAMANO_SEGMENTO, TAMANO_SEGMENTO));
+        }
+        return segmentos.get(indice);
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Huella de 36 bytes de la generación de la base; sin generación, una al azar (nunca coincide).
+     */
+    private static byte[] huella(String generacion) {
+        UUID uuid = generacion != null
+                ? UUID.nameUUIDFromBytes(generacion.getBytes(StandardCharsets.UTF_8)) : UUID.randomUUID();
+        return uuid.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Los archivos valen si tienen su número mágico y los datos se cerraron bien y son de la misma generación.
+     */
+    private static boolean archivosValidos(Path datos, Path indiceDni, Path indiceId, byte[] huella) throws IOException {
+        ByteBuffer cabecera = leerCabecera(datos);
+        if (cabecera == null || cabecera.getInt(0) != MAGICO_DATOS || cabecera.getInt(POSICION_ABIERTO) != 0
+                || !cabecera.slice(POSICION_HUELLA, huella.length).equals(ByteBuffer.wrap(huella))) {
+            return false;
+        }
+        return tieneMagico(indiceDni, MAGICO_INDICE) && tieneMagico(indiceId, MAGICO_INDICE);
+    }
+
+    private static boolean tieneMagico(Path archivo, int magico) throws IOException {
+        ByteBuffer cabecera = leerCabecera(archivo);
+        return cabecera != null && cabecera.getInt(0) == magico;
+    }
+
+    private static ByteBuffer leerCabecera(Path archivo) throws IOException {
+        if (!Files.isRegularFile(archivo) || Files.size(archivo) < CABECERA) {
+            return null;
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            while (cabecera.hasRemaining() && canal.read(cabecera, cabecera.position()) > 0) {
+                // Lee la cabecera completa
+            }
+            return cabecera;
+        }
+    }
+
+    private static void cerrarSinError(FileChannel canal) {
+        if (canal != null) {
+            try {
+                canal.close(); // También libera su lock
+            } catch (IOException e) {
+                System.err.println("Error al cerrar " + canal + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto en un archivo mapeado: clave int -> posición de un registro.
+     * Cada ranura ocupa 16 bytes: long referencia (0 = vacía, -1 = borrada, si no posición + 1) e int clave.
+     * Varias posiciones pueden compartir clave (colisiones del hash del DNI); quien busca confirma cuál es
+     * la suya leyendo el registro. Se duplica cuando supera el 50% de ranuras usadas.
+     * Cabecera: int mágico, int capacidad, int ocupadas, int usadas (ocupadas + borradas).
+     */
+    private static final class TablaHash {
+        private static final int RANURA = 16;
+
+        private final Path archivo;
+        private FileChannel canal;
+        private MappedByteBuffer buffer;
+        private int capacidad;
+        private int ocupados;
+        private int usados;
+
+        TablaHash(Path archivo) throws IOException {
+            this.archivo = archivo;
+            boolean existe = Files.isRegularFile(archivo);
+            this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (existe) {
+                ByteBuffer cabecera = ByteBuffer.allocate(16);
+                canal.read(cabecera, 0);
+                this.capacidad = cabecera.getInt(4);
+                this.buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, CABECERA + (long) capacidad * RANURA);
+                this.ocupados = buffer.getInt(8);
+                this.usados = buffer.getInt(12);
+            } else {
+                this.capacidad = CAPACIDAD_INICIAL;
+                this.buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, CABECERA + (long) capacidad * RANURA);
+                escribirCabecera();
+            }
+        }
+
+        /**
+         * @return La posición del registro con esa clave que cumple 'coincide', o -1 si no hay ninguno.
+         */
+        long buscar(int clave, LongPredicate coincide) {
+            int mascara = capacidad - 1;
+            for (int i = mezclar(clave) & mascara; ; i = (i + 1) & mascara) {
+                int ranura = CABECERA + i * RANURA;
+                long referencia = buffer.getLong(ranura);
+                if (referencia == 0) {
+                    return -1;
+                }
+                if (referencia > 0 && buffer.getInt(ranura + 8) == clave && coincide.test(referencia - 1)) {
+                    return referencia - 1;
+                }
+            }
+        }
+
+        void poner(int clave, long posicion) throws IOException {
+            if ((usados + 1) * 2L > capacidad) {
+                crecer();
+            }
+            int mascara = capacidad - 1;
+            for (int i = mezclar(clave) & mascara; ; i = (i + 1) & mascara) {
+                int ranura = CABECERA + i * RANURA;
+                long referencia = buffer.getLong(ranura);
+                if (referencia <= 0) {
+                    buffer.putInt(ranura + 8, clave);
+                    buffer.putLong(ranura, posicion + 1);
+                    if (referencia == 0) {
+                        usados++;
+                    }
+                    ocupados++;
+                    escribirCabecera();
+                    return;
+                }
+            }
+        }
+
+        void quitar(int clave, long posicion) {
+            int mascara = capacidad - 1;
+            for (int i = mezclar(clave) & mascara; ; i = (i + 1) & mascara) {
+                int ranura = CABECERA + i * RANURA;
+                long referencia = buffer.getLong(ranura);
+                if (referencia == 0) {
+                    return;
+                }
+                if (referencia == posicion + 1) {
+                    buffer.putLong(ranura, -1);
+                    ocupados--;
+                    escribirCabecera();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Copia las ranuras ocupadas a un archivo nuevo del doble de capacidad (sin las borradas)
+         * y lo pone en lugar del actual.
+         */
+        private void crecer() throws IOException {
+            int nuevaCapacidad = capacidad * 2;
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            Files.deleteIfExists(temporal);
+            FileChannel nuevoCanal = FileChannel.open(temporal,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer nuevo = nuevoCanal.map(FileChannel.MapMode.READ_WRITE, 0, CABECERA + (long) nuevaCapacidad * RANURA);
+            int mascara = nuevaCapacidad - 1;
+            for (int i = 0; i < capacidad; i++) {
+                int ranura = CABECERA + i * RANURA;
+                long referencia = buffer.getLong(ranura);
+                if (referencia <= 0) {
+                    continue;
+                }
+                int clave = buffer.getInt(ranura + 8);
+                int j = mezclar(clave) & mascara;
+                while (nuevo.getLong(CABECERA + j * RANURA) != 0) {
+                    j = (j + 1) & mascara;
+                }
+                nuevo.putInt(CABECERA + j * RANURA + 8, clave);
+                nuevo.putLong(CABECERA + j * RANURA, referencia);
+            }
+            canal.close();
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            canal = nuevoCanal;
+            buffer = nuevo;
+            capacidad = nuevaCapacidad;
+            usados = ocupados;
+            escribirCabecera();
+        }
+
+        private void escribirCabecera() {
+            buffer.putInt(4, capacidad);
+            buffer.putInt(8, ocupados);
+            buffer.putInt(12, usados);
+            buffer.putInt(0, MAGICO_INDICE);
+        }
+
+        void cerrar() throws IOException {
+            buffer.force();
+            canal.close();
+        }
+
+        private static int mezclar(int clave) {
+            int h = clave * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
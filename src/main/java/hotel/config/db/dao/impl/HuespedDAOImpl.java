@@ -3,12 +3,16 @@ package hotel.config.db.dao.impl;
 
 
 import hotel.config.db.Conexion;
+import hotel.config.db.dao.ConsultaCompartida;
+import hotel.config.db.dao.MapeadorFila;
 import hotel.config.db.dao.interfaces.HuespedDAO;
 import hotel.gestion.HotelException;
 import hotel.gestion.Huesped;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +20,42 @@ import java.util.Optional;
  * Implementación de la interfaz HuespedDAO para operaciones con la base de datos MySQL.
  */
 public class HuespedDAOImpl implements HuespedDAO {
+    private static final String SQL_POR_ID = "SELECT id_huesped, nombre, apellido, dni, email, telefono FROM HUESPEDES WHERE id_huesped = ?";
+    private static final String SQL_POR_DNI = "SELECT id_huesped, nombre, apellido, dni, email, telefono FROM HUESPEDES WHERE dni = ?";
+    // Consultas del mostrador que conviene preparar al abrir cada conexión (ver Conexion.precalentar)
+    public static final List<String> SENTENCIAS_FRECUENTES = List.of(SQL_POR_ID, SQL_POR_DNI);
+
+    private final DataSource dataSource;
+    private final DataSource lecturas; // Solo para las consultas de reportes (puede ser una réplica)
+    // Búsquedas concurrentes del mismo DNI comparten una sola consulta
+    private final ConsultaCompartida<String, Optional<Huesped>> porDni =
+            new ConsultaCompartida<>("HuespedDAO.findByDni", h -> h.map(HuespedDAOImpl::copiar));
+
+    /**
+     * Constructor por defecto: trabaja contra la base de datos principal (Conexion.getDataSource())
+     * y envía los reportes a Conexion.getDataSourceLecturas().
+     */
+    public HuespedDAOImpl() {
+        this(Conexion.getDataSource(), Conexion.getDataSourceLecturas());
+    }
+
+    /**
+     * Constructor que permite elegir la base de datos (por ejemplo, el esquema de otro hotel de la cadena).
+     * @param dataSource El DataSource del que se obtienen las conexiones.
+     */
+    public HuespedDAOImpl(DataSource dataSource) {
+        this(dataSource, dataSource);
+    }
+
+    /**
+     * Constructor con separación de lecturas: los reportes se leen de 'lecturas' y todo lo demás de 'dataSource'.
+     * @param dataSource El DataSource de la primaria (escrituras y lecturas que deben ver lo recién escrito).
+     * @param lecturas El DataSource para las consultas de reportes (ej: DataSourceLecturas sobre una réplica).
+     */
+    public HuespedDAOImpl(DataSource dataSource, DataSource lecturas) {
+        this.dataSource = dataSource;
+        this.lecturas = lecturas;
+    }
 
     /**
      * Guarda un nuevo huésped en la base de datos.
@@ -26,7 +66,7 @@ public class HuespedDAOImpl implements HuespedDAO {
     @Override
     public void save(Huesped huesped) throws HotelException {
         String sql = "INSERT INTO HUESPEDES (nombre, apellido, dni, email, telefono) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setString(1, huesped.getNombre());
@@ -62,8 +102,8 @@ public class HuespedDAOImpl implements HuespedDAO {
      */
     @Override
     public Optional<Huesped> findById(int id) throws HotelException {
-        String sql = "SELECT id_huesped, nombre, apellido, dni, email, telefono FROM HUESPEDES WHERE id_huesped = ?";
-        try (Connection conn = Conexion.getConnection();
+        String sql = SQL_POR_ID;
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, id);
@@ -86,8 +126,12 @@ public class HuespedDAOImpl implements HuespedDAO {
      */
     @Override
     public Optional<Huesped> findByDni(String dni) throws HotelException {
-        String sql = "SELECT id_huesped, nombre, apellido, dni, email, telefono FROM HUESPEDES WHERE dni = ?";
-        try (Connection conn = Conexion.getConnection();
+        return porDni.obtener(dni, this::consultarPorDni);
+    }
+
+    private Optional<Huesped> consultarPorDni(String dni) throws HotelException {
+        String sql = SQL_POR_DNI;
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, dni);
@@ -111,12 +155,15 @@ public class HuespedDAOImpl implements HuespedDAO {
     public List<Huesped> findAll() throws HotelException {
         List<Huesped> huespedes = new ArrayList<>();
         String sql = "SELECT id_huesped, nombre, apellido, dni, email, telefono FROM HUESPEDES";
-        try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = lecturas.getConnection();
+             Statement stmt = conn.createStatement()) {
 
-            while (rs.next()) {
-                huespedes.add(createHuespedFromResultSet(rs));
+            Conexion.configurarConsultaReporte(stmt);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                MapeadorFila<Huesped> mapeador = mapeadorHuesped(rs);
+                while (rs.next()) {
+                    huespedes.add(mapeador.mapear(rs));
+                }
             }
         } catch (SQLException e) {
             throw new HotelException("Error al obtener todos los huéspedes: " + e.getMessage());
@@ -132,7 +179,7 @@ public class HuespedDAOImpl implements HuespedDAO {
     @Override
     public void update(Huesped huesped) throws HotelException {
         String sql = "UPDATE HUESPEDES SET nombre = ?, apellido = ?, dni = ?, email = ?, telefono = ? WHERE id_huesped = ?";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, huesped.getNombre());
@@ -157,7 +204,7 @@ public class HuespedDAOImpl implements HuespedDAO {
     @Override
     public void delete(int id) throws HotelException {
         String sql = "DELETE FROM HUESPEDES WHERE id_huesped = ?";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, id);
@@ -168,18 +215,110 @@ public class HuespedDAOImpl implements HuespedDAO {
         }
     }
 
+    /**
+     * Lee la generación de la base (tabla GENERACION, que db/db.sql rellena con un ID nuevo en cada ejecución),
+     * para saber si los IDs de huésped guardados fuera de la DB siguen siendo válidos.
+     * @return El ID de la generación, o null si la base no tiene la tabla (esquema anterior).
+     * @throws HotelException Si ocurre otro error de SQL.
+     */
+    public String findGeneracion() throws HotelException {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id_generacion FROM GENERACION")) {
+            return rs.next() ? rs.getString(1) : null;
+        } catch (SQLSyntaxErrorException e) {
+            return null; // Tabla inexistente
+        } catch (SQLException e) {
+            throw new HotelException("Error al leer la generación de la base de datos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Guarda muchos huéspedes en una sola transacción, con sentencias por lotes de hasta
+     * hotel.dao.tamanoLote filas. Asigna a cada huésped el ID generado por la DB.
+     * @param huespedes Los huéspedes a guardar.
+     * @throws HotelException Si ocurre un error de SQL (no se guarda ninguno).
+     */
+    @Override
+    public void saveAll(Collection<Huesped> huespedes) throws HotelException {
+        if (huespedes.isEmpty()) {
+            return;
+        }
+        List<Huesped> lista = new ArrayList<>(huespedes);
+        String sql = "INSERT INTO HUESPEDES (nombre, apellido, dni, email, telefono) VALUES (?, ?, ?, ?, ?)";
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            int tamanoLote = Conexion.getTamanoLote();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int desde = 0; desde < lista.size(); desde += tamanoLote) {
+                    List<Huesped> lote = lista.subList(desde, Math.min(desde + tamanoLote, lista.size()));
+                    for (Huesped huesped : lote) {
+                        pstmt.setString(1, huesped.getNombre());
+                        pstmt.setString(2, huesped.getApellido());
+                        pstmt.setString(3, huesped.getDni());
+                        pstmt.setString(4, huesped.getEmail());
+                        pstmt.setString(5, huesped.getTelefono());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        for (Huesped huesped : lote) {
+                            if (generatedKeys.next()) {
+                                huesped.setIdHuespedInterno(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al guardar los huéspedes: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+    }
+
     /**
      * Método auxiliar para construir un objeto Huesped a partir de un ResultSet.
+     * Busca las columnas por nombre: para recorrer muchas filas se usa mapeadorHuesped.
+     */
+    static Huesped createHuespedFromResultSet(ResultSet rs) throws SQLException {
+        return crearHuesped(rs.getInt("id_huesped"), rs.getString("nombre"), rs.getString("apellido"),
+                rs.getString("dni"), rs.getString("email"), rs.getString("telefono"));
+    }
+
+    /**
+     * Crea el mapeador de huéspedes de un ResultSet con las columnas de HUESPEDES, resolviendo
+     * sus índices una sola vez. Es de paquete para que ReservaDAOImpl lo reutilice en consultas con JOIN.
      */
-    private Huesped createHuespedFromResultSet(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id_huesped");
-        String nombre = rs.getString("nombre");
-        String apellido = rs.getString("apellido");
-        String dni = rs.getString("dni");
-        String email = rs.getString("email");
-        String telefono = rs.getString("telefono");
-        Huesped huesped = new Huesped(String.valueOf(id), nombre, apellido, dni, email, telefono);
+    static MapeadorFila<Huesped> mapeadorHuesped(ResultSet rs) throws SQLException {
+        int colId = rs.findColumn("id_huesped");
+        int colNombre = rs.findColumn("nombre");
+        int colApellido = rs.findColumn("apellido");
+        int colDni = rs.findColumn("dni");
+        int colEmail = rs.findColumn("email");
+        int colTelefono = rs.findColumn("telefono");
+        return fila -> crearHuesped(fila.getInt(colId), fila.getString(colNombre), fila.getString(colApellido),
+                fila.getString(colDni), fila.getString(colEmail), fila.getString(colTelefono));
+    }
+
+    private static Huesped crearHuesped(int id, String nombre, String apellido, String dni, String email, String telefono) {
+        // Sin ID externo: getIdHuesped() usa el ID de la DB, así no se crea un String por fila
+        Huesped huesped = new Huesped(null, nombre, apellido, dni, email, telefono);
         huesped.setIdHuespedInterno(id); // Establecer el ID interno de la DB
         return huesped;
     }
+
+    /**
+     * Crea una copia independiente de un huésped (para los llamadores que comparten una consulta).
+     */
+    static Huesped copiar(Huesped original) {
+        Huesped copia = new Huesped(original.getIdHuesped(), original.getNombre(), original.getApellido(),
+                original.getDni(), original.getEmail(), original.getTelefono());
+        copia.setIdHuespedInterno(original.getIdHuespedInterno());
+        return copia;
+    }
 }
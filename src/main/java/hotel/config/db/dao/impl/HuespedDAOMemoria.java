@@ -0,0 +1,100 @@
+package hotel.config.db.dao.impl;
+
+import hotel.config.db.dao.impl.BaseDatosMemoria.FilaHuesped;
+import hotel.config.db.dao.interfaces.HuespedDAO;
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de la interfaz HuespedDAO sobre una BaseDatosMemoria, con la misma semántica que
+ * HuespedDAOImpl (DNI único, guardado por lotes todo o nada).
+ */
+public class HuespedDAOMemoria implements HuespedDAO {
+    private final BaseDatosMemoria db;
+
+    /**
+     * Constructor de la clase HuespedDAOMemoria.
+     * @param db La base de datos en memoria, compartida con los otros DAOs *Memoria.
+     */
+    public HuespedDAOMemoria(BaseDatosMemoria db) {
+        this.db = db;
+    }
+
+    @Override
+    public void save(Huesped huesped) throws HotelException {
+        db.escribir(() -> {
+            insertar(huesped);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Huesped> findById(int id) throws HotelException {
+        return db.leer(() -> Optional.ofNullable(db.huesped(id)).map(BaseDatosMemoria::aHuesped));
+    }
+
+    @Override
+    public Optional<Huesped> findByDni(String dni) throws HotelException {
+        return db.leer(() -> Optional.ofNullable(db.huespedPorDni(dni)).map(BaseDatosMemoria::aHuesped));
+    }
+
+    @Override
+    public List<Huesped> findAll() throws HotelException {
+        return db.leer(() -> {
+            List<Huesped> huespedes = new ArrayList<>();
+            for (FilaHuesped fila : db.huespedes()) {
+                huespedes.add(BaseDatosMemoria.aHuesped(fila));
+            }
+            return huespedes;
+        });
+    }
+
+    @Override
+    public void update(Huesped huesped) throws HotelException {
+        db.escribir(() -> {
+            if (db.huesped(huesped.getIdHuespedInterno()) != null) {
+                try {
+                    db.ponerHuesped(new FilaHuesped(huesped.getIdHuespedInterno(), huesped.getNombre(),
+                            huesped.getApellido(), huesped.getDni(), huesped.getEmail(), huesped.getTelefono()));
+                } catch (HotelException e) {
+                    throw new HotelException("Error al actualizar el huésped: " + e.getMessage());
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(int id) throws HotelException {
+        db.escribir(() -> {
+            db.quitarHuesped(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void saveAll(Collection<Huesped> huespedes) throws HotelException {
+        db.escribir(() -> {
+            for (Huesped huesped : huespedes) {
+                insertar(huesped);
+            }
+            return null;
+        });
+    }
+
+    private void insertar(Huesped huesped) throws HotelException {
+        int id = db.siguienteIdHuesped();
+        try {
+            db.ponerHuesped(new FilaHuesped(id, huesped.getNombre(), huesped.getApellido(), huesped.getDni(),
+                    huesped.getEmail(), huesped.getTelefono()));
+        } catch (HotelException e) {
+            throw new HotelException("Error al guardar el huésped: " + e.getMessage());
+        }
+        huesped.setIdHuespedInterno(id);
+    }
+}
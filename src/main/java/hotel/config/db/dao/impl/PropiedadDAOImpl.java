@@ -0,0 +1,118 @@
+package hotel.config.db.dao.impl;
+
+
+import hotel.config.db.Conexion;
+import hotel.config.db.dao.interfaces.PropiedadDAO;
+import hotel.gestion.HotelException;
+import hotel.gestion.Propiedad;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de la interfaz PropiedadDAO para operaciones con la base de datos MySQL.
+ * El catálogo vive siempre en el esquema principal, no en los shards de cada hotel.
+ */
+public class PropiedadDAOImpl implements PropiedadDAO {
+
+    private final DataSource dataSource;
+
+    /**
+     * Constructor por defecto: trabaja contra la base de datos principal (Conexion.getDataSource()).
+     */
+    public PropiedadDAOImpl() {
+        this(Conexion.getDataSource());
+    }
+
+    /**
+     * Constructor que permite elegir la base de datos donde está el catálogo.
+     * @param dataSource El DataSource del que se obtienen las conexiones.
+     */
+    public PropiedadDAOImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Registra una nueva propiedad en el catálogo.
+     * @param propiedad El objeto Propiedad a guardar.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void save(Propiedad propiedad) throws HotelException {
+        String sql = "INSERT INTO PROPIEDADES (nombre, esquema) VALUES (?, ?)";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setString(1, propiedad.getNombre());
+            pstmt.setString(2, propiedad.getEsquema());
+            pstmt.executeUpdate();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    propiedad.setIdPropiedad(generatedKeys.getInt(1)); // Asignar el ID autogenerado
+                }
+            }
+            System.out.println("Propiedad " + propiedad.getNombre() + " registrada en el catálogo de la cadena.");
+        } catch (SQLException e) {
+            throw new HotelException("Error al guardar la propiedad: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encuentra una propiedad por su nombre.
+     * @param nombre El nombre del hotel.
+     * @return Un Optional que contiene la Propiedad si se encuentra, o un Optional vacío.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public Optional<Propiedad> findByNombre(String nombre) throws HotelException {
+        String sql = "SELECT id_propiedad, nombre, esquema FROM PROPIEDADES WHERE nombre = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, nombre);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(createPropiedadFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al buscar propiedad por nombre: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Obtiene todas las propiedades de la cadena.
+     * @return Una lista de objetos Propiedad.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public List<Propiedad> findAll() throws HotelException {
+        List<Propiedad> propiedades = new ArrayList<>();
+        String sql = "SELECT id_propiedad, nombre, esquema FROM PROPIEDADES ORDER BY id_propiedad";
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                propiedades.add(createPropiedadFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al obtener las propiedades: " + e.getMessage());
+        }
+        return propiedades;
+    }
+
+    /**
+     * Método auxiliar para construir un objeto Propiedad a partir de un ResultSet.
+     */
+    private Propiedad createPropiedadFromResultSet(ResultSet rs) throws SQLException {
+        Propiedad propiedad = new Propiedad(rs.getString("nombre"), rs.getString("esquema"));
+        propiedad.setIdPropiedad(rs.getInt("id_propiedad"));
+        return propiedad;
+    }
+}
@@ -3,21 +3,74 @@ package hotel.config.db.dao.impl;
 
 
 import hotel.config.db.Conexion;
+import hotel.config.db.dao.MapeadorFila;
 import hotel.config.db.dao.interfaces.ReservaDAO;
+import hotel.gestion.DetalleFactura;
+import hotel.gestion.Factura;
 import hotel.gestion.Habitacion;
 import hotel.gestion.HotelException;
 import hotel.gestion.Huesped;
 import hotel.gestion.Reserva;
 
+import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implementación de la interfaz ReservaDAO para operaciones con la base de datos MySQL.
  */
 public class ReservaDAOImpl implements ReservaDAO {
+    // Consulta base que trae cada reserva junto con las columnas de su huésped y su habitación
+    private static final String SELECT_CON_JOIN = "SELECT r.id_reserva, r.id_huesped, r.id_habitacion, r.fecha_checkin, r.fecha_checkout, " +
+            "r.cantidad_huespedes, r.estado_reserva, " +
+            "hu.nombre, hu.apellido, hu.dni, hu.email, hu.telefono, " +
+            "h.numero_habitacion, h.tipo, h.precio_por_noche, h.estado " +
+            "FROM RESERVAS r " +
+            "JOIN HUESPEDES hu ON hu.id_huesped = r.id_huesped " +
+            "JOIN HABITACIONES h ON h.id_habitacion = r.id_habitacion ";
+    private static final String SQL_POR_ID = SELECT_CON_JOIN + "WHERE r.id_reserva = ?";
+    // Consultas del mostrador que conviene preparar al abrir cada conexión (ver Conexion.precalentar)
+    public static final List<String> SENTENCIAS_FRECUENTES = List.of(SQL_POR_ID);
+
+    private final DataSource dataSource;
+    private final DataSource lecturas; // Solo para las consultas de reportes (puede ser una réplica)
+
+    /**
+     * Constructor por defecto: trabaja contra la base de datos principal (Conexion.getDataSource())
+     * y envía los reportes a Conexion.getDataSourceLecturas().
+     */
+    public ReservaDAOImpl() {
+        this(Conexion.getDataSource(), Conexion.getDataSourceLecturas());
+    }
+
+    /**
+     * Constructor que permite elegir la base de datos (por ejemplo, el esquema de otro hotel de la cadena).
+     * @param dataSource El DataSource del que se obtienen las conexiones.
+     */
+    public ReservaDAOImpl(DataSource dataSource) {
+        this(dataSource, dataSource);
+    }
+
+    /**
+     * Constructor con separación de lecturas: los reportes se leen de 'lecturas' y todo lo demás de 'dataSource'.
+     * @param dataSource El DataSource de la primaria (escrituras y lecturas que deben ver lo recién escrito).
+     * @param lecturas El DataSource para las consultas de reportes (ej: DataSourceLecturas sobre una réplica).
+     */
+    public ReservaDAOImpl(DataSource dataSource, DataSource lecturas) {
+        this.dataSource = dataSource;
+        this.lecturas = lecturas;
+    }
 
     /**
      * Guarda una nueva reserva en la base de datos.
@@ -28,7 +81,7 @@ public class ReservaDAOImpl implements ReservaDAO {
     @Override
     public void save(Reserva reserva) throws HotelException {
         String sql = "INSERT INTO RESERVAS (id_huesped, id_habitacion, fecha_checkin, fecha_checkout, cantidad_huespedes, estado_reserva) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             // Asumiendo que Huesped y Habitacion ahora tienen un getter para su ID de DB
@@ -54,43 +107,22 @@ public class ReservaDAOImpl implements ReservaDAO {
     }
 
     /**
-     * Encuentra una reserva por su ID en la base de datos.
+     * Encuentra una reserva por su ID en la base de datos. El huésped y la habitación se leen en la misma
+     * consulta (JOIN), con una sola conexión.
      * @param id El ID de la reserva.
      * @return Un Optional que contiene la Reserva si se encuentra, o un Optional vacío.
      * @throws HotelException Si ocurre un error de SQL.
      */
     @Override
     public Optional<Reserva> findById(int id) throws HotelException {
-        String sql = "SELECT r.id_reserva, r.id_huesped, r.id_habitacion, r.fecha_checkin, r.fecha_checkout, " +
-                "r.cantidad_huespedes, r.estado_reserva FROM RESERVAS r WHERE r.id_reserva = ?";
-        try (Connection conn = Conexion.getConnection();
+        String sql = SQL_POR_ID;
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    // Necesitamos DAOs de Huesped y Habitacion para reconstruir los objetos
-                    HuespedDAOImpl huespedDAO = new HuespedDAOImpl();
-                    HabitacionDAOImpl habitacionDAO = new HabitacionDAOImpl();
-
-                    Optional<Huesped> huesped = huespedDAO.findById(rs.getInt("id_huesped"));
-                    Optional<Habitacion> habitacion = habitacionDAO.findById(rs.getInt("id_habitacion"));
-
-                    if (huesped.isPresent() && habitacion.isPresent()) {
-                        Reserva reserva = new Reserva(
-                                String.valueOf(rs.getInt("id_reserva")), // ID externo como String
-                                huesped.get(),
-                                habitacion.get(),
-                                rs.getDate("fecha_checkin").toLocalDate(),
-                                rs.getDate("fecha_checkout").toLocalDate(),
-                                rs.getInt("cantidad_huespedes")
-                        );
-                        reserva.setEstado(rs.getString("estado_reserva"));
-                        reserva.setIdReservaInterno(rs.getInt("id_reserva")); // Establecer ID interno
-                        return Optional.of(reserva);
-                    } else {
-                        throw new HotelException("Error al reconstruir reserva: huésped o habitación asociados no encontrados.");
-                    }
+                    return Optional.of(mapeadorReserva(rs).mapear(rs));
                 }
             }
         } catch (SQLException e) {
@@ -107,34 +139,15 @@ public class ReservaDAOImpl implements ReservaDAO {
     @Override
     public List<Reserva> findAll() throws HotelException {
         List<Reserva> reservas = new ArrayList<>();
-        String sql = "SELECT r.id_reserva, r.id_huesped, r.id_habitacion, r.fecha_checkin, r.fecha_checkout, " +
-                "r.cantidad_huespedes, r.estado_reserva FROM RESERVAS r";
-        try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            HuespedDAOImpl huespedDAO = new HuespedDAOImpl();
-            HabitacionDAOImpl habitacionDAO = new HabitacionDAOImpl();
-
-            while (rs.next()) {
-                Optional<Huesped> huesped = huespedDAO.findById(rs.getInt("id_huesped"));
-                Optional<Habitacion> habitacion = habitacionDAO.findById(rs.getInt("id_habitacion"));
-
-                if (huesped.isPresent() && habitacion.isPresent()) {
-                    Reserva reserva = new Reserva(
-                            String.valueOf(rs.getInt("id_reserva")),
-                            huesped.get(),
-                            habitacion.get(),
-                            rs.getDate("fecha_checkin").toLocalDate(),
-                            rs.getDate("fecha_checkout").toLocalDate(),
-                            rs.getInt("cantidad_huespedes")
-                    );
-                    reserva.setEstado(rs.getString("estado_reserva"));
-                    reserva.setIdReservaInterno(rs.getInt("id_reserva"));
-                    reservas.add(reserva);
-                } else {
-                    System.err.println("Advertencia: No se pudo cargar reserva con ID " + rs.getInt("id_reserva") +
-                            " debido a huésped o habitación faltantes. (Posible error de integridad de datos)");
+        // Listado para reportes: se lee de 'lecturas' y con JOIN, en una sola consulta
+        try (Connection conn = lecturas.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            Conexion.configurarConsultaReporte(stmt);
+            try (ResultSet rs = stmt.executeQuery(SELECT_CON_JOIN)) {
+                MapeadorFila<Reserva> mapeador = mapeadorReserva(rs);
+                while (rs.next()) {
+                    reservas.add(mapeador.mapear(rs));
                 }
             }
         } catch (SQLException e) {
@@ -152,7 +165,7 @@ public class ReservaDAOImpl implements ReservaDAO {
     public void update(Reserva reserva) throws HotelException {
         String sql = "UPDATE RESERVAS SET id_huesped = ?, id_habitacion = ?, fecha_checkin = ?, fecha_checkout = ?, " +
                 "cantidad_huespedes = ?, estado_reserva = ? WHERE id_reserva = ?";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, reserva.getHuesped().getIdHuespedInterno());
@@ -178,7 +191,7 @@ public class ReservaDAOImpl implements ReservaDAO {
     @Override
     public void delete(int id) throws HotelException {
         String sql = "DELETE FROM RESERVAS WHERE id_reserva = ?";
-        try (Connection conn = Conexion.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, id);
@@ -188,4 +201,610 @@ public class ReservaDAOImpl implements ReservaDAO {
             throw new HotelException("Error al eliminar la reserva: " + e.getMessage());
         }
     }
+
+    /**
+     * Obtiene varias reservas por su ID con una única consulta.
+     * Como en findById/findAll, el huésped y la habitación se leen en la misma consulta (JOIN).
+     * @param ids Los IDs de las reservas a buscar (los duplicados se ignoran).
+     * @return Las reservas encontradas; los IDs inexistentes simplemente no aparecen.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public List<Reserva> findByIds(Collection<Integer> ids) throws HotelException {
+        List<Reserva> reservas = new ArrayList<>();
+        Set<Integer> unicos = new LinkedHashSet<>(ids);
+        if (unicos.isEmpty()) {
+            return reservas;
+        }
+        String sql = SELECT_CON_JOIN + "WHERE r.id_reserva IN (" + String.join(", ", Collections.nCopies(unicos.size(), "?")) + ")";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            for (Integer id : unicos) {
+                pstmt.setInt(i++, id);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                MapeadorFila<Reserva> mapeador = mapeadorReserva(rs);
+                while (rs.next()) {
+                    reservas.add(mapeador.mapear(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al buscar reservas por ID: " + e.getMessage());
+        }
+        return reservas;
+    }
+
+    /**
+     * Obtiene las reservas que están en alguno de los estados indicados (ej: 'Confirmada', 'Check-in'),
+     * con su huésped y habitación leídos en la misma consulta (JOIN).
+     * @param estados Los estados de reserva buscados.
+     * @return Las reservas encontradas.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public List<Reserva> findByEstados(Collection<String> estados) throws HotelException {
+        List<Reserva> reservas = new ArrayList<>();
+        Set<String> unicos = new LinkedHashSet<>(estados);
+        if (unicos.isEmpty()) {
+            return reservas;
+        }
+        String sql = SELECT_CON_JOIN + "WHERE r.estado_reserva IN (" + String.join(", ", Collections.nCopies(unicos.size(), "?")) + ")";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            for (String estado : unicos) {
+                pstmt.setString(i++, estado);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                MapeadorFila<Reserva> mapeador = mapeadorReserva(rs);
+                while (rs.next()) {
+                    reservas.add(mapeador.mapear(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al buscar reservas por estado: " + e.getMessage());
+        }
+        return reservas;
+    }
+
+    /**
+     * Persiste el estado de varias reservas y el de sus habitaciones en una sola transacción.
+     * Se usan dos sentencias por lotes (una por tabla), de modo que el coste en viajes a la DB
+     * no crece con el número de reservas. Cada reserva solo cambia si sigue en estadoAnterior; si alguna
+     * ya no lo está (otra operación la cambió a la vez), o si algo falla, no se aplica ningún cambio.
+     * @param reservas Las reservas con su estado (y el de su habitación) ya actualizado en memoria.
+     * @param estadoAnterior El estado en que deben seguir las reservas en la DB (ej: 'Check-in' en un check-out).
+     * @param conHabitaciones false para escribir solo las reservas (las habitaciones se escriben en diferido).
+     * @throws HotelException Si alguna reserva ya no está en estadoAnterior o si ocurre un error de SQL.
+     */
+    @Override
+    public void updateEstados(Collection<Reserva> reservas, String estadoAnterior, boolean conHabitaciones) throws HotelException {
+        if (reservas.isEmpty()) {
+            return;
+        }
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            updateEstados(conn, reservas, estadoAnterior, conHabitaciones);
+            conn.commit();
+            System.out.println(reservas.size() + (conHabitaciones ? " reservas y sus habitaciones" : " reservas") +
+                    " actualizadas en la base de datos.");
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al actualizar el estado de las reservas: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Reserva de forma atómica un bloque de habitaciones para un grupo.
+     * Dentro de una única transacción:
+     * 1. Selecciona y bloquea (FOR UPDATE) las primeras 'cantidad' habitaciones del tipo pedido que no tengan
+     *    reservas activas ('Confirmada' o 'Check-in') que se solapen con las fechas; la consulta de solapamiento
+     *    se resuelve con el índice idx_reservas_disponibilidad.
+     * 2. Inserta todas las reservas con una sola sentencia por lotes.
+     * 3. Si se pide, marca las habitaciones como 'Ocupada' (estancias que empiezan hoy), también por lotes.
+     * Si no hay suficientes habitaciones libres o falla cualquier paso, se deshace todo.
+     * @param huesped El huésped titular del grupo (ya persistido).
+     * @param tipo El tipo de habitación (Simple, Doble, Suite).
+     * @param cantidad El número de habitaciones a reservar.
+     * @param fechaCheckin La fecha de check-in.
+     * @param fechaCheckout La fecha de check-out.
+     * @param huespedesPorHabitacion La cantidad de huéspedes por habitación.
+     * @param ocuparHabitaciones true para exigir habitaciones 'Disponible' y marcarlas 'Ocupada'.
+     * @return Las reservas creadas, con su ID de DB.
+     * @throws HotelException Si no hay suficientes habitaciones libres o si ocurre un error de SQL.
+     */
+    @Override
+    public List<Reserva> saveGroup(Huesped huesped, String tipo, int cantidad, LocalDate fechaCheckin,
+                                   LocalDate fechaCheckout, int huespedesPorHabitacion,
+                                   boolean ocuparHabitaciones) throws HotelException {
+        String sqlDisponibles = "SELECT h.id_habitacion, h.numero_habitacion, h.tipo, h.precio_por_noche, h.estado " +
+                "FROM HABITACIONES h WHERE h.tipo = ? AND " +
+                (ocuparHabitaciones ? "h.estado = 'Disponible' " : "h.estado <> 'Mantenimiento' ") +
+                "AND NOT EXISTS (SELECT 1 FROM RESERVAS r WHERE r.id_habitacion = h.id_habitacion " +
+                "AND r.estado_reserva IN ('Confirmada', 'Check-in') AND r.fecha_checkin < ? AND r.fecha_checkout > ?) " +
+                "ORDER BY h.numero_habitacion LIMIT ? FOR UPDATE";
+        String sqlInsert = "INSERT INTO RESERVAS (id_huesped, id_habitacion, fecha_checkin, fecha_checkout, cantidad_huespedes, estado_reserva) VALUES (?, ?, ?, ?, ?, ?)";
+        String sqlOcupar = "UPDATE HABITACIONES SET " + HabitacionDAOImpl.SET_ESTADO + " WHERE id_habitacion = ?";
+
+        List<Reserva> reservas = new ArrayList<>();
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            List<Habitacion> habitaciones = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlDisponibles)) {
+                pstmt.setString(1, tipo);
+                pstmt.setDate(2, Date.valueOf(fechaCheckout));
+                pstmt.setDate(3, Date.valueOf(fechaCheckin));
+                pstmt.setInt(4, cantidad);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    MapeadorFila<Habitacion> mapeador = HabitacionDAOImpl.mapeadorHabitacion(rs);
+                    while (rs.next()) {
+                        habitaciones.add(mapeador.mapear(rs));
+                    }
+                }
+            }
+            if (habitaciones.size() < cantidad) {
+                throw new HotelException("No hay suficientes habitaciones '" + tipo + "' libres del " + fechaCheckin +
+                        " al " + fechaCheckout + ": se pidieron " + cantidad + " y hay " + habitaciones.size() + ".");
+            }
+
+            String prefijo = "GRP-" + System.currentTimeMillis() + "-";
+            for (Habitacion habitacion : habitaciones) {
+                reservas.add(new Reserva(prefijo + habitacion.getNumero(), huesped, habitacion,
+                        fechaCheckin, fechaCheckout, huespedesPorHabitacion));
+            }
+
+            int tamanoLote = Conexion.getTamanoLote();
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
+                for (int desde = 0; desde < reservas.size(); desde += tamanoLote) {
+                    List<Reserva> lote = reservas.subList(desde, Math.min(desde + tamanoLote, reservas.size()));
+                    for (Reserva reserva : lote) {
+                        pstmt.setInt(1, huesped.getIdHuespedInterno());
+                        pstmt.setInt(2, reserva.getHabitacion().getDbId());
+                        pstmt.setDate(3, Date.valueOf(fechaCheckin));
+                        pstmt.setDate(4, Date.valueOf(fechaCheckout));
+                        pstmt.setInt(5, huespedesPorHabitacion);
+                        pstmt.setString(6, reserva.getEstado());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        for (Reserva reserva : lote) {
+                            if (generatedKeys.next()) {
+                                reserva.setIdReservaInterno(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (ocuparHabitaciones) {
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlOcupar)) {
+                    int enLote = 0;
+                    for (Habitacion habitacion : habitaciones) {
+                        int i = HabitacionDAOImpl.setEstado(pstmt, 1, "Ocupada");
+                        pstmt.setInt(i, habitacion.getDbId());
+                        pstmt.addBatch();
+                        if (++enLote == tamanoLote) {
+                            pstmt.executeBatch();
+                            enLote = 0;
+                        }
+                    }
+                    if (enLote > 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                for (Habitacion habitacion : habitaciones) {
+                    habitacion.setEstado("Ocupada");
+                }
+            }
+
+            conn.commit();
+            System.out.println("Reserva de grupo guardada en la base de datos: " + reservas.size() + " habitaciones '" + tipo + "'.");
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al guardar la reserva de grupo: " + e.getMessage());
+        } catch (HotelException e) {
+            Conexion.rollback(conn);
+            throw e;
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+        return reservas;
+    }
+
+    /**
+     * Suma el costo total (Reserva.calcularCostoTotal) de todas las reservas en un estado.
+     * En lugar de cargar cada reserva, la DB cuenta las reservas por tarifa (tipo y precio de la habitación) y
+     * fechas de estancia, y aquí se multiplican las noches de cada grupo por el costo por noche de la tarifa
+     * (Habitacion.costoNoche), de modo que el resultado coincide con sumar reserva a reserva pero solo viajan
+     * unas pocas filas. Las noches se cuentan en Java porque la diferencia de fechas no es SQL portable.
+     * @param estado El estado de reserva (ej: 'Check-out').
+     * @return La suma de los costos totales.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public double sumCostoTotalByEstado(String estado) throws HotelException {
+        String sql = "SELECT h.tipo, h.precio_por_noche, r.fecha_checkin, r.fecha_checkout, COUNT(*) AS reservas " +
+                "FROM RESERVAS r JOIN HABITACIONES h ON h.id_habitacion = r.id_habitacion " +
+                "WHERE r.estado_reserva = ? GROUP BY h.tipo, h.precio_por_noche, r.fecha_checkin, r.fecha_checkout";
+        double total = 0;
+        try (Connection conn = lecturas.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            Conexion.configurarConsultaReporte(pstmt);
+            pstmt.setString(1, estado);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    long noches = ChronoUnit.DAYS.between(rs.getDate(3).toLocalDate(), rs.getDate(4).toLocalDate());
+                    total += Habitacion.costoNoche(rs.getString(1), rs.getDouble(2)) * noches * rs.getLong(5);
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            throw new HotelException("Error al sumar el costo de las reservas: " + e.getMessage());
+        }
+        return total;
+    }
+
+    /**
+     * Añade a la transacción de la conexión recibida las dos sentencias por lotes que persisten
+     * el estado de las reservas y el de sus habitaciones (esta última solo si conHabitaciones),
+     * en envíos de hasta hotel.dao.tamanoLote filas. No hace commit.
+     * Cada UPDATE de reserva exige que siga en estadoAnterior: si alguno no cambia ninguna fila (dos check-out
+     * a la vez de la misma reserva, por ejemplo), lanza SQLException y el llamador debe deshacer la transacción.
+     * Es de paquete para que otros DAOs (p. ej. FacturaDAOImpl) lo incluyan en su propia transacción.
+     */
+    static void updateEstados(Connection conn, Collection<Reserva> reservas, String estadoAnterior,
+                              boolean conHabitaciones) throws SQLException {
+        updateEstados(conn, reservas, estadoAnterior, conHabitaciones, null);
+    }
+
+    /**
+     * Como updateEstados, pero además asigna a cada factura (ya insertada, con su ID de DB) los cargos pendientes
+     * de DETALLE_FACTURA que esa factura incluye, y solo esos, con otra sentencia por lotes en la misma transacción:
+     * un cargo registrado después de calcular la factura sigue pendiente. Si alguno de esos cargos ya no está
+     * pendiente (otra factura lo incluyó a la vez), lanza SQLException y el llamador debe deshacer la transacción.
+     * @param facturas Las facturas por ID de reserva, o null para no facturar cargos.
+     */
+    static void updateEstados(Connection conn, Collection<Reserva> reservas, String estadoAnterior,
+                              boolean conHabitaciones, Map<Integer, Factura> facturas) throws SQLException {
+        String sqlReserva = "UPDATE RESERVAS SET estado_reserva = ? WHERE id_reserva = ? AND estado_reserva = ?";
+        String sqlHabitacion = "UPDATE HABITACIONES SET " + HabitacionDAOImpl.SET_ESTADO + " WHERE id_habitacion = ?";
+        String sqlDetalle = "UPDATE DETALLE_FACTURA SET id_factura = ? WHERE id_detalle = ? AND id_factura IS NULL";
+        try (PreparedStatement pstmtReserva = conn.prepareStatement(sqlReserva);
+             PreparedStatement pstmtHabitacion = conn.prepareStatement(sqlHabitacion);
+             PreparedStatement pstmtDetalle = conn.prepareStatement(sqlDetalle)) {
+
+            int tamanoLote = Conexion.getTamanoLote();
+            int enLote = 0;
+            int detallesEnLote = 0;
+            List<Integer> ids = new ArrayList<>();
+            List<Integer> idsDetalle = new ArrayList<>();
+            for (Reserva reserva : reservas) {
+                pstmtReserva.setString(1, reserva.getEstado());
+                pstmtReserva.setInt(2, reserva.getIdReservaInterno());
+                pstmtReserva.setString(3, estadoAnterior);
+                pstmtReserva.addBatch();
+                ids.add(reserva.getIdReservaInterno());
+
+                if (conHabitaciones) {
+                    int i = HabitacionDAOImpl.setEstado(pstmtHabitacion, 1, reserva.getHabitacion().getEstado());
+                    pstmtHabitacion.setInt(i, reserva.getHabitacion().getDbId());
+                    pstmtHabitacion.addBatch();
+                }
+
+                Factura factura = facturas == null ? null : facturas.get(reserva.getIdReservaInterno());
+                if (factura != null) {
+                    for (DetalleFactura detalle : factura.getDetalles()) {
+                        pstmtDetalle.setInt(1, factura.getIdFactura());
+                        pstmtDetalle.setInt(2, detalle.getIdDetalle());
+                        pstmtDetalle.addBatch();
+                        idsDetalle.add(detalle.getIdDetalle());
+                        if (++detallesEnLote == tamanoLote) {
+                            comprobarFacturados(pstmtDetalle.executeBatch(), idsDetalle);
+                            detallesEnLote = 0;
+                            idsDetalle.clear();
+                        }
+                    }
+                }
+
+                if (++enLote == tamanoLote) {
+                    comprobarActualizadas(pstmtReserva.executeBatch(), ids, estadoAnterior);
+                    if (conHabitaciones) {
+                        pstmtHabitacion.executeBatch();
+                    }
+                    enLote = 0;
+                    ids.clear();
+                }
+            }
+            if (enLote > 0) {
+                comprobarActualizadas(pstmtReserva.executeBatch(), ids, estadoAnterior);
+                if (conHabitaciones) {
+                    pstmtHabitacion.executeBatch();
+                }
+            }
+            if (detallesEnLote > 0) {
+                comprobarFacturados(pstmtDetalle.executeBatch(), idsDetalle);
+            }
+        }
+    }
+
+    /**
+     * Comprueba que cada UPDATE del lote cambió su reserva (el driver puede no informar el recuento de cada
+     * sentencia, SUCCESS_NO_INFO, y entonces se da por bueno).
+     */
+    private static void comprobarActualizadas(int[] filas, List<Integer> ids, String estadoAnterior) throws SQLException {
+        for (int i = 0; i < filas.length; i++) {
+            if (filas[i] == 0) {
+                throw new SQLException("La reserva " + ids.get(i) + " ya no está en estado '" + estadoAnterior +
+                        "' (otra operación la cambió a la vez).");
+            }
+        }
+    }
+
+    /**
+     * Comprueba que cada cargo del lote seguía pendiente y quedó asignado a su factura (como en
+     * comprobarActualizadas, SUCCESS_NO_INFO se da por bueno).
+     */
+    private static void comprobarFacturados(int[] filas, List<Integer> idsDetalle) throws SQLException {
+        for (int i = 0; i < filas.length; i++) {
+            if (filas[i] == 0) {
+                throw new SQLException("El cargo " + idsDetalle.get(i) + " ya no está pendiente de facturar " +
+                        "(otra factura lo incluyó a la vez).");
+            }
+        }
+    }
+
+    /**
+     * Guarda muchas reservas en una sola transacción, con sentencias por lotes de hasta
+     * hotel.dao.tamanoLote filas. Asigna a cada reserva el ID generado por la DB.
+     * @param reservas Las reservas a guardar (con huésped y habitación ya persistidos).
+     * @throws HotelException Si ocurre un error de SQL (no se guarda ninguna).
+     */
+    @Override
+    public void saveAll(Collection<Reserva> reservas) throws HotelException {
+        if (reservas.isEmpty()) {
+            return;
+        }
+        List<Reserva> lista = new ArrayList<>(reservas);
+        String sql = "INSERT INTO RESERVAS (id_huesped, id_habitacion, fecha_checkin, fecha_checkout, cantidad_huespedes, estado_reserva) VALUES (?, ?, ?, ?, ?, ?)";
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            int tamanoLote = Conexion.getTamanoLote();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int desde = 0; desde < lista.size(); desde += tamanoLote) {
+                    List<Reserva> lote = lista.subList(desde, Math.min(desde + tamanoLote, lista.size()));
+                    for (Reserva reserva : lote) {
+                        pstmt.setInt(1, reserva.getHuesped().getIdHuespedInterno());
+                        pstmt.setInt(2, reserva.getHabitacion().getDbId());
+                        pstmt.setDate(3, Date.valueOf(reserva.getFechaCheckin()));
+                        pstmt.setDate(4, Date.valueOf(reserva.getFechaCheckout()));
+                        pstmt.setInt(5, reserva.getCantidadHuespedes());
+                        pstmt.setString(6, reserva.getEstado());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        for (Reserva reserva : lote) {
+                            if (generatedKeys.next()) {
+                                reserva.setIdReservaInterno(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al guardar las reservas: " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Recorre todas las reservas, con su huésped y habitación, leyéndolas de la DB fila a fila
+     * (el driver de MySQL solo transmite el resultado por partes con fetch size Integer.MIN_VALUE, que H2 rechaza;
+     * H2 ya lee el resultado por páginas con su fetch size por defecto).
+     * Usa la base de datos de lecturas, como los reportes. Si la acción lanza una excepción (ej: el cliente de
+     * la API se desconectó) se cancela la consulta en el servidor antes de cerrarla: cerrar un resultado
+     * transmitido por partes obliga al driver a leer todas las filas que faltan.
+     * @param accion La acción a ejecutar con cada reserva.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void forEach(Consumer<Reserva> accion) throws HotelException {
+        try (Connection conn = lecturas.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            if (Conexion.isMySql(conn)) {
+                stmt.setFetchSize(Integer.MIN_VALUE);
+            }
+            try (ResultSet rs = stmt.executeQuery(SELECT_CON_JOIN + "ORDER BY r.id_reserva")) {
+                MapeadorFila<Reserva> mapeador = mapeadorReserva(rs);
+                while (rs.next()) {
+                    Reserva reserva = mapeador.mapear(rs);
+                    try {
+                        accion.accept(reserva);
+                    } catch (RuntimeException e) {
+                        try {
+                            stmt.cancel();
+                        } catch (SQLException ce) {
+                            e.addSuppressed(ce);
+                        }
+                        throw e;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al recorrer las reservas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marca como 'No-show' un lote de reservas 'Confirmada' cuyo huésped no llegó: el check-in fue en o antes
+     * de 'checkinHasta' y el check-out es posterior a 'hoy'. Ver cerrarLote.
+     * @param checkinHasta Último día de check-in considerado no presentado (hoy menos los días de gracia).
+     * @param hoy El día de la revisión.
+     * @param limite Máximo de reservas del lote.
+     * @return Las reservas cambiadas, con su nuevo estado y el de su habitación.
+     * @throws HotelException Si ocurre un error de SQL (no se cambia ninguna).
+     */
+    @Override
+    public List<Reserva> updateNoShows(LocalDate checkinHasta, LocalDate hoy, int limite) throws HotelException {
+        return cerrarLote("r.fecha_checkin <= ? AND r.fecha_checkout > ?", new LocalDate[]{checkinHasta, hoy},
+                "No-show", limite, "marcar los no-show");
+    }
+
+    /**
+     * Cancela un lote de reservas 'Confirmada' cuyo check-out fue en o antes de 'checkoutHasta'
+     * (confirmaciones que nadie cerró). Ver cerrarLote.
+     * @param checkoutHasta Último día de check-out considerado vencido.
+     * @param limite Máximo de reservas del lote.
+     * @return Las reservas cambiadas, con su nuevo estado y el de su habitación.
+     * @throws HotelException Si ocurre un error de SQL (no se cambia ninguna).
+     */
+    @Override
+    public List<Reserva> updateVencidas(LocalDate checkoutHasta, int limite) throws HotelException {
+        return cerrarLote("r.fecha_checkout <= ?", new LocalDate[]{checkoutHasta}, "Cancelada", limite,
+                "cancelar las reservas vencidas");
+    }
+
+    /**
+     * Cambia de estado, en una transacción corta, un lote de hasta 'limite' reservas 'Confirmada' que cumplen
+     * 'condicion', con sentencias set-based:
+     * 1. Selecciona y bloquea (FOR UPDATE, que también bloquea las filas de su huésped y su habitación) el lote,
+     *    en orden de ID, con su huésped y habitación.
+     * 2. Cambia el estado de todo el lote con un solo UPDATE ... WHERE id_reserva IN (...).
+     * 3. Devuelve a 'Disponible' las habitaciones del lote que quedaron 'Ocupada' al reservar, salvo las que
+     *    tengan un huésped con check-in hecho.
+     * Al ser lotes pequeños y confirmados uno a uno, los bloqueos duran poco y no frenan las reservas del mostrador.
+     */
+    private List<Reserva> cerrarLote(String condicion, LocalDate[] fechas, String estadoDestino, int limite,
+                                     String descripcion) throws HotelException {
+        List<Reserva> reservas = new ArrayList<>();
+        String sqlSelect = SELECT_CON_JOIN + "WHERE r.estado_reserva = 'Confirmada' AND " + condicion +
+                " ORDER BY r.id_reserva LIMIT ? FOR UPDATE";
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlSelect)) {
+                int i = 1;
+                for (LocalDate fecha : fechas) {
+                    pstmt.setObject(i++, fecha);
+                }
+                pstmt.setInt(i, limite);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    MapeadorFila<Reserva> mapeador = mapeadorReserva(rs);
+                    while (rs.next()) {
+                        reservas.add(mapeador.mapear(rs));
+                    }
+                }
+            }
+            if (reservas.isEmpty()) {
+                conn.commit();
+                return reservas;
+            }
+
+            Set<Integer> idsHabitacion = new LinkedHashSet<>();
+            for (Reserva reserva : reservas) {
+                idsHabitacion.add(reserva.getHabitacion().getDbId());
+            }
+            String placeholdersReservas = String.join(", ", Collections.nCopies(reservas.size(), "?"));
+            String placeholdersHabitaciones = String.join(", ", Collections.nCopies(idsHabitacion.size(), "?"));
+
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE RESERVAS SET estado_reserva = ? WHERE id_reserva IN (" + placeholdersReservas + ")")) {
+                int i = 1;
+                pstmt.setString(i++, estadoDestino);
+                for (Reserva reserva : reservas) {
+                    pstmt.setInt(i++, reserva.getIdReservaInterno());
+                }
+                pstmt.executeUpdate();
+            }
+
+            Set<Integer> liberadas = new HashSet<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT h.id_habitacion FROM HABITACIONES h WHERE h.id_habitacion IN (" + placeholdersHabitaciones + ") " +
+                    "AND h.estado = 'Ocupada' AND NOT EXISTS (SELECT 1 FROM RESERVAS c " +
+                    "WHERE c.id_habitacion = h.id_habitacion AND c.estado_reserva = 'Check-in')")) {
+                int i = 1;
+                for (Integer id : idsHabitacion) {
+                    pstmt.setInt(i++, id);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        liberadas.add(rs.getInt(1));
+                    }
+                }
+            }
+            if (!liberadas.isEmpty()) {
+                try (PreparedStatement pstmt = conn.prepareStatement("UPDATE HABITACIONES SET " + HabitacionDAOImpl.SET_ESTADO +
+                        " WHERE id_habitacion IN (" + String.join(", ", Collections.nCopies(liberadas.size(), "?")) + ")")) {
+                    int i = HabitacionDAOImpl.setEstado(pstmt, 1, "Disponible");
+                    for (Integer id : liberadas) {
+                        pstmt.setInt(i++, id);
+                    }
+                    pstmt.executeUpdate();
+                }
+            }
+            conn.commit();
+
+            for (Reserva reserva : reservas) {
+                reserva.setEstado(estadoDestino);
+                if (liberadas.contains(reserva.getHabitacion().getDbId())) {
+                    reserva.getHabitacion().setEstado("Disponible");
+                }
+            }
+        } catch (SQLException e) {
+            Conexion.rollback(conn);
+            throw new HotelException("Error al " + descripcion + ": " + e.getMessage());
+        } finally {
+            Conexion.closeConnection(conn);
+        }
+        return reservas;
+    }
+
+    /**
+     * Crea el mapeador de reservas (con su Huesped y Habitacion) de un ResultSet de SELECT_CON_JOIN,
+     * resolviendo los índices de las columnas una sola vez. Las fechas se leen como LocalDate y
+     * la reserva no recibe ID externo (getIdReserva() usa el ID de la DB).
+     * Es de paquete para el benchmark MapeadorFilaBenchmark.
+     */
+    static MapeadorFila<Reserva> mapeadorReserva(ResultSet rs) throws SQLException {
+        MapeadorFila<Huesped> huespedes = HuespedDAOImpl.mapeadorHuesped(rs);
+        MapeadorFila<Habitacion> habitaciones = HabitacionDAOImpl.mapeadorHabitacion(rs);
+        int colId = rs.findColumn("id_reserva");
+        int colCheckin = rs.findColumn("fecha_checkin");
+        int colCheckout = rs.findColumn("fecha_checkout");
+        int colCantidad = rs.findColumn("cantidad_huespedes");
+        int colEstado = rs.findColumn("estado_reserva");
+        return fila -> {
+            Reserva reserva = new Reserva(
+                    null,
+                    huespedes.mapear(fila),
+                    habitaciones.mapear(fila),
+                    fila.getObject(colCheckin, LocalDate.class),
+                    fila.getObject(colCheckout, LocalDate.class),
+                    fila.getInt(colCantidad)
+            );
+            reserva.setEstado(MapeadorFila.internar(fila.getString(colEstado)));
+            reserva.setIdReservaInterno(fila.getInt(colId));
+            return reserva;
+        };
+    }
 }
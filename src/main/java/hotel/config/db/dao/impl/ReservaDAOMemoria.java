@@ -0,0 +1,305 @@
+package hotel.config.db.dao.impl;
+
+import hotel.config.db.dao.impl.BaseDatosMemoria.FilaHabitacion;
+import hotel.config.db.dao.impl.BaseDatosMemoria.FilaReserva;
+import hotel.config.db.dao.interfaces.ReservaDAO;
+import hotel.gestion.Habitacion;
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+import hotel.gestion.Reserva;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Implementación de la interfaz ReservaDAO sobre una BaseDatosMemoria, con la misma semántica que
+ * ReservaDAOImpl: las lecturas devuelven las reservas con su huésped y su habitación, y las operaciones
+ * de varias filas (lotes, grupos, tareas programadas) son transacciones todo o nada.
+ */
+public class ReservaDAOMemoria implements ReservaDAO {
+    private static final int FILAS_POR_BLOQUE = 1000; // forEach: reservas construidas por cada toma del cerrojo
+
+    private final BaseDatosMemoria db;
+
+    /**
+     * Constructor de la clase ReservaDAOMemoria.
+     * @param db La base de datos en memoria, compartida con los otros DAOs *Memoria.
+     */
+    public ReservaDAOMemoria(BaseDatosMemoria db) {
+        this.db = db;
+    }
+
+    @Override
+    public void save(Reserva reserva) throws HotelException {
+        db.escribir(() -> {
+            insertar(reserva);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Reserva> findById(int id) throws HotelException {
+        return db.leer(() -> {
+            FilaReserva fila = db.reserva(id);
+            return fila != null ? Optional.of(db.aReserva(fila)) : Optional.empty();
+        });
+    }
+
+    @Override
+    public List<Reserva> findAll() throws HotelException {
+        return buscar(fila -> true);
+    }
+
+    @Override
+    public void update(Reserva reserva) throws HotelException {
+        db.escribir(() -> {
+            if (db.reserva(reserva.getIdReservaInterno()) != null) {
+                db.ponerReserva(fila(reserva.getIdReservaInterno(), reserva));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(int id) throws HotelException {
+        db.escribir(() -> {
+            db.quitarReserva(id);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Reserva> findByIds(Collection<Integer> ids) throws HotelException {
+        return db.leer(() -> {
+            List<Reserva> reservas = new ArrayList<>();
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                FilaReserva fila = db.reserva(id);
+                if (fila != null) {
+                    reservas.add(db.aReserva(fila));
+                }
+            }
+            return reservas;
+        });
+    }
+
+    @Override
+    public void updateEstados(Collection<Reserva> reservas, String estadoAnterior, boolean conHabitaciones) throws HotelException {
+        db.escribir(() -> {
+            for (Reserva reserva : reservas) {
+                FilaReserva fila = db.reserva(reserva.getIdReservaInterno());
+                if (fila != null) {
+                    if (!fila.estado.equals(estadoAnterior)) {
+                        throw new HotelException("Error al actualizar el estado de las reservas: la reserva " +
+                                fila.id + " ya no está en estado '" + estadoAnterior + "' (otra operación la cambió a la vez).");
+                    }
+                    db.ponerReserva(fila.conEstado(reserva.getEstado()));
+                }
+                if (conHabitaciones) {
+                    FilaHabitacion habitacion = db.habitacion(reserva.getHabitacion().getDbId());
+                    if (habitacion != null) {
+                        db.ponerHabitacion(habitacion.conEstado(reserva.getHabitacion().getEstado()));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<Reserva> findByEstados(Collection<String> estados) throws HotelException {
+        Set<String> buscados = new HashSet<>(estados);
+        return buscar(fila -> buscados.contains(fila.estado));
+    }
+
+    @Override
+    public List<Reserva> saveGroup(Huesped huesped, String tipo, int cantidad, LocalDate fechaCheckin,
+                                   LocalDate fechaCheckout, int huespedesPorHabitacion,
+                                   boolean ocuparHabitaciones) throws HotelException {
+        return db.escribir(() -> {
+            // Habitaciones con reservas activas que se solapan con las fechas
+            Set<Integer> ocupadas = new HashSet<>();
+            for (FilaReserva r : db.reservas()) {
+                if ((r.estado.equals("Confirmada") || r.estado.equals("Check-in"))
+                        && r.fechaCheckin.isBefore(fechaCheckout) && r.fechaCheckout.isAfter(fechaCheckin)) {
+                    ocupadas.add(r.idHabitacion);
+                }
+            }
+            List<FilaHabitacion> libres = new ArrayList<>();
+            for (FilaHabitacion h : db.habitaciones()) {
+                boolean estadoValido = ocuparHabitaciones ? h.estado.equals("Disponible") : !h.estado.equals("Mantenimiento");
+                if (h.tipo.equals(tipo) && estadoValido && !ocupadas.contains(h.id)) {
+                    libres.add(h);
+                }
+            }
+            if (libres.size() < cantidad) {
+                throw new HotelException("No hay suficientes habitaciones '" + tipo + "' libres del " + fechaCheckin +
+                        " al " + fechaCheckout + ": se pidieron " + cantidad + " y hay " + libres.size() + ".");
+            }
+            libres.sort(Comparator.comparingInt(h -> h.numero));
+
+            List<Reserva> reservas = new ArrayList<>();
+            String prefijo = "GRP-" + System.currentTimeMillis() + "-";
+            for (FilaHabitacion h : libres.subList(0, cantidad)) {
+                if (ocuparHabitaciones) {
+                    h = h.conEstado("Ocupada");
+                    db.ponerHabitacion(h);
+                }
+                Reserva reserva = new Reserva(prefijo + h.numero, huesped, BaseDatosMemoria.aHabitacion(h),
+                        fechaCheckin, fechaCheckout, huespedesPorHabitacion);
+                insertar(reserva);
+                reservas.add(reserva);
+            }
+            return reservas;
+        });
+    }
+
+    @Override
+    public double sumCostoTotalByEstado(String estado) throws HotelException {
+        return db.leer(() -> {
+            // Noches por habitación y, al final, el costo por noche de cada una (como la agregación por tarifa)
+            Map<Integer, Long> nochesPorHabitacion = new HashMap<>();
+            for (FilaReserva r : db.reservas()) {
+                if (r.estado.equals(estado)) {
+                    nochesPorHabitacion.merge(r.idHabitacion, ChronoUnit.DAYS.between(r.fechaCheckin, r.fechaCheckout), Long::sum);
+                }
+            }
+            double total = 0;
+            for (Map.Entry<Integer, Long> e : nochesPorHabitacion.entrySet()) {
+                FilaHabitacion tarifa = db.habitacion(e.getKey());
+                total += Habitacion.costoNoche(tarifa.tipo, tarifa.precioPorNoche) * e.getValue();
+            }
+            return total;
+        });
+    }
+
+    @Override
+    public void saveAll(Collection<Reserva> reservas) throws HotelException {
+        db.escribir(() -> {
+            for (Reserva reserva : reservas) {
+                insertar(reserva);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Recorre las reservas en orden de ID por bloques: la acción se ejecuta fuera del cerrojo, de modo que puede
+     * escribir en la base de datos y no frena a los demás hilos.
+     */
+    @Override
+    public void forEach(Consumer<Reserva> accion) throws HotelException {
+        int ultimoId = 0;
+        while (true) {
+            int desde = ultimoId;
+            List<Reserva> bloque = db.leer(() -> {
+                List<Reserva> reservas = new ArrayList<>();
+                for (FilaReserva fila : db.reservasDesde(desde)) {
+                    reservas.add(db.aReserva(fila));
+                    if (reservas.size() == FILAS_POR_BLOQUE) {
+                        break;
+                    }
+                }
+                return reservas;
+            });
+            for (Reserva reserva : bloque) {
+                accion.accept(reserva);
+            }
+            if (bloque.size() < FILAS_POR_BLOQUE) {
+                return;
+            }
+            ultimoId = bloque.get(bloque.size() - 1).getIdReservaInterno();
+        }
+    }
+
+    @Override
+    public List<Reserva> updateNoShows(LocalDate checkinHasta, LocalDate hoy, int limite) throws HotelException {
+        return cerrarLote(r -> !r.fechaCheckin.isAfter(checkinHasta) && r.fechaCheckout.isAfter(hoy), "No-show", limite);
+    }
+
+    @Override
+    public List<Reserva> updateVencidas(LocalDate checkoutHasta, int limite) throws HotelException {
+        return cerrarLote(r -> !r.fechaCheckout.isAfter(checkoutHasta), "Cancelada", limite);
+    }
+
+    /**
+     * Cambia de estado hasta 'limite' reservas 'Confirmada' que cumplen la condición, en orden de ID, y devuelve
+     * a 'Disponible' sus habitaciones que quedaron 'Ocupada' sin un huésped con check-in (ver ReservaDAOImpl).
+     */
+    private List<Reserva> cerrarLote(Predicate<FilaReserva> condicion, String estadoDestino, int limite) throws HotelException {
+        return db.escribir(() -> {
+            List<FilaReserva> lote = new ArrayList<>();
+            for (FilaReserva r : db.reservas()) {
+                if (lote.size() == limite) {
+                    break;
+                }
+                if (r.estado.equals("Confirmada") && condicion.test(r)) {
+                    lote.add(r);
+                }
+            }
+            if (lote.isEmpty()) {
+                return new ArrayList<>();
+            }
+            Set<Integer> idsHabitacion = new HashSet<>();
+            for (FilaReserva r : lote) {
+                db.ponerReserva(r.conEstado(estadoDestino));
+                idsHabitacion.add(r.idHabitacion);
+            }
+            Set<Integer> conCheckIn = new HashSet<>();
+            for (FilaReserva r : db.reservas()) {
+                if (r.estado.equals("Check-in")) {
+                    conCheckIn.add(r.idHabitacion);
+                }
+            }
+            for (Integer id : idsHabitacion) {
+                FilaHabitacion h = db.habitacion(id);
+                if (h.estado.equals("Ocupada") && !conCheckIn.contains(id)) {
+                    db.ponerHabitacion(h.conEstado("Disponible"));
+                }
+            }
+            List<Reserva> reservas = new ArrayList<>();
+            for (FilaReserva r : lote) {
+                reservas.add(db.aReserva(db.reserva(r.id)));
+            }
+            return reservas;
+        });
+    }
+
+    private List<Reserva> buscar(Predicate<FilaReserva> condicion) throws HotelException {
+        return db.leer(() -> {
+            List<Reserva> reservas = new ArrayList<>();
+            for (FilaReserva fila : db.reservas()) {
+                if (condicion.test(fila)) {
+                    reservas.add(db.aReserva(fila));
+                }
+            }
+            return reservas;
+        });
+    }
+
+    private void insertar(Reserva reserva) throws HotelException {
+        int id = db.siguienteIdReserva();
+        try {
+            db.ponerReserva(fila(id, reserva));
+        } catch (HotelException e) {
+            throw new HotelException("Error al guardar la reserva: " + e.getMessage());
+        }
+        reserva.setIdReservaInterno(id);
+    }
+
+    private static FilaReserva fila(int id, Reserva reserva) {
+        return new FilaReserva(id, reserva.getHuesped().getIdHuespedInterno(), reserva.getHabitacion().getDbId(),
+                reserva.getFechaCheckin(), reserva.getFechaCheckout(), reserva.getCantidadHuespedes(), reserva.getEstado());
+    }
+}
@@ -0,0 +1,159 @@
+package hotel.config.db.dao.impl;
+
+
+import hotel.config.db.Conexion;
+import hotel.config.db.dao.interfaces.ServicioAdicionalDAO;
+import hotel.gestion.HotelException;
+import hotel.gestion.ServicioAdicional;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de la interfaz ServicioAdicionalDAO para operaciones con la base de datos MySQL.
+ */
+public class ServicioAdicionalDAOImpl implements ServicioAdicionalDAO {
+
+    private final DataSource dataSource;
+
+    /**
+     * Constructor por defecto: trabaja contra la base de datos principal (Conexion.getDataSource()).
+     */
+    public ServicioAdicionalDAOImpl() {
+        this(Conexion.getDataSource());
+    }
+
+    /**
+     * Constructor que permite elegir la base de datos (por ejemplo, el esquema de otro hotel de la cadena).
+     * @param dataSource El DataSource del que se obtienen las conexiones.
+     */
+    public ServicioAdicionalDAOImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Guarda un nuevo servicio adicional en la base de datos.
+     * El ID del servicio será generado automáticamente por la DB.
+     * @param servicio El objeto ServicioAdicional a guardar.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void save(ServicioAdicional servicio) throws HotelException {
+        String sql = "INSERT INTO SERVICIOS_ADICIONALES (nombre_servicio, precio_servicio) VALUES (?, ?)";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setString(1, servicio.getNombre());
+            pstmt.setBigDecimal(2, servicio.getPrecio());
+            pstmt.executeUpdate();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    servicio.setIdServicio(generatedKeys.getInt(1)); // Asignar el ID autogenerado
+                }
+            }
+            System.out.println("Servicio adicional " + servicio.getNombre() + " guardado en la base de datos con ID: " + servicio.getIdServicio() + ".");
+
+        } catch (SQLException e) {
+            throw new HotelException("Error al guardar el servicio adicional: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encuentra un servicio adicional por su ID en la base de datos.
+     * @param id El ID del servicio.
+     * @return Un Optional que contiene el ServicioAdicional si se encuentra, o un Optional vacío.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public Optional<ServicioAdicional> findById(int id) throws HotelException {
+        String sql = "SELECT id_servicio, nombre_servicio, precio_servicio FROM SERVICIOS_ADICIONALES WHERE id_servicio = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(createServicioFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al buscar servicio adicional por ID: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Obtiene todo el catálogo de servicios adicionales de la base de datos.
+     * @return Una lista de objetos ServicioAdicional.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public List<ServicioAdicional> findAll() throws HotelException {
+        List<ServicioAdicional> servicios = new ArrayList<>();
+        String sql = "SELECT id_servicio, nombre_servicio, precio_servicio FROM SERVICIOS_ADICIONALES";
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                servicios.add(createServicioFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            throw new HotelException("Error al obtener los servicios adicionales: " + e.getMessage());
+        }
+        return servicios;
+    }
+
+    /**
+     * Actualiza un servicio adicional existente en la base de datos.
+     * @param servicio El objeto ServicioAdicional con los datos actualizados (se usa su ID de DB).
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void update(ServicioAdicional servicio) throws HotelException {
+        String sql = "UPDATE SERVICIOS_ADICIONALES SET nombre_servicio = ?, precio_servicio = ? WHERE id_servicio = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, servicio.getNombre());
+            pstmt.setBigDecimal(2, servicio.getPrecio());
+            pstmt.setInt(3, servicio.getIdServicio());
+            pstmt.executeUpdate();
+            System.out.println("Servicio adicional con ID " + servicio.getIdServicio() + " actualizado en la base de datos.");
+        } catch (SQLException e) {
+            throw new HotelException("Error al actualizar el servicio adicional: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Elimina un servicio adicional de la base de datos por su ID.
+     * @param id El ID del servicio a eliminar.
+     * @throws HotelException Si ocurre un error de SQL.
+     */
+    @Override
+    public void delete(int id) throws HotelException {
+        String sql = "DELETE FROM SERVICIOS_ADICIONALES WHERE id_servicio = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+            pstmt.executeUpdate();
+            System.out.println("Servicio adicional con ID " + id + " eliminado de la base de datos.");
+        } catch (SQLException e) {
+            throw new HotelException("Error al eliminar el servicio adicional: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Método auxiliar para construir un objeto ServicioAdicional a partir de un ResultSet.
+     */
+    private ServicioAdicional createServicioFromResultSet(ResultSet rs) throws SQLException {
+        ServicioAdicional servicio = new ServicioAdicional(rs.getString("nombre_servicio"), rs.getBigDecimal("precio_servicio"));
+        servicio.setIdServicio(rs.getInt("id_servicio"));
+        return servicio;
+    }
+}
@@ -0,0 +1,43 @@
+package hotel.config.db.dao.interfaces;
+
+import hotel.gestion.DetalleFactura;
+import hotel.gestion.Factura;
+import hotel.gestion.HotelException;
+import hotel.gestion.Reserva;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Interfaz para el Data Access Object (DAO) de la entidad Factura.
+ * Define las operaciones sobre FACTURAS y sus líneas en DETALLE_FACTURA (RFS09, RFS10).
+ */
+public interface FacturaDAO {
+    // Método para guardar una nueva factura junto con sus líneas de detalle
+    void save(Factura factura) throws HotelException;
+
+    // Método para guardar las facturas de un check-out junto con el nuevo estado de sus reservas
+    // y (si conHabitaciones) de sus habitaciones, en una sola transacción y con sentencias por lotes.
+    // Solo se facturan los cargos pendientes incluidos en cada factura; los demás siguen pendientes
+    void saveWithCheckOut(Collection<Factura> facturas, Collection<Reserva> reservas, boolean conHabitaciones) throws HotelException;
+
+    // Método para guardar un cargo de una reserva, pendiente de facturar hasta su check-out (RFS08)
+    void saveCargo(int idReserva, DetalleFactura detalle) throws HotelException;
+
+    // Método para obtener los cargos aún no facturados de varias reservas, por ID de reserva
+    Map<Integer, List<DetalleFactura>> findCargosPendientes(Collection<Integer> idsReserva) throws HotelException;
+
+    // Método para encontrar una factura (con sus líneas) por su ID
+    Optional<Factura> findById(int id) throws HotelException;
+
+    // Método para encontrar la factura de una reserva
+    Optional<Factura> findByReserva(int idReserva) throws HotelException;
+
+    // Método para obtener todas las facturas (sin líneas de detalle)
+    List<Factura> findAll() throws HotelException;
+
+    // Método para actualizar el estado de pago de una factura (RFS10)
+    void updateEstadoPago(int idFactura, String estadoPago) throws HotelException;
+}
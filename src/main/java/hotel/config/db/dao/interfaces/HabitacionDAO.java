@@ -1,9 +1,13 @@
 package hotel.config.db.dao.interfaces;
 
+import hotel.gestion.CambioEstadoHabitacion;
 import hotel.gestion.Habitacion;
 import hotel.gestion.HotelException;
+import hotel.gestion.ResultadoCambioEstado;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -28,4 +32,23 @@ public interface HabitacionDAO {
 
     // Método para eliminar una habitación por su ID
     void delete(int id) throws HotelException;
+
+    // Método para cambiar de estado un conjunto de habitaciones (por número) con una sola sentencia UPDATE.
+    // Solo cambian las habitaciones que estén en estadoOrigen; devuelve el resultado por habitación.
+    List<ResultadoCambioEstado> updateEstadoByNumeros(Collection<Integer> numeros, String estadoOrigen,
+                                                      String estadoDestino) throws HotelException;
+
+    // Método para contar las habitaciones agrupadas por estado (agregado en la DB, para reportes)
+    Map<String, Integer> countByEstado() throws HotelException;
+
+    // Método para guardar muchas habitaciones con sentencias por lotes en una sola transacción (asigna los IDs de DB)
+    void saveAll(Collection<Habitacion> habitaciones) throws HotelException;
+
+    // Método para devolver a 'Disponible' hasta 'limite' habitaciones que llevan más de 'minutos' minutos
+    // 'En Limpieza' (según HABITACIONES.estado_desde). Devuelve los números de las habitaciones liberadas
+    List<Integer> updateLimpiezaVencida(int minutos, int limite) throws HotelException;
+
+    // Método para aplicar muchos cambios de estado (por número) con sentencias por lotes en una sola transacción.
+    // Cada habitación solo cambia si sigue en el estado de origen del cambio; devuelve el resultado por cambio
+    List<ResultadoCambioEstado> updateEstados(Collection<CambioEstadoHabitacion> cambios) throws HotelException;
 }
@@ -3,6 +3,7 @@ package hotel.config.db.dao.interfaces;
 import hotel.gestion.HotelException;
 import hotel.gestion.Huesped;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +29,7 @@ public interface HuespedDAO {
 
     // Método para eliminar un huésped por su ID
     void delete(int id) throws HotelException;
+
+    // Método para guardar muchos huéspedes con sentencias por lotes en una sola transacción (asigna los IDs de DB)
+    void saveAll(Collection<Huesped> huespedes) throws HotelException;
 }
@@ -0,0 +1,22 @@
+package hotel.config.db.dao.interfaces;
+
+import hotel.gestion.HotelException;
+import hotel.gestion.Propiedad;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz para el Data Access Object (DAO) de la entidad Propiedad.
+ * Define las operaciones sobre el catálogo de hoteles de la cadena (tabla PROPIEDADES del esquema principal).
+ */
+public interface PropiedadDAO {
+    // Método para registrar una nueva propiedad en el catálogo
+    void save(Propiedad propiedad) throws HotelException;
+
+    // Método para encontrar una propiedad por su nombre
+    Optional<Propiedad> findByNombre(String nombre) throws HotelException;
+
+    // Método para obtener todas las propiedades de la cadena
+    List<Propiedad> findAll() throws HotelException;
+}
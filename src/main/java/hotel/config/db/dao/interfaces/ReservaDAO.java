@@ -2,10 +2,14 @@ package hotel.config.db.dao.interfaces;
 
 
 import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
 import hotel.gestion.Reserva;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaz para el Data Access Object (DAO) de la entidad Reserva.
@@ -26,4 +30,42 @@ public interface ReservaDAO {
 
     // Método para eliminar una reserva por su ID
     void delete(int id) throws HotelException;
+
+    // Método para obtener varias reservas por su ID en una sola consulta (con su huésped y habitación)
+    List<Reserva> findByIds(Collection<Integer> ids) throws HotelException;
+
+    // Método para persistir, en una sola transacción y con sentencias por lotes, el estado de varias reservas
+    // y, si conHabitaciones, el de sus habitaciones (false cuando las habitaciones se escriben en diferido).
+    // Falla sin cambiar nada si alguna reserva ya no está en estadoAnterior (otra operación la cambió a la vez)
+    void updateEstados(Collection<Reserva> reservas, String estadoAnterior, boolean conHabitaciones) throws HotelException;
+
+    // Método para obtener las reservas que están en alguno de los estados indicados (con su huésped y habitación)
+    List<Reserva> findByEstados(Collection<String> estados) throws HotelException;
+
+    // Método para reservar de forma atómica 'cantidad' habitaciones libres de un tipo para unas fechas
+    // (reservas de grupo). O se reservan todas o ninguna.
+    List<Reserva> saveGroup(Huesped huesped, String tipo, int cantidad, LocalDate fechaCheckin,
+                            LocalDate fechaCheckout, int huespedesPorHabitacion,
+                            boolean ocuparHabitaciones) throws HotelException;
+
+    // Método para sumar el costo total de las reservas en un estado (ej: 'Check-out' para ingresos),
+    // agregando en la DB por tarifa en lugar de cargar cada reserva
+    double sumCostoTotalByEstado(String estado) throws HotelException;
+
+    // Método para guardar muchas reservas con sentencias por lotes en una sola transacción (asigna los IDs de DB).
+    // Sus huéspedes y habitaciones ya deben estar persistidos.
+    void saveAll(Collection<Reserva> reservas) throws HotelException;
+
+    // Método para recorrer todas las reservas (con su huésped y habitación) leyéndolas de la DB fila a fila,
+    // sin cargarlas todas en memoria (exportaciones). Una excepción de la acción corta el recorrido y se propaga
+    void forEach(Consumer<Reserva> accion) throws HotelException;
+
+    // Método para marcar como 'No-show' hasta 'limite' reservas 'Confirmada' cuyo check-in fue en o antes de
+    // 'checkinHasta' y cuya estancia sigue en curso el día 'hoy', liberando su habitación si quedó 'Ocupada'.
+    // Devuelve las reservas cambiadas (tareas programadas: se llama por lotes hasta que devuelve menos de 'limite')
+    List<Reserva> updateNoShows(LocalDate checkinHasta, LocalDate hoy, int limite) throws HotelException;
+
+    // Método para cancelar hasta 'limite' reservas 'Confirmada' cuyo check-out fue en o antes de 'checkoutHasta'
+    // (confirmaciones vencidas), liberando su habitación si quedó 'Ocupada'. Devuelve las reservas cambiadas
+    List<Reserva> updateVencidas(LocalDate checkoutHasta, int limite) throws HotelException;
 }
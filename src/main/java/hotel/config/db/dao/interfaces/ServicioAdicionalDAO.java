@@ -0,0 +1,28 @@
+package hotel.config.db.dao.interfaces;
+
+import hotel.gestion.HotelException;
+import hotel.gestion.ServicioAdicional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz para el Data Access Object (DAO) de la entidad ServicioAdicional.
+ * Define las operaciones CRUD para el catálogo de servicios adicionales (RFS08).
+ */
+public interface ServicioAdicionalDAO {
+    // Método para guardar un nuevo servicio adicional
+    void save(ServicioAdicional servicio) throws HotelException;
+
+    // Método para encontrar un servicio adicional por su ID
+    Optional<ServicioAdicional> findById(int id) throws HotelException;
+
+    // Método para obtener todo el catálogo de servicios adicionales
+    List<ServicioAdicional> findAll() throws HotelException;
+
+    // Método para actualizar un servicio adicional existente
+    void update(ServicioAdicional servicio) throws HotelException;
+
+    // Método para eliminar un servicio adicional por su ID
+    void delete(int id) throws HotelException;
+}
@@ -0,0 +1,345 @@
+package hotel.gestion;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Almacén en memoria del historial de reservas para análisis, en columnas de tipos primitivos.
+ *
+ * Cada reserva ocupa una fila en arrays paralelos (ID, ID de habitación, ID de huésped, check-in y check-out
+ * como día desde epoch, cantidad de huéspedes y código de estado): unos 22 bytes por reserva, frente a los
+ * objetos Reserva con su copia de Huesped y Habitacion que devuelve el DAO. Diez millones de reservas
+ * caben en unos 220 MB y los recorridos leen memoria contigua, sin seguir referencias.
+ *
+ * Las habitaciones (pocas) se guardan aparte, indexadas por su ID de DB, para calcular costos sin objetos.
+ * La lectura de filas se hace con una vista reutilizable (VistaReserva) que expone los mismos accesores
+ * de lectura que Reserva. No es seguro agregar reservas mientras otro hilo lo recorre: se carga una vez
+ * (Hotel.cargarAlmacenReservas) y después solo se consulta.
+ */
+public class AlmacenReservas {
+
+    // Estados conocidos; los que no están se agregan al leerlos (como mucho 127)
+    private static final String[] ESTADOS_CONOCIDOS = {"Confirmada", "Check-in", "Check-out", "Cancelada", "No-show"};
+
+    private int tamano;
+    private int[] ids;
+    private int[] idsHabitacion;
+    private int[] idsHuesped;
+    private int[] diasCheckin;
+    private int[] diasCheckout;
+    private byte[] cantidades;
+    private byte[] estados;
+
+    private String[] nombresEstado = ESTADOS_CONOCIDOS.clone();
+    private int totalEstados = ESTADOS_CONOCIDOS.length;
+
+    // Por ID de DB de la habitación: costo por noche y número (NaN / 0 si no se conoce)
+    private double[] costoNoche = new double[0];
+    private int[] numeroHabitacion = new int[0];
+    private int totalHabitaciones;
+
+    /**
+     * Vista de solo lectura sobre una fila del almacén (flyweight): no copia datos, lee los arrays
+     * en la fila actual. Una misma vista se reutiliza moviéndola con irA, por lo que no debe
+     * guardarse más allá de la iteración en la que se recibió.
+     */
+    public final class VistaReserva {
+        private int fila;
+
+        private VistaReserva(int fila) {
+            this.fila = fila;
+        }
+
+        /**
+         * Mueve la vista a otra fila.
+         * @param fila La posición de la reserva en el almacén (0 a tamano() - 1).
+         * @return La misma vista.
+         */
+        public VistaReserva irA(int fila) {
+            if (fila < 0 || fila >= tamano) {
+                throw new IndexOutOfBoundsException("Fila " + fila + " fuera del almacén (" + tamano + ")");
+            }
+            this.fila = fila;
+            return this;
+        }
+
+        public int getIdReservaInterno() {
+            return ids[fila];
+        }
+
+        public String getIdReserva() {
+            return String.valueOf(ids[fila]);
+        }
+
+        public int getIdHabitacion() {
+            return idsHabitacion[fila];
+        }
+
+        public int getNumeroHabitacion() {
+            int id = idsHabitacion[fila];
+            return id < numeroHabitacion.length ? numeroHabitacion[id] : 0;
+        }
+
+        public int getIdHuesped() {
+            return idsHuesped[fila];
+        }
+
+        public LocalDate getFechaCheckin() {
+            return LocalDate.ofEpochDay(diasCheckin[fila]);
+        }
+
+        public LocalDate getFechaCheckout() {
+            return LocalDate.ofEpochDay(diasCheckout[fila]);
+        }
+
+        public int getCantidadHuespedes() {
+            return cantidades[fila];
+        }
+
+        public String getEstado() {
+            return nombresEstado[estados[fila]];
+        }
+
+        public double calcularCostoTotal() {
+            return costoFila(fila);
+        }
+
+        @Override
+        public String toString() {
+            return "Reserva [ID_DB: " + getIdReservaInterno() + ", Huésped (ID_DB): " + getIdHuesped() +
+                    ", Habitación: " + getNumeroHabitacion() +
+                    ", Check-in: " + getFechaCheckin() + ", Check-out: " + getFechaCheckout() +
+                    ", Huéspedes: " + getCantidadHuespedes() + ", Estado: " + getEstado() +
+                    ", Costo Total: $" + String.format("%.2f", calcularCostoTotal()) + "]";
+        }
+    }
+
+    /**
+     * Constructor de la clase AlmacenReservas.
+     * @param habitaciones Las habitaciones del hotel (para costos y números de habitación).
+     * @param capacidadInicial Número de reservas previsto (crece si se supera).
+     */
+    public AlmacenReservas(Collection<Habitacion> habitaciones, int capacidadInicial) {
+        int capacidad = Math.max(16, capacidadInicial);
+        this.ids = new int[capacidad];
+        this.idsHabitacion = new int[capacidad];
+        this.idsHuesped = new int[capacidad];
+        this.diasCheckin = new int[capacidad];
+        this.diasCheckout = new int[capacidad];
+        this.cantidades = new byte[capacidad];
+        this.estados = new byte[capacidad];
+        for (Habitacion h : habitaciones) {
+            registrarHabitacion(h);
+        }
+    }
+
+    /**
+     * Registra (o actualiza) los datos de una habitación usados para calcular costos.
+     * @param habitacion La habitación (debe tener ID de DB).
+     */
+    public void registrarHabitacion(Habitacion habitacion) {
+        int id = habitacion.getDbId();
+        if (id >= costoNoche.length) {
+            int nuevoTamano = Math.max(id + 1, costoNoche.length * 2);
+            int anterior = costoNoche.length;
+            costoNoche = Arrays.copyOf(costoNoche, nuevoTamano);
+            numeroHabitacion = Arrays.copyOf(numeroHabitacion, nuevoTamano);
+            Arrays.fill(costoNoche, anterior, nuevoTamano, Double.NaN);
+        }
+        if (Double.isNaN(costoNoche[id])) {
+            totalHabitaciones++;
+        }
+        costoNoche[id] = habitacion.calcularCostoNoche();
+        numeroHabitacion[id] = habitacion.getNumero();
+    }
+
+    /**
+     * Agrega una reserva al almacén. Solo se copian sus IDs, fechas, cantidad y estado: el objeto
+     * Reserva (y sus Huesped y Habitacion) puede descartarse después.
+     * @param reserva La reserva (con ID de DB, huésped y habitación persistidos).
+     */
+    public void agregar(Reserva reserva) {
+        if (tamano == ids.length) {
+            crecer();
+        }
+        int i = tamano;
+        ids[i] = reserva.getIdReservaInterno();
+        idsHabitacion[i] = reserva.getHabitacion().getDbId();
+        idsHuesped[i] = reserva.getHuesped().getIdHuespedInterno();
+        diasCheckin[i] = (int) reserva.getFechaCheckin().toEpochDay();
+        diasCheckout[i] = (int) reserva.getFechaCheckout().toEpochDay();
+        cantidades[i] = (byte) Math.min(Byte.MAX_VALUE, reserva.getCantidadHuespedes());
+        estados[i] = codigoEstado(reserva.getEstado());
+        tamano++;
+    }
+
+    /**
+     * @return El número de reservas en el almacén.
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * @return El número de habitaciones registradas.
+     */
+    public int getTotalHabitaciones() {
+        return totalHabitaciones;
+    }
+
+    /**
+     * Retorna una vista nueva sobre una fila. Para recorrer todo el almacén es mejor forEach,
+     * que reutiliza una sola vista.
+     * @param fila La posición de la reserva (0 a tamano() - 1).
+     * @return La vista de la reserva.
+     */
+    public VistaReserva getVista(int fila) {
+        return new VistaReserva(0).irA(fila);
+    }
+
+    /**
+     * Recorre todas las reservas en orden de carga con una única vista reutilizada.
+     * @param accion La acción a ejecutar con cada reserva (no debe guardar la vista).
+     */
+    public void forEach(Consumer<VistaReserva> accion) {
+        VistaReserva vista = new VistaReserva(0);
+        for (int i = 0; i < tamano; i++) {
+            vista.fila = i;
+            accion.accept(vista);
+        }
+    }
+
+    /**
+     * Cuenta las reservas en cada estado.
+     * @return Estado -> número de reservas (solo los estados con alguna reserva).
+     */
+    public Map<String, Integer> contarPorEstado() {
+        int[] cuentas = new int[totalEstados];
+        byte[] e = estados;
+        for (int i = 0; i < tamano; i++) {
+            cuentas[e[i]]++;
+        }
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        for (int c = 0; c < totalEstados; c++) {
+            if (cuentas[c] > 0) {
+                resultado.put(nombresEstado[c], cuentas[c]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Suma el costo total (costo por noche de la habitación por noches) de las reservas en un estado,
+     * igual que ReservaDAO.sumCostoTotalByEstado pero sobre el almacén.
+     * @param estado El estado (ej: "Check-out").
+     * @return La suma de los costos.
+     */
+    public double sumCostoTotalByEstado(String estado) {
+        int codigo = buscarEstado(estado);
+        if (codigo < 0) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (int i = 0; i < tamano; i++) {
+            if (estados[i] == codigo) {
+                total += costoFila(i);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Cuenta las noches-habitación ocupadas en un período por reservas no canceladas (ni 'No-show'), para calcular
+     * la ocupación histórica (noches ocupadas / (habitaciones x noches del período)).
+     * @param desde Primer día del período (inclusive).
+     * @param hasta Último día del período (exclusive).
+     * @return Las noches-habitación reservadas dentro del período.
+     */
+    public long contarNochesOcupadas(LocalDate desde, LocalDate hasta) {
+        int inicio = (int) desde.toEpochDay();
+        int fin = (int) hasta.toEpochDay();
+        int cancelada = buscarEstado("Cancelada");
+        int noShow = buscarEstado("No-show");
+        long noches = 0;
+        for (int i = 0; i < tamano; i++) {
+            if (estados[i] == cancelada || estados[i] == noShow) {
+                continue;
+            }
+            int entrada = Math.max(inicio, diasCheckin[i]);
+            int salida = Math.min(fin, diasCheckout[i]);
+            if (salida > entrada) {
+                noches += salida - entrada;
+            }
+        }
+        return noches;
+    }
+
+    /**
+     * Reduce los arrays al número de reservas cargadas, para liberar el espacio sobrante del crecimiento.
+     */
+    public void compactar() {
+        ids = Arrays.copyOf(ids, tamano);
+        idsHabitacion = Arrays.copyOf(idsHabitacion, tamano);
+        idsHuesped = Arrays.copyOf(idsHuesped, tamano);
+        diasCheckin = Arrays.copyOf(diasCheckin, tamano);
+        diasCheckout = Arrays.copyOf(diasCheckout, tamano);
+        cantidades = Arrays.copyOf(cantidades, tamano);
+        estados = Arrays.copyOf(estados, tamano);
+    }
+
+    /**
+     * @return Los bytes aproximados que ocupan las columnas de reservas (capacidad reservada incluida).
+     */
+    public long getBytesColumnas() {
+        return (long) ids.length * (5 * Integer.BYTES + 2);
+    }
+
+    private double costoFila(int fila) {
+        int id = idsHabitacion[fila];
+        double costo = id < costoNoche.length ? costoNoche[id] : Double.NaN;
+        if (Double.isNaN(costo)) {
+            return 0.0; // Habitación desconocida (borrada o no registrada)
+        }
+        return costo * (diasCheckout[fila] - diasCheckin[fila]);
+    }
+
+    private int buscarEstado(String estado) {
+        for (int c = 0; c < totalEstados; c++) {
+            if (Objects.equals(nombresEstado[c], estado)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private byte codigoEstado(String estado) {
+        int codigo = buscarEstado(estado);
+        if (codigo >= 0) {
+            return (byte) codigo;
+        }
+        if (totalEstados == Byte.MAX_VALUE) {
+            throw new IllegalStateException("Demasiados estados de reserva distintos en el almacén.");
+        }
+        if (totalEstados == nombresEstado.length) {
+            nombresEstado = Arrays.copyOf(nombresEstado, totalEstados * 2);
+        }
+        nombresEstado[totalEstados] = estado;
+        return (byte) totalEstados++;
+    }
+
+    private void crecer() {
+        int capacidad = Math.max(16, ids.length + (ids.length >> 1)); // Tras compactar() puede estar vacío
+        ids = Arrays.copyOf(ids, capacidad);
+        idsHabitacion = Arrays.copyOf(idsHabitacion, capacidad);
+        idsHuesped = Arrays.copyOf(idsHuesped, capacidad);
+        diasCheckin = Arrays.copyOf(diasCheckin, capacidad);
+        diasCheckout = Arrays.copyOf(diasCheckout, capacidad);
+        cantidades = Arrays.copyOf(cantidades, capacidad);
+        estados = Arrays.copyOf(estados, capacidad);
+    }
+}
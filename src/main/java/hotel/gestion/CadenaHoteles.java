@@ -0,0 +1,102 @@
+package hotel.gestion;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Clase que agrupa los hoteles de una cadena. Cada Hotel trabaja contra su propio shard
+ * (esquema de base de datos) y la cadena ofrece los reportes globales: las consultas se lanzan
+ * en paralelo contra todos los shards y los resultados se combinan al final.
+ */
+public class CadenaHoteles {
+    private String nombre;
+    private final Map<String, Hotel> hoteles = Collections.synchronizedMap(new TreeMap<>());
+
+    /**
+     * Constructor de la clase CadenaHoteles.
+     * @param nombre El nombre de la cadena.
+     */
+    public CadenaHoteles(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Agrega un hotel a la cadena. El Hotel ya debe tener sus DAOs apuntando a su shard.
+     * @param hotel El hotel a agregar.
+     */
+    public void agregarHotel(Hotel hotel) {
+        hoteles.put(hotel.getNombre(), hotel);
+    }
+
+    /**
+     * Retorna el hotel de la cadena con ese nombre (las operaciones de ese Hotel van a su shard).
+     * @param nombreHotel El nombre del hotel.
+     * @return Un Optional con el hotel, o vacío si no pertenece a la cadena.
+     */
+    public Optional<Hotel> getHotel(String nombreHotel) {
+        return Optional.ofNullable(hoteles.get(nombreHotel));
+    }
+
+    public List<Hotel> getHoteles() {
+        synchronized (hoteles) {
+            return new ArrayList<>(hoteles.values());
+        }
+    }
+
+    /**
+     * Calcula el resumen de ingresos y ocupación de cada hotel en paralelo (un hilo virtual por shard)
+     * y los combina en un total de la cadena.
+     * @return Los resúmenes de cada hotel, seguidos del total de la cadena (último elemento).
+     * @throws HotelException Si falla la consulta de algún shard.
+     */
+    public List<ResumenPropiedad> calcularResumenCadena() throws HotelException {
+        List<Hotel> lista = getHoteles();
+        List<ResumenPropiedad> resumenes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResumenPropiedad>> pendientes = new ArrayList<>();
+            for (Hotel hotel : lista) {
+                pendientes.add(executor.submit(hotel::calcularResumen));
+            }
+            for (Future<ResumenPropiedad> pendiente : pendientes) {
+                resumenes.add(pendiente.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HotelException) {
+                throw (HotelException) e.getCause();
+            }
+            throw new HotelException("Error al calcular el resumen de la cadena: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HotelException("Cálculo del resumen de la cadena interrumpido.");
+        }
+
+        ResumenPropiedad total = new ResumenPropiedad("Total " + nombre, 0, Collections.emptyMap());
+        for (ResumenPropiedad r : resumenes) {
+            total = total.combinar("Total " + nombre, r);
+        }
+        resumenes.add(total);
+        return resumenes;
+    }
+
+    /**
+     * Muestra el reporte de ingresos y ocupación de toda la cadena (RFS15, RFS16 a nivel cadena).
+     * @throws HotelException Si falla la consulta de algún shard.
+     */
+    public void mostrarReporteCadena() throws HotelException {
+        List<ResumenPropiedad> resumenes = calcularResumenCadena();
+        System.out.println("\n--- Reporte de la Cadena " + nombre + " ---");
+        for (ResumenPropiedad r : resumenes) {
+            System.out.println(r);
+        }
+        System.out.println("------------------------------------");
+    }
+}
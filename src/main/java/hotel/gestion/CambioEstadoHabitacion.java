@@ -0,0 +1,51 @@
+package hotel.gestion;
+
+
+/**
+ * Clase que representa un cambio de estado pendiente de escribir para una habitación concreta:
+ * la habitación pasa de 'estadoOrigen' a 'estadoDestino' solo si en la DB sigue en 'estadoOrigen'.
+ * Es inmutable; varios cambios seguidos de la misma habitación se combinan con combinar().
+ */
+public class CambioEstadoHabitacion {
+    private final int numeroHabitacion;
+    private final String estadoOrigen; // Estado en la DB cuando se pidió el primer cambio
+    private final String estadoDestino;
+
+    /**
+     * Constructor de la clase CambioEstadoHabitacion.
+     * @param numeroHabitacion El número de la habitación.
+     * @param estadoOrigen El estado que debe tener la habitación en la DB para aplicar el cambio.
+     * @param estadoDestino El nuevo estado.
+     */
+    public CambioEstadoHabitacion(int numeroHabitacion, String estadoOrigen, String estadoDestino) {
+        this.numeroHabitacion = numeroHabitacion;
+        this.estadoOrigen = estadoOrigen;
+        this.estadoDestino = estadoDestino;
+    }
+
+    public int getNumeroHabitacion() {
+        return numeroHabitacion;
+    }
+
+    public String getEstadoOrigen() {
+        return estadoOrigen;
+    }
+
+    public String getEstadoDestino() {
+        return estadoDestino;
+    }
+
+    /**
+     * Combina este cambio con uno posterior de la misma habitación: se conserva el origen y gana el último destino.
+     * @param nuevoDestino El estado pedido después.
+     * @return El cambio combinado.
+     */
+    public CambioEstadoHabitacion combinar(String nuevoDestino) {
+        return new CambioEstadoHabitacion(numeroHabitacion, estadoOrigen, nuevoDestino);
+    }
+
+    @Override
+    public String toString() {
+        return "Habitación " + numeroHabitacion + ": " + estadoOrigen + " -> " + estadoDestino + " (pendiente)";
+    }
+}
@@ -0,0 +1,65 @@
+package hotel.gestion;
+
+
+import java.math.BigDecimal;
+
+/**
+ * Clase que representa una línea de detalle de una factura (RFS09):
+ * un servicio adicional consumido durante la estancia, con su cantidad y precio unitario.
+ */
+public class DetalleFactura {
+    private int idDetalle; // ID de la base de datos (AUTO_INCREMENT)
+    private int idServicio;
+    private String nombreServicio;
+    private int cantidad;
+    private BigDecimal precioUnitario; // Precio vigente al registrar el cargo
+
+    /**
+     * Constructor de la clase DetalleFactura.
+     * @param idServicio El ID de la DB del servicio adicional.
+     * @param nombreServicio El nombre del servicio (solo informativo).
+     * @param cantidad La cantidad consumida.
+     * @param precioUnitario El precio unitario aplicado.
+     */
+    public DetalleFactura(int idServicio, String nombreServicio, int cantidad, BigDecimal precioUnitario) {
+        this.idServicio = idServicio;
+        this.nombreServicio = nombreServicio;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+        this.idDetalle = 0; // ID inicial para objetos no persistidos
+    }
+
+    public int getIdDetalle() {
+        return idDetalle;
+    }
+
+    // Setter para el ID de la base de datos (usado por DAO al guardar)
+    public void setIdDetalle(int idDetalle) {
+        this.idDetalle = idDetalle;
+    }
+
+    public int getIdServicio() {
+        return idServicio;
+    }
+
+    public String getNombreServicio() {
+        return nombreServicio;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public BigDecimal getPrecioUnitario() {
+        return precioUnitario;
+    }
+
+    public BigDecimal calcularSubtotal() {
+        return precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+    }
+
+    @Override
+    public String toString() {
+        return cantidad + " x " + nombreServicio + " ($" + precioUnitario + ") = $" + calcularSubtotal();
+    }
+}
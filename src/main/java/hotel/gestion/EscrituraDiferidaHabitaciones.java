@@ -0,0 +1,199 @@
+package hotel.gestion;
+
+import hotel.config.Configuracion;
+import hotel.config.db.dao.interfaces.HabitacionDAO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escritura diferida (write-behind) de los cambios de estado de habitaciones que no son críticos para el huésped,
+ * como 'En Limpieza' tras el check-out o 'Disponible' al terminar la limpieza: el cambio se guarda en memoria y
+ * se escribe después, junto con otros, en una sola transacción por lotes (HabitacionDAO.updateEstados).
+ *
+ * - Varios cambios de la misma habitación se combinan en uno (origen del primero, destino del último);
+ *   si la habitación vuelve a su estado de origen, el cambio desaparece.
+ * - Se vacía cada hotel.habitaciones.escrituraDiferida.intervaloMs y en cuanto hay
+ *   hotel.habitaciones.escrituraDiferida.maxPendientes cambios, además de al cerrar y al apagar la JVM.
+ * - Cada cambio solo se aplica si la habitación sigue en su estado de origen en la DB; si otra escritura
+ *   síncrona llegó antes, gana esa y el cambio diferido se descarta (se cuenta como conflicto).
+ * - Las lecturas ven los cambios pendientes a través de aplicar(); las consultas que filtran por estado en la
+ *   DB deben llamar antes a vaciar().
+ * Si la aplicación termina de forma abrupta (sin pasar por close ni por el apagado de la JVM), los cambios
+ * pendientes se pierden: por eso solo se difieren estados que no afectan a la venta de habitaciones.
+ */
+public class EscrituraDiferidaHabitaciones implements AutoCloseable {
+    private static final AtomicInteger HILOS = new AtomicInteger();
+
+    private final HabitacionDAO habitacionDAO;
+    private final Map<Integer, CambioEstadoHabitacion> pendientes = new ConcurrentHashMap<>();
+    private final Object escritura = new Object(); // Un solo vaciado a la vez
+    private final ScheduledExecutorService executor;
+    private final Thread alApagar;
+
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder combinados = new LongAdder();
+    private final LongAdder escritos = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+    private final LongAdder vaciados = new LongAdder();
+    private volatile int maxPendientes;
+    private volatile long ultimoVaciadoMs;
+
+    /**
+     * Constructor de la clase EscrituraDiferidaHabitaciones.
+     * @param habitacionDAO El DAO con el que se escriben los cambios.
+     * @param intervaloMs Cada cuántos milisegundos se vacían los cambios pendientes.
+     */
+    public EscrituraDiferidaHabitaciones(HabitacionDAO habitacionDAO, long intervaloMs) {
+        this.habitacionDAO = habitacionDAO;
+        this.executor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "habitaciones-write-behind-" + HILOS.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long intervalo = Math.max(10, intervaloMs);
+        executor.scheduleWithFixedDelay(this::vaciarEnSegundoPlano, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        this.alApagar = new Thread(this::vaciarEnSegundoPlano, "habitaciones-write-behind-apagado");
+        Runtime.getRuntime().addShutdownHook(alApagar);
+    }
+
+    /**
+     * Encola el cambio de estado de una habitación (ya aplicado al objeto en memoria).
+     * @param habitacion La habitación con su nuevo estado.
+     * @param estadoAnterior El estado que tenía antes del cambio (el que se leyó, con los pendientes aplicados).
+     */
+    public void encolar(Habitacion habitacion, String estadoAnterior) {
+        String destino = habitacion.getEstado();
+        pendientes.compute(habitacion.getNumero(), (numero, previo) -> {
+            if (previo == null) {
+                return destino.equals(estadoAnterior) ? null : new CambioEstadoHabitacion(numero, estadoAnterior, destino);
+            }
+            combinados.increment();
+            return destino.equals(previo.getEstadoOrigen()) ? null : previo.combinar(destino);
+        });
+        encolados.increment();
+        int profundidad = pendientes.size();
+        if (profundidad > maxPendientes) {
+            maxPendientes = profundidad;
+        }
+        if (profundidad >= Configuracion.getInt("hotel.habitaciones.escrituraDiferida.maxPendientes", 200)
+                && !executor.isShutdown()) {
+            executor.execute(this::vaciarEnSegundoPlano);
+        }
+    }
+
+    /**
+     * Aplica a una habitación leída de la DB su cambio de estado pendiente, si lo tiene.
+     * @param habitacion La habitación leída.
+     * @return La misma habitación, con el estado que tendrá cuando se escriban los pendientes.
+     */
+    public Habitacion aplicar(Habitacion habitacion) {
+        CambioEstadoHabitacion cambio = pendientes.get(habitacion.getNumero());
+        if (cambio != null) {
+            habitacion.setEstado(cambio.getEstadoDestino());
+        }
+        return habitacion;
+    }
+
+    /**
+     * Descarta el cambio pendiente de una habitación porque se va a escribir su estado de forma síncrona.
+     * @param numeroHabitacion El número de la habitación.
+     */
+    public void descartar(int numeroHabitacion) {
+        pendientes.remove(numeroHabitacion);
+    }
+
+    /**
+     * Escribe ahora todos los cambios pendientes, en una transacción por lotes. Los cambios que llegan mientras
+     * tanto quedan para el siguiente vaciado; si la escritura falla, los cambios siguen pendientes.
+     * @return El número de cambios aplicados.
+     * @throws HotelException Si ocurre un error en la DB.
+     */
+    public int vaciar() throws HotelException {
+        synchronized (escritura) {
+            if (pendientes.isEmpty()) {
+                return 0;
+            }
+            long inicio = System.nanoTime();
+            Map<Integer, CambioEstadoHabitacion> lote = new HashMap<>(pendientes);
+            List<ResultadoCambioEstado> resultados = habitacionDAO.updateEstados(new ArrayList<>(lote.values()));
+            int aplicados = 0;
+            for (ResultadoCambioEstado r : resultados) {
+                CambioEstadoHabitacion escrito = lote.get(r.getNumeroHabitacion());
+                if (r.isAplicado()) {
+                    aplicados++;
+                } else {
+                    conflictos.increment();
+                }
+                // Si la habitación cambió otra vez durante la escritura, ese cambio sigue pendiente, ahora desde
+                // el estado recién escrito; si no, se quita
+                pendientes.computeIfPresent(r.getNumeroHabitacion(), (numero, actual) -> {
+                    if (actual == escrito) {
+                        return null;
+                    }
+                    if (!r.isAplicado() || actual.getEstadoDestino().equals(escrito.getEstadoDestino())) {
+                        return r.isAplicado() ? null : actual;
+                    }
+                    return new CambioEstadoHabitacion(numero, escrito.getEstadoDestino(), actual.getEstadoDestino());
+                });
+            }
+            escritos.add(aplicados);
+            vaciados.increment();
+            ultimoVaciadoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            return aplicados;
+        }
+    }
+
+    /**
+     * @return El número de habitaciones con un cambio de estado pendiente de escribir (profundidad de la cola).
+     */
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    /**
+     * Muestra por consola las métricas de la escritura diferida.
+     */
+    public void mostrarMetricas() {
+        System.out.println("\n--- Escritura Diferida de Habitaciones ---");
+        System.out.println("Pendientes ahora: " + getPendientes() + " (máximo alcanzado: " + maxPendientes + ")");
+        System.out.println("Cambios recibidos: " + encolados.sum() + ", combinados con uno pendiente: " + combinados.sum());
+        System.out.println("Cambios escritos: " + escritos.sum() + " en " + vaciados.sum() + " vaciados (último: " + ultimoVaciadoMs + " ms)");
+        System.out.println("Descartados por conflicto con otra escritura: " + conflictos.sum());
+        System.out.println("------------------------------------");
+    }
+
+    /**
+     * Detiene el vaciado periódico y escribe los cambios pendientes.
+     * @throws HotelException Si ocurre un error al escribir los pendientes.
+     */
+    @Override
+    public void close() throws HotelException {
+        executor.shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(alApagar);
+        } catch (IllegalStateException e) {
+            // La JVM ya se está apagando: el hook vacía los pendientes
+        }
+        vaciar();
+    }
+
+    private void vaciarEnSegundoPlano() {
+        try {
+            vaciar();
+        } catch (HotelException e) {
+            System.err.println("Escritura diferida de habitaciones: " + e.getMessage() + " Se reintentará.");
+        } catch (RuntimeException e) {
+            // Una excepción no controlada cancelaría el vaciado periódico
+            System.err.println("Escritura diferida de habitaciones: error inesperado: " + e);
+        }
+    }
+}
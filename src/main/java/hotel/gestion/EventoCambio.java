@@ -0,0 +1,105 @@
+package hotel.gestion;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Evento del flujo de cambios de un hotel (FlujoCambios): una habitación o una reserva cambió de estado.
+ * Cada evento lleva el estado nuevo completo, no la diferencia, para que un suscriptor que se pierda
+ * eventos intermedios quede bien con el siguiente evento del mismo objeto.
+ */
+public abstract class EventoCambio {
+    private final String hotel;
+    private final Instant momento;
+
+    protected EventoCambio(String hotel) {
+        this.hotel = hotel;
+        this.momento = Instant.now();
+    }
+
+    public String getHotel() {
+        return hotel;
+    }
+
+    public Instant getMomento() {
+        return momento;
+    }
+
+    /**
+     * Una habitación se agregó o cambió de estado.
+     */
+    public static final class DeHabitacion extends EventoCambio {
+        private final int numeroHabitacion;
+        private final String tipo; // null si la operación no lo conoce (cambios masivos por número)
+        private final String estado;
+
+        public DeHabitacion(String hotel, int numeroHabitacion, String tipo, String estado) {
+            super(hotel);
+            this.numeroHabitacion = numeroHabitacion;
+            this.tipo = tipo;
+            this.estado = estado;
+        }
+
+        public int getNumeroHabitacion() {
+            return numeroHabitacion;
+        }
+
+        public String getTipo() {
+            return tipo;
+        }
+
+        public String getEstado() {
+            return estado;
+        }
+
+        @Override
+        public String toString() {
+            return "Habitación " + numeroHabitacion + " -> " + estado;
+        }
+    }
+
+    /**
+     * Una reserva se creó o cambió de estado.
+     */
+    public static final class DeReserva extends EventoCambio {
+        private final int idReserva;
+        private final int numeroHabitacion;
+        private final LocalDate fechaCheckin;
+        private final LocalDate fechaCheckout;
+        private final String estado;
+
+        public DeReserva(String hotel, Reserva reserva) {
+            super(hotel);
+            this.idReserva = reserva.getIdReservaInterno();
+            this.numeroHabitacion = reserva.getHabitacion().getNumero();
+            this.fechaCheckin = reserva.getFechaCheckin();
+            this.fechaCheckout = reserva.getFechaCheckout();
+            this.estado = reserva.getEstado();
+        }
+
+        public int getIdReserva() {
+            return idReserva;
+        }
+
+        public int getNumeroHabitacion() {
+            return numeroHabitacion;
+        }
+
+        public LocalDate getFechaCheckin() {
+            return fechaCheckin;
+        }
+
+        public LocalDate getFechaCheckout() {
+            return fechaCheckout;
+        }
+
+        public String getEstado() {
+            return estado;
+        }
+
+        @Override
+        public String toString() {
+            return "Reserva " + idReserva + " (habitación " + numeroHabitacion + ") -> " + estado;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package hotel.gestion;
+
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase que representa la factura de una estancia en el Hotel Nova (RFS09).
+ * Se calcula a partir de una reserva en el momento del check-out: alojamiento más los
+ * servicios adicionales consumidos (RFS08). Los importes se manejan con BigDecimal
+ * para que el total sea exacto al céntimo.
+ */
+public class Factura {
+    private int idFactura; // ID de la base de datos (AUTO_INCREMENT)
+    private int idReserva; // ID de la DB de la reserva facturada
+    private int idHuesped; // ID de la DB del huésped facturado
+    private LocalDateTime fechaEmision;
+    private String estadoPago; // Ej: 'Pendiente', 'Pagada', 'Cancelada'
+    private List<DetalleFactura> detalles;
+    private BigDecimal total;
+
+    // Datos descriptivos de la estancia (solo disponibles si la factura se generó a partir de una Reserva)
+    private String nombreHuesped;
+    private int numeroHabitacion;
+    private String tipoHabitacion;
+    private LocalDate fechaCheckin;
+    private LocalDate fechaCheckout;
+    private BigDecimal costoAlojamiento;
+
+    /**
+     * Constructor de la clase Factura sin servicios adicionales.
+     * @param reserva La reserva a facturar.
+     */
+    public Factura(Reserva reserva) {
+        this(reserva, Collections.emptyList());
+    }
+
+    /**
+     * Constructor de la clase Factura.
+     * Calcula el costo del alojamiento y el total de la estancia a partir de la reserva y los cargos.
+     * @param reserva La reserva a facturar.
+     * @param detalles Los servicios adicionales consumidos durante la estancia.
+     */
+    public Factura(Reserva reserva, List<DetalleFactura> detalles) {
+        this.idReserva = reserva.getIdReservaInterno();
+        this.idHuesped = reserva.getHuesped().getIdHuespedInterno();
+        this.nombreHuesped = reserva.getHuesped().getNombre() + " " + reserva.getHuesped().getApellido();
+        this.numeroHabitacion = reserva.getHabitacion().getNumero();
+        this.tipoHabitacion = reserva.getHabitacion().getTipo();
+        this.fechaCheckin = reserva.getFechaCheckin();
+        this.fechaCheckout = reserva.getFechaCheckout();
+        this.fechaEmision = LocalDateTime.now();
+        this.estadoPago = "Pendiente";
+        this.detalles = new ArrayList<>(detalles);
+        this.costoAlojamiento = calcularCostoAlojamiento(reserva);
+
+        BigDecimal suma = costoAlojamiento;
+        for (DetalleFactura d : this.detalles) {
+            suma = suma.add(d.calcularSubtotal());
+        }
+        this.total = suma.setScale(2, RoundingMode.HALF_UP);
+        this.idFactura = 0; // ID inicial para objetos no persistidos
+    }
+
+    /**
+     * Constructor usado por el DAO para reconstruir una factura ya persistida.
+     * @param idFactura El ID de la DB de la factura.
+     * @param idReserva El ID de la DB de la reserva facturada.
+     * @param idHuesped El ID de la DB del huésped.
+     * @param fechaEmision La fecha de emisión.
+     * @param total El total facturado.
+     * @param estadoPago El estado del pago.
+     * @param detalles Las líneas de detalle de la factura.
+     */
+    public Factura(int idFactura, int idReserva, int idHuesped, LocalDateTime fechaEmision,
+                   BigDecimal total, String estadoPago, List<DetalleFactura> detalles) {
+        this.idFactura = idFactura;
+        this.idReserva = idReserva;
+        this.idHuesped = idHuesped;
+        this.fechaEmision = fechaEmision;
+        this.total = total;
+        this.estadoPago = estadoPago;
+        this.detalles = new ArrayList<>(detalles);
+    }
+
+    /**
+     * Calcula el costo del alojamiento de una reserva: precio por noche (tal y como se muestra al huésped,
+     * redondeado al céntimo) multiplicado por el número de noches.
+     * @param reserva La reserva.
+     * @return El costo del alojamiento con 2 decimales.
+     */
+    public static BigDecimal calcularCostoAlojamiento(Reserva reserva) {
+        long noches = ChronoUnit.DAYS.between(reserva.getFechaCheckin(), reserva.getFechaCheckout());
+        BigDecimal precioNoche = BigDecimal.valueOf(reserva.getHabitacion().calcularCostoNoche())
+                .setScale(2, RoundingMode.HALF_UP);
+        return precioNoche.multiply(BigDecimal.valueOf(noches));
+    }
+
+    public int getIdFactura() {
+        return idFactura;
+    }
+
+    // Setter para el ID de la base de datos (usado por DAO al guardar)
+    public void setIdFactura(int idFactura) {
+        this.idFactura = idFactura;
+    }
+
+    public int getIdReserva() {
+        return idReserva;
+    }
+
+    public int getIdHuesped() {
+        return idHuesped;
+    }
+
+    public LocalDateTime getFechaEmision() {
+        return fechaEmision;
+    }
+
+    public String getEstadoPago() {
+        return estadoPago;
+    }
+
+    public void setEstadoPago(String estadoPago) {
+        this.estadoPago = estadoPago;
+    }
+
+    public List<DetalleFactura> getDetalles() {
+        return Collections.unmodifiableList(detalles);
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public String getNombreHuesped() {
+        return nombreHuesped;
+    }
+
+    public int getNumeroHabitacion() {
+        return numeroHabitacion;
+    }
+
+    public String getTipoHabitacion() {
+        return tipoHabitacion;
+    }
+
+    public LocalDate getFechaCheckin() {
+        return fechaCheckin;
+    }
+
+    public LocalDate getFechaCheckout() {
+        return fechaCheckout;
+    }
+
+    public BigDecimal getCostoAlojamiento() {
+        return costoAlojamiento;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n--- Factura ");
+        if (idFactura != 0) {
+            sb.append(idFactura).append(" ");
+        }
+        sb.append("para Reserva ").append(idReserva).append(" ---");
+        if (nombreHuesped != null) {
+            sb.append("\nHuésped: ").append(nombreHuesped);
+            sb.append("\nHabitación: ").append(numeroHabitacion).append(" (").append(tipoHabitacion).append(")");
+            sb.append("\nEstancia: del ").append(fechaCheckin).append(" al ").append(fechaCheckout);
+            sb.append("\nCosto total de la estancia: $").append(costoAlojamiento);
+        } else {
+            sb.append("\nHuésped (ID_DB): ").append(idHuesped);
+            sb.append("\nEmitida: ").append(fechaEmision);
+        }
+        for (DetalleFactura d : detalles) {
+            sb.append("\n  + ").append(d);
+        }
+        if (!detalles.isEmpty() || nombreHuesped == null) {
+            sb.append("\nTotal factura: $").append(total);
+        }
+        sb.append("\nEstado de pago: ").append(estadoPago);
+        return sb.toString();
+    }
+}
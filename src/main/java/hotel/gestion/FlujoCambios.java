@@ -0,0 +1,119 @@
+package hotel.gestion;
+
+import hotel.config.Configuracion;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flujo de cambios de un hotel (publicación/suscripción con la Flow API): Hotel publica un EventoCambio por cada
+ * habitación o reserva que cambia de estado en la DB, y los tableros se suscriben para actualizarse de forma
+ * incremental sin volver a consultar la DB.
+ *
+ * Cada suscriptor tiene su propio buffer acotado de hotel.eventos.buffer eventos y pide eventos a su ritmo
+ * (Subscription.request). Publicar nunca bloquea las operaciones del hotel: si el buffer de un suscriptor lento
+ * está lleno, el evento se descarta para ese suscriptor, se cuenta, y un TableroOcupacion queda marcado para
+ * resincronizarse con la DB. Los eventos se entregan en hilos de fondo compartidos por todos los hoteles
+ * (hotel.eventos.hilos).
+ */
+public class FlujoCambios implements AutoCloseable {
+    private static final AtomicInteger HILOS = new AtomicInteger();
+    private static volatile ExecutorService entrega;
+
+    private final String hotel;
+    private final SubmissionPublisher<EventoCambio> publicador;
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+
+    /**
+     * Constructor de la clase FlujoCambios.
+     * @param hotel El nombre del hotel que publica.
+     */
+    public FlujoCambios(String hotel) {
+        this.hotel = hotel;
+        this.publicador = new SubmissionPublisher<>(getEntrega(), Math.max(1, Configuracion.getInt("hotel.eventos.buffer", 256)));
+    }
+
+    /**
+     * Suscribe un suscriptor a los cambios que se publiquen desde ahora.
+     * @param suscriptor El suscriptor (recibe onSubscribe y después pide los eventos con request).
+     */
+    public void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor) {
+        publicador.subscribe(suscriptor);
+    }
+
+    /**
+     * Publica el nuevo estado de una habitación.
+     */
+    public void publicarHabitacion(int numeroHabitacion, String tipo, String estado) {
+        publicar(new EventoCambio.DeHabitacion(hotel, numeroHabitacion, tipo, estado));
+    }
+
+    /**
+     * Publica el nuevo estado de una reserva y el de su habitación.
+     */
+    public void publicarReserva(Reserva reserva) {
+        publicar(new EventoCambio.DeReserva(hotel, reserva));
+        Habitacion habitacion = reserva.getHabitacion();
+        publicarHabitacion(habitacion.getNumero(), habitacion.getTipo(), habitacion.getEstado());
+    }
+
+    /**
+     * @return El número de suscriptores actuales.
+     */
+    public int getSuscriptores() {
+        return publicador.getNumberOfSubscribers();
+    }
+
+    public long getPublicados() {
+        return publicados.sum();
+    }
+
+    /**
+     * @return Los eventos descartados por tener lleno el buffer de un suscriptor (uno por suscriptor afectado).
+     */
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    /**
+     * Termina el flujo: los suscriptores reciben onComplete tras los eventos pendientes.
+     */
+    @Override
+    public void close() {
+        publicador.close();
+    }
+
+    private void publicar(EventoCambio evento) {
+        if (!publicador.hasSubscribers()) {
+            return;
+        }
+        publicados.increment();
+        publicador.offer(evento, (suscriptor, descartado) -> {
+            descartados.increment();
+            if (suscriptor instanceof TableroOcupacion) {
+                ((TableroOcupacion) suscriptor).marcarDesincronizado();
+            }
+            return false; // No se reintenta: publicar no debe bloquear al hotel
+        });
+    }
+
+    private static ExecutorService getEntrega() {
+        if (entrega == null) {
+            synchronized (FlujoCambios.class) {
+                if (entrega == null) {
+                    entrega = Executors.newFixedThreadPool(Math.max(1, Configuracion.getInt("hotel.eventos.hilos", 2)), tarea -> {
+                        Thread hilo = new Thread(tarea, "eventos-" + HILOS.incrementAndGet());
+                        hilo.setDaemon(true);
+                        return hilo;
+                    });
+                }
+            }
+        }
+        return entrega;
+    }
+}
@@ -53,6 +53,27 @@ public abstract class Habitacion {
 
     public abstract double calcularCostoNoche();
 
+    /**
+     * Costo por noche de una tarifa (tipo y precio base) sin construir la habitación; coincide con
+     * calcularCostoNoche de la subclase de ese tipo. Sirve para los totales que la DB agrupa por tarifa.
+     * @param tipo El tipo de habitación (Simple, Doble o Suite).
+     * @param precioPorNoche El precio base por noche.
+     * @return El costo por una noche.
+     * @throws IllegalArgumentException Si el tipo no existe.
+     */
+    public static double costoNoche(String tipo, double precioPorNoche) {
+        switch (tipo) {
+            case "Simple":
+                return HabitacionSimple.costoNoche(precioPorNoche);
+            case "Doble":
+                return HabitacionDoble.costoNoche(precioPorNoche);
+            case "Suite":
+                return HabitacionSuite.costoNoche(precioPorNoche);
+            default:
+                throw new IllegalArgumentException("Tipo de habitación desconocido: " + tipo);
+        }
+    }
+
     @Override
     public String toString() {
         return "Habitación [ID_DB: " + dbId + ", Número: " + numero + ", Tipo: " + tipo +
@@ -25,6 +25,13 @@ public class HabitacionDoble extends Habitacion {
      */
     @Override
     public double calcularCostoNoche() {
-        return getPrecioPorNoche();
+        return costoNoche(getPrecioPorNoche());
+    }
+
+    /**
+     * El costo por noche de una habitación doble con ese precio base (ver Habitacion.costoNoche).
+     */
+    static double costoNoche(double precioPorNoche) {
+        return precioPorNoche;
     }
 }
@@ -22,6 +22,13 @@ public class HabitacionSimple extends Habitacion {
      */
     @Override
     public double calcularCostoNoche() {
-        return getPrecioPorNoche();
+        return costoNoche(getPrecioPorNoche());
+    }
+
+    /**
+     * El costo por noche de una habitación simple con ese precio base (ver Habitacion.costoNoche).
+     */
+    static double costoNoche(double precioPorNoche) {
+        return precioPorNoche;
     }
 }
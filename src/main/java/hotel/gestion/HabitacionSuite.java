@@ -26,6 +26,13 @@ public class HabitacionSuite extends Habitacion {
      */
     @Override
     public double calcularCostoNoche() {
-        return getPrecioPorNoche() * (1 + RECARGO_SUITE);
+        return costoNoche(getPrecioPorNoche());
+    }
+
+    /**
+     * El costo por noche de una suite con ese precio base, recargo incluido (ver Habitacion.costoNoche).
+     */
+    static double costoNoche(double precioPorNoche) {
+        return precioPorNoche * (1 + RECARGO_SUITE);
     }
 }
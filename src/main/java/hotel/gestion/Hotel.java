@@ -1,11 +1,24 @@
 package hotel.gestion;
 
+import hotel.config.Configuracion;
+import hotel.config.db.dao.DAOAsincrono;
 import hotel.config.db.dao.interfaces.HabitacionDAO;
 import hotel.config.db.dao.interfaces.HuespedDAO;
 import hotel.config.db.dao.interfaces.ReservaDAO;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.time.LocalDate;
 
 /**
@@ -13,11 +26,31 @@ import java.time.LocalDate;
  * utilizando Data Access Objects (DAOs) para la persistencia.
  */
 public class Hotel {
+    // Transiciones de estado permitidas para los cambios masivos de habitaciones (estado origen -> destinos)
+    private static final Map<String, Set<String>> TRANSICIONES_HABITACION = Map.of(
+            "Disponible", Set.of("Ocupada", "En Limpieza", "Mantenimiento"),
+            "Ocupada", Set.of("Disponible", "En Limpieza"),
+            "En Limpieza", Set.of("Disponible", "Mantenimiento"),
+            "Mantenimiento", Set.of("Disponible", "En Limpieza"));
+
     private String nombre;
     // Inyección de dependencias: Hotel ahora depende de las interfaces DAO
     private HabitacionDAO habitacionDAO;
     HuespedDAO huespedDAO;
     private ReservaDAO reservaDAO;
+    private ServicioFacturacion facturacion; // null si el hotel no persiste facturas
+    private volatile IndiceHabitaciones indiceHabitaciones; // Se carga en la primera búsqueda
+    private volatile IndiceHuespedes indiceHuespedes; // Se carga en la primera búsqueda de huéspedes
+    private volatile MotorInventario inventario; // Se carga en la primera reserva
+    private volatile MotorPrecios precios; // Se carga en la primera cotización
+    // Un cerrojo por caché perezosa, para que se puedan cargar a la vez (ver precargar)
+    private final Object cargaIndiceHabitaciones = new Object();
+    private final Object cargaIndiceHuespedes = new Object();
+    private final Object cargaInventario = new Object();
+    private final Object cargaPrecios = new Object();
+    private volatile EscrituraDiferidaHabitaciones escrituraDiferida; // null = estados de habitación síncronos
+    private final FlujoCambios cambios; // Eventos de cambio de habitaciones y reservas para los tableros
+    private final DAOAsincrono asincrono = DAOAsincrono.getCompartido(); // Para solapar consultas independientes
 
     /**
      * Constructor de la clase Hotel.
@@ -32,6 +65,95 @@ public class Hotel {
         this.habitacionDAO = habitacionDAO;
         this.huespedDAO = huespedDAO;
         this.reservaDAO = reservaDAO;
+        this.cambios = new FlujoCambios(nombre);
+    }
+
+    /**
+     * Constructor de la clase Hotel con facturación persistente (RFS08, RFS09, RFS10).
+     * @param nombre El nombre del hotel.
+     * @param habitacionDAO El DAO para la gestión de habitaciones.
+     * @param huespedDAO El DAO para la gestión de huéspedes.
+     * @param reservaDAO El DAO para la gestión de reservas.
+     * @param facturacion El servicio de facturación que persiste las facturas en el check-out.
+     */
+    public Hotel(String nombre, HabitacionDAO habitacionDAO, HuespedDAO huespedDAO, ReservaDAO reservaDAO,
+                 ServicioFacturacion facturacion) {
+        this(nombre, habitacionDAO, huespedDAO, reservaDAO);
+        this.facturacion = facturacion;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Activa la escritura diferida de los cambios de estado de habitación no críticos ('En Limpieza' tras el
+     * check-out, 'Disponible' al liberar, 'Mantenimiento'): se escriben por lotes cada 'intervaloMs' en lugar
+     * de esperar a la DB en cada operación. Los cambios a 'Ocupada' siguen siendo síncronos.
+     * @param intervaloMs Cada cuántos milisegundos se escriben los cambios pendientes.
+     */
+    public synchronized void activarEscrituraDiferida(long intervaloMs) {
+        if (escrituraDiferida == null) {
+            escrituraDiferida = new EscrituraDiferidaHabitaciones(habitacionDAO, intervaloMs);
+        }
+    }
+
+    /**
+     * Cierra el hotel: escribe en la DB los cambios de estado de habitación pendientes, termina el flujo de cambios
+     * y deja de escuchar las recargas de la configuración en el motor de precios.
+     * @throws HotelException Si ocurre un error al escribirlos.
+     */
+    public synchronized void cerrar() throws HotelException {
+        cambios.close();
+        MotorPrecios motor = precios;
+        if (motor != null) {
+            precios = null;
+            motor.close();
+        }
+        EscrituraDiferidaHabitaciones w = escrituraDiferida;
+        if (w != null) {
+            escrituraDiferida = null;
+            w.close();
+        }
+    }
+
+    /**
+     * @return El flujo de cambios del hotel, para suscribir tableros u otros consumidores.
+     */
+    public FlujoCambios getFlujoCambios() {
+        return cambios;
+    }
+
+    /**
+     * Abre un tablero de ocupación en vivo: se suscribe al flujo de cambios y después lee una sola vez
+     * las habitaciones de la DB; a partir de ahí se actualiza solo con los eventos.
+     * @return El tablero suscrito.
+     * @throws HotelException Si ocurre un error al leer la foto inicial.
+     */
+    public TableroOcupacion abrirTableroOcupacion() throws HotelException {
+        TableroOcupacion tablero = new TableroOcupacion();
+        cambios.suscribir(tablero);
+        try {
+            List<Habitacion> habitaciones = habitacionDAO.findAll();
+            habitaciones.forEach(this::conPendientes);
+            tablero.cargarFoto(habitaciones);
+        } catch (HotelException e) {
+            tablero.close();
+            throw e;
+        }
+        return tablero;
+    }
+
+    /**
+     * Muestra la profundidad y las métricas de la escritura diferida de estados de habitación.
+     */
+    public void mostrarEscrituraDiferida() {
+        EscrituraDiferidaHabitaciones w = escrituraDiferida;
+        if (w == null) {
+            System.out.println("La escritura diferida de habitaciones no está activada (hotel.habitaciones.escrituraDiferida).");
+        } else {
+            w.mostrarMetricas();
+        }
     }
 
     // --- Métodos de Gestión de Habitaciones (RFS05, RFS11, RFS12, RFS13) ---
@@ -48,6 +170,16 @@ public class Hotel {
             throw new HotelException("Ya existe una habitación con el número " + habitacion.getNumero() + ".");
         }
         habitacionDAO.save(habitacion);
+        if (indiceHabitaciones != null) {
+            indiceHabitaciones.actualizarHabitacion(habitacion);
+        }
+        cambios.publicarHabitacion(habitacion.getNumero(), habitacion.getTipo(), habitacion.getEstado());
+        if (inventario != null) {
+            inventario.registrarHabitacion(habitacion);
+        }
+        if (precios != null) {
+            precios.registrarHabitacion(habitacion);
+        }
     }
 
     /**
@@ -57,7 +189,7 @@ public class Hotel {
      * @throws HotelException Si ocurre un error durante la búsqueda en la DB.
      */
     public Optional<Habitacion> buscarHabitacionPorNumero(int numero) throws HotelException {
-        return habitacionDAO.findByNumero(numero);
+        return habitacionDAO.findByNumero(numero).map(this::conPendientes);
     }
 
     /**
@@ -65,7 +197,7 @@ public class Hotel {
      * @throws HotelException Si ocurre un error durante la consulta en la DB.
      */
     public void listarHabitaciones() throws HotelException {
-        List<Habitacion> habitaciones = habitacionDAO.findAll();
+        List<Habitacion> habitaciones = obtenerHabitaciones();
         if (habitaciones.isEmpty()) {
             System.out.println("No hay habitaciones registradas en el " + nombre + ".");
             return;
@@ -77,6 +209,17 @@ public class Hotel {
         System.out.println("------------------------------------------");
     }
 
+    /**
+     * Obtiene todas las habitaciones del hotel de la base de datos, con sus estados pendientes de escritura diferida.
+     * @return Las habitaciones.
+     * @throws HotelException Si ocurre un error durante la consulta en la DB.
+     */
+    public List<Habitacion> obtenerHabitaciones() throws HotelException {
+        List<Habitacion> habitaciones = habitacionDAO.findAll();
+        habitaciones.forEach(this::conPendientes);
+        return habitaciones;
+    }
+
     /**
      * Actualiza el estado de una habitación existente en la base de datos (RFS11, RFS12).
      * @param numeroHabitacion El número de la habitación a actualizar.
@@ -86,12 +229,14 @@ public class Hotel {
     public void actualizarEstadoHabitacion(int numeroHabitacion, String nuevoEstado) throws HotelException {
         Optional<Habitacion> optHabitacion = habitacionDAO.findByNumero(numeroHabitacion);
         if (optHabitacion.isPresent()) {
-            Habitacion h = optHabitacion.get();
+            Habitacion h = conPendientes(optHabitacion.get());
             // Validación básica de estados permitidos
             if (nuevoEstado.equals("Disponible") || nuevoEstado.equals("En Limpieza") ||
                     nuevoEstado.equals("Mantenimiento") || nuevoEstado.equals("Ocupada")) {
+                String estadoAnterior = h.getEstado();
                 h.setEstado(nuevoEstado);
-                habitacionDAO.update(h); // Persistir el cambio de estado
+                escribirEstado(h, estadoAnterior, !nuevoEstado.equals("Ocupada")); // Persistir el cambio de estado
+                refrescarIndice(h);
                 System.out.println("Estado de la habitación " + numeroHabitacion + " actualizado a: " + nuevoEstado + ".");
             } else {
                 throw new HotelException("Estado '" + nuevoEstado + "' no válido para la habitación.");
@@ -101,6 +246,152 @@ public class Hotel {
         }
     }
 
+    /**
+     * Cambia de estado un conjunto de habitaciones en un solo paso (RFS11, RFS12).
+     * Pensado para limpieza: por ejemplo, liberar de golpe todas las habitaciones "En Limpieza" a "Disponible".
+     * Solo cambian las habitaciones que estén realmente en el estado de origen; el resto se informa sin tocarlas.
+     * @param numerosHabitacion Los números de las habitaciones a cambiar.
+     * @param estadoOrigen El estado en el que deben estar las habitaciones (ej: "En Limpieza").
+     * @param estadoDestino El nuevo estado (ej: "Disponible").
+     * @return El resultado del cambio para cada habitación solicitada.
+     * @throws HotelException Si la transición no está permitida o si ocurre un error en la DB.
+     */
+    public List<ResultadoCambioEstado> actualizarEstadoHabitaciones(Collection<Integer> numerosHabitacion,
+                                                                    String estadoOrigen, String estadoDestino) throws HotelException {
+        Set<String> destinos = TRANSICIONES_HABITACION.get(estadoOrigen);
+        if (destinos == null || !destinos.contains(estadoDestino)) {
+            throw new HotelException("Transición de estado '" + estadoOrigen + "' -> '" + estadoDestino + "' no permitida para las habitaciones.");
+        }
+        vaciarEstadosPendientes(); // El UPDATE filtra por el estado actual en la DB
+        List<ResultadoCambioEstado> resultados = habitacionDAO.updateEstadoByNumeros(numerosHabitacion, estadoOrigen, estadoDestino);
+        IndiceHabitaciones indice = indiceHabitaciones;
+        for (ResultadoCambioEstado r : resultados) {
+            if (r.isAplicado()) {
+                if (indice != null) {
+                    indice.actualizarEstado(r.getNumeroHabitacion(), r.getEstadoNuevo());
+                }
+                cambios.publicarHabitacion(r.getNumeroHabitacion(), null, r.getEstadoNuevo());
+            }
+            System.out.println(r);
+        }
+        return resultados;
+    }
+
+    // --- Búsqueda de Habitaciones (recomendación por tipo, precio y fechas) ---
+
+    /**
+     * Busca habitaciones por tipo, rango de precio por noche (el que ve el huésped), estado y disponibilidad
+     * en unas fechas, ordenadas de la más barata a la más cara. Los criterios nulos no filtran.
+     * Se resuelve sobre el índice en memoria (se carga de la DB en la primera búsqueda), sin consultar la DB.
+     * @param tipo El tipo de habitación (Simple, Doble, Suite) o null.
+     * @param precioMin Precio mínimo por noche o null.
+     * @param precioMax Precio máximo por noche o null.
+     * @param estado El estado actual de la habitación o null.
+     * @param desde Fecha de check-in deseada o null.
+     * @param hasta Fecha de check-out deseada o null.
+     * @param limite Número máximo de resultados.
+     * @return Las habitaciones encontradas, ordenadas por precio.
+     * @throws HotelException Si las fechas son inválidas o falla la carga inicial del índice.
+     */
+    public List<Habitacion> buscarHabitaciones(String tipo, Double precioMin, Double precioMax, String estado,
+                                               LocalDate desde, LocalDate hasta, int limite) throws HotelException {
+        if ((desde == null) != (hasta == null)) {
+            throw new HotelException("Para buscar por fechas hay que indicar check-in y check-out.");
+        }
+        if (desde != null && !desde.isBefore(hasta)) {
+            throw new HotelException("La fecha de check-out debe ser posterior a la fecha de check-in.");
+        }
+        return cargarIndiceHabitaciones().buscar(tipo, precioMin, precioMax, estado, desde, hasta, limite);
+    }
+
+    /**
+     * Carga (si aún no lo está) el índice en memoria de habitaciones y reservas activas que usa el buscador.
+     * Puede invocarse al arrancar para que la primera búsqueda no espere a la DB.
+     * @return El índice cargado.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public IndiceHabitaciones cargarIndiceHabitaciones() throws HotelException {
+        IndiceHabitaciones indice = indiceHabitaciones;
+        if (indice == null) {
+            synchronized (cargaIndiceHabitaciones) {
+                indice = indiceHabitaciones;
+                if (indice == null) {
+                    indice = new IndiceHabitaciones();
+                    List<Habitacion> habitaciones = habitacionDAO.findAll();
+                    habitaciones.forEach(this::conPendientes);
+                    indice.cargar(habitaciones, reservaDAO.findByEstados(List.of("Confirmada", "Check-in")));
+                    indiceHabitaciones = indice;
+                }
+            }
+        }
+        return indice;
+    }
+
+    /**
+     * Aplica a una habitación leída de la DB su cambio de estado pendiente de escritura diferida, si lo tiene.
+     */
+    private Habitacion conPendientes(Habitacion habitacion) {
+        EscrituraDiferidaHabitaciones w = escrituraDiferida;
+        return w != null ? w.aplicar(habitacion) : habitacion;
+    }
+
+    /**
+     * Persiste el nuevo estado de una habitación: en diferido si es un cambio no crítico y la escritura diferida
+     * está activada; si no, de forma síncrona, descartando antes cualquier cambio diferido pendiente.
+     */
+    private void escribirEstado(Habitacion habitacion, String estadoAnterior, boolean diferible) throws HotelException {
+        EscrituraDiferidaHabitaciones w = escrituraDiferida;
+        if (w != null && diferible) {
+            w.encolar(habitacion, estadoAnterior);
+            return;
+        }
+        if (w != null) {
+            w.descartar(habitacion.getNumero());
+        }
+        habitacionDAO.update(habitacion);
+    }
+
+    /**
+     * Escribe ya los estados de habitación pendientes, antes de una consulta o actualización que filtra
+     * por el estado guardado en la DB.
+     */
+    private void vaciarEstadosPendientes() throws HotelException {
+        EscrituraDiferidaHabitaciones w = escrituraDiferida;
+        if (w != null) {
+            w.vaciar();
+        }
+    }
+
+    /**
+     * Refleja en el índice de búsqueda (si está cargado) el estado actual de una habitación
+     * y lo publica en el flujo de cambios.
+     */
+    private void refrescarIndice(Habitacion habitacion) {
+        IndiceHabitaciones indice = indiceHabitaciones;
+        if (indice != null) {
+            indice.actualizarEstado(habitacion.getNumero(), habitacion.getEstado());
+        }
+        cambios.publicarHabitacion(habitacion.getNumero(), habitacion.getTipo(), habitacion.getEstado());
+    }
+
+    /**
+     * Refleja en el índice de búsqueda (si está cargado) una reserva y el estado de su habitación:
+     * las reservas 'Confirmada' o 'Check-in' ocupan sus fechas; el resto las liberan.
+     * Publica ambos cambios en el flujo de cambios.
+     */
+    private void refrescarIndice(Reserva reserva) {
+        cambios.publicarReserva(reserva);
+        IndiceHabitaciones indice = indiceHabitaciones;
+        if (indice != null) {
+            if (reserva.getEstado().equals("Confirmada") || reserva.getEstado().equals("Check-in")) {
+                indice.registrarReserva(reserva);
+            } else {
+                indice.liberarReserva(reserva);
+            }
+            indice.actualizarEstado(reserva.getHabitacion().getNumero(), reserva.getHabitacion().getEstado());
+        }
+    }
+
     // --- Métodos de Gestión de Huéspedes ---
 
     /**
@@ -123,10 +414,82 @@ public class Hotel {
             // El ID externo como String puede ser un marcador o el DNI para este prototipo
             Huesped nuevoHuesped = new Huesped(dni, nombre, apellido, dni, email, telefono);
             huespedDAO.save(nuevoHuesped); // El ID_DB se asigna en el DAO al guardar
+            IndiceHuespedes indice = indiceHuespedes;
+            if (indice != null) {
+                indice.actualizar(nuevoHuesped);
+            }
             return nuevoHuesped;
         }
     }
 
+    /**
+     * Actualiza los datos de un huésped en la base de datos y en el índice de búsqueda (si está cargado).
+     * @param huesped El huésped modificado (debe estar persistido con un ID de DB).
+     * @throws HotelException Si ocurre un error durante la actualización en la DB.
+     */
+    public void actualizarHuesped(Huesped huesped) throws HotelException {
+        huespedDAO.update(huesped);
+        IndiceHuespedes indice = indiceHuespedes;
+        if (indice != null) {
+            indice.actualizar(huesped);
+        }
+    }
+
+    /**
+     * Elimina un huésped de la base de datos y del índice de búsqueda (si está cargado).
+     * @param idHuespedDB El ID de DB del huésped.
+     * @throws HotelException Si ocurre un error durante la eliminación en la DB.
+     */
+    public void eliminarHuesped(int idHuespedDB) throws HotelException {
+        huespedDAO.delete(idHuespedDB);
+        IndiceHuespedes indice = indiceHuespedes;
+        if (indice != null) {
+            indice.quitar(idHuespedDB);
+        }
+    }
+
+    /**
+     * Busca huéspedes por parte de su nombre, apellido, email o teléfono (ej: "garc", "ana 600"),
+     * de más a menos relevante, con el índice en memoria de huéspedes.
+     * @param texto El texto buscado.
+     * @param limite Número máximo de resultados.
+     * @return Los huéspedes encontrados.
+     * @throws HotelException Si falla la carga inicial del índice.
+     */
+    public List<Huesped> buscarHuespedes(String texto, int limite) throws HotelException {
+        return cargarIndiceHuespedes().buscar(texto, limite);
+    }
+
+    /**
+     * Busca un huésped por su DNI en la base de datos.
+     * @param dni El DNI del huésped.
+     * @return Un Optional con el huésped, o vacío si no existe.
+     * @throws HotelException Si ocurre un error durante la búsqueda en la DB.
+     */
+    public Optional<Huesped> buscarHuespedPorDni(String dni) throws HotelException {
+        return huespedDAO.findByDni(dni);
+    }
+
+    /**
+     * Carga (si aún no lo está) el índice en memoria de huéspedes que usa el buscador.
+     * @return El índice cargado.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public IndiceHuespedes cargarIndiceHuespedes() throws HotelException {
+        IndiceHuespedes indice = indiceHuespedes;
+        if (indice == null) {
+            synchronized (cargaIndiceHuespedes) {
+                indice = indiceHuespedes;
+                if (indice == null) {
+                    indice = new IndiceHuespedes();
+                    indice.cargar(huespedDAO.findAll());
+                    indiceHuespedes = indice;
+                }
+            }
+        }
+        return indice;
+    }
+
     // --- Métodos de Gestión de Reservas (RFS02, RFS03, RFS04, RFS05) ---
 
     /**
@@ -148,33 +511,214 @@ public class Hotel {
             throw new HotelException("El huésped no ha sido persistido en la base de datos. Por favor, registre al huésped primero.");
         }
 
-        Optional<Habitacion> optHabitacion = habitacionDAO.findByNumero(numeroHabitacion);
+        // El huésped y la habitación se consultan a la vez
+        CompletableFuture<Optional<Huesped>> futuroHuesped =
+                asincrono.ejecutar(() -> huespedDAO.findById(huesped.getIdHuespedInterno()));
+        CompletableFuture<Optional<Habitacion>> futuroHabitacion =
+                asincrono.ejecutar(() -> habitacionDAO.findByNumero(numeroHabitacion));
+
+        if (DAOAsincrono.esperar(futuroHuesped).isEmpty()) {
+            throw new HotelException("El huésped con ID " + huesped.getIdHuespedInterno() + " no existe en la base de datos.");
+        }
+        Optional<Habitacion> optHabitacion = DAOAsincrono.esperar(futuroHabitacion);
 
         if (!optHabitacion.isPresent()) {
             throw new HotelException("Habitación con número " + numeroHabitacion + " no encontrada.");
         }
 
-        Habitacion habitacion = getHabitacion(numeroHabitacion, optHabitacion);
+        Habitacion habitacion = getHabitacion(numeroHabitacion, optHabitacion.map(this::conPendientes));
 
         // El ID externo de la reserva puede ser un UUID o un timestamp para este prototipo
         String idReservaExterno = "RES-" + System.currentTimeMillis();
         Reserva nuevaReserva = new Reserva(idReservaExterno, huesped, habitacion, fechaCheckin, fechaCheckout, cantidadHuespedes);
 
-        reservaDAO.save(nuevaReserva); // Persistir la reserva. El ID_DB se asigna en el DAO.
+        // Inventario por tipo y noche (con la sobreventa permitida): se vende antes de guardar y se devuelve si falla
+        MotorInventario motor = cargarInventario();
+        venderInventario(motor, habitacion.getTipo(), fechaCheckin, fechaCheckout, 1);
+        try {
+            reservaDAO.save(nuevaReserva); // Persistir la reserva. El ID_DB se asigna en el DAO.
+        } catch (HotelException e) {
+            motor.deshacer(habitacion.getTipo(), fechaCheckin, fechaCheckout, 1);
+            throw e;
+        }
 
         // Marcar la habitación como "Ocupada" si la reserva es para hoy y se asume check-in inmediato
         // o si es una reserva a futuro, se marcará "Confirmada" y luego "Ocupada" en el check-in.
-        if (!nuevaReserva.getFechaCheckin().isAfter(LocalDate.now())) {
-            habitacion.setEstado("Ocupada");
-            habitacionDAO.update(habitacion); // Actualizar el estado en la DB
-        } else {
-            System.out.println("Nota: Habitación " + habitacion.getNumero() + " marcada como reservada, pero su estado físico sigue siendo 'Disponible' hasta el check-in real.");
+        String estadoAnterior = habitacion.getEstado();
+        try {
+            if (!nuevaReserva.getFechaCheckin().isAfter(LocalDate.now())) {
+                habitacion.setEstado("Ocupada");
+                escribirEstado(habitacion, estadoAnterior, false); // Actualizar el estado en la DB
+            } else {
+                System.out.println("Nota: Habitación " + habitacion.getNumero() + " marcada como reservada, pero su estado físico sigue siendo 'Disponible' hasta el check-in real.");
+            }
+            refrescarIndice(nuevaReserva);
+        } catch (HotelException | RuntimeException e) {
+            habitacion.setEstado(estadoAnterior);
+            deshacerReserva(motor, nuevaReserva, e);
+            throw e;
         }
 
         System.out.println("Reserva " + nuevaReserva.getIdReserva() + " creada exitosamente para " + huesped.getNombre() + " " + huesped.getApellido() + ".");
         return nuevaReserva;
     }
 
+    /**
+     * Deshace una reserva ya guardada cuyo paso siguiente falló: la borra de la DB y devuelve sus noches al
+     * inventario. Si el borrado también falla, la reserva sigue en la DB y sus noches siguen vendidas.
+     * @param error El error del paso que falló (recibe el del borrado como suprimido).
+     */
+    private void deshacerReserva(MotorInventario motor, Reserva reserva, Exception error) {
+        Habitacion habitacion = reserva.getHabitacion();
+        try {
+            reservaDAO.delete(reserva.getIdReservaInterno());
+        } catch (HotelException | RuntimeException e) {
+            error.addSuppressed(e);
+            System.err.println("No se pudo deshacer la reserva " + reserva.getIdReserva() + ": " + e.getMessage());
+            return;
+        }
+        motor.deshacer(habitacion.getTipo(), reserva.getFechaCheckin(), reserva.getFechaCheckout(), 1);
+        reserva.setEstado("Cancelada");
+        refrescarIndice(reserva);
+    }
+
+    /**
+     * Crea una reserva de grupo: reserva 'cantidadHabitaciones' habitaciones del tipo pedido para las mismas fechas,
+     * todas a nombre del huésped titular (RFS02, RFS03). La operación es atómica: si no hay suficientes
+     * habitaciones libres en esas fechas, no se reserva ninguna.
+     * @param huesped El huésped titular del grupo (debe estar ya persistido con un ID de DB).
+     * @param tipo El tipo de habitación (Simple, Doble, Suite).
+     * @param cantidadHabitaciones El número de habitaciones a reservar.
+     * @param fechaCheckin La fecha de check-in.
+     * @param fechaCheckout La fecha de check-out.
+     * @param huespedesPorHabitacion La cantidad de huéspedes por habitación.
+     * @return Las reservas creadas, una por habitación.
+     * @throws HotelException Si los datos son inválidos, no hay habitaciones suficientes o falla la DB.
+     */
+    public List<Reserva> crearReservaGrupo(Huesped huesped, String tipo, int cantidadHabitaciones,
+                                           LocalDate fechaCheckin, LocalDate fechaCheckout,
+                                           int huespedesPorHabitacion) throws HotelException {
+        if (huesped.getIdHuespedInterno() == 0) {
+            throw new HotelException("El huésped no ha sido persistido en la base de datos. Por favor, registre al huésped primero.");
+        }
+        if (cantidadHabitaciones <= 0) {
+            throw new HotelException("La cantidad de habitaciones debe ser mayor que cero.");
+        }
+        if (!tipo.equals("Simple") && !tipo.equals("Doble") && !tipo.equals("Suite")) {
+            throw new HotelException("Tipo de habitación '" + tipo + "' no válido.");
+        }
+        if (!fechaCheckin.isBefore(fechaCheckout)) {
+            throw new HotelException("Error de reserva: La fecha de check-out debe ser posterior a la fecha de check-in.");
+        }
+
+        // Igual que en crearReserva: si la estancia empieza hoy (o antes) las habitaciones pasan a 'Ocupada'
+        boolean ocuparHabitaciones = !fechaCheckin.isAfter(LocalDate.now());
+        MotorInventario motor = cargarInventario();
+        venderInventario(motor, tipo, fechaCheckin, fechaCheckout, cantidadHabitaciones);
+        List<Reserva> reservas;
+        try {
+            vaciarEstadosPendientes(); // saveGroup elige las habitaciones por su estado en la DB
+            reservas = reservaDAO.saveGroup(huesped, tipo, cantidadHabitaciones, fechaCheckin,
+                    fechaCheckout, huespedesPorHabitacion, ocuparHabitaciones);
+        } catch (HotelException e) {
+            motor.deshacer(tipo, fechaCheckin, fechaCheckout, cantidadHabitaciones);
+            throw e;
+        }
+        for (Reserva r : reservas) {
+            refrescarIndice(r);
+        }
+
+        System.out.println("Reserva de grupo creada para " + huesped.getNombre() + " " + huesped.getApellido() +
+                ": " + reservas.size() + " habitaciones '" + tipo + "'.");
+        return reservas;
+    }
+
+    /**
+     * Carga (si aún no lo está) el motor de inventario: las habitaciones físicas por tipo y el historial
+     * de reservas (noches vendidas de las activas y tasas de cancelación), leído fila a fila. Si ya estaba
+     * cargado, avanza su horizonte a hoy.
+     * @return El motor cargado.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public MotorInventario cargarInventario() throws HotelException {
+        MotorInventario motor = inventario;
+        if (motor == null) {
+            synchronized (cargaInventario) {
+                motor = inventario;
+                if (motor == null) {
+                    motor = new MotorInventario(LocalDate.now(), Configuracion.getInt("hotel.inventario.horizonteDias", 730));
+                    for (Habitacion h : habitacionDAO.findAll()) {
+                        motor.registrarHabitacion(h);
+                    }
+                    reservaDAO.forEach(motor::registrarHistorial);
+                    inventario = motor;
+                }
+            }
+        }
+        motor.avanzar(LocalDate.now());
+        return motor;
+    }
+
+    /**
+     * Cotiza una estancia para todos los tipos de habitación con los precios dinámicos por ocupación,
+     * del tipo más barato al más caro.
+     * @param fechaCheckin La fecha de check-in.
+     * @param fechaCheckout La fecha de check-out.
+     * @return Tipo -> cotización noche a noche.
+     * @throws HotelException Si las fechas son inválidas o falla la carga inicial del motor.
+     */
+    public Map<String, MotorPrecios.Cotizacion> cotizarEstancia(LocalDate fechaCheckin, LocalDate fechaCheckout) throws HotelException {
+        return cargarMotorPrecios().cotizarTodos(fechaCheckin, fechaCheckout);
+    }
+
+    /**
+     * Carga (si aún no lo está) el motor de precios dinámicos sobre el motor de inventario.
+     * @return El motor cargado.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public MotorPrecios cargarMotorPrecios() throws HotelException {
+        MotorPrecios motor = precios;
+        if (motor == null) {
+            MotorInventario inv = cargarInventario();
+            synchronized (cargaPrecios) {
+                motor = precios;
+                if (motor == null) {
+                    motor = new MotorPrecios(inv);
+                    for (Habitacion h : habitacionDAO.findAll()) {
+                        motor.registrarHabitacion(h);
+                    }
+                    precios = motor;
+                }
+            }
+        }
+        return motor;
+    }
+
+    /**
+     * Carga a la vez las cachés que, si no, se cargan en la primera operación que las usa (los índices del
+     * buscador, el inventario y los precios), para que el primer comando no espere a la DB.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public void precargar() throws HotelException {
+        CompletableFuture<IndiceHabitaciones> habitaciones = asincrono.ejecutar(this::cargarIndiceHabitaciones);
+        CompletableFuture<IndiceHuespedes> huespedes = asincrono.ejecutar(this::cargarIndiceHuespedes);
+        CompletableFuture<MotorPrecios> motor = asincrono.ejecutar(this::cargarMotorPrecios);
+        DAOAsincrono.esperar(habitaciones);
+        DAOAsincrono.esperar(huespedes);
+        DAOAsincrono.esperar(motor);
+    }
+
+    /**
+     * Vende en el motor de inventario las noches de una reserva, o lanza una excepción si alguna está completa.
+     */
+    private static void venderInventario(MotorInventario motor, String tipo, LocalDate fechaCheckin,
+                                         LocalDate fechaCheckout, int cantidad) throws HotelException {
+        if (!motor.reservar(tipo, fechaCheckin, fechaCheckout, cantidad)) {
+            throw new HotelException("No quedan habitaciones '" + tipo + "' para esas fechas (se venden como máximo " +
+                    motor.getLimite(tipo) + " por noche).");
+        }
+    }
+
     private static Habitacion getHabitacion(int numeroHabitacion, Optional<Habitacion> optHabitacion) throws HotelException {
         Habitacion habitacion = optHabitacion.get();
 
@@ -210,9 +754,15 @@ public class Hotel {
                 reserva.setEstado("Cancelada");
                 reservaDAO.update(reserva); // Actualizar estado en DB
 
-                // Liberar la habitación y actualizar su estado en la DB
-                reserva.getHabitacion().setEstado("Disponible");
-                habitacionDAO.update(reserva.getHabitacion());
+                // Liberar la habitación y actualizar su estado en la DB (cambio no crítico: puede ir en diferido)
+                Habitacion habitacion = conPendientes(reserva.getHabitacion());
+                String estadoAnterior = habitacion.getEstado();
+                habitacion.setEstado("Disponible");
+                escribirEstado(habitacion, estadoAnterior, true);
+                refrescarIndice(reserva);
+                if (inventario != null) {
+                    inventario.cancelar(reserva);
+                }
 
                 System.out.println("Reserva " + idReservaDB + " cancelada y habitación " + reserva.getHabitacion().getNumero() + " liberada.");
             } else {
@@ -223,6 +773,68 @@ public class Hotel {
         }
     }
 
+    // --- Tareas programadas (ver PlanificadorTareas) ---
+
+    /**
+     * Marca como 'No-show' un lote de reservas 'Confirmada' cuyo check-in pasó hace más de 'diasGracia' días
+     * sin que el huésped llegara, y libera sus habitaciones y sus noches restantes para volver a venderlas.
+     * @param diasGracia Días tras la fecha de check-in antes de dar la reserva por no presentada.
+     * @param limite Máximo de reservas del lote.
+     * @return El número de reservas marcadas.
+     * @throws HotelException Si ocurre un error en la DB.
+     */
+    public int marcarNoShows(int diasGracia, int limite) throws HotelException {
+        LocalDate hoy = LocalDate.now();
+        vaciarEstadosPendientes();
+        return cerrarReservas(reservaDAO.updateNoShows(hoy.minusDays(diasGracia), hoy, limite));
+    }
+
+    /**
+     * Cancela un lote de reservas 'Confirmada' cuya fecha de check-out ya pasó (confirmaciones vencidas).
+     * @param limite Máximo de reservas del lote.
+     * @return El número de reservas canceladas.
+     * @throws HotelException Si ocurre un error en la DB.
+     */
+    public int expirarReservasVencidas(int limite) throws HotelException {
+        vaciarEstadosPendientes();
+        return cerrarReservas(reservaDAO.updateVencidas(LocalDate.now(), limite));
+    }
+
+    /**
+     * Devuelve a 'Disponible' un lote de habitaciones que llevan 'En Limpieza' más del plazo indicado.
+     * @param slaMinutos Minutos máximos en limpieza.
+     * @param limite Máximo de habitaciones del lote.
+     * @return El número de habitaciones liberadas.
+     * @throws HotelException Si ocurre un error en la DB.
+     */
+    public int liberarLimpiezaVencida(int slaMinutos, int limite) throws HotelException {
+        vaciarEstadosPendientes();
+        List<Integer> numeros = habitacionDAO.updateLimpiezaVencida(slaMinutos, limite);
+        IndiceHabitaciones indice = indiceHabitaciones;
+        for (Integer numero : numeros) {
+            if (indice != null) {
+                indice.actualizarEstado(numero, "Disponible");
+            }
+            cambios.publicarHabitacion(numero, null, "Disponible");
+        }
+        return numeros.size();
+    }
+
+    /**
+     * Refleja en el índice de búsqueda y en el inventario (si están cargados) las reservas cerradas por una tarea:
+     * dejan de ocupar sus fechas y cuentan como cancelaciones para la sobreventa.
+     */
+    private int cerrarReservas(List<Reserva> reservas) {
+        MotorInventario motor = inventario;
+        for (Reserva reserva : reservas) {
+            refrescarIndice(reserva);
+            if (motor != null) {
+                motor.cancelar(reserva);
+            }
+        }
+        return reservas.size();
+    }
+
     // --- Métodos de Check-in/Check-out (RFS06, RFS07) ---
 
     /**
@@ -235,13 +847,14 @@ public class Hotel {
         if (optReserva.isPresent()) {
             Reserva reserva = optReserva.get();
             if (reserva.getEstado().equals("Confirmada")) {
-                Habitacion habitacion = reserva.getHabitacion();
+                Habitacion habitacion = conPendientes(reserva.getHabitacion());
                 if (habitacion.getEstado().equals("Disponible")) { // RFS17
                     reserva.setEstado("Check-in");
                     reservaDAO.update(reserva); // Actualizar estado en DB
 
                     habitacion.setEstado("Ocupada");
-                    habitacionDAO.update(habitacion); // Actualizar estado en DB
+                    escribirEstado(habitacion, "Disponible", false); // Actualizar estado en DB
+                    refrescarIndice(reserva);
 
                     System.out.println("Check-in realizado para la reserva " + idReservaDB + " en la habitación " + habitacion.getNumero() + ".");
                 } else {
@@ -265,21 +878,27 @@ public class Hotel {
         if (optReserva.isPresent()) {
             Reserva reserva = optReserva.get();
             if (reserva.getEstado().equals("Check-in")) {
-                // Lógica de facturación (simplificada, solo calcula y muestra)
-                double costoTotal = reserva.calcularCostoTotal();
-                System.out.println("\n--- Factura para Reserva " + idReservaDB + " ---");
-                System.out.println("Huésped: " + reserva.getHuesped().getNombre() + " " + reserva.getHuesped().getApellido());
-                System.out.println("Habitación: " + reserva.getHabitacion().getNumero() + " (" + reserva.getHabitacion().getTipo() + ")");
-                System.out.println("Estancia: del " + reserva.getFechaCheckin() + " al " + reserva.getFechaCheckout());
-                System.out.println("Costo total de la estancia: $" + String.format("%.2f", costoTotal));
-                // Aquí se añadiría lógica para RFS08 (cargos adicionales) y RFS09 (generación de facturas detalladas)
-                // y RFS10 (registro de pagos) con sus propios DAOs.
-
+                String estadoAnterior = conPendientes(reserva.getHabitacion()).getEstado();
                 reserva.setEstado("Check-out");
-                reservaDAO.update(reserva); // Actualizar estado en DB
-
                 reserva.getHabitacion().setEstado("En Limpieza"); // Marcar para limpieza después del check-out
-                habitacionDAO.update(reserva.getHabitacion()); // Actualizar estado en DB
+
+                // Con escritura diferida, el estado de la habitación no se escribe en la transacción del check-out
+                EscrituraDiferidaHabitaciones w = escrituraDiferida;
+                Factura factura;
+                if (facturacion != null) {
+                    // RFS08/RFS09: factura con los cargos adicionales, persistida junto con los cambios de estado
+                    factura = facturacion.generarFactura(reserva);
+                    facturacion.registrarCheckOut(List.of(factura), List.of(reserva), w == null);
+                } else {
+                    // Sin facturación persistente: solo se calcula y muestra
+                    factura = new Factura(reserva);
+                    reservaDAO.updateEstados(List.of(reserva), "Check-in", w == null); // Actualizar estados en DB
+                }
+                if (w != null) {
+                    w.encolar(reserva.getHabitacion(), estadoAnterior);
+                }
+                refrescarIndice(reserva);
+                System.out.println(factura);
 
                 System.out.println("Check-out realizado para la reserva " + idReservaDB + ". Habitación " + reserva.getHabitacion().getNumero() + " marcada como 'En Limpieza'.");
             } else {
@@ -290,22 +909,158 @@ public class Hotel {
         }
     }
 
+    /**
+     * Realiza el check-out de varias reservas a la vez (RFS07), pensado para los picos de salida de la mañana.
+     * Las reservas se leen con una sola consulta, las facturas se calculan en paralelo (fork-join)
+     * y todos los cambios de estado de reservas y habitaciones se escriben por lotes en una única transacción.
+     * Las reservas inexistentes o que no están en 'Check-in' se informan y se omiten, sin afectar al resto.
+     * Las facturas no se imprimen aquí: se devuelven para que el llamador las muestre cuando quiera.
+     * @param idsReservaDB Los IDs internos de las reservas a las que se les hará check-out.
+     * @return Las facturas de las reservas procesadas, ordenadas por ID de reserva.
+     * @throws HotelException Si ocurre un error en la DB (en ese caso no se aplica ningún check-out).
+     */
+    public List<Factura> realizarCheckOutMasivo(Collection<Integer> idsReservaDB) throws HotelException {
+        Map<Integer, Reserva> encontradas = new HashMap<>();
+        for (Reserva r : reservaDAO.findByIds(idsReservaDB)) {
+            encontradas.put(r.getIdReservaInterno(), r);
+        }
+
+        List<Reserva> aProcesar = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(idsReservaDB)) {
+            Reserva reserva = encontradas.get(id);
+            if (reserva == null) {
+                System.out.println("Reserva con ID " + id + " no encontrada. Se omite del check-out.");
+            } else if (!reserva.getEstado().equals("Check-in")) {
+                System.out.println("La reserva " + id + " no está en estado 'Check-in'. Estado: " + reserva.getEstado() + ". Se omite del check-out.");
+            } else {
+                aProcesar.add(reserva);
+            }
+        }
+        if (aProcesar.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Cálculo de facturas en paralelo sobre el pool fork-join común
+        List<Factura> facturas = facturacion != null ? facturacion.generarFacturas(aProcesar)
+                : aProcesar.parallelStream().map(Factura::new).collect(Collectors.toCollection(ArrayList::new));
+        facturas.sort(Comparator.comparingInt(Factura::getIdReserva));
+
+        List<String> estadosAnteriores = new ArrayList<>();
+        for (Reserva reserva : aProcesar) {
+            estadosAnteriores.add(conPendientes(reserva.getHabitacion()).getEstado());
+            reserva.setEstado("Check-out");
+            reserva.getHabitacion().setEstado("En Limpieza"); // Marcar para limpieza después del check-out
+        }
+        // Una transacción, sentencias por lotes (con las facturas, si se persisten). Con escritura diferida,
+        // los estados de las habitaciones se escriben después, combinados con el resto de cambios pendientes
+        EscrituraDiferidaHabitaciones w = escrituraDiferida;
+        if (facturacion != null) {
+            facturacion.registrarCheckOut(facturas, aProcesar, w == null);
+        } else {
+            reservaDAO.updateEstados(aProcesar, "Check-in", w == null);
+        }
+        for (int i = 0; i < aProcesar.size(); i++) {
+            Reserva reserva = aProcesar.get(i);
+            if (w != null) {
+                w.encolar(reserva.getHabitacion(), estadosAnteriores.get(i));
+            }
+            refrescarIndice(reserva);
+        }
+
+        System.out.println("Check-out realizado para " + aProcesar.size() + " reservas. Habitaciones marcadas como 'En Limpieza'.");
+        return facturas;
+    }
+
+    // --- Métodos de Servicios Adicionales y Facturación (RFS08, RFS09, RFS10) ---
+
+    /**
+     * Agrega un servicio al catálogo de servicios adicionales (RFS08).
+     * @param nombre El nombre del servicio.
+     * @param precio El precio unitario.
+     * @return El servicio creado.
+     * @throws HotelException Si la facturación no está habilitada o hay un error en la DB.
+     */
+    public ServicioAdicional agregarServicioAdicional(String nombre, BigDecimal precio) throws HotelException {
+        return getFacturacion().agregarServicio(nombre, precio);
+    }
+
+    /**
+     * Lista el catálogo de servicios adicionales (RFS08).
+     * @throws HotelException Si la facturación no está habilitada o hay un error en la DB.
+     */
+    public void listarServiciosAdicionales() throws HotelException {
+        List<ServicioAdicional> servicios = getFacturacion().listarServicios();
+        if (servicios.isEmpty()) {
+            System.out.println("No hay servicios adicionales registrados.");
+            return;
+        }
+        System.out.println("\n--- Servicios Adicionales ---");
+        for (ServicioAdicional s : servicios) {
+            System.out.println(s);
+        }
+        System.out.println("-----------------------------");
+    }
+
+    /**
+     * Registra un cargo por un servicio adicional a una reserva en curso (RFS08).
+     * Se facturará en el check-out.
+     * @param idReservaDB El ID interno de la reserva.
+     * @param idServicio El ID del servicio adicional.
+     * @param cantidad La cantidad consumida.
+     * @throws HotelException Si la reserva no existe o no está en 'Check-in', o si el servicio no existe.
+     */
+    public void registrarCargoAdicional(int idReservaDB, int idServicio, int cantidad) throws HotelException {
+        ServicioFacturacion servicio = getFacturacion();
+        Optional<Reserva> optReserva = reservaDAO.findById(idReservaDB);
+        if (!optReserva.isPresent()) {
+            throw new HotelException("Reserva con ID " + idReservaDB + " no encontrada.");
+        }
+        if (!optReserva.get().getEstado().equals("Check-in")) {
+            throw new HotelException("Solo se pueden registrar cargos en reservas con check-in. Estado: " + optReserva.get().getEstado() + ".");
+        }
+        DetalleFactura detalle = servicio.registrarCargo(idReservaDB, idServicio, cantidad);
+        System.out.println("Cargo registrado en la reserva " + idReservaDB + ": " + detalle);
+    }
+
+    /**
+     * Muestra la factura emitida para una reserva (RFS09).
+     * @param idReservaDB El ID interno de la reserva.
+     * @throws HotelException Si la reserva no tiene factura o hay un error en la DB.
+     */
+    public void mostrarFactura(int idReservaDB) throws HotelException {
+        Optional<Factura> factura = getFacturacion().buscarFacturaPorReserva(idReservaDB);
+        if (!factura.isPresent()) {
+            throw new HotelException("La reserva " + idReservaDB + " no tiene factura emitida.");
+        }
+        System.out.println(factura.get());
+    }
+
+    /**
+     * Registra el pago de una factura (RFS10).
+     * @param idFactura El ID de la factura.
+     * @throws HotelException Si la facturación no está habilitada o hay un error en la DB.
+     */
+    public void registrarPagoFactura(int idFactura) throws HotelException {
+        getFacturacion().registrarPago(idFactura);
+    }
+
+    private ServicioFacturacion getFacturacion() throws HotelException {
+        if (facturacion == null) {
+            throw new HotelException("La facturación no está habilitada en " + nombre + ".");
+        }
+        return facturacion;
+    }
+
     // --- Métodos de Reportes (RFS15, RFS16, RFS19) ---
 
     /**
      * Calcula los ingresos totales generados por todas las reservas finalizadas (RFS16),
-     * obteniéndolas de la base de datos.
+     * con una consulta agregada en la base de datos.
      * @return El total de ingresos.
      * @throws HotelException Si ocurre un error durante la consulta en la DB.
      */
     public double calcularIngresosTotales() throws HotelException {
-        double totalIngresos = 0;
-        List<Reserva> reservas = reservaDAO.findAll(); // Obtener todas las reservas de la DB
-        for (Reserva r : reservas) {
-            if (r.getEstado().equals("Check-out")) {
-                totalIngresos += r.calcularCostoTotal();
-            }
-        }
+        double totalIngresos = reservaDAO.sumCostoTotalByEstado("Check-out");
         System.out.println("\n--- Reporte de Ingresos ---");
         System.out.println("Ingresos totales de reservas finalizadas: $" + String.format("%.2f", totalIngresos));
         return totalIngresos;
@@ -316,21 +1071,98 @@ public class Hotel {
      * @throws HotelException Si ocurre un error durante la consulta en la DB.
      */
     public void mostrarReporteOcupacion() throws HotelException {
-        List<Habitacion> habitaciones = habitacionDAO.findAll(); // Obtener todas las habitaciones de la DB
-        long habitacionesDisponibles = habitaciones.stream().filter(h -> h.getEstado().equals("Disponible")).count();
-        long habitacionesOcupadas = habitaciones.stream().filter(h -> h.getEstado().equals("Ocupada")).count();
-        long habitacionesEnLimpieza = habitaciones.stream().filter(h -> h.getEstado().equals("En Limpieza")).count();
-        long habitacionesEnMantenimiento = habitaciones.stream().filter(h -> h.getEstado().equals("Mantenimiento")).count();
+        // Conteo por estado agregado en la DB, sin cargar cada habitación
+        vaciarEstadosPendientes();
+        ResumenPropiedad resumen = new ResumenPropiedad(nombre, 0, habitacionDAO.countByEstado());
 
         System.out.println("\n--- Reporte de Ocupación Actual ---");
-        System.out.println("Total de Habitaciones: " + habitaciones.size());
-        System.out.println("Disponibles: " + habitacionesDisponibles);
-        System.out.println("Ocupadas: " + habitacionesOcupadas);
-        System.out.println("En Limpieza: " + habitacionesEnLimpieza);
-        System.out.println("En Mantenimiento: " + habitacionesEnMantenimiento);
+        System.out.println("Total de Habitaciones: " + resumen.getTotalHabitaciones());
+        System.out.println("Disponibles: " + resumen.getHabitaciones("Disponible"));
+        System.out.println("Ocupadas: " + resumen.getHabitaciones("Ocupada"));
+        System.out.println("En Limpieza: " + resumen.getHabitaciones("En Limpieza"));
+        System.out.println("En Mantenimiento: " + resumen.getHabitaciones("Mantenimiento"));
         System.out.println("------------------------------------");
     }
 
+    /**
+     * Muestra, por tipo de habitación, el inventario físico, la tasa de cancelación, el límite de venta
+     * con sobreventa y las habitaciones vendidas para las próximas 7 noches.
+     * @throws HotelException Si falla la carga inicial del inventario.
+     */
+    public void mostrarReporteInventario() throws HotelException {
+        MotorInventario motor = cargarInventario();
+        LocalDate hoy = LocalDate.now();
+        System.out.println("\n--- Inventario y Sobreventa por Tipo ---");
+        for (String tipo : motor.getTipos()) {
+            StringBuilder noches = new StringBuilder();
+            for (int d = 0; d < 7; d++) {
+                noches.append(d == 0 ? "" : " ").append(motor.getVendidas(tipo, hoy.plusDays(d)));
+            }
+            System.out.println(tipo + ": físicas " + motor.getFisicas(tipo) +
+                    ", cancelación " + String.format("%.1f%%", motor.getTasaCancelacion(tipo) * 100) +
+                    ", límite " + motor.getLimite(tipo) + " por noche, vendidas (7 noches): " + noches);
+        }
+        System.out.println("----------------------------------------");
+    }
+
+    /**
+     * Calcula el resumen de ingresos y ocupación del hotel con dos consultas agregadas, lanzadas a la vez.
+     * Lo usa la cadena para su reporte global (una llamada por shard, en paralelo).
+     * @return El resumen del hotel.
+     * @throws HotelException Si ocurre un error durante la consulta en la DB.
+     */
+    public ResumenPropiedad calcularResumen() throws HotelException {
+        vaciarEstadosPendientes();
+        CompletableFuture<Double> ingresos = asincrono.ejecutar(() -> reservaDAO.sumCostoTotalByEstado("Check-out"));
+        CompletableFuture<Map<String, Integer>> porEstado = asincrono.ejecutar(habitacionDAO::countByEstado);
+        return new ResumenPropiedad(nombre, DAOAsincrono.esperar(ingresos), DAOAsincrono.esperar(porEstado));
+    }
+
+    /**
+     * Carga todo el historial de reservas en un almacén columnar en memoria para análisis.
+     * Las reservas se leen de la DB fila a fila (ReservaDAO.forEach) y solo se guardan sus columnas,
+     * por lo que nunca se tiene la lista completa de objetos Reserva en memoria.
+     * @return El almacén cargado.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public AlmacenReservas cargarAlmacenReservas() throws HotelException {
+        AlmacenReservas almacen = new AlmacenReservas(habitacionDAO.findAll(), 1024);
+        reservaDAO.forEach(almacen::agregar);
+        almacen.compactar();
+        return almacen;
+    }
+
+    /**
+     * Muestra un análisis del historial completo de reservas (reservas por estado, ingresos y ocupación
+     * del último año), calculado en memoria sobre el almacén columnar.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public void mostrarAnalisisHistorico() throws HotelException {
+        long inicio = System.nanoTime();
+        AlmacenReservas almacen = cargarAlmacenReservas();
+        long carga = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        Map<String, Integer> porEstado = almacen.contarPorEstado();
+        double ingresos = almacen.sumCostoTotalByEstado("Check-out");
+        LocalDate hoy = LocalDate.now();
+        long nochesOcupadas = almacen.contarNochesOcupadas(hoy.minusYears(1), hoy);
+        long analisis = System.nanoTime() - inicio;
+        long nochesDisponibles = almacen.getTotalHabitaciones()
+                * java.time.temporal.ChronoUnit.DAYS.between(hoy.minusYears(1), hoy);
+
+        System.out.println("\n--- Análisis Histórico de Reservas ---");
+        System.out.println("Reservas: " + almacen.tamano() + " (" + almacen.getBytesColumnas() / 1024 + " KB en memoria)");
+        for (Map.Entry<String, Integer> entry : porEstado.entrySet()) {
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+        System.out.println("Ingresos de reservas finalizadas: $" + String.format("%.2f", ingresos));
+        System.out.println("Ocupación del último año: " + nochesOcupadas + " noches-habitación" +
+                (nochesDisponibles > 0 ? String.format(" (%.1f%%)", 100.0 * nochesOcupadas / nochesDisponibles) : ""));
+        System.out.println("Carga: " + carga / 1_000_000 + " ms, análisis: " + analisis / 1_000_000 + " ms");
+        System.out.println("--------------------------------------");
+    }
+
     /**
      * Muestra todas las reservas en el sistema, obteniéndolas de la base de datos.
      * @throws HotelException Si ocurre un error durante la consulta en la DB.
@@ -347,4 +1179,14 @@ public class Hotel {
         }
         System.out.println("--------------------------");
     }
+
+    /**
+     * Recorre todas las reservas leyéndolas de la DB fila a fila, sin cargarlas todas en memoria
+     * (exportaciones y listados grandes, como el de la API).
+     * @param accion La acción a ejecutar con cada reserva.
+     * @throws HotelException Si ocurre un error al leer la DB.
+     */
+    public void recorrerReservas(Consumer<Reserva> accion) throws HotelException {
+        reservaDAO.forEach(accion);
+    }
 }
@@ -1,19 +1,37 @@
 package hotel.gestion;
 
+import hotel.api.ServidorApi;
+import hotel.config.Configuracion;
 import hotel.config.db.Conexion;
+import hotel.config.db.ScriptSql;
+import hotel.config.db.dao.ConsultaCompartida;
+import hotel.config.db.dao.impl.FacturaDAOImpl;
 import hotel.config.db.dao.impl.HabitacionDAOImpl;
+import hotel.config.db.dao.impl.HuespedDAODirectorio;
 import hotel.config.db.dao.impl.HuespedDAOImpl;
+import hotel.config.db.dao.impl.PropiedadDAOImpl;
 import hotel.config.db.dao.impl.ReservaDAOImpl;
+import hotel.config.db.dao.impl.ServicioAdicionalDAOImpl;
+import hotel.config.db.dao.interfaces.HuespedDAO;
 
+import javax.sql.DataSource;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Optional;
 
@@ -25,39 +43,70 @@ import java.util.Optional;
  */
 
 public class HotelApp {
+    private static TableroOcupacion tablero; // Tablero en vivo de Reportes, se abre la primera vez que se muestra
+    private static HuespedDAODirectorio directorioHuespedes; // Con hotel.huespedes.directorio
 
     public static void main(String[] args) {
-        String sqlFilePath = "db/db.sql";
-
-        try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             BufferedReader reader = new BufferedReader(new FileReader(sqlFilePath))) {
-
-            StringBuilder sqlBuilder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sqlBuilder.append(line);
-                if (line.trim().endsWith(";")) {
-                    String sqlStatement = sqlBuilder.toString();
-                    stmt.execute(sqlStatement);
-                    sqlBuilder.setLength(0); // Clear buffer for next statement
-                }
+        long inicioMain = System.currentTimeMillis();
+        // Modo por lotes: "--lote <archivo>" o "--lote -" (entrada estándar). Los mensajes de la aplicación van
+        // a la salida de errores; la salida estándar queda solo para los resultados de los comandos
+        String archivoLote = args.length >= 2 && args[0].equals("--lote") ? args[1] : null;
+        PrintStream salidaLote = System.out;
+        if (archivoLote != null) {
+            System.setOut(System.err);
+        }
+        Configuracion.vigilarArchivo(); // Aplica en caliente los ajustes del archivo de configuración externo
+        // Arranque rápido: las conexiones del pool y las sentencias frecuentes se preparan en segundo plano
+        // mientras se crean los DAOs, y las cachés del hotel se cargan en paralelo antes del menú
+        boolean arranqueRapido = Boolean.parseBoolean(Configuracion.get("hotel.arranque.rapido", "false"));
+        Thread precalentamiento = null;
+
+        if (Conexion.isEmbebida()) {
+            // Base de datos embebida H2 (un solo proceso, sin servidor MySQL): conserva sus datos entre arranques
+            try {
+                Conexion.prepararEmbebida();
+            } catch (SQLException | IOException e) {
+                System.err.println("Error al preparar la base de datos embebida: " + e.getMessage());
+                return;
+            }
+        } else {
+            try (Connection conn = Conexion.getConnection()) {
+                ScriptSql.ejecutar(conn, Conexion.getScript("db.sql"));
+                System.out.println("SQL script executed successfully.");
+            } catch (SQLException | IOException e) {
+                e.printStackTrace();
             }
-
-            System.out.println("SQL script executed successfully.");
-
-        } catch (SQLException | IOException e) {
-            e.printStackTrace();
+        }
+        // Después del script: el DROP DATABASE invalidaría lo preparado en las conexiones abiertas antes
+        if (arranqueRapido) {
+            precalentamiento = Thread.ofVirtual().name("precalentar-db").start(HotelApp::precalentarConexiones);
         }
 
 
         // Inicializar las implementaciones DAO
         HabitacionDAOImpl habitacionDAO = new HabitacionDAOImpl();
-        HuespedDAOImpl huespedDAO = new HuespedDAOImpl();
+        HuespedDAOImpl huespedDAOImpl = new HuespedDAOImpl();
+        HuespedDAO huespedDAO = huespedDAOImpl;
         ReservaDAOImpl reservaDAO = new ReservaDAOImpl();
+        ServicioFacturacion facturacion = new ServicioFacturacion(new FacturaDAOImpl(), new ServicioAdicionalDAOImpl());
+        String carpetaDirectorio = Configuracion.get("hotel.huespedes.directorio", "");
+        if (!carpetaDirectorio.isBlank()) {
+            try {
+                // Los IDs solo valen para la generación actual de la base (db.sql la recrea en cada arranque con
+                // MySQL; la base embebida conserva la suya mientras no se borren sus archivos)
+                String generacion = huespedDAOImpl.findGeneracion();
+                directorioHuespedes = new HuespedDAODirectorio(huespedDAO, Paths.get(carpetaDirectorio), generacion);
+                huespedDAO = directorioHuespedes;
+                // Los archivos solo se dan por buenos al reabrirlos si se cerraron; también al salir con Ctrl+C
+                Runtime.getRuntime().addShutdownHook(new Thread(HotelApp::cerrarDirectorioHuespedes, "cerrar-directorio-huespedes"));
+            } catch (HotelException e) {
+                System.err.println(e.getMessage() + " Se buscarán los huéspedes solo en la DB.");
+            }
+        }
 
         // Creación del objeto Hotel, inyectando las dependencias DAO
-        Hotel hotelNova = new Hotel("Hotel Nova", habitacionDAO, huespedDAO, reservaDAO);
+        Hotel hotelNova = new Hotel("Hotel Nova", habitacionDAO, huespedDAO, reservaDAO, facturacion);
+        SnapshotHotel snapshot = new SnapshotHotel(habitacionDAO, huespedDAO, reservaDAO);
         Scanner scanner = new Scanner(System.in);
         boolean salir = false;
 
@@ -79,6 +128,52 @@ public class HotelApp {
         }
         // --------------------------------------------------------------------------------
 
+        // Escritura diferida de los cambios de estado de habitación no críticos
+        if (Boolean.parseBoolean(Configuracion.get("hotel.habitaciones.escrituraDiferida", "false"))) {
+            hotelNova.activarEscrituraDiferida(Configuracion.getLong("hotel.habitaciones.escrituraDiferida.intervaloMs", 500));
+        }
+
+        if (arranqueRapido) {
+            long inicioPrecarga = System.currentTimeMillis();
+            try {
+                if (precalentamiento != null) {
+                    precalentamiento.join();
+                }
+                hotelNova.precargar();
+                System.out.println("Cachés del hotel precargadas en " + (System.currentTimeMillis() - inicioPrecarga) + " ms.");
+            } catch (HotelException e) {
+                System.err.println("Error al precargar las cachés del hotel (se cargarán al usarlas): " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (archivoLote != null) {
+            informarArranque(inicioMain);
+            System.exit(ejecutarLote(hotelNova, archivoLote, salidaLote) ? 0 : 1);
+        }
+
+        // Tareas de mantenimiento en segundo plano (no-show, reservas vencidas, plazo de limpieza)
+        // Desactivadas por defecto; sin salida de avisos para no escribir sobre el menú (resultados en Reportes)
+        PlanificadorTareas tareas = new PlanificadorTareas(hotelNova, null);
+        if (Boolean.parseBoolean(Configuracion.get("hotel.tareas.activas", "false"))) {
+            tareas.iniciar();
+        }
+
+        // API HTTP/JSON local para el channel manager y los quioscos (sin puerto configurado, desactivada)
+        ServidorApi api = null;
+        String puertoApi = Configuracion.get("hotel.api.puerto", "");
+        if (!puertoApi.isBlank()) {
+            try {
+                api = new ServidorApi(hotelNova, Configuracion.get("hotel.api.direccion", "127.0.0.1"), Integer.parseInt(puertoApi.trim()));
+                api.iniciar();
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("No se pudo iniciar la API HTTP en el puerto '" + puertoApi + "': " + e.getMessage());
+            }
+        }
+
+        informarArranque(inicioMain);
+
         // Bucle principal del menú
         while (!salir) {
             mostrarMenu();
@@ -101,7 +196,13 @@ public class HotelApp {
                         gestionarCheckInOut(hotelNova, scanner);
                         break;
                     case 5:
-                        gestionarReportes(hotelNova);
+                        gestionarReportes(hotelNova, tareas);
+                        break;
+                    case 6:
+                        gestionarFacturacion(hotelNova, scanner);
+                        break;
+                    case 7:
+                        gestionarSnapshot(snapshot, scanner);
                         break;
                     case 0:
                         salir = true;
@@ -126,9 +227,119 @@ public class HotelApp {
             scanner.nextLine(); // Esperar que el usuario presione Enter
         }
 
+        if (api != null) {
+            api.close();
+        }
+        tareas.detener();
+        try {
+            hotelNova.cerrar(); // Escribe los estados de habitación pendientes
+        } catch (HotelException e) {
+            System.err.println("Error al cerrar el hotel: " + e.getMessage());
+        }
+        cerrarDirectorioHuespedes();
         scanner.close(); // Cerrar el scanner al finalizar
     }
 
+    /**
+     * Ejecuta un archivo de comandos en modo por lotes (ver ModoLote) y cierra el hotel.
+     * @return true si todos los comandos se ejecutaron sin error.
+     */
+    private static boolean ejecutarLote(Hotel hotel, String archivo, PrintStream salida) {
+        int errores;
+        try (BufferedReader entrada = archivo.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(archivo), StandardCharsets.UTF_8)) {
+            errores = new ModoLote(hotel, salida).ejecutar(entrada);
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el archivo de comandos '" + archivo + "': " + e.getMessage());
+            return false;
+        }
+        try {
+            hotel.cerrar(); // Escribe los estados de habitación pendientes
+        } catch (HotelException e) {
+            System.err.println("Error al cerrar el hotel: " + e.getMessage());
+            return false;
+        } finally {
+            cerrarDirectorioHuespedes();
+        }
+        return errores == 0;
+    }
+
+    /**
+     * Abre las conexiones del pool y prepara en ellas las consultas más frecuentes de los DAOs (arranque rápido).
+     */
+    private static void precalentarConexiones() {
+        long inicio = System.currentTimeMillis();
+        List<String> sentencias = new ArrayList<>(HabitacionDAOImpl.SENTENCIAS_FRECUENTES);
+        sentencias.addAll(HuespedDAOImpl.SENTENCIAS_FRECUENTES);
+        sentencias.addAll(ReservaDAOImpl.SENTENCIAS_FRECUENTES);
+        try {
+            int conexiones = Conexion.precalentar(sentencias);
+            System.out.println("Pool precalentado: " + conexiones + " conexiones y " + sentencias.size() +
+                    " sentencias preparadas en " + (System.currentTimeMillis() - inicio) + " ms.");
+        } catch (SQLException e) {
+            System.err.println("Error al precalentar las conexiones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Informa del tiempo hasta poder atender el primer comando: desde que arrancó la JVM (lo que mejora el
+     * archivo AppCDS del perfil "cds") y desde el inicio de main (lo que mejora hotel.arranque.rapido).
+     */
+    private static void informarArranque(long inicioMain) {
+        long ahora = System.currentTimeMillis();
+        long total = ahora - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("Listo para el primer comando en " + total + " ms desde el arranque de la JVM (" +
+                (total - (ahora - inicioMain)) + " ms de JVM y " + (ahora - inicioMain) + " ms de inicialización).");
+    }
+
+    /**
+     * Escribe en disco el directorio de huéspedes, si se usa, y lo cierra (puede llamarse más de una vez).
+     */
+    private static void cerrarDirectorioHuespedes() {
+        if (directorioHuespedes == null) {
+            return;
+        }
+        try {
+            directorioHuespedes.close();
+        } catch (HotelException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra cuántas lecturas concurrentes idénticas se resolvieron con una sola consulta a la DB.
+     */
+    private static void mostrarMetricasConsultas() {
+        System.out.println("\n--- Consultas Compartidas ---");
+        for (Map.Entry<String, long[]> metrica : ConsultaCompartida.getMetricas().entrySet()) {
+            long ejecutadas = metrica.getValue()[0];
+            long ahorradas = metrica.getValue()[1];
+            long total = ejecutadas + ahorradas;
+            System.out.println(metrica.getKey() + ": " + total + " llamadas, " + ejecutadas + " consultas a la DB, " +
+                    ahorradas + " ahorradas (" + String.format("%.1f", total == 0 ? 0.0 : 100.0 * ahorradas / total) + "%)");
+        }
+        System.out.println("------------------------------------");
+    }
+
+    /**
+     * Crea la cadena de hoteles a partir del catálogo PROPIEDADES: un Hotel por propiedad,
+     * con sus DAOs apuntando al esquema (shard) de esa propiedad y sus reportes a la réplica de lectura, si la hay.
+     */
+    private static CadenaHoteles crearCadena() throws HotelException {
+        CadenaHoteles cadena = new CadenaHoteles("Nova");
+        for (Propiedad propiedad : new PropiedadDAOImpl().findAll()) {
+            DataSource dataSource = Conexion.getDataSource(propiedad.getEsquema());
+            DataSource lecturas = Conexion.getDataSourceLecturas(propiedad.getEsquema());
+            cadena.agregarHotel(new Hotel(propiedad.getNombre(),
+                    new HabitacionDAOImpl(dataSource, lecturas),
+                    new HuespedDAOImpl(dataSource, lecturas),
+                    new ReservaDAOImpl(dataSource, lecturas),
+                    new ServicioFacturacion(new FacturaDAOImpl(dataSource, lecturas), new ServicioAdicionalDAOImpl(dataSource))));
+        }
+        return cadena;
+    }
+
     /**
      * Muestra el menú principal de opciones del sistema.
      */
@@ -141,6 +352,8 @@ public class HotelApp {
         System.out.println("| 3. Gestión de Reservas             |");
         System.out.println("| 4. Check-in / Check-out            |");
         System.out.println("| 5. Reportes                        |");
+        System.out.println("| 6. Servicios y Facturación         |");
+        System.out.println("| 7. Snapshot (exportar / importar)  |");
         System.out.println("| 0. Salir                           |");
         System.out.println("+------------------------------------+");
     }
@@ -153,6 +366,8 @@ public class HotelApp {
         System.out.println("1. Agregar Habitación");
         System.out.println("2. Listar Habitaciones");
         System.out.println("3. Actualizar Estado de Habitación");
+        System.out.println("4. Liberar Habitaciones en Limpieza (masivo)");
+        System.out.println("5. Buscar Habitaciones");
         System.out.println("0. Volver al Menú Principal");
         System.out.print("Elige una opción: ");
         int opcion = scanner.nextInt();
@@ -194,6 +409,48 @@ public class HotelApp {
                 String estadoAct = scanner.nextLine();
                 hotel.actualizarEstadoHabitacion(numAct, estadoAct);
                 break;
+            case 4:
+                System.out.print("Números de habitación separados por comas (ej: 101,102,201): ");
+                List<Integer> numeros = leerListaEnteros(scanner.nextLine());
+                hotel.actualizarEstadoHabitaciones(numeros, "En Limpieza", "Disponible");
+                break;
+            case 5:
+                System.out.println("(Deja en blanco los criterios que no quieras usar)");
+                System.out.print("Tipo de habitación (Simple, Doble, Suite): ");
+                String tipoBusqueda = scanner.nextLine().trim();
+                System.out.print("Precio mínimo por noche: ");
+                String precioMinStr = scanner.nextLine().trim();
+                System.out.print("Precio máximo por noche: ");
+                String precioMaxStr = scanner.nextLine().trim();
+                System.out.print("Estado (Disponible, Ocupada, En Limpieza, Mantenimiento): ");
+                String estadoBusqueda = scanner.nextLine().trim();
+                System.out.print("Fecha de Check-in (YYYY-MM-DD): ");
+                String desdeStr = scanner.nextLine().trim();
+                System.out.print("Fecha de Check-out (YYYY-MM-DD): ");
+                String hastaStr = scanner.nextLine().trim();
+
+                List<Habitacion> encontradas;
+                try {
+                    encontradas = hotel.buscarHabitaciones(
+                            tipoBusqueda.isEmpty() ? null : tipoBusqueda,
+                            precioMinStr.isEmpty() ? null : Double.parseDouble(precioMinStr),
+                            precioMaxStr.isEmpty() ? null : Double.parseDouble(precioMaxStr),
+                            estadoBusqueda.isEmpty() ? null : estadoBusqueda,
+                            desdeStr.isEmpty() ? null : LocalDate.parse(desdeStr),
+                            hastaStr.isEmpty() ? null : LocalDate.parse(hastaStr),
+                            20);
+                } catch (NumberFormatException e) {
+                    throw new HotelException("Precio inválido.");
+                } catch (DateTimeParseException e) {
+                    throw new HotelException("Formato de fecha inválido. Usa YYYY-MM-DD.");
+                }
+                if (encontradas.isEmpty()) {
+                    System.out.println("No hay habitaciones que cumplan los criterios.");
+                }
+                for (Habitacion h : encontradas) {
+                    System.out.println(h + " - $" + String.format("%.2f", h.calcularCostoNoche()) + "/noche");
+                }
+                break;
             case 0:
                 // Volver al menú principal
                 break;
@@ -202,12 +459,31 @@ public class HotelApp {
         }
     }
 
+    /**
+     * Convierte una línea con números separados por comas (ej: "101, 102,201") en una lista de enteros.
+     * @throws HotelException Si algún elemento no es un número.
+     */
+    private static List<Integer> leerListaEnteros(String linea) throws HotelException {
+        List<Integer> numeros = new ArrayList<>();
+        try {
+            for (String parte : linea.split(",")) {
+                if (!parte.isBlank()) {
+                    numeros.add(Integer.parseInt(parte.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new HotelException("Lista de números inválida: " + linea);
+        }
+        return numeros;
+    }
+
     /**
      * Submenú y lógica para la gestión de huéspedes.
      */
     private static void gestionarHuespedes(Hotel hotel, Scanner scanner) throws HotelException {
         System.out.println("\n--- Gestión de Huéspedes ---");
         System.out.println("1. Registrar Nuevo Huésped");
+        System.out.println("2. Buscar Huésped (nombre, apellido, email o teléfono)");
         System.out.println("0. Volver al Menú Principal");
         System.out.print("Elige una opción: ");
         int opcion = scanner.nextInt();
@@ -227,6 +503,17 @@ public class HotelApp {
                 String telefono = scanner.nextLine();
                 hotel.registrarHuesped(nombre, apellido, dni, email, telefono);
                 break;
+            case 2:
+                System.out.print("Texto a buscar: ");
+                String texto = scanner.nextLine();
+                List<Huesped> encontrados = hotel.buscarHuespedes(texto, 10);
+                if (encontrados.isEmpty()) {
+                    System.out.println("No se encontraron huéspedes.");
+                }
+                for (Huesped h : encontrados) {
+                    System.out.println(h);
+                }
+                break;
             case 0:
                 // Volver al menú principal
                 break;
@@ -243,6 +530,8 @@ public class HotelApp {
         System.out.println("1. Crear Nueva Reserva");
         System.out.println("2. Cancelar Reserva");
         System.out.println("3. Listar Todas las Reservas");
+        System.out.println("4. Crear Reserva de Grupo");
+        System.out.println("5. Cotizar Estancia (todos los tipos)");
         System.out.println("0. Volver al Menú Principal");
         System.out.print("Elige una opción: ");
         int opcion = scanner.nextInt();
@@ -294,6 +583,55 @@ public class HotelApp {
             case 3:
                 hotel.listarReservas();
                 break;
+            case 4:
+                System.out.print("DNI del huésped titular del grupo: ");
+                String dniTitular = scanner.nextLine();
+                Optional<Huesped> optTitular = hotel.huespedDAO.findByDni(dniTitular);
+                if (!optTitular.isPresent()) {
+                    System.out.println("Huésped no encontrado con DNI " + dniTitular + ". Por favor, regístralo primero.");
+                    break;
+                }
+                System.out.print("Tipo de habitación (Simple, Doble, Suite): ");
+                String tipoGrupo = scanner.nextLine().trim();
+                System.out.print("Cantidad de habitaciones: ");
+                int cantHabitaciones = scanner.nextInt();
+                scanner.nextLine();
+                System.out.print("Fecha de Check-in (YYYY-MM-DD): ");
+                String checkinGrupoStr = scanner.nextLine();
+                System.out.print("Fecha de Check-out (YYYY-MM-DD): ");
+                String checkoutGrupoStr = scanner.nextLine();
+                LocalDate checkinGrupo;
+                LocalDate checkoutGrupo;
+                try {
+                    checkinGrupo = LocalDate.parse(checkinGrupoStr);
+                    checkoutGrupo = LocalDate.parse(checkoutGrupoStr);
+                } catch (DateTimeParseException e) {
+                    throw new HotelException("Formato de fecha inválido. Usa YYYY-MM-DD.");
+                }
+                System.out.print("Huéspedes por habitación: ");
+                int huespedesPorHabitacion = scanner.nextInt();
+                scanner.nextLine();
+
+                hotel.crearReservaGrupo(optTitular.get(), tipoGrupo, cantHabitaciones, checkinGrupo, checkoutGrupo, huespedesPorHabitacion);
+                break;
+            case 5:
+                System.out.print("Fecha de Check-in (YYYY-MM-DD): ");
+                String checkinCotizacionStr = scanner.nextLine();
+                System.out.print("Fecha de Check-out (YYYY-MM-DD): ");
+                String checkoutCotizacionStr = scanner.nextLine();
+                LocalDate checkinCotizacion;
+                LocalDate checkoutCotizacion;
+                try {
+                    checkinCotizacion = LocalDate.parse(checkinCotizacionStr);
+                    checkoutCotizacion = LocalDate.parse(checkoutCotizacionStr);
+                } catch (DateTimeParseException e) {
+                    throw new HotelException("Formato de fecha inválido. Usa YYYY-MM-DD.");
+                }
+                System.out.println("\n--- Cotización ---");
+                for (MotorPrecios.Cotizacion cotizacion : hotel.cotizarEstancia(checkinCotizacion, checkoutCotizacion).values()) {
+                    System.out.println(cotizacion);
+                }
+                break;
             case 0:
                 // Volver al menú principal
                 break;
@@ -309,6 +647,7 @@ public class HotelApp {
         System.out.println("\n--- Check-in / Check-out ---");
         System.out.println("1. Realizar Check-in");
         System.out.println("2. Realizar Check-out");
+        System.out.println("3. Check-out Masivo");
         System.out.println("0. Volver al Menú Principal");
         System.out.print("Elige una opción: ");
         int opcion = scanner.nextInt();
@@ -327,6 +666,101 @@ public class HotelApp {
                 scanner.nextLine();
                 hotel.realizarCheckOut(idReservaCheckOut);
                 break;
+            case 3:
+                System.out.print("IDs DE BASE DE DATOS de las reservas separados por comas: ");
+                List<Factura> facturas = hotel.realizarCheckOutMasivo(leerListaEnteros(scanner.nextLine()));
+                for (Factura factura : facturas) {
+                    System.out.println(factura);
+                }
+                break;
+            case 0:
+                // Volver al menú principal
+                break;
+            default:
+                System.out.println("Opción no válida.");
+        }
+    }
+
+    /**
+     * Submenú para exportar e importar el estado del hotel en un archivo de snapshot.
+     */
+    private static void gestionarSnapshot(SnapshotHotel snapshot, Scanner scanner) throws HotelException {
+        System.out.println("\n--- Snapshot del Hotel ---");
+        System.out.println("1. Exportar habitaciones, huéspedes y reservas a un archivo");
+        System.out.println("2. Importar un snapshot (sobre una base de datos vacía)");
+        System.out.println("0. Volver al Menú Principal");
+        System.out.print("Elige una opción: ");
+        int opcion = scanner.nextInt();
+        scanner.nextLine(); // Consumir salto de línea
+
+        switch (opcion) {
+            case 1:
+                System.out.print("Ruta del archivo a crear: ");
+                snapshot.exportar(Paths.get(scanner.nextLine().trim()));
+                break;
+            case 2:
+                System.out.print("Ruta del archivo a importar: ");
+                snapshot.importar(Paths.get(scanner.nextLine().trim()));
+                break;
+            case 0:
+                break;
+            default:
+                System.out.println("Opción no válida.");
+        }
+    }
+
+    /**
+     * Submenú y lógica para servicios adicionales y facturación (RFS08, RFS09, RFS10).
+     */
+    private static void gestionarFacturacion(Hotel hotel, Scanner scanner) throws HotelException {
+        System.out.println("\n--- Servicios y Facturación ---");
+        System.out.println("1. Agregar Servicio Adicional");
+        System.out.println("2. Listar Servicios Adicionales");
+        System.out.println("3. Registrar Cargo a una Reserva");
+        System.out.println("4. Ver Factura de una Reserva");
+        System.out.println("5. Registrar Pago de Factura");
+        System.out.println("0. Volver al Menú Principal");
+        System.out.print("Elige una opción: ");
+        int opcion = scanner.nextInt();
+        scanner.nextLine();
+
+        switch (opcion) {
+            case 1:
+                System.out.print("Nombre del servicio: ");
+                String nombreServicio = scanner.nextLine();
+                System.out.print("Precio del servicio: ");
+                String precioStr = scanner.nextLine();
+                try {
+                    hotel.agregarServicioAdicional(nombreServicio, new BigDecimal(precioStr.trim()));
+                } catch (NumberFormatException e) {
+                    throw new HotelException("Precio inválido: " + precioStr);
+                }
+                break;
+            case 2:
+                hotel.listarServiciosAdicionales();
+                break;
+            case 3:
+                System.out.print("ID DE BASE DE DATOS de la reserva: ");
+                int idReservaCargo = scanner.nextInt();
+                System.out.print("ID del servicio: ");
+                int idServicio = scanner.nextInt();
+                System.out.print("Cantidad: ");
+                int cantidad = scanner.nextInt();
+                scanner.nextLine();
+                hotel.registrarCargoAdicional(idReservaCargo, idServicio, cantidad);
+                break;
+            case 4:
+                System.out.print("ID DE BASE DE DATOS de la reserva: ");
+                int idReservaFactura = scanner.nextInt();
+                scanner.nextLine();
+                hotel.mostrarFactura(idReservaFactura);
+                break;
+            case 5:
+                System.out.print("ID de la factura: ");
+                int idFactura = scanner.nextInt();
+                scanner.nextLine();
+                hotel.registrarPagoFactura(idFactura);
+                break;
             case 0:
                 // Volver al menú principal
                 break;
@@ -338,10 +772,17 @@ public class HotelApp {
     /**
      * Submenú y lógica para reportes.
      */
-    private static void gestionarReportes(Hotel hotel) throws HotelException {
+    private static void gestionarReportes(Hotel hotel, PlanificadorTareas tareas) throws HotelException {
         System.out.println("\n--- Reportes ---");
         System.out.println("1. Reporte de Ocupación Actual");
         System.out.println("2. Calcular Ingresos Totales");
+        System.out.println("3. Reporte de la Cadena (todos los hoteles)");
+        System.out.println("4. Métricas de Consultas Compartidas");
+        System.out.println("5. Análisis Histórico de Reservas (en memoria)");
+        System.out.println("6. Inventario y Sobreventa por Tipo");
+        System.out.println("7. Tareas Programadas (no-show, vencidas, limpieza)");
+        System.out.println("8. Escritura Diferida de Estados de Habitación");
+        System.out.println("9. Tablero de Ocupación en Vivo (sin consultar la DB)");
         System.out.println("0. Volver al Menú Principal");
         System.out.print("Elige una opción: ");
         // Usar System.in directamente, no crear un nuevo Scanner aquí.
@@ -357,6 +798,34 @@ public class HotelApp {
             case 2:
                 hotel.calcularIngresosTotales(); // RFS16
                 break;
+            case 3:
+                crearCadena().mostrarReporteCadena();
+                break;
+            case 4:
+                mostrarMetricasConsultas();
+                break;
+            case 5:
+                hotel.mostrarAnalisisHistorico();
+                break;
+            case 6:
+                hotel.mostrarReporteInventario();
+                break;
+            case 7:
+                tareas.mostrarMetricas();
+                break;
+            case 8:
+                hotel.mostrarEscrituraDiferida();
+                break;
+            case 9:
+                if (tablero == null || tablero.isDesincronizado()) {
+                    if (tablero != null) {
+                        System.out.println("El tablero se perdió eventos: se vuelve a leer la ocupación de la DB.");
+                        tablero.close();
+                    }
+                    tablero = hotel.abrirTableroOcupacion();
+                }
+                tablero.mostrar();
+                break;
             case 0:
                 // Volver al menú principal
                 break;
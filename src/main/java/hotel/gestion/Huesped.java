@@ -17,7 +17,7 @@ public class Huesped {
     /**
      * Constructor de la clase Huesped.
      * Ahora 'idHuesped' puede ser un ID temporal o un marcador hasta que la DB lo genere.
-     * @param idHuesped ID externo/temporal del huésped.
+     * @param idHuesped ID externo/temporal del huésped (null: se usa el ID de la DB).
      * @param nombre Nombre del huésped.
      * @param apellido Apellido del huésped.
      * @param dni DNI del huésped.
@@ -46,7 +46,7 @@ public class Huesped {
     }
 
     public String getIdHuesped() {
-        return idHuesped;
+        return idHuesped != null ? idHuesped : String.valueOf(idHuespedInterno);
     }
 
     public String getNombre() {
@@ -71,7 +71,7 @@ public class Huesped {
 
     @Override
     public String toString() {
-        return "Huésped [ID_DB: " + idHuespedInterno + ", ID_Ext: " + idHuesped + ", Nombre: " + nombre + " " + apellido +
+        return "Huésped [ID_DB: " + idHuespedInterno + ", ID_Ext: " + getIdHuesped() + ", Nombre: " + nombre + " " + apellido +
                 ", DNI: " + dni + ", Email: " + email + ", Teléfono: " + telefono + "]";
     }
 }
\ No newline at end of file
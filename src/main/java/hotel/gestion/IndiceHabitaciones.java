@@ -0,0 +1,295 @@
+package hotel.gestion;
+
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria del inventario de habitaciones para el buscador de habitaciones.
+ * Mantiene, por cada tipo, las habitaciones ordenadas por precio por noche (calcularCostoNoche, el precio
+ * que se muestra al huésped) y, por cada habitación, los intervalos de sus reservas activas
+ * ('Confirmada' o 'Check-in') para resolver la disponibilidad por fechas sin consultar la DB.
+ *
+ * Las búsquedas no toman locks: los arrays ordenados se reemplazan completos cuando cambia el inventario
+ * (copy-on-write) y el estado y las reservas de cada habitación se publican en campos volatile.
+ * El índice se actualiza desde Hotel; los cambios hechos sobre la DB por otros procesos no se ven
+ * hasta volver a cargarlo.
+ */
+public class IndiceHabitaciones {
+
+    /**
+     * Entrada del índice: datos inmutables de la habitación más su estado y reservas activas.
+     */
+    private static final class Entrada {
+        final int dbId;
+        final int numero;
+        final String tipo;
+        final double precioPorNoche;
+        final double costoNoche;
+        volatile String estado;
+        // Reservas activas como tripletas [idReserva, díaCheckin, díaCheckout] (días desde epoch)
+        volatile int[] reservas = new int[0];
+        // Entrada que reemplazó a esta (actualizarHabitacion): los cambios de reservas que lleguen tarde pasan a ella
+        Entrada sucesora;
+
+        Entrada(Habitacion h) {
+            this.dbId = h.getDbId();
+            this.numero = h.getNumero();
+            this.tipo = h.getTipo();
+            this.precioPorNoche = h.getPrecioPorNoche();
+            this.costoNoche = h.calcularCostoNoche();
+            this.estado = h.getEstado();
+        }
+
+        boolean libreEntre(long desde, long hasta) {
+            int[] r = reservas;
+            for (int i = 0; i < r.length; i += 3) {
+                if (r[i + 1] < hasta && r[i + 2] > desde) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized void agregarReserva(int idReserva, int desde, int hasta) {
+            if (sucesora != null) {
+                sucesora.agregarReserva(idReserva, desde, hasta);
+                return;
+            }
+            int[] r = reservas;
+            for (int i = 0; i < r.length; i += 3) {
+                if (r[i] == idReserva) {
+                    return; // Ya registrada
+                }
+            }
+            int[] nuevas = Arrays.copyOf(r, r.length + 3);
+            nuevas[r.length] = idReserva;
+            nuevas[r.length + 1] = desde;
+            nuevas[r.length + 2] = hasta;
+            reservas = nuevas;
+        }
+
+        synchronized void quitarReserva(int idReserva) {
+            if (sucesora != null) {
+                sucesora.quitarReserva(idReserva);
+                return;
+            }
+            int[] r = reservas;
+            for (int i = 0; i < r.length; i += 3) {
+                if (r[i] == idReserva) {
+                    int[] nuevas = new int[r.length - 3];
+                    System.arraycopy(r, 0, nuevas, 0, i);
+                    System.arraycopy(r, i + 3, nuevas, i, r.length - i - 3);
+                    reservas = nuevas;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Pasa las reservas a la entrada que reemplaza a esta. Con el lock de la entrada, para que ninguna
+         * reserva que se agregue o quite a la vez se pierda: o entra en la copia o se reenvía a la sucesora.
+         */
+        synchronized void reemplazarPor(Entrada nueva) {
+            nueva.reservas = reservas;
+            sucesora = nueva;
+        }
+
+        Habitacion aHabitacion() {
+            Habitacion h;
+            switch (tipo) {
+                case "Simple":
+                    h = new HabitacionSimple(numero, precioPorNoche);
+                    break;
+                case "Doble":
+                    h = new HabitacionDoble(numero, precioPorNoche);
+                    break;
+                default:
+                    h = new HabitacionSuite(numero, precioPorNoche);
+            }
+            h.setDbId(dbId);
+            h.setEstado(estado);
+            return h;
+        }
+    }
+
+    private static final Comparator<Entrada> POR_PRECIO =
+            Comparator.<Entrada>comparingDouble(e -> e.costoNoche).thenComparingInt(e -> e.numero);
+
+    // Tipo -> habitaciones de ese tipo ordenadas por precio. El mapa y los arrays se reemplazan, nunca se modifican.
+    private volatile Map<String, Entrada[]> porTipo = new HashMap<>();
+    private final Map<Integer, Entrada> porNumero = new ConcurrentHashMap<>();
+    private final Map<Integer, Entrada> porDbId = new ConcurrentHashMap<>();
+
+    /**
+     * (Re)carga el índice completo.
+     * @param habitaciones Todas las habitaciones del hotel.
+     * @param reservasActivas Las reservas en estado 'Confirmada' o 'Check-in'.
+     */
+    public synchronized void cargar(Collection<Habitacion> habitaciones, Collection<Reserva> reservasActivas) {
+        porNumero.clear();
+        porDbId.clear();
+        for (Habitacion h : habitaciones) {
+            Entrada e = new Entrada(h);
+            porNumero.put(e.numero, e);
+            porDbId.put(e.dbId, e);
+        }
+        for (Reserva r : reservasActivas) {
+            registrarReserva(r);
+        }
+        reconstruirOrden();
+    }
+
+    /**
+     * Agrega una habitación al índice o reemplaza sus datos (tipo, precio, estado) si ya estaba.
+     * @param habitacion La habitación agregada o modificada.
+     */
+    public synchronized void actualizarHabitacion(Habitacion habitacion) {
+        Entrada anterior = porNumero.get(habitacion.getNumero());
+        Entrada nueva = new Entrada(habitacion);
+        if (anterior != null) {
+            anterior.reemplazarPor(nueva);
+            porDbId.remove(anterior.dbId);
+        }
+        porNumero.put(nueva.numero, nueva);
+        porDbId.put(nueva.dbId, nueva);
+        reconstruirOrden();
+    }
+
+    /**
+     * Actualiza el estado de una habitación. No cambia el orden por precio, por lo que no reconstruye nada.
+     * @param numeroHabitacion El número de la habitación.
+     * @param estado El nuevo estado.
+     */
+    public void actualizarEstado(int numeroHabitacion, String estado) {
+        Entrada e = porNumero.get(numeroHabitacion);
+        if (e != null) {
+            e.estado = estado;
+        }
+    }
+
+    /**
+     * Registra una reserva activa para que su habitación deje de estar libre en esas fechas.
+     * @param reserva La reserva (debe tener ID de DB y habitación persistida).
+     */
+    public void registrarReserva(Reserva reserva) {
+        Entrada e = porDbId.get(reserva.getHabitacion().getDbId());
+        if (e != null) {
+            e.agregarReserva(reserva.getIdReservaInterno(),
+                    (int) reserva.getFechaCheckin().toEpochDay(), (int) reserva.getFechaCheckout().toEpochDay());
+        }
+    }
+
+    /**
+     * Quita una reserva que ya no está activa (cancelada o finalizada).
+     * @param reserva La reserva liberada.
+     */
+    public void liberarReserva(Reserva reserva) {
+        Entrada e = porDbId.get(reserva.getHabitacion().getDbId());
+        if (e != null) {
+            e.quitarReserva(reserva.getIdReservaInterno());
+        }
+    }
+
+    /**
+     * Busca habitaciones que cumplan todos los criterios indicados, ordenadas por precio por noche ascendente.
+     * Los criterios nulos no filtran.
+     * @param tipo El tipo de habitación (Simple, Doble, Suite) o null para cualquiera.
+     * @param precioMin Precio mínimo por noche (inclusive) o null.
+     * @param precioMax Precio máximo por noche (inclusive) o null.
+     * @param estado El estado actual de la habitación o null para cualquiera.
+     * @param desde Fecha de check-in deseada o null para no filtrar por fechas.
+     * @param hasta Fecha de check-out deseada (obligatoria si se indica 'desde').
+     * @param limite Número máximo de resultados.
+     * @return Copias de las habitaciones encontradas, de la más barata a la más cara.
+     */
+    public List<Habitacion> buscar(String tipo, Double precioMin, Double precioMax, String estado,
+                                   LocalDate desde, LocalDate hasta, int limite) {
+        double min = precioMin != null ? precioMin : Double.NEGATIVE_INFINITY;
+        double max = precioMax != null ? precioMax : Double.POSITIVE_INFINITY;
+        long diaDesde = desde != null ? desde.toEpochDay() : 0;
+        long diaHasta = hasta != null ? hasta.toEpochDay() : 0;
+        boolean filtrarFechas = desde != null && hasta != null;
+
+        Map<String, Entrada[]> indice = porTipo;
+        List<Entrada> encontradas = new ArrayList<>();
+        for (Map.Entry<String, Entrada[]> grupo : indice.entrySet()) {
+            if (tipo != null && !tipo.equalsIgnoreCase(grupo.getKey())) {
+                continue;
+            }
+            Entrada[] ordenadas = grupo.getValue();
+            int recogidas = 0;
+            for (int i = primeraConPrecio(ordenadas, min); i < ordenadas.length && recogidas < limite; i++) {
+                Entrada e = ordenadas[i];
+                if (e.costoNoche > max) {
+                    break; // Ordenadas por precio: el resto es más caro
+                }
+                if (estado != null && !estado.equals(e.estado)) {
+                    continue;
+                }
+                if (filtrarFechas && !e.libreEntre(diaDesde, diaHasta)) {
+                    continue;
+                }
+                encontradas.add(e);
+                recogidas++;
+            }
+        }
+        if (tipo == null) {
+            encontradas.sort(POR_PRECIO); // Mezcla de los tipos
+        }
+
+        List<Habitacion> resultado = new ArrayList<>(Math.min(limite, encontradas.size()));
+        for (int i = 0; i < encontradas.size() && i < limite; i++) {
+            resultado.add(encontradas.get(i).aHabitacion());
+        }
+        return resultado;
+    }
+
+    /**
+     * @return El número de habitaciones indexadas.
+     */
+    public int tamano() {
+        return porNumero.size();
+    }
+
+    /**
+     * Búsqueda binaria de la primera posición con costo por noche mayor o igual que 'min'.
+     */
+    private static int primeraConPrecio(Entrada[] ordenadas, double min) {
+        int lo = 0;
+        int hi = ordenadas.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ordenadas[mid].costoNoche < min) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Vuelve a generar los arrays ordenados por tipo y los publica de una sola vez.
+     */
+    private void reconstruirOrden() {
+        Map<String, List<Entrada>> agrupadas = new HashMap<>();
+        for (Entrada e : porNumero.values()) {
+            agrupadas.computeIfAbsent(e.tipo, k -> new ArrayList<>()).add(e);
+        }
+        Map<String, Entrada[]> nuevo = new HashMap<>();
+        for (Map.Entry<String, List<Entrada>> grupo : agrupadas.entrySet()) {
+            Entrada[] ordenadas = grupo.getValue().toArray(new Entrada[0]);
+            Arrays.sort(ordenadas, POR_PRECIO);
+            nuevo.put(grupo.getKey(), ordenadas);
+        }
+        porTipo = nuevo;
+    }
+}
@@ -0,0 +1,407 @@
+package hotel.gestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para buscar huéspedes por parte del nombre, apellido, email o teléfono.
+ *
+ * Los textos se normalizan (minúsculas, sin tildes, separados en palabras por cualquier carácter que no sea
+ * letra o dígito) y cada palabra se indexa por sus trigramas más uno o dos n-gramas de inicio de palabra,
+ * para que las consultas de una o dos letras busquen por prefijo. Cada n-grama apunta a la lista ordenada
+ * de huéspedes que lo contienen; una consulta intersecta las listas de todos sus n-gramas, confirma
+ * cada candidato sobre el texto y ordena los resultados por relevancia: coincidencia al inicio de una palabra
+ * antes que en medio, y en nombre o apellido antes que en email o teléfono. El teléfono se indexa solo
+ * con sus dígitos. Para que las consultas de autocompletado respondan enseguida, una consulta poco selectiva
+ * (ej: "ma") deja de confirmar candidatos al reunir 20 aciertos por resultado pedido y ordena solo esos;
+ * al escribir más letras la lista se vuelve completa.
+ *
+ * Las búsquedas comparten un lock de lectura; las altas, cambios y bajas toman el de escritura. Un cambio
+ * deja la entrada anterior sin uso y agrega una nueva; el índice se reconstruye cuando las entradas sin uso
+ * superan a las vigentes. Se actualiza desde Hotel, como IndiceHabitaciones.
+ */
+public class IndiceHuespedes {
+    // Aciertos que se ordenan como máximo por cada resultado pedido (las consultas poco selectivas se cortan)
+    private static final int ACIERTOS_POR_RESULTADO = 20;
+    private static final int MIN_ACIERTOS = 200;
+    private static final char MARCA_INICIO = 1;
+
+    /**
+     * Lista ordenada de posiciones de huéspedes (solo crece; las bajas se saltan al buscar).
+     */
+    private static final class Lista {
+        int[] posiciones = new int[4];
+        int tamano;
+
+        void agregar(int posicion) {
+            if (tamano > 0 && posiciones[tamano - 1] == posicion) {
+                return; // El n-grama se repite en el mismo huésped
+            }
+            if (tamano == posiciones.length) {
+                posiciones = Arrays.copyOf(posiciones, tamano * 2);
+            }
+            posiciones[tamano++] = posicion;
+        }
+
+        /**
+         * Búsqueda exponencial desde 'desde' de la primera posición con valor mayor o igual que 'objetivo'.
+         * @return El índice encontrado, o tamano si no hay ninguno.
+         */
+        int avanzar(int desde, int objetivo) {
+            if (desde >= tamano || posiciones[desde] >= objetivo) {
+                return desde;
+            }
+            int bajo = desde;
+            int salto = 1;
+            int alto = desde + 1;
+            while (alto < tamano && posiciones[alto] < objetivo) {
+                bajo = alto;
+                salto <<= 1;
+                alto = desde + salto;
+            }
+            int r = Arrays.binarySearch(posiciones, bajo + 1, Math.min(alto, tamano), objetivo);
+            return r >= 0 ? r : -(r + 1);
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Lista> listas = new HashMap<>();
+    private final Map<Integer, Integer> posicionPorId = new HashMap<>();
+    private Huesped[] huespedes = new Huesped[1024];
+    // Por posición: nombre, apellido, email y teléfono normalizados
+    private String[][] textos = new String[1024][];
+    private int usadas;
+
+    /**
+     * (Re)carga el índice completo.
+     * @param todos Todos los huéspedes (persistidos, con ID de DB).
+     */
+    public void cargar(Collection<Huesped> todos) {
+        lock.writeLock().lock();
+        try {
+            listas.clear();
+            posicionPorId.clear();
+            huespedes = new Huesped[Math.max(1024, todos.size())];
+            textos = new String[huespedes.length][];
+            usadas = 0;
+            for (Huesped h : todos) {
+                agregar(copiar(h));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega un huésped al índice o reemplaza sus datos si ya estaba.
+     * @param huesped El huésped guardado o modificado.
+     */
+    public void actualizar(Huesped huesped) {
+        lock.writeLock().lock();
+        try {
+            quitarSinLock(huesped.getIdHuespedInterno());
+            agregar(copiar(huesped));
+            if (usadas - posicionPorId.size() > Math.max(1024, posicionPorId.size())) {
+                reconstruir();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un huésped del índice.
+     * @param idHuesped El ID de DB del huésped eliminado.
+     */
+    public void quitar(int idHuesped) {
+        lock.writeLock().lock();
+        try {
+            quitarSinLock(idHuesped);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca huéspedes cuyo nombre, apellido, email o teléfono contengan todas las palabras de la consulta
+     * (por ejemplo "garc 600" o "ana@"), de más a menos relevante.
+     * @param consulta El texto buscado (parte de una o varias palabras).
+     * @param limite Número máximo de resultados.
+     * @return Copias de los huéspedes encontrados.
+     */
+    public List<Huesped> buscar(String consulta, int limite) {
+        String[] palabras = palabras(consulta);
+        if (palabras.length == 0 || limite <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            List<Lista> requeridas = new ArrayList<>();
+            for (String palabra : palabras) {
+                for (long ngrama : ngramasConsulta(palabra)) {
+                    Lista lista = listas.get(ngrama);
+                    if (lista == null) {
+                        return new ArrayList<>(); // Algún n-grama no aparece en ningún huésped
+                    }
+                    requeridas.add(lista);
+                }
+            }
+            requeridas.sort((a, b) -> Integer.compare(a.tamano, b.tamano));
+
+            // Intersección por saltos (leapfrog): cada lista avanza hasta la posición candidata actual y, si la
+            // supera, esa pasa a ser la candidata. Las posiciones presentes en todas se confirman sobre el texto.
+            int maximo = (int) Math.min(requeridas.get(0).tamano,
+                    Math.max((long) limite * ACIERTOS_POR_RESULTADO, MIN_ACIERTOS));
+            int[] puntos = new int[maximo];
+            int[] encontrados = new int[maximo];
+            int total = 0;
+            int[] cursores = new int[requeridas.size()];
+            int objetivo = 0;
+            int acuerdos = 0;
+            for (int j = 0; total < maximo; j = (j + 1) % cursores.length) {
+                Lista lista = requeridas.get(j);
+                int c = lista.avanzar(cursores[j], objetivo);
+                if (c == lista.tamano) {
+                    break; // Una lista se agotó: no hay más posiciones comunes
+                }
+                cursores[j] = c;
+                int valor = lista.posiciones[c];
+                if (valor != objetivo) {
+                    objetivo = valor;
+                    acuerdos = 1;
+                } else {
+                    acuerdos++;
+                }
+                if (acuerdos < cursores.length) {
+                    continue;
+                }
+                if (huespedes[objetivo] != null) {
+                    int puntuacion = puntuar(textos[objetivo], palabras);
+                    if (puntuacion > 0) {
+                        encontrados[total] = objetivo;
+                        puntos[total] = puntuacion;
+                        total++;
+                    }
+                }
+                objetivo++;
+                acuerdos = 0;
+            }
+
+            Integer[] orden = new Integer[total];
+            for (int i = 0; i < total; i++) {
+                orden[i] = i;
+            }
+            Arrays.sort(orden, (a, b) -> {
+                if (puntos[a] != puntos[b]) {
+                    return Integer.compare(puntos[b], puntos[a]);
+                }
+                String[] ta = textos[encontrados[a]];
+                String[] tb = textos[encontrados[b]];
+                int c = ta[1].compareTo(tb[1]);
+                return c != 0 ? c : ta[0].compareTo(tb[0]);
+            });
+            List<Huesped> resultado = new ArrayList<>(Math.min(limite, total));
+            for (int i = 0; i < total && i < limite; i++) {
+                resultado.add(copiar(huespedes[encontrados[orden[i]]]));
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return El número de huéspedes indexados.
+     */
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return posicionPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void agregar(Huesped huesped) {
+        if (usadas == huespedes.length) {
+            huespedes = Arrays.copyOf(huespedes, usadas * 2);
+            textos = Arrays.copyOf(textos, usadas * 2);
+        }
+        int posicion = usadas++;
+        String[] campos = {
+                normalizar(huesped.getNombre()), normalizar(huesped.getApellido()),
+                normalizar(huesped.getEmail()), soloDigitos(huesped.getTelefono())};
+        huespedes[posicion] = huesped;
+        textos[posicion] = campos;
+        posicionPorId.put(huesped.getIdHuespedInterno(), posicion);
+        for (String campo : campos) {
+            for (String palabra : campo.split(" ")) {
+                indexarPalabra(palabra, posicion);
+            }
+        }
+    }
+
+    private void quitarSinLock(int idHuesped) {
+        Integer posicion = posicionPorId.remove(idHuesped);
+        if (posicion != null) {
+            huespedes[posicion] = null;
+            textos[posicion] = null;
+        }
+    }
+
+    /**
+     * Vuelve a indexar solo los huéspedes vigentes, descartando las entradas sin uso.
+     */
+    private void reconstruir() {
+        List<Huesped> vigentes = new ArrayList<>(posicionPorId.size());
+        for (int i = 0; i < usadas; i++) {
+            if (huespedes[i] != null) {
+                vigentes.add(huespedes[i]);
+            }
+        }
+        listas.clear();
+        posicionPorId.clear();
+        huespedes = new Huesped[Math.max(1024, vigentes.size() * 2)];
+        textos = new String[huespedes.length][];
+        usadas = 0;
+        for (Huesped h : vigentes) {
+            agregar(h);
+        }
+    }
+
+    private void indexarPalabra(String palabra, int posicion) {
+        int n = palabra.length();
+        if (n == 0) {
+            return;
+        }
+        listas.computeIfAbsent(ngrama(MARCA_INICIO, MARCA_INICIO, palabra.charAt(0)), k -> new Lista()).agregar(posicion);
+        if (n >= 2) {
+            listas.computeIfAbsent(ngrama(MARCA_INICIO, palabra.charAt(0), palabra.charAt(1)), k -> new Lista()).agregar(posicion);
+        }
+        for (int i = 0; i + 3 <= n; i++) {
+            listas.computeIfAbsent(ngrama(palabra.charAt(i), palabra.charAt(i + 1), palabra.charAt(i + 2)), k -> new Lista()).agregar(posicion);
+        }
+    }
+
+    /**
+     * N-gramas que debe tener un huésped para contener la palabra: de una o dos letras, por prefijo;
+     * de tres o más, sus trigramas (en cualquier posición de una palabra).
+     */
+    private static long[] ngramasConsulta(String palabra) {
+        int n = palabra.length();
+        if (n == 1) {
+            return new long[]{ngrama(MARCA_INICIO, MARCA_INICIO, palabra.charAt(0))};
+        }
+        if (n == 2) {
+            return new long[]{ngrama(MARCA_INICIO, palabra.charAt(0), palabra.charAt(1))};
+        }
+        long[] ngramas = new long[n - 2];
+        for (int i = 0; i + 3 <= n; i++) {
+            ngramas[i] = ngrama(palabra.charAt(i), palabra.charAt(i + 1), palabra.charAt(i + 2));
+        }
+        return ngramas;
+    }
+
+    /**
+     * Puntúa un huésped para la consulta: por cada palabra, la mejor de sus coincidencias
+     * (4 inicio de palabra en nombre/apellido, 3 inicio de palabra en email/teléfono, 2 y 1 en medio
+     * de una palabra, más 1 si es la palabra completa). Retorna 0 si alguna palabra no aparece.
+     */
+    private static int puntuar(String[] campos, String[] palabras) {
+        int total = 0;
+        for (String palabra : palabras) {
+            int mejor = 0;
+            for (int c = 0; c < campos.length; c++) {
+                String campo = campos[c];
+                for (int i = campo.indexOf(palabra); i >= 0; i = campo.indexOf(palabra, i + 1)) {
+                    boolean inicio = i == 0 || campo.charAt(i - 1) == ' ';
+                    int fin = i + palabra.length();
+                    boolean completa = inicio && (fin == campo.length() || campo.charAt(fin) == ' ');
+                    int puntos = (c < 2 ? 2 : 1) + (inicio ? 2 : 0) + (completa ? 1 : 0);
+                    mejor = Math.max(mejor, puntos);
+                }
+            }
+            if (mejor == 0) {
+                return 0;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    private static long ngrama(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static String[] palabras(String texto) {
+        String normalizado = normalizar(texto);
+        return normalizado.isEmpty() ? new String[0] : normalizado.split(" ");
+    }
+
+    /**
+     * Pasa a minúsculas, quita las tildes y deja las palabras separadas por un solo espacio.
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = esAscii(texto) ? texto : Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(sinTildes.length());
+        boolean separador = true;
+        for (int i = 0; i < sinTildes.length(); i++) {
+            char ch = sinTildes.charAt(i);
+            if (Character.getType(ch) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(ch)) {
+                sb.append(Character.toLowerCase(ch));
+                separador = false;
+            } else if (!separador) {
+                sb.append(' ');
+                separador = true;
+            }
+        }
+        int largo = sb.length();
+        if (largo > 0 && sb.charAt(largo - 1) == ' ') {
+            sb.setLength(largo - 1);
+        }
+        return sb.toString();
+    }
+
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * El teléfono se indexa como una sola palabra de dígitos, para encontrarlo con o sin separadores.
+     */
+    private static String soloDigitos(String telefono) {
+        if (telefono == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(telefono.length());
+        for (int i = 0; i < telefono.length(); i++) {
+            if (Character.isDigit(telefono.charAt(i))) {
+                sb.append(telefono.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Huesped copiar(Huesped h) {
+        Huesped copia = new Huesped(h.getIdHuesped(), h.getNombre(), h.getApellido(), h.getDni(), h.getEmail(), h.getTelefono());
+        copia.setIdHuespedInterno(h.getIdHuespedInterno());
+        return copia;
+    }
+}
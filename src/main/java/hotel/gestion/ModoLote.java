@@ -0,0 +1,402 @@
+package hotel.gestion;
+
+import hotel.config.Configuracion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Modo por lotes de HotelApp: ejecuta comandos de un archivo (o de la entrada estándar) sin menús ni preguntas,
+ * para las operaciones nocturnas. Se activa con "--lote &lt;archivo&gt;" ("--lote -" = entrada estándar).
+ *
+ * Cada línea es un comando con sus argumentos separados por ';' (se ignoran las líneas vacías y las que empiezan
+ * por '#'). Un argumento "$N" se sustituye por el ID que devolvió el comando de la línea N (huésped o reserva):
+ * - habitacion.estado;&lt;numero&gt;;&lt;estado&gt;
+ * - huesped.registrar;&lt;nombre&gt;;&lt;apellido&gt;;&lt;dni&gt;;&lt;email&gt;;&lt;telefono&gt;     (devuelve el ID del huésped)
+ * - reserva.crear;&lt;dni&gt;;&lt;habitacion&gt;;&lt;checkin&gt;;&lt;checkout&gt;;&lt;huespedes&gt;  (devuelve el ID de la reserva)
+ * - reserva.cancelar;&lt;id&gt;, checkin;&lt;id&gt;, checkout;&lt;id&gt;
+ * - cargo;&lt;idReserva&gt;;&lt;idServicio&gt;;&lt;cantidad&gt;, pago;&lt;idFactura&gt;
+ * - noshow;&lt;diasGracia&gt;, vencidas, limpieza;&lt;slaMinutos&gt;          (devuelven el número de filas)
+ *
+ * La salida estándar es solo para resultados, una línea por comando separada por tabuladores:
+ * "línea  OK|ERROR  comando  ms  detalle". Los mensajes de la aplicación y el resumen final (comandos por
+ * segundo y latencia por comando) van a la salida de errores.
+ *
+ * Las etapas se solapan: un hilo lee y analiza las líneas mientras se ejecutan las anteriores (cola de
+ * hotel.lote.cola comandos), y la salida se escribe con buffer. Los check-out consecutivos que ya están en cola
+ * se agrupan, hasta hotel.lote.tamanoLote, en un solo realizarCheckOutMasivo (una transacción por lotes); el
+ * resto de comandos se ejecutan uno a uno y en orden. Cada comando toma sus conexiones de los DAOs del hotel,
+ * como el menú: del DataSource de Conexion (con hotel.db.pool.maximo = 0, una conexión nueva por operación),
+ * sin mantener una conexión propia durante todo el lote. Con la escritura diferida de habitaciones activa, los
+ * cambios de estado de limpieza también se escriben por lotes.
+ */
+public class ModoLote {
+    private static final Set<String> COMANDOS = new HashSet<>(Arrays.asList(
+            "habitacion.estado", "huesped.registrar", "reserva.crear", "reserva.cancelar", "checkin", "checkout",
+            "cargo", "pago", "noshow", "vencidas", "limpieza"));
+
+    /**
+     * Una línea del archivo, ya separada en comando y argumentos.
+     */
+    private static final class Comando {
+        final int linea;
+        final String nombre;
+        final String[] argumentos;
+        final String error; // Error de sintaxis, se informa al ejecutarlo para respetar el orden
+
+        Comando(int linea, String nombre, String[] argumentos, String error) {
+            this.linea = linea;
+            this.nombre = nombre;
+            this.argumentos = argumentos;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Latencias de un tipo de comando, en nanosegundos.
+     */
+    private static final class Latencias {
+        long[] muestras = new long[1024];
+        int cantidad;
+        int errores;
+
+        void registrar(long nanos, boolean ok) {
+            if (cantidad == muestras.length) {
+                muestras = Arrays.copyOf(muestras, cantidad * 2);
+            }
+            muestras[cantidad++] = nanos;
+            if (!ok) {
+                errores++;
+            }
+        }
+
+        String percentil(long[] ordenadas, double p) {
+            int i = (int) Math.ceil(p * ordenadas.length) - 1;
+            return String.format("%.2f", ordenadas[Math.max(0, Math.min(ordenadas.length - 1, i))] / 1e6);
+        }
+
+        String resumen() {
+            long[] ordenadas = Arrays.copyOf(muestras, cantidad);
+            Arrays.sort(ordenadas);
+            return cantidad + " (" + errores + " errores), ms p50 " + percentil(ordenadas, 0.50) + ", p95 " +
+                    percentil(ordenadas, 0.95) + ", p99 " + percentil(ordenadas, 0.99) + ", máx " + percentil(ordenadas, 1.0);
+        }
+    }
+
+    private static final Comando FIN = new Comando(-1, "", new String[0], null);
+
+    private final Hotel hotel;
+    private final PrintWriter salida;
+    private final Map<Integer, String> idsPorLinea = new HashMap<>();
+    private final Map<String, Latencias> latencias = new LinkedHashMap<>();
+    private int errores;
+
+    /**
+     * Constructor de la clase ModoLote.
+     * @param hotel El hotel sobre el que se ejecutan los comandos.
+     * @param salida Donde se escriben los resultados (normalmente la salida estándar original).
+     */
+    public ModoLote(Hotel hotel, PrintStream salida) {
+        this.hotel = hotel;
+        this.salida = new PrintWriter(salida, false);
+    }
+
+    /**
+     * Ejecuta todos los comandos y muestra el resumen en la salida de errores.
+     * @param entrada El archivo de comandos.
+     * @return El número de comandos que fallaron.
+     */
+    public int ejecutar(BufferedReader entrada) {
+        BlockingQueue<Comando> cola = new ArrayBlockingQueue<>(Math.max(16, Configuracion.getInt("hotel.lote.cola", 4096)));
+        int tamanoLote = Math.max(1, Configuracion.getInt("hotel.lote.tamanoLote", 200));
+        Thread lector = new Thread(() -> leer(entrada, cola), "lote-lector");
+        lector.setDaemon(true);
+        lector.start();
+
+        long inicio = System.nanoTime();
+        int comandos = 0;
+        try {
+            Comando comando = cola.take();
+            while (comando != FIN) {
+                Comando siguiente;
+                if (comando.error == null && comando.nombre.equals("checkout")) {
+                    // Agrupa los check-out consecutivos que ya están leídos, sin esperar a que lleguen más
+                    List<Comando> grupo = new ArrayList<>();
+                    grupo.add(comando);
+                    siguiente = cola.poll();
+                    while (siguiente != null && grupo.size() < tamanoLote && siguiente.error == null
+                            && siguiente.nombre.equals("checkout")) {
+                        grupo.add(siguiente);
+                        siguiente = cola.poll();
+                    }
+                    ejecutarCheckOuts(grupo);
+                    comandos += grupo.size();
+                    if (siguiente == null) {
+                        siguiente = cola.take();
+                    }
+                } else {
+                    ejecutarUno(comando);
+                    comandos++;
+                    siguiente = cola.take();
+                }
+                comando = siguiente;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Modo lote interrumpido.");
+        }
+        salida.flush();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        System.err.println("\n--- Resumen del Lote ---");
+        System.err.println("Comandos: " + comandos + " en " + String.format("%.2f", segundos) + " s (" +
+                String.format("%.0f", segundos > 0 ? comandos / segundos : 0) + " por segundo), errores: " + errores);
+        for (Map.Entry<String, Latencias> e : latencias.entrySet()) {
+            System.err.println(e.getKey() + ": " + e.getValue().resumen());
+        }
+        System.err.println("------------------------------------");
+        return errores;
+    }
+
+    /**
+     * Etapa de lectura: analiza las líneas y las deja en la cola; al terminar (o si falla la lectura) pone FIN.
+     */
+    private void leer(BufferedReader entrada, BlockingQueue<Comando> cola) {
+        try {
+            String texto;
+            int linea = 0;
+            while ((texto = entrada.readLine()) != null) {
+                linea++;
+                texto = texto.trim();
+                if (texto.isEmpty() || texto.startsWith("#")) {
+                    continue;
+                }
+                String[] partes = texto.split(";", -1);
+                for (int i = 0; i < partes.length; i++) {
+                    partes[i] = partes[i].trim();
+                }
+                String nombre = partes[0].toLowerCase();
+                String error = COMANDOS.contains(nombre) ? null : "Comando desconocido: '" + partes[0] + "'.";
+                cola.put(new Comando(linea, nombre, Arrays.copyOfRange(partes, 1, partes.length), error));
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer los comandos del lote: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            cola.put(FIN);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ejecutarUno(Comando c) {
+        long inicio = System.nanoTime();
+        String detalle;
+        boolean ok;
+        try {
+            if (c.error != null) {
+                throw new HotelException(c.error);
+            }
+            detalle = aplicar(c);
+            ok = true;
+        } catch (HotelException e) {
+            detalle = e.getMessage();
+            ok = false;
+        } catch (RuntimeException e) {
+            detalle = "Error inesperado: " + e;
+            ok = false;
+        }
+        registrar(c, ok, detalle, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Ejecuta un comando que no se agrupa.
+     * @return El detalle del resultado (un ID, un número de filas o vacío).
+     */
+    private String aplicar(Comando c) throws HotelException {
+        switch (c.nombre) {
+            case "habitacion.estado":
+                argumentos(c, 2);
+                hotel.actualizarEstadoHabitacion(entero(c, 0), texto(c, 1));
+                return "";
+            case "huesped.registrar": {
+                argumentos(c, 5);
+                Huesped h = hotel.registrarHuesped(texto(c, 0), texto(c, 1), texto(c, 2), texto(c, 3), texto(c, 4));
+                return guardarId(c, h.getIdHuespedInterno());
+            }
+            case "reserva.crear": {
+                argumentos(c, 5);
+                String dni = texto(c, 0);
+                Huesped h = hotel.buscarHuespedPorDni(dni)
+                        .orElseThrow(() -> new HotelException("Huésped con DNI " + dni + " no encontrado."));
+                Reserva r = hotel.crearReserva(h, entero(c, 1), fecha(c, 2), fecha(c, 3), entero(c, 4));
+                return guardarId(c, r.getIdReservaInterno());
+            }
+            case "reserva.cancelar":
+                argumentos(c, 1);
+                hotel.cancelarReserva(entero(c, 0));
+                return "";
+            case "checkin":
+                argumentos(c, 1);
+                hotel.realizarCheckIn(entero(c, 0));
+                return "";
+            case "cargo":
+                argumentos(c, 3);
+                hotel.registrarCargoAdicional(entero(c, 0), entero(c, 1), entero(c, 2));
+                return "";
+            case "pago":
+                argumentos(c, 1);
+                hotel.registrarPagoFactura(entero(c, 0));
+                return "";
+            case "noshow":
+                argumentos(c, 1);
+                return Integer.toString(porLotes(limite -> hotel.marcarNoShows(entero(c, 0), limite)));
+            case "vencidas":
+                return Integer.toString(porLotes(hotel::expirarReservasVencidas));
+            case "limpieza":
+                argumentos(c, 1);
+                return Integer.toString(porLotes(limite -> hotel.liberarLimpiezaVencida(entero(c, 0), limite)));
+            default:
+                throw new HotelException("Comando desconocido: '" + c.nombre + "'.");
+        }
+    }
+
+    /**
+     * Un lote de una tarea de mantenimiento: procesa como mucho 'limite' filas y devuelve cuántas procesó.
+     */
+    @FunctionalInterface
+    private interface Lote {
+        int ejecutar(int limite) throws HotelException;
+    }
+
+    /**
+     * Repite una tarea de mantenimiento por lotes de hotel.tareas.tamanoLote hasta que no quedan filas.
+     */
+    private static int porLotes(Lote lote) throws HotelException {
+        int tamanoLote = Math.max(1, Configuracion.getInt("hotel.tareas.tamanoLote", 200));
+        int total = 0;
+        int procesadas;
+        do {
+            procesadas = lote.ejecutar(tamanoLote);
+            total += procesadas;
+        } while (procesadas >= tamanoLote);
+        return total;
+    }
+
+    /**
+     * Ejecuta un grupo de check-out en una sola llamada a realizarCheckOutMasivo. La latencia de cada
+     * comando es la del grupo entero, que es lo que espera cada uno.
+     */
+    private void ejecutarCheckOuts(List<Comando> grupo) {
+        long inicio = System.nanoTime();
+        Map<Comando, Integer> ids = new LinkedHashMap<>();
+        Map<Comando, String> fallidos = new HashMap<>();
+        for (Comando c : grupo) {
+            try {
+                argumentos(c, 1);
+                ids.put(c, entero(c, 0));
+            } catch (HotelException e) {
+                fallidos.put(c, e.getMessage());
+            }
+        }
+        Set<Integer> facturadas = new HashSet<>();
+        try {
+            if (!ids.isEmpty()) {
+                for (Factura f : hotel.realizarCheckOutMasivo(ids.values())) {
+                    facturadas.add(f.getIdReserva());
+                }
+            }
+        } catch (HotelException | RuntimeException e) {
+            for (Comando c : ids.keySet()) {
+                fallidos.put(c, e.getMessage()); // Una transacción: no se aplicó ninguno
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        for (Comando c : grupo) {
+            Integer id = ids.get(c);
+            if (fallidos.containsKey(c)) {
+                registrar(c, false, fallidos.get(c), nanos);
+            } else if (facturadas.remove(id)) {
+                registrar(c, true, "", nanos);
+            } else {
+                registrar(c, false, "Reserva " + id + " no encontrada o no está en 'Check-in'.", nanos);
+            }
+        }
+    }
+
+    private void registrar(Comando c, boolean ok, String detalle, long nanos) {
+        if (!ok) {
+            errores++;
+        }
+        latencias.computeIfAbsent(c.nombre, n -> new Latencias()).registrar(nanos, ok);
+        salida.print(c.linea + "\t" + (ok ? "OK" : "ERROR") + "\t" + c.nombre + "\t" +
+                String.format("%.3f", nanos / 1e6) + "\t" + detalle.replaceAll("[\\t\\r\\n]+", " ") + "\n");
+        if (salida.checkError()) {
+            throw new UncheckedIOException(new IOException("No se pudo escribir la salida del lote."));
+        }
+    }
+
+    private String guardarId(Comando c, int id) {
+        idsPorLinea.put(c.linea, Integer.toString(id));
+        return Integer.toString(id);
+    }
+
+    private static void argumentos(Comando c, int cantidad) throws HotelException {
+        if (c.argumentos.length != cantidad) {
+            throw new HotelException("El comando " + c.nombre + " espera " + cantidad + " argumentos y recibió " + c.argumentos.length + ".");
+        }
+    }
+
+    private String texto(Comando c, int i) throws HotelException {
+        String valor = c.argumentos[i];
+        if (valor.startsWith("$")) {
+            String id = null;
+            try {
+                id = idsPorLinea.get(Integer.parseInt(valor.substring(1)));
+            } catch (NumberFormatException e) {
+                // Referencia mal escrita: se informa abajo
+            }
+            if (id == null) {
+                throw new HotelException("La línea " + valor.substring(1) + " no devolvió ningún ID.");
+            }
+            return id;
+        }
+        return valor;
+    }
+
+    private int entero(Comando c, int i) throws HotelException {
+        String valor = texto(c, i);
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new HotelException("Se esperaba un número entero en el argumento " + (i + 1) + ": '" + valor + "'.");
+        }
+    }
+
+    private LocalDate fecha(Comando c, int i) throws HotelException {
+        String valor = texto(c, i);
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new HotelException("Fecha no válida (AAAA-MM-DD) en el argumento " + (i + 1) + ": '" + valor + "'.");
+        }
+    }
+}
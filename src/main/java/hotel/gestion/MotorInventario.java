@@ -0,0 +1,313 @@
+package hotel.gestion;
+
+import hotel.config.Configuracion;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Motor de inventario con sobreventa controlada: lleva, por tipo de habitación y por noche, cuántas
+ * habitaciones se vendieron frente a las que existen, y decide si se puede vender una más.
+ *
+ * Cada tipo puede venderse por encima de sus habitaciones físicas en la proporción de su tasa histórica
+ * de cancelación, sin superar hotel.overbooking.maximo (ej: 0.10 = 10% más). Hasta tener
+ * hotel.overbooking.minimoReservas reservas de un tipo no se sobrevende ese tipo. La tasa se recalcula
+ * de forma incremental con cada reserva y cada cancelación.
+ *
+ * Las noches vendidas de los próximos hotel.inventario.horizonteDias días se guardan en un array circular de
+ * contadores enteros (la posición de un día es su número de día módulo el horizonte) y se reservan con
+ * compare-and-set noche a noche: si una noche está llena se deshacen las ya tomadas. Mientras se deshace, otra
+ * reserva concurrente puede ver esas noches ocupadas y rechazarse; nunca se vende por encima del límite.
+ * Las noches posteriores al horizonte se cuentan aparte, sin límite, y las anteriores al primer día no se
+ * controlan. avanzar() desplaza la ventana al cambiar de día: las noches que entran al horizonte toman lo
+ * ya contado para ellas. Las ventas comparten un lock de lectura y solo avanzar() toma el de escritura.
+ */
+public class MotorInventario {
+
+    /**
+     * Inventario de un tipo de habitación.
+     */
+    private static final class Inventario {
+        final AtomicInteger fisicas = new AtomicInteger();
+        final AtomicIntegerArray vendidas;
+        final Map<Long, AtomicInteger> posteriores = new ConcurrentHashMap<>(); // Por día, tras el horizonte
+        final LongAdder reservas = new LongAdder();
+        final LongAdder cancelaciones = new LongAdder();
+        final AtomicLong version = new AtomicLong(); // Cambia con cada cambio de ocupación o de habitaciones
+
+        Inventario(int dias) {
+            this.vendidas = new AtomicIntegerArray(dias);
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long diaBase;
+    private final int horizonte;
+    private final Map<String, Inventario> porTipo = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor de la clase MotorInventario.
+     * @param desde El primer día controlado (normalmente hoy).
+     * @param horizonteDias Número de noches controladas a partir de 'desde'.
+     */
+    public MotorInventario(LocalDate desde, int horizonteDias) {
+        this.diaBase = desde.toEpochDay();
+        this.horizonte = Math.max(1, horizonteDias);
+    }
+
+    /**
+     * Desplaza el horizonte para que empiece en 'hoy'. Las noches anteriores dejan de controlarse y las que
+     * entran al horizonte pasan a controlarse con las ventas ya contadas para ellas. No hace nada si 'hoy'
+     * no es posterior al primer día actual.
+     * @param hoy El nuevo primer día controlado.
+     */
+    public void avanzar(LocalDate hoy) {
+        long nuevo = hoy.toEpochDay();
+        if (nuevo <= diaBase) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long anterior = diaBase;
+            if (nuevo <= anterior) {
+                return; // Otro hilo ya avanzó
+            }
+            for (Inventario inv : porTipo.values()) {
+                for (long d = Math.max(anterior + horizonte, nuevo); d < nuevo + horizonte; d++) {
+                    AtomicInteger contadas = inv.posteriores.remove(d);
+                    inv.vendidas.set(posicion(d), contadas != null ? contadas.get() : 0);
+                }
+                for (Iterator<Long> it = inv.posteriores.keySet().iterator(); it.hasNext(); ) {
+                    if (it.next() < nuevo) {
+                        it.remove(); // Solo si se saltó más de un horizonte entero
+                    }
+                }
+                inv.version.incrementAndGet();
+            }
+            diaBase = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suma una habitación física de su tipo.
+     * @param habitacion La habitación del hotel.
+     */
+    public void registrarHabitacion(Habitacion habitacion) {
+        Inventario inv = inventario(habitacion.getTipo());
+        inv.fisicas.incrementAndGet();
+        inv.version.incrementAndGet();
+    }
+
+    /**
+     * Incorpora una reserva existente al cargar el historial: cuenta para la tasa de cancelación del tipo
+     * (las 'Cancelada' y 'No-show' como cancelaciones) y, si está activa ('Confirmada' o 'Check-in'), ocupa sus noches (aunque superen el límite actual).
+     * @param reserva La reserva leída de la DB.
+     */
+    public void registrarHistorial(Reserva reserva) {
+        Inventario inv = inventario(reserva.getHabitacion().getTipo());
+        inv.reservas.increment();
+        String estado = reserva.getEstado();
+        if (estado.equals("Cancelada") || estado.equals("No-show")) {
+            inv.cancelaciones.increment();
+        } else if (estado.equals("Confirmada") || estado.equals("Check-in")) {
+            lock.readLock().lock();
+            try {
+                long fin = reserva.getFechaCheckout().toEpochDay();
+                for (long d = reserva.getFechaCheckin().toEpochDay(); d < fin; d++) {
+                    sumar(inv, d, 1);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            inv.version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Intenta vender 'cantidad' habitaciones del tipo para todas las noches de la estancia.
+     * @param tipo El tipo de habitación.
+     * @param checkin La fecha de entrada.
+     * @param checkout La fecha de salida (su noche no se vende).
+     * @param cantidad El número de habitaciones.
+     * @return true si se vendieron (y cuentan como reservas del tipo); false si alguna noche está completa.
+     */
+    public boolean reservar(String tipo, LocalDate checkin, LocalDate checkout, int cantidad) {
+        Inventario inv = inventario(tipo);
+        int limite = calcularLimite(inv);
+        long desde = checkin.toEpochDay();
+        long hasta = checkout.toEpochDay();
+        lock.readLock().lock();
+        try {
+            for (long d = desde; d < hasta; d++) {
+                if (!tomar(inv, d, cantidad, limite)) {
+                    for (long r = desde; r < d; r++) {
+                        sumar(inv, r, -cantidad);
+                    }
+                    return false;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        inv.reservas.add(cantidad);
+        inv.version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Devuelve al inventario las noches de una venta que no llegó a guardarse.
+     */
+    public void deshacer(String tipo, LocalDate checkin, LocalDate checkout, int cantidad) {
+        Inventario inv = inventario(tipo);
+        liberarNoches(inv, checkin, checkout, cantidad);
+        inv.reservas.add(-cantidad);
+    }
+
+    /**
+     * Libera las noches de una reserva cancelada (o no presentada) y la cuenta para la tasa de cancelación del tipo.
+     * @param reserva La reserva cancelada.
+     */
+    public void cancelar(Reserva reserva) {
+        Inventario inv = inventario(reserva.getHabitacion().getTipo());
+        liberarNoches(inv, reserva.getFechaCheckin(), reserva.getFechaCheckout(), 1);
+        inv.cancelaciones.increment();
+    }
+
+    /**
+     * @return La tasa de cancelación histórica del tipo (cancelaciones / reservas), o 0 si no hay reservas.
+     */
+    public double getTasaCancelacion(String tipo) {
+        Inventario inv = inventario(tipo);
+        long reservas = inv.reservas.sum();
+        return reservas > 0 ? (double) inv.cancelaciones.sum() / reservas : 0.0;
+    }
+
+    /**
+     * @return El número máximo de habitaciones del tipo que se venden por noche (físicas más sobreventa).
+     */
+    public int getLimite(String tipo) {
+        return calcularLimite(inventario(tipo));
+    }
+
+    public int getFisicas(String tipo) {
+        return inventario(tipo).fisicas.get();
+    }
+
+    /**
+     * @return Las habitaciones del tipo vendidas para la noche de 'fecha' (0 si es anterior al horizonte).
+     */
+    public int getVendidas(String tipo, LocalDate fecha) {
+        Inventario inv = inventario(tipo);
+        long d = fecha.toEpochDay();
+        lock.readLock().lock();
+        try {
+            if (d < diaBase) {
+                return 0;
+            }
+            if (d >= diaBase + horizonte) {
+                AtomicInteger contadas = inv.posteriores.get(d);
+                return contadas != null ? contadas.get() : 0;
+            }
+            return inv.vendidas.get(posicion(d));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Versión de la ocupación del tipo: cambia cada vez que se venden o liberan noches o se agrega
+     * una habitación, para invalidar lo calculado a partir de ella (ej: las cotizaciones de MotorPrecios).
+     */
+    public long getVersion(String tipo) {
+        return inventario(tipo).version.get();
+    }
+
+    /**
+     * @return Los tipos de habitación conocidos, ordenados.
+     */
+    public Set<String> getTipos() {
+        return new TreeSet<>(porTipo.keySet());
+    }
+
+    private int calcularLimite(Inventario inv) {
+        int fisicas = inv.fisicas.get();
+        long reservas = inv.reservas.sum();
+        if (reservas < Configuracion.getLong("hotel.overbooking.minimoReservas", 50)) {
+            return fisicas;
+        }
+        double maximo = Configuracion.getDouble("hotel.overbooking.maximo", 0.0);
+        double proporcion = Math.min(maximo, (double) inv.cancelaciones.sum() / reservas);
+        return fisicas + (int) Math.floor(fisicas * Math.max(0.0, proporcion));
+    }
+
+    /**
+     * Vende una noche si cabe en el límite. Las noches anteriores al horizonte no se controlan y las
+     * posteriores se cuentan sin límite. Se llama con el lock de lectura tomado.
+     */
+    private boolean tomar(Inventario inv, long dia, int cantidad, int limite) {
+        if (dia < diaBase || dia >= diaBase + horizonte) {
+            sumar(inv, dia, cantidad);
+            return true;
+        }
+        AtomicIntegerArray vendidas = inv.vendidas;
+        int posicion = posicion(dia);
+        while (true) {
+            int actual = vendidas.get(posicion);
+            if (actual + cantidad > limite) {
+                return false;
+            }
+            if (vendidas.compareAndSet(posicion, actual, actual + cantidad)) {
+                return true;
+            }
+        }
+    }
+
+    private void liberarNoches(Inventario inv, LocalDate checkin, LocalDate checkout, int cantidad) {
+        lock.readLock().lock();
+        try {
+            long hasta = checkout.toEpochDay();
+            for (long d = checkin.toEpochDay(); d < hasta; d++) {
+                sumar(inv, d, -cantidad);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        inv.version.incrementAndGet();
+    }
+
+    /**
+     * Suma (o resta, sin bajar de 0) ventas de una noche sin mirar el límite. Se llama con el lock de lectura tomado.
+     */
+    private void sumar(Inventario inv, long dia, int cantidad) {
+        if (dia < diaBase) {
+            return;
+        }
+        if (dia >= diaBase + horizonte) {
+            inv.posteriores.computeIfAbsent(dia, d -> new AtomicInteger()).updateAndGet(v -> Math.max(0, v + cantidad));
+        } else {
+            inv.vendidas.updateAndGet(posicion(dia), v -> Math.max(0, v + cantidad));
+        }
+    }
+
+    /**
+     * Posición de un día del horizonte en el array circular.
+     */
+    private int posicion(long dia) {
+        return (int) Math.floorMod(dia, (long) horizonte);
+    }
+
+    private Inventario inventario(String tipo) {
+        return porTipo.computeIfAbsent(tipo, t -> new Inventario(horizonte));
+    }
+}
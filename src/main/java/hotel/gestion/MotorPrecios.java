@@ -0,0 +1,307 @@
+package hotel.gestion;
+
+import hotel.config.Configuracion;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Motor de precios dinámicos: calcula el precio de cada noche por tipo de habitación según la ocupación
+ * de esa noche, a partir de la ocupación por noche que mantiene MotorInventario.
+ *
+ * El precio de una noche es el precio base del tipo (el menor costo por noche de sus habitaciones,
+ * calcularCostoNoche, con los recargos de cada tipo) por el multiplicador de la tabla de ocupación
+ * y, los viernes y sábados, por hotel.precios.finDeSemana. La tabla se lee de hotel.precios.ocupacion
+ * (o hotel.precios.ocupacion.&lt;Tipo&gt; para un tipo concreto) como pares "ocupación:multiplicador"
+ * ordenados, por ejemplo "0:0.90,0.50:1.00,0.85:1.25": de 0% a 50% de ocupación, 0.90; etc.
+ * Los importes se calculan con BigDecimal, como en Factura, y cada noche se redondea a centavos.
+ *
+ * Las cotizaciones se guardan en caché y se descartan solas cuando cambia la ocupación del tipo
+ * (MotorInventario.getVersion), sus precios base o las reglas (al recargar la configuración).
+ * Las cotizaciones son informativas: la factura sigue usando el costo por noche de la habitación.
+ * close() deja de escuchar las recargas de la configuración.
+ */
+public class MotorPrecios implements AutoCloseable {
+    private static final String REGLAS_POR_DEFECTO = "0:1.00";
+    private static final int MAX_CACHE = 10_000;
+
+    /**
+     * Precio de una estancia para un tipo de habitación, noche a noche.
+     */
+    public static final class Cotizacion {
+        private final String tipo;
+        private final LocalDate fechaCheckin;
+        private final BigDecimal[] preciosNoche;
+        private final BigDecimal total;
+        private final long version;
+        private final long versionReglas;
+
+        private Cotizacion(String tipo, LocalDate fechaCheckin, BigDecimal[] preciosNoche, long version, long versionReglas) {
+            this.tipo = tipo;
+            this.fechaCheckin = fechaCheckin;
+            this.preciosNoche = preciosNoche;
+            BigDecimal suma = BigDecimal.ZERO.setScale(2);
+            for (BigDecimal precio : preciosNoche) {
+                suma = suma.add(precio);
+            }
+            this.total = suma;
+            this.version = version;
+            this.versionReglas = versionReglas;
+        }
+
+        public String getTipo() {
+            return tipo;
+        }
+
+        public LocalDate getFechaCheckin() {
+            return fechaCheckin;
+        }
+
+        public int getNoches() {
+            return preciosNoche.length;
+        }
+
+        /**
+         * @param noche La noche de la estancia (0 = la del check-in).
+         * @return El precio de esa noche.
+         */
+        public BigDecimal getPrecioNoche(int noche) {
+            return preciosNoche[noche];
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            return tipo + ": $" + String.format("%.2f", total) + " por " + preciosNoche.length + " noches" +
+                    " (media $" + String.format("%.2f", preciosNoche.length > 0
+                    ? total.divide(BigDecimal.valueOf(preciosNoche.length), 2, RoundingMode.HALF_UP) : total) + "/noche)";
+        }
+    }
+
+    /**
+     * Tabla de multiplicadores por ocupación de un tipo.
+     */
+    private static final class Tabla {
+        final BigDecimal[] desde;
+        final BigDecimal[] multiplicadores;
+
+        Tabla(BigDecimal[] desde, BigDecimal[] multiplicadores) {
+            this.desde = desde;
+            this.multiplicadores = multiplicadores;
+        }
+
+        /**
+         * Multiplicador para una ocupación de vendidas/fisicas, comparada de forma exacta con cada tramo.
+         */
+        BigDecimal multiplicador(int vendidas, int fisicas) {
+            BigDecimal m = BigDecimal.ONE;
+            BigDecimal total = BigDecimal.valueOf(fisicas);
+            BigDecimal ocupadas = BigDecimal.valueOf(vendidas);
+            for (int i = 0; i < desde.length && ocupadas.compareTo(desde[i].multiply(total)) >= 0; i++) {
+                m = multiplicadores[i];
+            }
+            return m;
+        }
+    }
+
+    /**
+     * Clave de la caché de cotizaciones.
+     */
+    private static final class Clave {
+        final String tipo;
+        final long dia;
+        final int noches;
+
+        Clave(String tipo, long dia, int noches) {
+            this.tipo = tipo;
+            this.dia = dia;
+            this.noches = noches;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Clave)) {
+                return false;
+            }
+            Clave otra = (Clave) o;
+            return dia == otra.dia && noches == otra.noches && tipo.equals(otra.tipo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tipo, dia, noches);
+        }
+    }
+
+    private final MotorInventario inventario;
+    private final Map<String, BigDecimal> precioBase = new ConcurrentHashMap<>();
+    private volatile Map<String, Tabla> tablas; // "" = tabla general; se reemplaza entera al recargar
+    private final Map<Clave, Cotizacion> cache = new ConcurrentHashMap<>();
+    // Cambia al recargar las reglas o los precios base: invalida todas las cotizaciones
+    private final AtomicLong versionReglas = new AtomicLong();
+    private volatile BigDecimal finDeSemana;
+    private final Configuracion.Suscripcion recargas;
+
+    /**
+     * Constructor de la clase MotorPrecios.
+     * @param inventario El motor de inventario del que se lee la ocupación por noche.
+     */
+    public MotorPrecios(MotorInventario inventario) {
+        this.inventario = inventario;
+        leerReglas();
+        this.recargas = Configuracion.alRecargar(this::leerReglas);
+    }
+
+    /**
+     * Registra una habitación: el precio base de su tipo es el menor costo por noche de sus habitaciones.
+     * @param habitacion La habitación del hotel.
+     */
+    public void registrarHabitacion(Habitacion habitacion) {
+        BigDecimal costo = BigDecimal.valueOf(habitacion.calcularCostoNoche()).setScale(2, RoundingMode.HALF_UP);
+        precioBase.merge(habitacion.getTipo(), costo, BigDecimal::min);
+        versionReglas.incrementAndGet();
+    }
+
+    /**
+     * Cotiza una estancia para un tipo de habitación.
+     * @param tipo El tipo de habitación.
+     * @param checkin La fecha de entrada.
+     * @param checkout La fecha de salida (su noche no se cobra).
+     * @return La cotización, noche a noche.
+     * @throws HotelException Si el tipo no tiene habitaciones o las fechas son inválidas.
+     */
+    public Cotizacion cotizar(String tipo, LocalDate checkin, LocalDate checkout) throws HotelException {
+        if (!checkin.isBefore(checkout)) {
+            throw new HotelException("La fecha de check-out debe ser posterior a la fecha de check-in.");
+        }
+        BigDecimal base = precioBase.get(tipo);
+        if (base == null) {
+            throw new HotelException("No hay habitaciones de tipo '" + tipo + "' para cotizar.");
+        }
+        int noches = (int) ChronoUnit.DAYS.between(checkin, checkout);
+        Clave clave = new Clave(tipo, checkin.toEpochDay(), noches);
+        long version = inventario.getVersion(tipo);
+        long reglas = versionReglas.get();
+        Cotizacion enCache = cache.get(clave);
+        if (enCache != null && enCache.version == version && enCache.versionReglas == reglas) {
+            return enCache;
+        }
+
+        Map<String, Tabla> reglasActuales = tablas;
+        Tabla tabla = reglasActuales.getOrDefault(tipo, reglasActuales.get(""));
+        int fisicas = Math.max(1, inventario.getFisicas(tipo));
+        BigDecimal recargo = finDeSemana;
+        BigDecimal[] precios = new BigDecimal[noches];
+        LocalDate noche = checkin;
+        for (int i = 0; i < noches; i++) {
+            BigDecimal precio = base.multiply(tabla.multiplicador(inventario.getVendidas(tipo, noche), fisicas));
+            DayOfWeek dia = noche.getDayOfWeek();
+            if (dia == DayOfWeek.FRIDAY || dia == DayOfWeek.SATURDAY) {
+                precio = precio.multiply(recargo);
+            }
+            precios[i] = precio.setScale(2, RoundingMode.HALF_UP);
+            noche = noche.plusDays(1);
+        }
+        Cotizacion cotizacion = new Cotizacion(tipo, checkin, precios, version, reglas);
+        if (cache.size() >= MAX_CACHE) {
+            cache.clear();
+        }
+        cache.put(clave, cotizacion);
+        return cotizacion;
+    }
+
+    /**
+     * Cotiza una estancia para todos los tipos de habitación, del más barato al más caro.
+     * @param checkin La fecha de entrada.
+     * @param checkout La fecha de salida.
+     * @return Tipo -> cotización.
+     * @throws HotelException Si las fechas son inválidas.
+     */
+    public Map<String, Cotizacion> cotizarTodos(LocalDate checkin, LocalDate checkout) throws HotelException {
+        Cotizacion[] cotizaciones = new Cotizacion[precioBase.size()];
+        int n = 0;
+        for (String tipo : precioBase.keySet()) {
+            if (n == cotizaciones.length) {
+                cotizaciones = Arrays.copyOf(cotizaciones, n + 1); // Tipo registrado mientras tanto
+            }
+            cotizaciones[n++] = cotizar(tipo, checkin, checkout);
+        }
+        Arrays.sort(cotizaciones, 0, n, (a, b) -> a.getTotal().compareTo(b.getTotal()));
+        Map<String, Cotizacion> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            resultado.put(cotizaciones[i].getTipo(), cotizaciones[i]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Deja de escuchar las recargas de la configuración (el motor se descarta con el hotel).
+     */
+    @Override
+    public void close() {
+        recargas.close();
+    }
+
+    /**
+     * Vuelve a leer las tablas de ocupación y el recargo de fin de semana de la configuración.
+     */
+    private void leerReglas() {
+        Map<String, Tabla> nuevas = new HashMap<>();
+        nuevas.put("", leerTabla("hotel.precios.ocupacion", Configuracion.get("hotel.precios.ocupacion", REGLAS_POR_DEFECTO)));
+        for (String tipo : new String[]{"Simple", "Doble", "Suite"}) {
+            String valor = Configuracion.get("hotel.precios.ocupacion." + tipo);
+            if (valor != null && !valor.isBlank()) {
+                nuevas.put(tipo, leerTabla("hotel.precios.ocupacion." + tipo, valor));
+            }
+        }
+        tablas = nuevas;
+        finDeSemana = leerDecimal("hotel.precios.finDeSemana", BigDecimal.ONE);
+        versionReglas.incrementAndGet();
+    }
+
+    private static Tabla leerTabla(String clave, String valor) {
+        String[] pares = valor.split(",");
+        BigDecimal[] desde = new BigDecimal[pares.length];
+        BigDecimal[] multiplicadores = new BigDecimal[pares.length];
+        try {
+            for (int i = 0; i < pares.length; i++) {
+                String[] partes = pares[i].trim().split(":");
+                desde[i] = new BigDecimal(partes[0].trim());
+                multiplicadores[i] = new BigDecimal(partes[1].trim());
+                if (i > 0 && desde[i].compareTo(desde[i - 1]) < 0) {
+                    throw new NumberFormatException("ocupaciones no ordenadas");
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Tabla de precios no válida en " + clave + ": '" + valor + "' (" + e.getMessage() + "). Se usa " + REGLAS_POR_DEFECTO + ".");
+            return new Tabla(new BigDecimal[]{BigDecimal.ZERO}, new BigDecimal[]{BigDecimal.ONE});
+        }
+        return new Tabla(desde, multiplicadores);
+    }
+
+    private static BigDecimal leerDecimal(String clave, BigDecimal porDefecto) {
+        String valor = Configuracion.get(clave);
+        if (valor == null || valor.isBlank()) {
+            return porDefecto;
+        }
+        try {
+            return new BigDecimal(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor no numérico para " + clave + ": '" + valor + "'. Se usa " + porDefecto + ".");
+            return porDefecto;
+        }
+    }
+}
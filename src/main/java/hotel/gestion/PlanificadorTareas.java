@@ -0,0 +1,230 @@
+package hotel.gestion;
+
+import hotel.config.Configuracion;
+
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planificador de tareas de mantenimiento que se ejecutan solas en segundo plano, sin esperar al mostrador:
+ * - no-show: marca 'No-show' las reservas 'Confirmada' cuyo huésped no llegó (hotel.tareas.noShow.diasGracia
+ *   días después del check-in) y libera su habitación;
+ * - vencidas: cancela las reservas 'Confirmada' cuyo check-out ya pasó;
+ * - limpieza: devuelve a 'Disponible' las habitaciones que llevan 'En Limpieza' más de hotel.tareas.limpieza.slaMinutos.
+ *
+ * Cada ejecución trabaja por lotes de hotel.tareas.tamanoLote filas (una transacción corta y set-based por lote),
+ * espera hotel.tareas.pausaEntreLotesMs entre lotes y se detiene tras hotel.tareas.maxLotesPorEjecucion lotes;
+ * lo pendiente queda para la siguiente. Las tareas comparten un único hilo, de modo que nunca usan más de una
+ * conexión a la vez y no compiten entre sí. Cada tarea se repite cada hotel.tareas.&lt;tarea&gt;.periodoMinutos
+ * (0 = desactivada) y guarda las métricas de su última ejecución y las acumuladas (getMetricas).
+ * El resultado de cada ejecución solo se escribe en la salida de avisos indicada; sin ella (menú interactivo,
+ * para no mezclarse con lo que escribe el usuario) queda en las métricas, incluido el último error.
+ */
+public class PlanificadorTareas {
+
+    /**
+     * Un lote de una tarea: procesa como mucho 'limite' filas y devuelve cuántas procesó.
+     */
+    @FunctionalInterface
+    private interface Lote {
+        int ejecutar(int limite) throws HotelException;
+    }
+
+    /**
+     * Métricas de una tarea: las de su última ejecución y las acumuladas desde el arranque.
+     */
+    public static final class Metricas {
+        private final String nombre;
+        private long ejecuciones;
+        private long filasTotales;
+        private long errores;
+        private LocalDateTime ultimaEjecucion;
+        private int ultimasFilas;
+        private int ultimosLotes;
+        private long ultimaDuracionMs;
+        private String ultimoError;
+
+        private Metricas(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public synchronized long getEjecuciones() {
+            return ejecuciones;
+        }
+
+        public synchronized long getFilasTotales() {
+            return filasTotales;
+        }
+
+        public synchronized long getErrores() {
+            return errores;
+        }
+
+        @Override
+        public synchronized String toString() {
+            if (ultimaEjecucion == null) {
+                return nombre + ": sin ejecuciones todavía";
+            }
+            return nombre + ": " + ejecuciones + " ejecuciones, " + filasTotales + " filas, " + errores + " errores. " +
+                    "Última (" + ultimaEjecucion.withNano(0) + "): " + ultimasFilas + " filas en " + ultimosLotes +
+                    " lotes, " + ultimaDuracionMs + " ms" + (ultimoError != null ? ", error: " + ultimoError : "");
+        }
+
+        private synchronized void registrar(int filas, int lotes, long duracionMs, String error) {
+            ejecuciones++;
+            filasTotales += filas;
+            if (error != null) {
+                errores++;
+            }
+            ultimaEjecucion = LocalDateTime.now();
+            ultimasFilas = filas;
+            ultimosLotes = lotes;
+            ultimaDuracionMs = duracionMs;
+            ultimoError = error;
+        }
+    }
+
+    // Espera máxima de detener() a que termine el lote en curso
+    private static final long ESPERA_DETENER_SEGUNDOS = 30;
+
+    private final Hotel hotel;
+    private final PrintStream avisos;
+    private final List<Metricas> metricas = new ArrayList<>();
+    private ScheduledExecutorService executor;
+    private volatile boolean deteniendo;
+
+    /**
+     * Constructor de la clase PlanificadorTareas.
+     * @param hotel El hotel sobre el que trabajan las tareas.
+     * @param avisos Dónde escribir el resultado de cada ejecución, o null para dejarlo solo en las métricas.
+     */
+    public PlanificadorTareas(Hotel hotel, PrintStream avisos) {
+        this.hotel = hotel;
+        this.avisos = avisos;
+    }
+
+    /**
+     * Programa las tareas con periodo mayor que 0 en un hilo de fondo (daemon).
+     */
+    public synchronized void iniciar() {
+        if (executor != null) {
+            return;
+        }
+        deteniendo = false;
+        executor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "tareas-" + hotel.getNombre());
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        });
+        programar("no-show", "hotel.tareas.noShow.periodoMinutos", 15,
+                limite -> hotel.marcarNoShows(Configuracion.getInt("hotel.tareas.noShow.diasGracia", 1), limite));
+        programar("vencidas", "hotel.tareas.vencidas.periodoMinutos", 60, hotel::expirarReservasVencidas);
+        programar("limpieza", "hotel.tareas.limpieza.periodoMinutos", 5,
+                limite -> hotel.liberarLimpiezaVencida(Configuracion.getInt("hotel.tareas.limpieza.slaMinutos", 120), limite));
+    }
+
+    /**
+     * Detiene las tareas: no se inician más ejecuciones y la que está en curso termina su lote actual (una
+     * transacción) sin empezar otro. Espera hasta ESPERA_DETENER_SEGUNDOS a que termine; después la interrumpe.
+     */
+    public synchronized void detener() {
+        if (executor == null) {
+            return;
+        }
+        deteniendo = true;
+        executor.shutdown(); // Cancela las ejecuciones programadas
+        try {
+            if (!executor.awaitTermination(ESPERA_DETENER_SEGUNDOS, TimeUnit.SECONDS)) {
+                System.err.println("Las tareas programadas no terminaron en " + ESPERA_DETENER_SEGUNDOS + " s; se interrumpen.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * @return Las métricas de cada tarea programada.
+     */
+    public synchronized List<Metricas> getMetricas() {
+        return new ArrayList<>(metricas);
+    }
+
+    /**
+     * Muestra por consola las métricas de las tareas programadas.
+     */
+    public void mostrarMetricas() {
+        System.out.println("\n--- Tareas Programadas (" + hotel.getNombre() + ") ---");
+        List<Metricas> actuales = getMetricas();
+        if (actuales.isEmpty()) {
+            System.out.println("No hay tareas programadas.");
+        }
+        for (Metricas m : actuales) {
+            System.out.println(m);
+        }
+        System.out.println("------------------------------------");
+    }
+
+    private void programar(String nombre, String clavePeriodo, int periodoPorDefecto, Lote lote) {
+        int periodo = Configuracion.getInt(clavePeriodo, periodoPorDefecto);
+        if (periodo <= 0) {
+            return;
+        }
+        Metricas m = new Metricas(nombre);
+        metricas.add(m);
+        executor.scheduleWithFixedDelay(() -> ejecutar(m, lote), periodo, periodo, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Ejecuta una tarea lote a lote hasta que un lote sale incompleto o se alcanza el máximo de lotes,
+     * con una pausa entre lotes para dejar paso a las transacciones del mostrador.
+     */
+    private void ejecutar(Metricas m, Lote lote) {
+        int tamanoLote = Math.max(1, Configuracion.getInt("hotel.tareas.tamanoLote", 200));
+        int maxLotes = Math.max(1, Configuracion.getInt("hotel.tareas.maxLotesPorEjecucion", 50));
+        long pausa = Configuracion.getLong("hotel.tareas.pausaEntreLotesMs", 100);
+        long inicio = System.nanoTime();
+        int filas = 0;
+        int lotes = 0;
+        String error = null;
+        try {
+            while (lotes < maxLotes && !deteniendo) {
+                int procesadas = lote.ejecutar(tamanoLote);
+                lotes++;
+                filas += procesadas;
+                if (procesadas < tamanoLote) {
+                    break;
+                }
+                if (pausa > 0) {
+                    Thread.sleep(pausa);
+                }
+            }
+        } catch (HotelException e) {
+            error = e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Planificador detenido
+        } catch (RuntimeException e) {
+            // Una excepción no controlada cancelaría las siguientes ejecuciones de la tarea
+            error = "error inesperado: " + e;
+        }
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        m.registrar(filas, lotes, duracionMs, error);
+        if (avisos != null && error != null) {
+            avisos.println("Tarea " + m.getNombre() + ": " + error);
+        } else if (avisos != null && filas > 0) {
+            avisos.println("Tarea " + m.getNombre() + ": " + filas + " filas en " + lotes + " lotes (" + duracionMs + " ms).");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package hotel.gestion;
+
+
+/**
+ * Clase que representa un hotel (propiedad) de la cadena.
+ * Cada propiedad guarda sus habitaciones, huéspedes y reservas en su propio esquema de base de datos (shard).
+ */
+public class Propiedad {
+    private int idPropiedad; // ID de la base de datos (AUTO_INCREMENT)
+    private String nombre;
+    private String esquema; // Esquema MySQL donde viven los datos de la propiedad
+
+    /**
+     * Constructor de la clase Propiedad.
+     * @param nombre El nombre del hotel.
+     * @param esquema El esquema de base de datos de la propiedad.
+     */
+    public Propiedad(String nombre, String esquema) {
+        this.nombre = nombre;
+        this.esquema = esquema;
+        this.idPropiedad = 0; // ID inicial para objetos no persistidos
+    }
+
+    public int getIdPropiedad() {
+        return idPropiedad;
+    }
+
+    // Setter para el ID de la base de datos (usado por DAO al guardar)
+    public void setIdPropiedad(int idPropiedad) {
+        this.idPropiedad = idPropiedad;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getEsquema() {
+        return esquema;
+    }
+
+    @Override
+    public String toString() {
+        return "Propiedad [ID_DB: " + idPropiedad + ", Nombre: " + nombre + ", Esquema: " + esquema + "]";
+    }
+}
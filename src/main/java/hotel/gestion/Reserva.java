@@ -20,7 +20,7 @@ public class Reserva {
     /**
      * Constructor de la clase Reserva.
      * Ahora 'idReserva' puede ser un ID temporal o un marcador hasta que la DB lo genere.
-     * @param idReserva ID externo/temporal de la reserva.
+     * @param idReserva ID externo/temporal de la reserva (null: se usa el ID de la DB).
      * @param huesped El huésped que realiza la reserva.
      * @param habitacion La habitación reservada.
      * @param fechaCheckin La fecha de entrada.
@@ -56,7 +56,7 @@ public class Reserva {
     }
 
     public String getIdReserva() {
-        return idReserva;
+        return idReserva != null ? idReserva : String.valueOf(idReservaInterno);
     }
 
     public Huesped getHuesped() {
@@ -94,7 +94,7 @@ public class Reserva {
 
     @Override
     public String toString() {
-        return "Reserva [ID_DB: " + idReservaInterno + ", ID_Ext: " + idReserva +
+        return "Reserva [ID_DB: " + idReservaInterno + ", ID_Ext: " + getIdReserva() +
                 ", Huésped: " + huesped.getNombre() + " " + huesped.getApellido() +
                 ", Habitación: " + habitacion.getNumero() + " (" + habitacion.getTipo() + ")" +
                 ", Check-in: " + fechaCheckin + ", Check-out: " + fechaCheckout +
@@ -0,0 +1,59 @@
+package hotel.gestion;
+
+
+/**
+ * Clase que representa el resultado de un cambio de estado masivo para una habitación concreta.
+ * Permite informar, habitación por habitación, si la transición se aplicó o el motivo por el que no.
+ */
+public class ResultadoCambioEstado {
+    private int numeroHabitacion;
+    private String estadoAnterior; // Estado leído en la DB antes del cambio (null si no existe)
+    private String estadoNuevo;
+    private boolean aplicado;
+    private String motivo; // Motivo del rechazo (null si se aplicó)
+
+    /**
+     * Constructor de la clase ResultadoCambioEstado.
+     * @param numeroHabitacion El número de la habitación.
+     * @param estadoAnterior El estado que tenía la habitación en la DB, o null si no se encontró.
+     * @param estadoNuevo El estado solicitado.
+     * @param aplicado true si la habitación cambió de estado.
+     * @param motivo El motivo por el que no se aplicó el cambio (null si se aplicó).
+     */
+    public ResultadoCambioEstado(int numeroHabitacion, String estadoAnterior, String estadoNuevo,
+                                 boolean aplicado, String motivo) {
+        this.numeroHabitacion = numeroHabitacion;
+        this.estadoAnterior = estadoAnterior;
+        this.estadoNuevo = estadoNuevo;
+        this.aplicado = aplicado;
+        this.motivo = motivo;
+    }
+
+    public int getNumeroHabitacion() {
+        return numeroHabitacion;
+    }
+
+    public String getEstadoAnterior() {
+        return estadoAnterior;
+    }
+
+    public String getEstadoNuevo() {
+        return estadoNuevo;
+    }
+
+    public boolean isAplicado() {
+        return aplicado;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    @Override
+    public String toString() {
+        if (aplicado) {
+            return "Habitación " + numeroHabitacion + ": " + estadoAnterior + " -> " + estadoNuevo;
+        }
+        return "Habitación " + numeroHabitacion + ": sin cambios (" + motivo + ")";
+    }
+}
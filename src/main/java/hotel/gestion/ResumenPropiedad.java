@@ -0,0 +1,80 @@
+package hotel.gestion;
+
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Clase que resume los ingresos y la ocupación de un hotel (o de toda la cadena, si se combinan varios).
+ * Se construye con consultas agregadas, sin cargar cada reserva ni cada habitación.
+ */
+public class ResumenPropiedad {
+    private String nombre;
+    private double ingresos; // Ingresos de reservas finalizadas ('Check-out')
+    private Map<String, Integer> habitacionesPorEstado;
+
+    /**
+     * Constructor de la clase ResumenPropiedad.
+     * @param nombre El nombre del hotel (o "Cadena" para el total).
+     * @param ingresos Los ingresos de reservas finalizadas.
+     * @param habitacionesPorEstado El número de habitaciones en cada estado.
+     */
+    public ResumenPropiedad(String nombre, double ingresos, Map<String, Integer> habitacionesPorEstado) {
+        this.nombre = nombre;
+        this.ingresos = ingresos;
+        this.habitacionesPorEstado = new TreeMap<>(habitacionesPorEstado);
+    }
+
+    /**
+     * Combina este resumen con otro, sumando ingresos y habitaciones por estado.
+     * @param nombreTotal El nombre del resumen resultante.
+     * @param otro El otro resumen.
+     * @return Un nuevo resumen con los totales.
+     */
+    public ResumenPropiedad combinar(String nombreTotal, ResumenPropiedad otro) {
+        Map<String, Integer> suma = new TreeMap<>(habitacionesPorEstado);
+        for (Map.Entry<String, Integer> e : otro.habitacionesPorEstado.entrySet()) {
+            suma.merge(e.getKey(), e.getValue(), Integer::sum);
+        }
+        return new ResumenPropiedad(nombreTotal, ingresos + otro.ingresos, suma);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public double getIngresos() {
+        return ingresos;
+    }
+
+    public Map<String, Integer> getHabitacionesPorEstado() {
+        return habitacionesPorEstado;
+    }
+
+    public int getTotalHabitaciones() {
+        int total = 0;
+        for (int n : habitacionesPorEstado.values()) {
+            total += n;
+        }
+        return total;
+    }
+
+    public int getHabitaciones(String estado) {
+        return habitacionesPorEstado.getOrDefault(estado, 0);
+    }
+
+    /**
+     * @return El porcentaje de habitaciones ocupadas sobre el total (0 si no hay habitaciones).
+     */
+    public double getPorcentajeOcupacion() {
+        int total = getTotalHabitaciones();
+        return total == 0 ? 0 : 100.0 * getHabitaciones("Ocupada") / total;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + ": Ingresos $" + String.format("%.2f", ingresos) +
+                ", Habitaciones: " + getTotalHabitaciones() +
+                ", Ocupación: " + String.format("%.1f", getPorcentajeOcupacion()) + "% " + habitacionesPorEstado;
+    }
+}
@@ -0,0 +1,48 @@
+package hotel.gestion;
+
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Clase que representa un servicio adicional del Hotel Nova (RFS08), por ejemplo desayuno o lavandería.
+ * Los precios se manejan con BigDecimal para que la facturación sea exacta al céntimo.
+ */
+public class ServicioAdicional {
+    private int idServicio; // ID de la base de datos (AUTO_INCREMENT)
+    private String nombre;
+    private BigDecimal precio;
+
+    /**
+     * Constructor de la clase ServicioAdicional.
+     * @param nombre El nombre del servicio.
+     * @param precio El precio unitario del servicio (se redondea a 2 decimales).
+     */
+    public ServicioAdicional(String nombre, BigDecimal precio) {
+        this.nombre = nombre;
+        this.precio = precio.setScale(2, RoundingMode.HALF_UP);
+        this.idServicio = 0; // ID inicial para objetos no persistidos
+    }
+
+    public int getIdServicio() {
+        return idServicio;
+    }
+
+    // Setter para el ID de la base de datos (usado por DAO al guardar)
+    public void setIdServicio(int idServicio) {
+        this.idServicio = idServicio;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public BigDecimal getPrecio() {
+        return precio;
+    }
+
+    @Override
+    public String toString() {
+        return "Servicio [ID_DB: " + idServicio + ", Nombre: " + nombre + ", Precio: $" + precio + "]";
+    }
+}
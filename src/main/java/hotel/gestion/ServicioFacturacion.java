@@ -0,0 +1,187 @@
+package hotel.gestion;
+
+import hotel.config.Configuracion;
+import hotel.config.db.dao.interfaces.FacturaDAO;
+import hotel.config.db.dao.interfaces.ServicioAdicionalDAO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de facturación del Hotel Nova (RFS08, RFS09, RFS10).
+ * Mantiene en memoria el catálogo de servicios adicionales (se vuelve a leer de la DB cuando caduca,
+ * según hotel.cache.servicios.ttlSegundos). Los cargos de cada reserva se guardan en la DB al registrarlos,
+ * pendientes de facturar (así los ven otros procesos, como el modo por lotes, y sobreviven a un reinicio),
+ * y en el check-out se generan y persisten las facturas con los cargos que incluyen.
+ */
+public class ServicioFacturacion {
+    private final FacturaDAO facturaDAO;
+    private final ServicioAdicionalDAO servicioAdicionalDAO;
+
+    // Caché del catálogo de servicios: ID de DB -> servicio. Se carga en el primer uso y se refresca al caducar.
+    private final Map<Integer, ServicioAdicional> catalogo = new ConcurrentHashMap<>();
+    private volatile long catalogoCargadoEn = 0; // 0 = todavía no cargado
+
+    /**
+     * Constructor de la clase ServicioFacturacion.
+     * @param facturaDAO El DAO para la gestión de facturas.
+     * @param servicioAdicionalDAO El DAO para el catálogo de servicios adicionales.
+     */
+    public ServicioFacturacion(FacturaDAO facturaDAO, ServicioAdicionalDAO servicioAdicionalDAO) {
+        this.facturaDAO = facturaDAO;
+        this.servicioAdicionalDAO = servicioAdicionalDAO;
+    }
+
+    /**
+     * Agrega un servicio al catálogo, lo persiste y lo incorpora a la caché.
+     * @param nombre El nombre del servicio.
+     * @param precio El precio unitario.
+     * @return El servicio creado, con su ID de DB.
+     * @throws HotelException Si el precio es negativo o hay un error en la DB.
+     */
+    public ServicioAdicional agregarServicio(String nombre, BigDecimal precio) throws HotelException {
+        if (precio.signum() < 0) {
+            throw new HotelException("El precio del servicio no puede ser negativo.");
+        }
+        cargarCatalogo();
+        ServicioAdicional servicio = new ServicioAdicional(nombre, precio);
+        servicioAdicionalDAO.save(servicio);
+        catalogo.put(servicio.getIdServicio(), servicio);
+        return servicio;
+    }
+
+    /**
+     * Devuelve el catálogo de servicios adicionales desde la caché.
+     * @return La lista de servicios, ordenada por ID.
+     * @throws HotelException Si hay un error al cargar el catálogo la primera vez.
+     */
+    public List<ServicioAdicional> listarServicios() throws HotelException {
+        cargarCatalogo();
+        List<ServicioAdicional> servicios = new ArrayList<>(catalogo.values());
+        servicios.sort((a, b) -> Integer.compare(a.getIdServicio(), b.getIdServicio()));
+        return servicios;
+    }
+
+    /**
+     * Registra un cargo por un servicio adicional consumido durante una estancia (RFS08).
+     * El precio se fija en el momento del cargo, a partir del catálogo en caché.
+     * @param idReserva El ID de DB de la reserva.
+     * @param idServicio El ID de DB del servicio.
+     * @param cantidad La cantidad consumida.
+     * @return La línea de detalle registrada, con su ID de DB.
+     * @throws HotelException Si el servicio no existe, la cantidad no es válida o hay un error en la DB.
+     */
+    public DetalleFactura registrarCargo(int idReserva, int idServicio, int cantidad) throws HotelException {
+        if (cantidad <= 0) {
+            throw new HotelException("La cantidad del cargo debe ser mayor que cero.");
+        }
+        cargarCatalogo();
+        ServicioAdicional servicio = catalogo.get(idServicio);
+        if (servicio == null) {
+            throw new HotelException("Servicio adicional con ID " + idServicio + " no encontrado.");
+        }
+        DetalleFactura detalle = new DetalleFactura(idServicio, servicio.getNombre(), cantidad, servicio.getPrecio());
+        facturaDAO.saveCargo(idReserva, detalle);
+        return detalle;
+    }
+
+    /**
+     * Genera (sin persistir) la factura de una reserva con sus cargos pendientes.
+     * @param reserva La reserva a facturar.
+     * @return La factura calculada.
+     * @throws HotelException Si hay un error al leer los cargos.
+     */
+    public Factura generarFactura(Reserva reserva) throws HotelException {
+        return generarFacturas(List.of(reserva)).get(0);
+    }
+
+    /**
+     * Genera (sin persistir) las facturas de varias reservas: lee sus cargos pendientes con una sola consulta
+     * y calcula las facturas en paralelo (fork-join).
+     * @param reservas Las reservas a facturar.
+     * @return Las facturas calculadas, en el orden de las reservas.
+     * @throws HotelException Si hay un error al leer los cargos.
+     */
+    public List<Factura> generarFacturas(List<Reserva> reservas) throws HotelException {
+        List<Integer> ids = new ArrayList<>();
+        for (Reserva reserva : reservas) {
+            ids.add(reserva.getIdReservaInterno());
+        }
+        Map<Integer, List<DetalleFactura>> cargos = facturaDAO.findCargosPendientes(ids);
+        return reservas.parallelStream()
+                .map(r -> new Factura(r, cargos.getOrDefault(r.getIdReservaInterno(), Collections.emptyList())))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Persiste las facturas de un check-out junto con el nuevo estado de sus reservas y habitaciones,
+     * en una sola transacción. Los cargos incluidos en cada factura dejan de estar pendientes; los que se
+     * registraron después de generarla se facturarán más adelante.
+     * @param facturas Las facturas generadas con generarFactura.
+     * @param reservas Las reservas con su estado ya actualizado en memoria.
+     * @param conHabitaciones false si el estado de las habitaciones se escribe aparte (escritura diferida).
+     * @throws HotelException Si ocurre un error en la DB (no se aplica ningún cambio).
+     */
+    public void registrarCheckOut(Collection<Factura> facturas, Collection<Reserva> reservas,
+                                  boolean conHabitaciones) throws HotelException {
+        facturaDAO.saveWithCheckOut(facturas, reservas, conHabitaciones);
+    }
+
+    /**
+     * Busca la factura emitida para una reserva.
+     * @param idReserva El ID de DB de la reserva.
+     * @return Un Optional con la factura, o vacío si la reserva aún no se ha facturado.
+     * @throws HotelException Si ocurre un error en la DB.
+     */
+    public Optional<Factura> buscarFacturaPorReserva(int idReserva) throws HotelException {
+        return facturaDAO.findByReserva(idReserva);
+    }
+
+    /**
+     * Registra el pago de una factura (RFS10).
+     * @param idFactura El ID de DB de la factura.
+     * @throws HotelException Si ocurre un error en la DB.
+     */
+    public void registrarPago(int idFactura) throws HotelException {
+        facturaDAO.updateEstadoPago(idFactura, "Pagada");
+    }
+
+    /**
+     * Carga el catálogo de servicios en la caché la primera vez que se necesita y lo vuelve a cargar
+     * cuando caduca. La recarga reemplaza las entradas sin vaciar el mapa, para que las búsquedas
+     * concurrentes no vean el catálogo vacío.
+     */
+    private void cargarCatalogo() throws HotelException {
+        if (catalogoVigente()) {
+            return;
+        }
+        synchronized (catalogo) {
+            if (!catalogoVigente()) {
+                Map<Integer, ServicioAdicional> leidos = new HashMap<>();
+                for (ServicioAdicional servicio : servicioAdicionalDAO.findAll()) {
+                    leidos.put(servicio.getIdServicio(), servicio);
+                }
+                catalogo.putAll(leidos);
+                catalogo.keySet().retainAll(leidos.keySet());
+                catalogoCargadoEn = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private boolean catalogoVigente() {
+        long cargadoEn = catalogoCargadoEn;
+        if (cargadoEn == 0) {
+            return false;
+        }
+        long ttlSegundos = Configuracion.getLong("hotel.cache.servicios.ttlSegundos", 0);
+        return ttlSegundos <= 0 || System.currentTimeMillis() - cargadoEn < ttlSegundos * 1000;
+    }
+}
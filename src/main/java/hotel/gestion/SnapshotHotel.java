@@ -0,0 +1,526 @@
+package hotel.gestion;
+
+import hotel.config.db.dao.interfaces.HabitacionDAO;
+import hotel.config.db.dao.interfaces.HuespedDAO;
+import hotel.config.db.dao.interfaces.ReservaDAO;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exporta e importa el estado del hotel (HABITACIONES, HUESPEDES y RESERVAS) en un archivo binario compacto,
+ * para restaurar entornos de pruebas sin pasar por volcados SQL.
+ *
+ * El archivo se organiza por columnas: primero todos los valores de una columna y luego los de la siguiente.
+ * Los IDs y números se guardan como diferencia con el anterior en varint (1 byte si son consecutivos),
+ * las fechas como día desde epoch (el check-out como número de noches), los estados y tipos con un
+ * diccionario (varint por fila) y los precios en centavos. Se escribe y lee con FileChannel y un buffer directo.
+ *
+ * Formato: MAGICO (int) | habitaciones | huéspedes | reservas, y cada tabla es su número de filas (varint)
+ * seguido de sus columnas en el orden de escribirHabitaciones, escribirHuespedes y escribirReservas.
+ *
+ * La importación inserta con sentencias por lotes y asigna IDs nuevos: las reservas se enlazan con las
+ * habitaciones y huéspedes importados, no con sus IDs originales. Debe hacerse sobre un esquema vacío
+ * (el número de habitación y el DNI son únicos).
+ */
+public class SnapshotHotel {
+    private static final int MAGICO = 0x484E5331; // "HNS1"
+    private static final int RESERVAS_POR_TRANSACCION = 50_000;
+
+    private final HabitacionDAO habitacionDAO;
+    private final HuespedDAO huespedDAO;
+    private final ReservaDAO reservaDAO;
+
+    /**
+     * Constructor de la clase SnapshotHotel.
+     * @param habitacionDAO El DAO para la gestión de habitaciones.
+     * @param huespedDAO El DAO para la gestión de huéspedes.
+     * @param reservaDAO El DAO para la gestión de reservas.
+     */
+    public SnapshotHotel(HabitacionDAO habitacionDAO, HuespedDAO huespedDAO, ReservaDAO reservaDAO) {
+        this.habitacionDAO = habitacionDAO;
+        this.huespedDAO = huespedDAO;
+        this.reservaDAO = reservaDAO;
+    }
+
+    /**
+     * Exporta las habitaciones, huéspedes y reservas a un archivo (lo reemplaza si existe).
+     * Las reservas se leen primero y fila a fila; las habitaciones y huéspedes, leídos después,
+     * incluyen así todos los que ellas referencian aunque se creen otros durante la exportación.
+     * @param archivo La ruta del archivo de snapshot.
+     * @throws HotelException Si falla la lectura de la DB o la escritura del archivo.
+     */
+    public void exportar(Path archivo) throws HotelException {
+        long inicio = System.nanoTime();
+        ColumnasReservas reservas = new ColumnasReservas();
+        reservaDAO.forEach(reservas::agregar);
+        List<Habitacion> habitaciones = habitacionDAO.findAll();
+        List<Huesped> huespedes = huespedDAO.findAll();
+
+        long bytes;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Escritor out = new Escritor(canal);
+            out.entero(MAGICO);
+            escribirHabitaciones(out, habitaciones);
+            escribirHuespedes(out, huespedes);
+            escribirReservas(out, reservas);
+            out.vaciar();
+            bytes = canal.size();
+        } catch (IOException e) {
+            throw new HotelException("Error al escribir el snapshot " + archivo + ": " + e.getMessage());
+        }
+        System.out.println("Snapshot exportado a " + archivo + ": " + habitaciones.size() + " habitaciones, " +
+                huespedes.size() + " huéspedes, " + reservas.ids.tamano + " reservas (" + bytes + " bytes, " +
+                (System.nanoTime() - inicio) / 1_000_000 + " ms).");
+    }
+
+    /**
+     * Importa un snapshot en la base de datos de los DAOs (que debe estar vacía).
+     * Cada tabla se inserta por lotes; las reservas, en transacciones de RESERVAS_POR_TRANSACCION filas.
+     * Las reservas cuyo huésped o habitación no está en el snapshot se omiten.
+     * @param archivo La ruta del archivo de snapshot.
+     * @throws HotelException Si el archivo no es válido o falla la inserción.
+     */
+    public void importar(Path archivo) throws HotelException {
+        long inicio = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            Lector in = new Lector(canal);
+            if (in.entero() != MAGICO) {
+                throw new HotelException("El archivo " + archivo + " no es un snapshot del hotel.");
+            }
+
+            // Habitaciones
+            int n = in.varint();
+            int[] ids = in.columnaDelta(n);
+            int[] numeros = in.columnaDelta(n);
+            String[] tipos = in.columnaDiccionario(n);
+            long[] centavos = in.columnaLong(n);
+            String[] estados = in.columnaDiccionario(n);
+            Map<Integer, Habitacion> habitacionPorId = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                Habitacion habitacion = crearHabitacion(tipos[i], numeros[i], centavos[i] / 100.0);
+                habitacion.setEstado(estados[i]);
+                habitacionPorId.put(ids[i], habitacion);
+            }
+            habitacionDAO.saveAll(habitacionPorId.values());
+
+            // Huéspedes
+            n = in.varint();
+            ids = in.columnaDelta(n);
+            String[] nombres = in.columnaTexto(n);
+            String[] apellidos = in.columnaTexto(n);
+            String[] dnis = in.columnaTexto(n);
+            String[] emails = in.columnaTexto(n);
+            String[] telefonos = in.columnaTexto(n);
+            Map<Integer, Huesped> huespedPorId = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                huespedPorId.put(ids[i], new Huesped(dnis[i], nombres[i], apellidos[i], dnis[i], emails[i], telefonos[i]));
+            }
+            huespedDAO.saveAll(huespedPorId.values());
+
+            // Reservas
+            n = in.varint();
+            ids = in.columnaDelta(n);
+            int[] idsHuesped = in.columnaDelta(n);
+            int[] idsHabitacion = in.columnaDelta(n);
+            int[] checkins = in.columnaDelta(n);
+            int[] noches = in.columnaVarint(n);
+            int[] cantidades = in.columnaVarint(n);
+            String[] estadosReserva = in.columnaDiccionario(n);
+
+            int omitidas = 0;
+            List<Reserva> lote = new ArrayList<>(Math.min(n, RESERVAS_POR_TRANSACCION));
+            for (int i = 0; i < n; i++) {
+                Huesped huesped = huespedPorId.get(idsHuesped[i]);
+                Habitacion habitacion = habitacionPorId.get(idsHabitacion[i]);
+                if (huesped == null || habitacion == null) {
+                    omitidas++;
+                    continue;
+                }
+                LocalDate checkin = LocalDate.ofEpochDay(checkins[i]);
+                Reserva reserva = new Reserva(String.valueOf(ids[i]), huesped, habitacion,
+                        checkin, checkin.plusDays(noches[i]), cantidades[i]);
+                reserva.setEstado(estadosReserva[i]);
+                lote.add(reserva);
+                if (lote.size() == RESERVAS_POR_TRANSACCION) {
+                    reservaDAO.saveAll(lote);
+                    lote.clear();
+                }
+            }
+            reservaDAO.saveAll(lote);
+
+            System.out.println("Snapshot importado desde " + archivo + ": " + habitacionPorId.size() + " habitaciones, " +
+                    huespedPorId.size() + " huéspedes, " + (n - omitidas) + " reservas (" +
+                    (System.nanoTime() - inicio) / 1_000_000 + " ms).");
+            if (omitidas > 0) {
+                System.out.println("Advertencia: se omitieron " + omitidas + " reservas sin huésped o habitación en el snapshot.");
+            }
+        } catch (IOException e) {
+            throw new HotelException("Error al leer el snapshot " + archivo + ": " + e.getMessage());
+        }
+    }
+
+    private static void escribirHabitaciones(Escritor out, List<Habitacion> habitaciones) throws IOException {
+        int n = habitaciones.size();
+        Diccionario tipos = new Diccionario();
+        Diccionario estados = new Diccionario();
+        int[] ids = new int[n];
+        int[] numeros = new int[n];
+        long[] centavos = new long[n];
+        for (int i = 0; i < n; i++) {
+            Habitacion h = habitaciones.get(i);
+            ids[i] = h.getDbId();
+            numeros[i] = h.getNumero();
+            centavos[i] = Math.round(h.getPrecioPorNoche() * 100);
+            tipos.agregar(h.getTipo());
+            estados.agregar(h.getEstado());
+        }
+        out.varint(n);
+        out.columnaDelta(ids, n);
+        out.columnaDelta(numeros, n);
+        out.columnaDiccionario(tipos);
+        out.columnaLong(centavos, n);
+        out.columnaDiccionario(estados);
+    }
+
+    private static void escribirHuespedes(Escritor out, List<Huesped> huespedes) throws IOException {
+        int n = huespedes.size();
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = huespedes.get(i).getIdHuespedInterno();
+        }
+        out.varint(n);
+        out.columnaDelta(ids, n);
+        for (Huesped h : huespedes) {
+            out.texto(h.getNombre());
+        }
+        for (Huesped h : huespedes) {
+            out.texto(h.getApellido());
+        }
+        for (Huesped h : huespedes) {
+            out.texto(h.getDni());
+        }
+        for (Huesped h : huespedes) {
+            out.texto(h.getEmail());
+        }
+        for (Huesped h : huespedes) {
+            out.texto(h.getTelefono());
+        }
+    }
+
+    private static void escribirReservas(Escritor out, ColumnasReservas reservas) throws IOException {
+        int n = reservas.ids.tamano;
+        out.varint(n);
+        out.columnaDelta(reservas.ids.valores, n);
+        out.columnaDelta(reservas.idsHuesped.valores, n);
+        out.columnaDelta(reservas.idsHabitacion.valores, n);
+        out.columnaDelta(reservas.checkins.valores, n);
+        out.columnaVarint(reservas.noches.valores, n);
+        out.columnaVarint(reservas.cantidades.valores, n);
+        out.columnaDiccionario(reservas.estados);
+    }
+
+    private static Habitacion crearHabitacion(String tipo, int numero, double precioPorNoche) throws HotelException {
+        switch (tipo) {
+            case "Simple":
+                return new HabitacionSimple(numero, precioPorNoche);
+            case "Doble":
+                return new HabitacionDoble(numero, precioPorNoche);
+            case "Suite":
+                return new HabitacionSuite(numero, precioPorNoche);
+            default:
+                throw new HotelException("Tipo de habitación desconocido en el snapshot: " + tipo);
+        }
+    }
+
+    /**
+     * Columnas de las reservas acumuladas durante la lectura fila a fila (solo enteros, sin guardar objetos).
+     */
+    private static final class ColumnasReservas {
+        final Enteros ids = new Enteros();
+        final Enteros idsHuesped = new Enteros();
+        final Enteros idsHabitacion = new Enteros();
+        final Enteros checkins = new Enteros();
+        final Enteros noches = new Enteros();
+        final Enteros cantidades = new Enteros();
+        final Diccionario estados = new Diccionario();
+
+        void agregar(Reserva r) {
+            long checkin = r.getFechaCheckin().toEpochDay();
+            ids.agregar(r.getIdReservaInterno());
+            idsHuesped.agregar(r.getHuesped().getIdHuespedInterno());
+            idsHabitacion.agregar(r.getHabitacion().getDbId());
+            checkins.agregar((int) checkin);
+            noches.agregar((int) (r.getFechaCheckout().toEpochDay() - checkin));
+            cantidades.agregar(r.getCantidadHuespedes());
+            estados.agregar(r.getEstado());
+        }
+    }
+
+    /**
+     * Lista de int que crece sin envolver cada valor en un Integer.
+     */
+    private static final class Enteros {
+        int[] valores = new int[1024];
+        int tamano;
+
+        void agregar(int valor) {
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, tamano * 2);
+            }
+            valores[tamano++] = valor;
+        }
+    }
+
+    /**
+     * Columna de textos repetidos (estados, tipos): cada valor distinto se guarda una vez y cada fila, su índice.
+     */
+    private static final class Diccionario {
+        final Map<String, Integer> indices = new HashMap<>();
+        final List<String> distintos = new ArrayList<>();
+        final Enteros codigos = new Enteros();
+
+        void agregar(String valor) {
+            Integer indice = indices.get(valor);
+            if (indice == null) {
+                indice = distintos.size();
+                indices.put(valor, indice);
+                distintos.add(valor);
+            }
+            codigos.agregar(indice);
+        }
+    }
+
+    /**
+     * Escritura con buffer directo sobre un FileChannel.
+     */
+    private static final class Escritor {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+        Escritor(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void entero(int valor) throws IOException {
+            asegurar(4);
+            buffer.putInt(valor);
+        }
+
+        void varint(int valor) throws IOException {
+            asegurar(5);
+            while ((valor & ~0x7F) != 0) {
+                buffer.put((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            buffer.put((byte) valor);
+        }
+
+        void varlong(long valor) throws IOException {
+            asegurar(10);
+            while ((valor & ~0x7FL) != 0) {
+                buffer.put((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            buffer.put((byte) valor);
+        }
+
+        // Diferencia con el valor anterior en zigzag, para que las diferencias negativas también sean cortas
+        void columnaDelta(int[] valores, int n) throws IOException {
+            int anterior = 0;
+            for (int i = 0; i < n; i++) {
+                int delta = valores[i] - anterior;
+                varint((delta << 1) ^ (delta >> 31));
+                anterior = valores[i];
+            }
+        }
+
+        void columnaVarint(int[] valores, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                varint(valores[i]);
+            }
+        }
+
+        void columnaLong(long[] valores, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                varlong((valores[i] << 1) ^ (valores[i] >> 63));
+            }
+        }
+
+        void columnaDiccionario(Diccionario diccionario) throws IOException {
+            varint(diccionario.distintos.size());
+            for (String valor : diccionario.distintos) {
+                texto(valor);
+            }
+            columnaVarint(diccionario.codigos.valores, diccionario.codigos.tamano);
+        }
+
+        // Longitud + 1 en varint (0 = null) seguida de los bytes UTF-8
+        void texto(String valor) throws IOException {
+            if (valor == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1);
+            if (bytes.length <= buffer.capacity()) {
+                asegurar(bytes.length);
+                buffer.put(bytes);
+            } else {
+                vaciar();
+                ByteBuffer grande = ByteBuffer.wrap(bytes);
+                while (grande.hasRemaining()) {
+                    canal.write(grande);
+                }
+            }
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void asegurar(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                vaciar();
+            }
+        }
+    }
+
+    /**
+     * Lectura con buffer directo sobre un FileChannel.
+     */
+    private static final class Lector {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+        Lector(FileChannel canal) {
+            this.canal = canal;
+            buffer.limit(0);
+        }
+
+        int entero() throws IOException {
+            asegurar(4);
+            return buffer.getInt();
+        }
+
+        int varint() throws IOException {
+            int valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 32; desplazamiento += 7) {
+                asegurar(1);
+                byte b = buffer.get();
+                valor |= (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("varint mal formado");
+        }
+
+        long varlong() throws IOException {
+            long valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+                asegurar(1);
+                byte b = buffer.get();
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("varlong mal formado");
+        }
+
+        int[] columnaDelta(int n) throws IOException {
+            int[] valores = new int[n];
+            int anterior = 0;
+            for (int i = 0; i < n; i++) {
+                int zigzag = varint();
+                anterior += (zigzag >>> 1) ^ -(zigzag & 1);
+                valores[i] = anterior;
+            }
+            return valores;
+        }
+
+        int[] columnaVarint(int n) throws IOException {
+            int[] valores = new int[n];
+            for (int i = 0; i < n; i++) {
+                valores[i] = varint();
+            }
+            return valores;
+        }
+
+        long[] columnaLong(int n) throws IOException {
+            long[] valores = new long[n];
+            for (int i = 0; i < n; i++) {
+                long zigzag = varlong();
+                valores[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            return valores;
+        }
+
+        String[] columnaDiccionario(int n) throws IOException {
+            String[] distintos = columnaTexto(varint());
+            String[] valores = new String[n];
+            for (int i = 0; i < n; i++) {
+                int indice = varint();
+                if (indice >= distintos.length) {
+                    throw new IOException("índice de diccionario fuera de rango: " + indice);
+                }
+                valores[i] = distintos[indice];
+            }
+            return valores;
+        }
+
+        String[] columnaTexto(int n) throws IOException {
+            String[] valores = new String[n];
+            for (int i = 0; i < n; i++) {
+                valores[i] = texto();
+            }
+            return valores;
+        }
+
+        String texto() throws IOException {
+            int longitud = varint() - 1;
+            if (longitud < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[longitud];
+            int leidos = 0;
+            while (leidos < longitud) {
+                asegurar(1);
+                int parte = Math.min(buffer.remaining(), longitud - leidos);
+                buffer.get(bytes, leidos, parte);
+                leidos += parte;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void asegurar(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (canal.read(buffer) < 0) {
+                    throw new EOFException("snapshot truncado");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
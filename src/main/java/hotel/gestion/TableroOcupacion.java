@@ -0,0 +1,126 @@
+package hotel.gestion;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tablero de ocupación en vivo (recepción, limpieza): parte de una foto de las habitaciones leída una vez de la DB
+ * y después se mantiene solo con los eventos del flujo de cambios del hotel, sin volver a consultar la DB.
+ * Se suscribe antes de leer la foto, para no perder los cambios hechos mientras tanto; la foto no pisa
+ * las habitaciones de las que ya llegó un evento.
+ * Guarda el estado de cada habitación y cuenta los cambios de reservas recibidos por estado.
+ *
+ * Pide los eventos de uno en uno (Subscription.request(1)) tras procesar cada uno. Si el flujo tuvo que
+ * descartar eventos porque el tablero iba atrasado, queda desincronizado y hay que abrir uno nuevo
+ * (Hotel.abrirTableroOcupacion), que vuelve a leer la foto.
+ */
+public class TableroOcupacion implements Flow.Subscriber<EventoCambio>, AutoCloseable {
+    private final Map<Integer, String> estadoPorHabitacion = new HashMap<>();
+    private final Map<String, Long> cambiosReservas = new TreeMap<>();
+    private final AtomicLong eventos = new AtomicLong();
+    private volatile Flow.Subscription suscripcion;
+    private volatile boolean desincronizado;
+    private volatile boolean terminado;
+
+    /**
+     * Carga la foto inicial de las habitaciones del hotel, sin pisar las que ya recibieron un evento.
+     * @param habitaciones Las habitaciones leídas de la DB después de suscribirse.
+     */
+    public synchronized void cargarFoto(List<Habitacion> habitaciones) {
+        for (Habitacion h : habitaciones) {
+            estadoPorHabitacion.putIfAbsent(h.getNumero(), h.getEstado());
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription suscripcion) {
+        this.suscripcion = suscripcion;
+        suscripcion.request(1);
+    }
+
+    @Override
+    public void onNext(EventoCambio evento) {
+        synchronized (this) {
+            if (evento instanceof EventoCambio.DeHabitacion) {
+                EventoCambio.DeHabitacion cambio = (EventoCambio.DeHabitacion) evento;
+                estadoPorHabitacion.put(cambio.getNumeroHabitacion(), cambio.getEstado());
+            } else if (evento instanceof EventoCambio.DeReserva) {
+                cambiosReservas.merge(((EventoCambio.DeReserva) evento).getEstado(), 1L, Long::sum);
+            }
+        }
+        eventos.incrementAndGet();
+        suscripcion.request(1);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        System.err.println("Tablero de ocupación: el flujo de cambios falló: " + error.getMessage());
+        desincronizado = true;
+        terminado = true;
+    }
+
+    @Override
+    public void onComplete() {
+        terminado = true;
+    }
+
+    /**
+     * Llamado por el flujo de cambios cuando descarta un evento para este tablero.
+     */
+    void marcarDesincronizado() {
+        desincronizado = true;
+    }
+
+    /**
+     * @return true si el tablero se perdió eventos (o el flujo terminó) y ya no refleja el estado real.
+     */
+    public boolean isDesincronizado() {
+        return desincronizado || terminado;
+    }
+
+    /**
+     * @return Estado -> número de habitaciones en ese estado, según los eventos recibidos.
+     */
+    public synchronized Map<String, Integer> getHabitacionesPorEstado() {
+        Map<String, Integer> conteo = new TreeMap<>();
+        for (String estado : estadoPorHabitacion.values()) {
+            conteo.merge(estado, 1, Integer::sum);
+        }
+        return conteo;
+    }
+
+    /**
+     * Muestra por consola la ocupación actual según el tablero.
+     */
+    public void mostrar() {
+        Map<String, Integer> porEstado = getHabitacionesPorEstado();
+        Map<String, Long> reservas;
+        synchronized (this) {
+            reservas = new TreeMap<>(cambiosReservas);
+        }
+        System.out.println("\n--- Tablero de Ocupación (en vivo) ---");
+        System.out.println("Total de Habitaciones: " + porEstado.values().stream().mapToInt(Integer::intValue).sum());
+        for (Map.Entry<String, Integer> e : porEstado.entrySet()) {
+            System.out.println(e.getKey() + ": " + e.getValue());
+        }
+        System.out.println("Reservas cambiadas desde la apertura: " + (reservas.isEmpty() ? "ninguna" : reservas));
+        System.out.println("Eventos recibidos: " + eventos.get());
+        System.out.println("------------------------------------");
+    }
+
+    /**
+     * Cancela la suscripción al flujo de cambios.
+     */
+    @Override
+    public void close() {
+        Flow.Subscription s = suscripcion;
+        if (s != null) {
+            s.cancel();
+        }
+        terminado = true;
+    }
+}
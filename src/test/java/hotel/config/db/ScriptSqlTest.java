@@ -0,0 +1,68 @@
+package hotel.config.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScriptSqlTest {
+    @TempDir
+    Path carpeta;
+
+    private final List<String> ejecutadas = new ArrayList<>();
+
+    // Conexión que solo anota las sentencias que recibe su Statement
+    private Connection conexion() {
+        Statement stmt = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("execute")) {
+                        ejecutadas.add((String) args[0]);
+                        return false;
+                    }
+                    if (metodo.getName().equals("close")) {
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("createStatement")) {
+                        return stmt;
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+
+    @Test
+    void separaSentenciasYQuitaComentarios() throws Exception {
+        Path script = Files.writeString(carpeta.resolve("a.sql"), """
+                -- Cabecera
+                CREATE TABLE T (
+                    id INT, -- Comentario al final de la línea
+                    nombre VARCHAR(10)
+                );
+
+                INSERT INTO T VALUES (1, 'a--b');
+                """);
+
+        assertEquals(2, ScriptSql.ejecutar(conexion(), script));
+        assertEquals(List.of("CREATE TABLE T (\nid INT,\nnombre VARCHAR(10)\n)", "INSERT INTO T VALUES (1, 'a--b')"), ejecutadas);
+    }
+
+    @Test
+    void rechazaUnaSentenciaSinTerminar() throws Exception {
+        Path script = Files.writeString(carpeta.resolve("b.sql"), "SELECT 1;\nSELECT 2\n");
+
+        assertThrows(SQLException.class, () -> ScriptSql.ejecutar(conexion(), script));
+    }
+}
@@ -0,0 +1,162 @@
+package hotel.config.db.dao.impl;
+
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HuespedDAODirectorioTest {
+    @TempDir
+    Path carpeta;
+
+    private HuespedDAOMemoria db;
+    private HuespedDAODirectorio directorio;
+
+    @BeforeEach
+    void abrir() throws HotelException {
+        db = new HuespedDAOMemoria(new BaseDatosMemoria());
+        directorio = new HuespedDAODirectorio(db, carpeta, "gen-1");
+    }
+
+    @AfterEach
+    void cerrar() throws HotelException {
+        directorio.close();
+    }
+
+    @Test
+    void distingueDnisConElMismoHash() throws HotelException {
+        // "Aa" y "BB" tienen el mismo hashCode: los cuatro DNI caen en la misma clave
+        String[] dnis = {"AaAa", "AaBB", "BBAa", "BBBB"};
+        assertEquals(dnis[0].hashCode(), dnis[3].hashCode());
+        for (String dni : dnis) {
+            directorio.save(huesped(dni));
+        }
+
+        for (String dni : dnis) {
+            assertEquals(dni, directorio.findByDni(dni).get().getDni());
+        }
+        int id = directorio.findByDni("AaBB").get().getIdHuespedInterno();
+        directorio.delete(id);
+
+        assertFalse(directorio.findByDni("AaBB").isPresent());
+        assertEquals("BBAa", directorio.findByDni("BBAa").get().getDni());
+        assertEquals("BBBB", directorio.findByDni("BBBB").get().getDni());
+        assertEquals(3, directorio.tamano());
+        assertEquals(1, directorio.getFallos()); // Solo el borrado fue a la DB
+    }
+
+    @Test
+    void lasActualizacionesReemplazanElRegistro() throws HotelException {
+        Huesped h = huesped("111");
+        directorio.save(h);
+        Huesped cambiado = new Huesped(h.getIdHuesped(), "Otro", h.getApellido(), "222", h.getEmail(), h.getTelefono());
+        cambiado.setIdHuespedInterno(h.getIdHuespedInterno());
+        directorio.update(cambiado);
+
+        assertEquals("Otro", directorio.findById(h.getIdHuespedInterno()).get().getNombre());
+        assertFalse(directorio.findByDni("111").isPresent());
+        assertEquals(h.getIdHuespedInterno(), directorio.findByDni("222").get().getIdHuespedInterno());
+        assertEquals(1, directorio.tamano());
+    }
+
+    @Test
+    void creceSinPerderHuespedes() throws HotelException {
+        // La tabla hash empieza con 65536 ranuras y se duplica al pasar del 50%
+        List<Huesped> huespedes = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            huespedes.add(huesped("DNI" + i));
+        }
+        directorio.saveAll(huespedes);
+
+        assertEquals(40_000, directorio.tamano());
+        for (int i = 0; i < 40_000; i += 97) {
+            Huesped h = huespedes.get(i);
+            assertEquals("DNI" + i, directorio.findById(h.getIdHuespedInterno()).get().getDni());
+            assertEquals(h.getIdHuespedInterno(), directorio.findByDni("DNI" + i).get().getIdHuespedInterno());
+        }
+        assertEquals(0, directorio.getFallos());
+    }
+
+    @Test
+    void alReabrirConservaLosHuespedesDeLaMismaGeneracion() throws HotelException {
+        Huesped h = huesped("123");
+        directorio.save(h);
+        directorio.close();
+
+        directorio = new HuespedDAODirectorio(new HuespedDAOMemoria(new BaseDatosMemoria()), carpeta, "gen-1");
+
+        assertEquals(1, directorio.tamano());
+        Optional<Huesped> leido = directorio.findById(h.getIdHuespedInterno());
+        assertEquals("123", leido.get().getDni());
+        assertEquals(h.getNombre(), leido.get().getNombre());
+        assertEquals(0, directorio.getFallos());
+    }
+
+    @Test
+    void alReabrirConOtraGeneracionEmpiezaVacio() throws HotelException {
+        directorio.save(huesped("123"));
+        directorio.close();
+
+        // La base se recreó: el mismo ID de DB es ahora otro huésped
+        HuespedDAOMemoria nueva = new HuespedDAOMemoria(new BaseDatosMemoria());
+        Huesped otro = huesped("999");
+        nueva.save(otro);
+        directorio = new HuespedDAODirectorio(nueva, carpeta, "gen-2");
+
+        assertEquals(0, directorio.tamano());
+        assertEquals("999", directorio.findById(otro.getIdHuespedInterno()).get().getDni());
+        assertFalse(directorio.findByDni("123").isPresent());
+    }
+
+    @Test
+    void siNoSeCerroEmpiezaVacio(@TempDir Path copia) throws Exception {
+        directorio.save(huesped("123"));
+        // Copia de los archivos con el directorio aún abierto: lo que quedaría en disco tras una caída
+        for (String archivo : new String[]{"huespedes.dat", "huespedes-dni.idx", "huespedes-id.idx"}) {
+            Files.copy(carpeta.resolve(archivo), copia.resolve(archivo));
+        }
+
+        try (HuespedDAODirectorio tras = new HuespedDAODirectorio(db, copia, "gen-1")) {
+            assertEquals(0, tras.tamano());
+        }
+    }
+
+    @Test
+    void sinGeneracionConocidaEmpiezaVacio() throws HotelException {
+        directorio.save(huesped("123"));
+        directorio.close();
+
+        directorio = new HuespedDAODirectorio(db, carpeta, null);
+
+        assertEquals(0, directorio.tamano());
+        assertTrue(directorio.findByDni("123").isPresent()); // Desde la DB
+        assertEquals(1, directorio.getFallos());
+    }
+
+    @Test
+    void noSePuedeAbrirDosVecesLaMismaCarpeta() throws HotelException {
+        assertThrows(HotelException.class, () -> new HuespedDAODirectorio(db, carpeta, "gen-1"));
+
+        directorio.close();
+        directorio.close(); // No hace nada
+        directorio = new HuespedDAODirectorio(db, carpeta, "gen-1");
+        assertEquals(0, directorio.tamano());
+    }
+
+    private Huesped huesped(String dni) {
+        return new Huesped(null, "Nombre " + dni, "Apellido", dni, dni + "@ejemplo.com", "600" + dni.length());
+    }
+}
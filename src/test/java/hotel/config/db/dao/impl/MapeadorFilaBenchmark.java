@@ -0,0 +1,134 @@
+package hotel.config.db.dao.impl;
+
+import hotel.config.db.dao.MapeadorFila;
+import hotel.gestion.Habitacion;
+import hotel.gestion.HabitacionDoble;
+import hotel.gestion.HabitacionSimple;
+import hotel.gestion.HabitacionSuite;
+import hotel.gestion.HotelException;
+import hotel.gestion.Huesped;
+import hotel.gestion.Reserva;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del mapeo de filas de reservas (con su huésped y habitación) de ReservaDAOImpl: el mapeador
+ * por índice de columna (MapeadorFila) frente al mapeo por nombre que se usaba antes, sobre un ResultSet en
+ * memoria que imita al driver (ResultSetFilas). Se ejecuta con el perfil "jmh", que añade -prof gc para medir
+ * los bytes asignados por operación (gc.alloc.rate.norm):
+ *
+ *     mvn -Pjmh test
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeadorFilaBenchmark {
+    // Las columnas de ReservaDAOImpl.SELECT_CON_JOIN
+    static final List<String> COLUMNAS = List.of("id_reserva", "id_huesped", "id_habitacion", "fecha_checkin",
+            "fecha_checkout", "cantidad_huespedes", "estado_reserva", "nombre", "apellido", "dni", "email", "telefono",
+            "numero_habitacion", "tipo", "precio_por_noche", "estado");
+    private static final String[] TIPOS = {"Simple", "Doble", "Suite"};
+    private static final String[] ESTADOS_RESERVA = {"Confirmada", "Check-in", "Check-out", "Cancelada"};
+    private static final String[] ESTADOS_HABITACION = {"Disponible", "Ocupada", "En Limpieza"};
+
+    @Param({"1000"})
+    public int filas;
+
+    private ResultSetFilas rs;
+
+    @Setup
+    public void preparar() {
+        rs = new ResultSetFilas(COLUMNAS, generarFilas(filas));
+    }
+
+    /**
+     * Mapeo actual: índices resueltos una vez por ResultSet, fechas como LocalDate, sin ID externo.
+     */
+    @Benchmark
+    public void mapeador(Blackhole bh) throws SQLException, HotelException {
+        rs.beforeFirst();
+        MapeadorFila<Reserva> mapeador = ReservaDAOImpl.mapeadorReserva(rs);
+        while (rs.next()) {
+            bh.consume(mapeador.mapear(rs));
+        }
+    }
+
+    /**
+     * Mapeo anterior (por nombre en cada fila, fechas por java.sql.Date e ID externo con String.valueOf).
+     */
+    @Benchmark
+    public void porNombre(Blackhole bh) throws SQLException, HotelException {
+        rs.beforeFirst();
+        while (rs.next()) {
+            bh.consume(mapearPorNombre(rs));
+        }
+    }
+
+    static List<String[]> generarFilas(int cantidad) {
+        List<String[]> filas = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        for (int i = 1; i <= cantidad; i++) {
+            LocalDate checkin = inicio.plusDays(i % 365);
+            filas.add(new String[]{
+                    Integer.toString(i), Integer.toString(1000 + i), Integer.toString(1 + i % 50),
+                    checkin.toString(), checkin.plusDays(1 + i % 7).toString(), Integer.toString(1 + i % 4),
+                    ESTADOS_RESERVA[i % ESTADOS_RESERVA.length],
+                    "Nombre" + i, "Apellido" + i, String.format("%08dX", i), "huesped" + i + "@ejemplo.com",
+                    "600" + String.format("%06d", i),
+                    Integer.toString(100 + i % 50), TIPOS[i % TIPOS.length], (50 + i % 50) + ".50",
+                    ESTADOS_HABITACION[i % ESTADOS_HABITACION.length]});
+        }
+        return filas;
+    }
+
+    private static Reserva mapearPorNombre(ResultSet rs) throws SQLException, HotelException {
+        int idHuesped = rs.getInt("id_huesped");
+        Huesped huesped = new Huesped(String.valueOf(idHuesped), rs.getString("nombre"), rs.getString("apellido"),
+                rs.getString("dni"), rs.getString("email"), rs.getString("telefono"));
+        huesped.setIdHuespedInterno(idHuesped);
+
+        int numero = rs.getInt("numero_habitacion");
+        double precioPorNoche = rs.getDouble("precio_por_noche");
+        Habitacion habitacion;
+        switch (rs.getString("tipo")) {
+            case "Simple":
+                habitacion = new HabitacionSimple(numero, precioPorNoche);
+                break;
+            case "Doble":
+                habitacion = new HabitacionDoble(numero, precioPorNoche);
+                break;
+            default:
+                habitacion = new HabitacionSuite(numero, precioPorNoche);
+        }
+        habitacion.setEstado(rs.getString("estado"));
+        habitacion.setDbId(rs.getInt("id_habitacion"));
+
+        int idReserva = rs.getInt("id_reserva");
+        Reserva reserva = new Reserva(String.valueOf(idReserva), huesped, habitacion,
+                rs.getDate("fecha_checkin").toLocalDate(), rs.getDate("fecha_checkout").toLocalDate(),
+                rs.getInt("cantidad_huespedes"));
+        reserva.setEstado(rs.getString("estado_reserva"));
+        reserva.setIdReservaInterno(idReserva);
+        return reserva;
+    }
+}
@@ -0,0 +1,368 @@
+package hotel.config.db.dao.impl;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultSet en memoria, de solo avance, para medir el mapeo de filas sin base de datos.
+ *
+ * Imita lo que hace el driver de MySQL con el protocolo de texto: cada valor se guarda como los bytes que
+ * llegan del servidor, getString crea un String por llamada, getInt lee los dígitos sin crear objetos,
+ * getDouble pasa por un String, getDate crea un java.sql.Date y getObject(col, LocalDate.class) crea
+ * directamente el LocalDate. findColumn busca en un mapa, como la caché de columnas del driver.
+ * El resto de métodos no se necesitan y lanzan SQLFeatureNotSupportedException.
+ */
+@SuppressWarnings("deprecation") // Implementa también los métodos obsoletos de ResultSet
+class ResultSetFilas implements ResultSet {
+    private final Map<String, Integer> columnas = new HashMap<>();
+    private final byte[][][] filas;
+    private int actual = -1;
+    private boolean nulo;
+
+    /**
+     * @param columnas Las etiquetas de las columnas, en orden.
+     * @param filas Los valores de cada fila como texto (null = NULL de SQL).
+     */
+    ResultSetFilas(List<String> columnas, List<String[]> filas) {
+        for (int i = 0; i < columnas.size(); i++) {
+            this.columnas.put(columnas.get(i), i + 1);
+        }
+        this.filas = new byte[filas.size()][][];
+        for (int f = 0; f < filas.size(); f++) {
+            String[] valores = filas.get(f);
+            this.filas[f] = new byte[valores.length][];
+            for (int c = 0; c < valores.length; c++) {
+                this.filas[f][c] = valores[c] != null ? valores[c].getBytes(StandardCharsets.UTF_8) : null;
+            }
+        }
+    }
+
+    @Override
+    public boolean next() {
+        if (actual < filas.length) {
+            actual++;
+        }
+        return actual < filas.length;
+    }
+
+    @Override
+    public void beforeFirst() {
+        actual = -1;
+    }
+
+    @Override
+    public void close() {
+        actual = filas.length;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return false;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return nulo;
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        Integer columna = columnas.get(columnLabel);
+        if (columna == null) {
+            throw new SQLException("Columna '" + columnLabel + "' no encontrada.");
+        }
+        return columna;
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        byte[] valor = valor(columnIndex);
+        if (valor == null) {
+            return 0;
+        }
+        int i = valor[0] == '-' ? 1 : 0;
+        int n = 0;
+        for (int j = i; j < valor.length; j++) {
+            n = n * 10 + (valor[j] - '0');
+        }
+        return i == 1 ? -n : n;
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(findColumn(columnLabel));
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        byte[] valor = valor(columnIndex);
+        return valor != null ? new String(valor, StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        byte[] valor = valor(columnIndex);
+        return valor != null ? Double.parseDouble(new String(valor, StandardCharsets.ISO_8859_1)) : 0;
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        return getDouble(findColumn(columnLabel));
+    }
+
+    @Override
+    public Date getDate(int columnIndex) throws SQLException {
+        LocalDate fecha = fecha(valor(columnIndex));
+        return fecha != null ? Date.valueOf(fecha) : null;
+    }
+
+    @Override
+    public Date getDate(String columnLabel) throws SQLException {
+        return getDate(findColumn(columnLabel));
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        if (type != LocalDate.class) {
+            throw noSoportado();
+        }
+        return type.cast(fecha(valor(columnIndex)));
+    }
+
+    private byte[] valor(int columnIndex) throws SQLException {
+        if (actual < 0 || actual >= filas.length) {
+            throw new SQLException("No hay fila actual.");
+        }
+        byte[] valor = filas[actual][columnIndex - 1];
+        nulo = valor == null;
+        return valor;
+    }
+
+    // Fecha AAAA-MM-DD leída de los bytes, sin pasar por un String
+    private static LocalDate fecha(byte[] valor) {
+        if (valor == null) {
+            return null;
+        }
+        return LocalDate.of(digitos(valor, 0, 4), digitos(valor, 5, 7), digitos(valor, 8, 10));
+    }
+
+    private static int digitos(byte[] valor, int desde, int hasta) {
+        int n = 0;
+        for (int i = desde; i < hasta; i++) {
+            n = n * 10 + (valor[i] - '0');
+        }
+        return n;
+    }
+
+    private static SQLException noSoportado() {
+        return new SQLFeatureNotSupportedException("No soportado por ResultSetFilas.");
+    }
+
+    // --- Sin soporte ---
+
+    @Override public Date getDate(int p0, Calendar p1) throws SQLException { throw noSoportado(); }
+    @Override public Date getDate(String p0, Calendar p1) throws SQLException { throw noSoportado(); }
+    @Override public Object getObject(int p0) throws SQLException { throw noSoportado(); }
+    @Override public Object getObject(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Object getObject(int p0, Map<String, Class<?>> p1) throws SQLException { throw noSoportado(); }
+    @Override public Object getObject(String p0, Map<String, Class<?>> p1) throws SQLException { throw noSoportado(); }
+    @Override public <T> T getObject(String p0, Class<T> p1) throws SQLException { throw noSoportado(); }
+    @Override public boolean absolute(int p0) throws SQLException { throw noSoportado(); }
+    @Override public void afterLast() throws SQLException { throw noSoportado(); }
+    @Override public void cancelRowUpdates() throws SQLException { throw noSoportado(); }
+    @Override public void clearWarnings() throws SQLException { throw noSoportado(); }
+    @Override public void deleteRow() throws SQLException { throw noSoportado(); }
+    @Override public boolean first() throws SQLException { throw noSoportado(); }
+    @Override public Array getArray(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Array getArray(int p0) throws SQLException { throw noSoportado(); }
+    @Override public InputStream getAsciiStream(String p0) throws SQLException { throw noSoportado(); }
+    @Override public InputStream getAsciiStream(int p0) throws SQLException { throw noSoportado(); }
+    @Override public BigDecimal getBigDecimal(String p0, int p1) throws SQLException { throw noSoportado(); }
+    @Override public BigDecimal getBigDecimal(String p0) throws SQLException { throw noSoportado(); }
+    @Override public BigDecimal getBigDecimal(int p0, int p1) throws SQLException { throw noSoportado(); }
+    @Override public BigDecimal getBigDecimal(int p0) throws SQLException { throw noSoportado(); }
+    @Override public InputStream getBinaryStream(String p0) throws SQLException { throw noSoportado(); }
+    @Override public InputStream getBinaryStream(int p0) throws SQLException { throw noSoportado(); }
+    @Override public Blob getBlob(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Blob getBlob(int p0) throws SQLException { throw noSoportado(); }
+    @Override public boolean getBoolean(String p0) throws SQLException { throw noSoportado(); }
+    @Override public boolean getBoolean(int p0) throws SQLException { throw noSoportado(); }
+    @Override public byte getByte(String p0) throws SQLException { throw noSoportado(); }
+    @Override public byte getByte(int p0) throws SQLException { throw noSoportado(); }
+    @Override public byte[] getBytes(String p0) throws SQLException { throw noSoportado(); }
+    @Override public byte[] getBytes(int p0) throws SQLException { throw noSoportado(); }
+    @Override public Reader getCharacterStream(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Reader getCharacterStream(int p0) throws SQLException { throw noSoportado(); }
+    @Override public Clob getClob(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Clob getClob(int p0) throws SQLException { throw noSoportado(); }
+    @Override public int getConcurrency() throws SQLException { throw noSoportado(); }
+    @Override public String getCursorName() throws SQLException { throw noSoportado(); }
+    @Override public int getFetchDirection() throws SQLException { throw noSoportado(); }
+    @Override public int getFetchSize() throws SQLException { throw noSoportado(); }
+    @Override public float getFloat(String p0) throws SQLException { throw noSoportado(); }
+    @Override public float getFloat(int p0) throws SQLException { throw noSoportado(); }
+    @Override public int getHoldability() throws SQLException { throw noSoportado(); }
+    @Override public long getLong(String p0) throws SQLException { throw noSoportado(); }
+    @Override public long getLong(int p0) throws SQLException { throw noSoportado(); }
+    @Override public ResultSetMetaData getMetaData() throws SQLException { throw noSoportado(); }
+    @Override public Reader getNCharacterStream(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Reader getNCharacterStream(int p0) throws SQLException { throw noSoportado(); }
+    @Override public NClob getNClob(String p0) throws SQLException { throw noSoportado(); }
+    @Override public NClob getNClob(int p0) throws SQLException { throw noSoportado(); }
+    @Override public String getNString(String p0) throws SQLException { throw noSoportado(); }
+    @Override public String getNString(int p0) throws SQLException { throw noSoportado(); }
+    @Override public Ref getRef(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Ref getRef(int p0) throws SQLException { throw noSoportado(); }
+    @Override public int getRow() throws SQLException { throw noSoportado(); }
+    @Override public RowId getRowId(String p0) throws SQLException { throw noSoportado(); }
+    @Override public RowId getRowId(int p0) throws SQLException { throw noSoportado(); }
+    @Override public SQLXML getSQLXML(String p0) throws SQLException { throw noSoportado(); }
+    @Override public SQLXML getSQLXML(int p0) throws SQLException { throw noSoportado(); }
+    @Override public short getShort(String p0) throws SQLException { throw noSoportado(); }
+    @Override public short getShort(int p0) throws SQLException { throw noSoportado(); }
+    @Override public Statement getStatement() throws SQLException { throw noSoportado(); }
+    @Override public Time getTime(String p0, Calendar p1) throws SQLException { throw noSoportado(); }
+    @Override public Time getTime(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Time getTime(int p0, Calendar p1) throws SQLException { throw noSoportado(); }
+    @Override public Time getTime(int p0) throws SQLException { throw noSoportado(); }
+    @Override public Timestamp getTimestamp(String p0, Calendar p1) throws SQLException { throw noSoportado(); }
+    @Override public Timestamp getTimestamp(String p0) throws SQLException { throw noSoportado(); }
+    @Override public Timestamp getTimestamp(int p0, Calendar p1) throws SQLException { throw noSoportado(); }
+    @Override public Timestamp getTimestamp(int p0) throws SQLException { throw noSoportado(); }
+    @Override public int getType() throws SQLException { throw noSoportado(); }
+    @Override public URL getURL(String p0) throws SQLException { throw noSoportado(); }
+    @Override public URL getURL(int p0) throws SQLException { throw noSoportado(); }
+    @Override public InputStream getUnicodeStream(String p0) throws SQLException { throw noSoportado(); }
+    @Override public InputStream getUnicodeStream(int p0) throws SQLException { throw noSoportado(); }
+    @Override public SQLWarning getWarnings() throws SQLException { throw noSoportado(); }
+    @Override public void insertRow() throws SQLException { throw noSoportado(); }
+    @Override public boolean isAfterLast() throws SQLException { throw noSoportado(); }
+    @Override public boolean isBeforeFirst() throws SQLException { throw noSoportado(); }
+    @Override public boolean isFirst() throws SQLException { throw noSoportado(); }
+    @Override public boolean isLast() throws SQLException { throw noSoportado(); }
+    @Override public boolean isWrapperFor(Class<?> p0) throws SQLException { throw noSoportado(); }
+    @Override public boolean last() throws SQLException { throw noSoportado(); }
+    @Override public void moveToCurrentRow() throws SQLException { throw noSoportado(); }
+    @Override public void moveToInsertRow() throws SQLException { throw noSoportado(); }
+    @Override public boolean previous() throws SQLException { throw noSoportado(); }
+    @Override public void refreshRow() throws SQLException { throw noSoportado(); }
+    @Override public boolean relative(int p0) throws SQLException { throw noSoportado(); }
+    @Override public boolean rowDeleted() throws SQLException { throw noSoportado(); }
+    @Override public boolean rowInserted() throws SQLException { throw noSoportado(); }
+    @Override public boolean rowUpdated() throws SQLException { throw noSoportado(); }
+    @Override public void setFetchDirection(int p0) throws SQLException { throw noSoportado(); }
+    @Override public void setFetchSize(int p0) throws SQLException { throw noSoportado(); }
+    @Override public <T> T unwrap(Class<T> p0) throws SQLException { throw noSoportado(); }
+    @Override public void updateArray(String p0, Array p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateArray(int p0, Array p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateAsciiStream(String p0, InputStream p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateAsciiStream(String p0, InputStream p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateAsciiStream(String p0, InputStream p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateAsciiStream(int p0, InputStream p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateAsciiStream(int p0, InputStream p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateAsciiStream(int p0, InputStream p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBigDecimal(String p0, BigDecimal p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBigDecimal(int p0, BigDecimal p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBinaryStream(String p0, InputStream p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateBinaryStream(String p0, InputStream p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateBinaryStream(String p0, InputStream p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBinaryStream(int p0, InputStream p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateBinaryStream(int p0, InputStream p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateBinaryStream(int p0, InputStream p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBlob(String p0, InputStream p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateBlob(String p0, InputStream p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBlob(String p0, Blob p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBlob(int p0, InputStream p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateBlob(int p0, InputStream p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBlob(int p0, Blob p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBoolean(String p0, boolean p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBoolean(int p0, boolean p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateByte(String p0, byte p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateByte(int p0, byte p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBytes(String p0, byte[] p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateBytes(int p0, byte[] p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateCharacterStream(String p0, Reader p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateCharacterStream(String p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateCharacterStream(String p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateCharacterStream(int p0, Reader p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateCharacterStream(int p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateCharacterStream(int p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateClob(String p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateClob(String p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateClob(String p0, Clob p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateClob(int p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateClob(int p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateClob(int p0, Clob p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateDate(String p0, Date p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateDate(int p0, Date p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateDouble(String p0, double p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateDouble(int p0, double p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateFloat(String p0, float p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateFloat(int p0, float p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateInt(String p0, int p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateInt(int p0, int p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateLong(String p0, long p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateLong(int p0, long p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNCharacterStream(String p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateNCharacterStream(String p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNCharacterStream(int p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateNCharacterStream(int p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNClob(String p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateNClob(String p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNClob(String p0, NClob p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNClob(int p0, Reader p1, long p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateNClob(int p0, Reader p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNClob(int p0, NClob p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNString(String p0, String p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNString(int p0, String p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateNull(String p0) throws SQLException { throw noSoportado(); }
+    @Override public void updateNull(int p0) throws SQLException { throw noSoportado(); }
+    @Override public void updateObject(String p0, Object p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateObject(String p0, Object p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateObject(int p0, Object p1, int p2) throws SQLException { throw noSoportado(); }
+    @Override public void updateObject(int p0, Object p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateRef(String p0, Ref p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateRef(int p0, Ref p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateRow() throws SQLException { throw noSoportado(); }
+    @Override public void updateRowId(String p0, RowId p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateRowId(int p0, RowId p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateSQLXML(String p0, SQLXML p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateSQLXML(int p0, SQLXML p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateShort(String p0, short p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateShort(int p0, short p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateString(String p0, String p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateString(int p0, String p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateTime(String p0, Time p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateTime(int p0, Time p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateTimestamp(String p0, Timestamp p1) throws SQLException { throw noSoportado(); }
+    @Override public void updateTimestamp(int p0, Timestamp p1) throws SQLException { throw noSoportado(); }
+}
@@ -0,0 +1,139 @@
+package hotel.gestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AlmacenReservasTest {
+    private static final String[] ESTADOS = {"Confirmada", "Check-in", "Check-out", "Cancelada", "No-show"};
+
+    private final List<Habitacion> habitaciones = new ArrayList<>();
+
+    AlmacenReservasTest() {
+        habitaciones.add(habitacion(new HabitacionSimple(101, 50.0), 1));
+        habitaciones.add(habitacion(new HabitacionDoble(102, 80.0), 2));
+        habitaciones.add(habitacion(new HabitacionSuite(201, 150.0), 7));
+    }
+
+    @Test
+    void lasVistasDevuelvenLoMismoQueLasReservasAgregadas() throws HotelException {
+        AlmacenReservas almacen = new AlmacenReservas(habitaciones, 4); // Crece varias veces
+        List<Reserva> reservas = generar(1000);
+        for (Reserva r : reservas) {
+            almacen.agregar(r);
+        }
+
+        assertEquals(reservas.size(), almacen.tamano());
+        assertEquals(3, almacen.getTotalHabitaciones());
+        for (int i = 0; i < reservas.size(); i++) {
+            Reserva r = reservas.get(i);
+            AlmacenReservas.VistaReserva v = almacen.getVista(i);
+            assertEquals(r.getIdReservaInterno(), v.getIdReservaInterno());
+            assertEquals(r.getIdReserva(), v.getIdReserva());
+            assertEquals(r.getHabitacion().getDbId(), v.getIdHabitacion());
+            assertEquals(r.getHabitacion().getNumero(), v.getNumeroHabitacion());
+            assertEquals(r.getHuesped().getIdHuespedInterno(), v.getIdHuesped());
+            assertEquals(r.getFechaCheckin(), v.getFechaCheckin());
+            assertEquals(r.getFechaCheckout(), v.getFechaCheckout());
+            assertEquals(r.getCantidadHuespedes(), v.getCantidadHuespedes());
+            assertEquals(r.getEstado(), v.getEstado());
+            assertEquals(r.calcularCostoTotal(), v.calcularCostoTotal(), 1e-9);
+        }
+    }
+
+    @Test
+    void forEachRecorreEnOrdenDeCargaYLosAgregadosCoincidenConLasReservas() throws HotelException {
+        AlmacenReservas almacen = new AlmacenReservas(habitaciones, 16);
+        List<Reserva> reservas = generar(500);
+        reservas.forEach(almacen::agregar);
+
+        List<Integer> ids = new ArrayList<>();
+        almacen.forEach(v -> ids.add(v.getIdReservaInterno()));
+        List<Integer> esperados = new ArrayList<>();
+        Map<String, Integer> porEstado = new LinkedHashMap<>();
+        double costoCheckOut = 0;
+        for (Reserva r : reservas) {
+            esperados.add(r.getIdReservaInterno());
+            porEstado.merge(r.getEstado(), 1, Integer::sum);
+            if (r.getEstado().equals("Check-out")) {
+                costoCheckOut += r.calcularCostoTotal();
+            }
+        }
+
+        assertEquals(esperados, ids);
+        assertEquals(porEstado, almacen.contarPorEstado());
+        assertEquals(costoCheckOut, almacen.sumCostoTotalByEstado("Check-out"), 1e-6);
+        assertEquals(0.0, almacen.sumCostoTotalByEstado("Inexistente"), 0.0);
+    }
+
+    @Test
+    void contarNochesOcupadasRecortaAlPeriodoEIgnoraCanceladasYNoShow() throws HotelException {
+        AlmacenReservas almacen = new AlmacenReservas(habitaciones, 16);
+        LocalDate d = LocalDate.of(2025, 3, 1);
+        almacen.agregar(reserva(1, 0, d, d.plusDays(5), "Confirmada"));        // 5 noches, 2 antes del período
+        almacen.agregar(reserva(2, 1, d.plusDays(3), d.plusDays(4), "Check-out")); // 1 noche dentro
+        almacen.agregar(reserva(3, 2, d.plusDays(2), d.plusDays(9), "Check-in"));  // 7 noches, 2 después
+        almacen.agregar(reserva(4, 0, d.plusDays(2), d.plusDays(6), "Cancelada"));
+        almacen.agregar(reserva(5, 1, d.plusDays(2), d.plusDays(6), "No-show"));
+
+        assertEquals(3 + 1 + 5, almacen.contarNochesOcupadas(d.plusDays(2), d.plusDays(7)));
+    }
+
+    @Test
+    void aceptaEstadosDesconocidosYSigueCreciendoTrasCompactar() throws HotelException {
+        AlmacenReservas almacen = new AlmacenReservas(habitaciones, 0);
+        almacen.compactar(); // Deja los arrays vacíos
+        LocalDate d = LocalDate.of(2025, 1, 10);
+        almacen.agregar(reserva(1, 0, d, d.plusDays(2), "Bloqueada"));
+        almacen.agregar(reserva(2, 1, d, d.plusDays(1), "Confirmada"));
+
+        assertEquals(2, almacen.tamano());
+        assertEquals("Bloqueada", almacen.getVista(0).getEstado());
+        assertEquals(Map.of("Confirmada", 1, "Bloqueada", 1), almacen.contarPorEstado());
+        assertThrows(IndexOutOfBoundsException.class, () -> almacen.getVista(2));
+    }
+
+    @Test
+    void lasHabitacionesDesconocidasNoSumanCosto() throws HotelException {
+        AlmacenReservas almacen = new AlmacenReservas(List.of(habitaciones.get(0)), 16);
+        LocalDate d = LocalDate.of(2025, 1, 10);
+        almacen.agregar(reserva(1, 2, d, d.plusDays(3), "Check-out")); // Habitación 201, no registrada
+
+        assertEquals(0.0, almacen.getVista(0).calcularCostoTotal(), 0.0);
+        assertEquals(0, almacen.getVista(0).getNumeroHabitacion());
+
+        almacen.registrarHabitacion(habitaciones.get(2));
+        assertEquals(3 * habitaciones.get(2).calcularCostoNoche(), almacen.sumCostoTotalByEstado("Check-out"), 1e-9);
+    }
+
+    private List<Reserva> generar(int cantidad) throws HotelException {
+        List<Reserva> reservas = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        for (int i = 1; i <= cantidad; i++) {
+            LocalDate checkin = inicio.plusDays(i % 400);
+            reservas.add(reserva(i, i % habitaciones.size(), checkin, checkin.plusDays(1 + i % 9), ESTADOS[i % ESTADOS.length]));
+        }
+        return reservas;
+    }
+
+    private Reserva reserva(int id, int habitacion, LocalDate checkin, LocalDate checkout, String estado) throws HotelException {
+        Huesped huesped = new Huesped(null, "Nombre" + id, "Apellido", "DNI" + id, "h" + id + "@ejemplo.com", "600");
+        huesped.setIdHuespedInterno(10_000 + id);
+        Reserva reserva = new Reserva(null, huesped, habitaciones.get(habitacion), checkin, checkout, 1 + id % 4);
+        reserva.setIdReservaInterno(id);
+        reserva.setEstado(estado);
+        return reserva;
+    }
+
+    private static Habitacion habitacion(Habitacion h, int dbId) {
+        h.setDbId(dbId);
+        return h;
+    }
+}
@@ -0,0 +1,122 @@
+package hotel.gestion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceHuespedesTest {
+    private IndiceHuespedes indice;
+
+    @BeforeEach
+    void crearIndice() {
+        indice = new IndiceHuespedes();
+        indice.cargar(List.of(
+                huesped(1, "Mariana", "López", "mariana@ejemplo.com", "600 111 222"),
+                huesped(2, "Ana", "Martínez", "ana.martinez@ejemplo.com", "600-333-444"),
+                huesped(3, "Luis", "Pérez", "contacto.ana@ejemplo.com", "611222333"),
+                huesped(4, "Joana", "García", "joana@ejemplo.com", "622 444 555")));
+    }
+
+    @Test
+    void elInicioDePalabraVaAntesQueLaCoincidenciaEnMedio() {
+        // "ana" empieza el nombre de Ana, está en medio de Mariana y Joana
+        List<Integer> ids = ids(indice.buscar("ana", 10));
+
+        assertEquals(2, ids.get(0).intValue());
+        assertTrue(ids.indexOf(1) > 0 && ids.indexOf(4) > 0);
+    }
+
+    @Test
+    void elNombreVaAntesQueElEmail() {
+        // Ana lo tiene como nombre; Luis solo al inicio de una palabra del email
+        List<Integer> ids = ids(indice.buscar("ana", 10));
+
+        assertTrue(ids.indexOf(2) < ids.indexOf(3));
+        // Al inicio de una palabra del email supera a una coincidencia en medio del nombre
+        assertTrue(ids.indexOf(3) < ids.indexOf(1));
+        assertTrue(ids.indexOf(3) < ids.indexOf(4));
+    }
+
+    @Test
+    void buscaPorVariasPalabrasSinTildesYPorTelefonoSinSeparadores() {
+        assertEquals(List.of(2), ids(indice.buscar("MARTINEZ an", 10)));
+        assertEquals(List.of(1), ids(indice.buscar("lopez", 10)));
+        assertEquals(List.of(2), ids(indice.buscar("333444", 10)));
+        assertEquals(List.of(), ids(indice.buscar("zzz", 10)));
+        assertEquals(List.of(), ids(indice.buscar("  ", 10)));
+    }
+
+    @Test
+    void lasConsultasCortasBuscanPorPrefijo() {
+        assertEquals(List.of(1, 2), ordenados(ids(indice.buscar("m", 10))));
+        assertEquals(List.of(4), ids(indice.buscar("jo", 10)));
+    }
+
+    @Test
+    void respetaElLimiteYDevuelveCopias() {
+        List<Huesped> resultado = indice.buscar("ejemplo", 2);
+        assertEquals(2, resultado.size());
+
+        int id = resultado.get(0).getIdHuespedInterno();
+        resultado.get(0).setIdHuespedInterno(99);
+        assertEquals(id, indice.buscar("ejemplo", 2).get(0).getIdHuespedInterno());
+    }
+
+    @Test
+    void lasActualizacionesYBajasSeVenEnLaBusqueda() {
+        indice.actualizar(huesped(3, "Luisa", "Pérez", "luisa@ejemplo.com", "611222333"));
+        indice.quitar(4);
+
+        assertEquals(List.of(3), ids(indice.buscar("luisa", 10)));
+        assertEquals(List.of(), ids(indice.buscar("joana", 10)));
+        assertEquals(List.of(), ids(indice.buscar("contacto", 10)));
+        assertEquals(3, indice.tamano());
+    }
+
+    @Test
+    void sobreviveALaReconstruccionTrasMuchosCambios() {
+        List<Huesped> todos = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            todos.add(huesped(i, "Nombre" + i, "Apellido", "h" + i + "@ejemplo.com", "600" + i));
+        }
+        indice.cargar(todos);
+
+        // Cada cambio deja una entrada sin uso: 5000 cambios fuerzan varias reconstrucciones
+        for (int vuelta = 0; vuelta < 10; vuelta++) {
+            for (int i = 1; i <= 500; i++) {
+                indice.actualizar(huesped(i, "Nombre" + i, "Vuelta" + vuelta, "h" + i + "@ejemplo.com", "600" + i));
+            }
+        }
+
+        assertEquals(500, indice.tamano());
+        assertEquals(List.of(123), ids(indice.buscar("nombre123 vuelta9", 10)));
+        assertEquals(List.of(), ids(indice.buscar("vuelta8", 10)));
+        assertEquals(List.of(), ids(indice.buscar("apellido", 10)));
+        assertEquals(500, indice.buscar("vuelta9", 1000).size());
+    }
+
+    private static Huesped huesped(int id, String nombre, String apellido, String email, String telefono) {
+        Huesped h = new Huesped(null, nombre, apellido, "DNI" + id, email, telefono);
+        h.setIdHuespedInterno(id);
+        return h;
+    }
+
+    private static List<Integer> ids(List<Huesped> huespedes) {
+        List<Integer> ids = new ArrayList<>();
+        for (Huesped h : huespedes) {
+            ids.add(h.getIdHuespedInterno());
+        }
+        return ids;
+    }
+
+    private static List<Integer> ordenados(List<Integer> ids) {
+        List<Integer> copia = new ArrayList<>(ids);
+        copia.sort(null);
+        return copia;
+    }
+}
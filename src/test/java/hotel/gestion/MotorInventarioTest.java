@@ -0,0 +1,121 @@
+package hotel.gestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MotorInventarioTest {
+    private static final LocalDate HOY = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void lasReservasConcurrentesNuncaSobrevendenUnaNoche() throws Exception {
+        MotorInventario motor = motor(5, 30); // Sin cancelaciones no hay sobreventa: límite = 5
+        int hilos = 8;
+        int intentosPorHilo = 500;
+        AtomicInteger vendidas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                int semilla = h;
+                tareas.add(pool.submit(() -> {
+                    salida.await();
+                    for (int i = 0; i < intentosPorHilo; i++) {
+                        // Estancias de 1 a 4 noches que se solapan en los primeros 10 días
+                        LocalDate checkin = HOY.plusDays((semilla * 7 + i) % 10);
+                        LocalDate checkout = checkin.plusDays(1 + (semilla + i) % 4);
+                        if (motor.reservar("Doble", checkin, checkout, 1)) {
+                            vendidas.incrementAndGet();
+                            if (i % 3 == 0) {
+                                motor.deshacer("Doble", checkin, checkout, 1);
+                                vendidas.decrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            salida.countDown();
+            for (Future<?> t : tareas) {
+                t.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(vendidas.get() > 0);
+        for (int d = 0; d < 14; d++) {
+            int noche = motor.getVendidas("Doble", HOY.plusDays(d));
+            assertTrue(noche <= 5, "Noche " + d + " vendida " + noche + " veces");
+        }
+    }
+
+    @Test
+    void siUnaNocheEstaCompletaNoVendeNingunaDeLaEstancia() {
+        MotorInventario motor = motor(1, 30);
+        assertTrue(motor.reservar("Doble", HOY.plusDays(2), HOY.plusDays(3), 1));
+
+        assertFalse(motor.reservar("Doble", HOY, HOY.plusDays(5), 1));
+        assertEquals(0, motor.getVendidas("Doble", HOY));
+        assertEquals(0, motor.getVendidas("Doble", HOY.plusDays(1)));
+        assertEquals(1, motor.getVendidas("Doble", HOY.plusDays(2)));
+    }
+
+    @Test
+    void alAvanzarLasNochesQueEntranAlHorizonteConservanLoVendido() {
+        MotorInventario motor = motor(2, 10);
+        // Noches 8 a 13: de la 10 en adelante quedan fuera del horizonte inicial
+        assertTrue(motor.reservar("Doble", HOY.plusDays(8), HOY.plusDays(14), 2));
+        assertEquals(2, motor.getVendidas("Doble", HOY.plusDays(12)));
+
+        motor.avanzar(HOY.plusDays(5));
+
+        assertEquals(0, motor.getVendidas("Doble", HOY.plusDays(4))); // Ya pasó
+        for (int d = 8; d < 14; d++) {
+            assertEquals(2, motor.getVendidas("Doble", HOY.plusDays(d)));
+        }
+        // Las noches que entraron se controlan: ya están completas
+        assertFalse(motor.reservar("Doble", HOY.plusDays(12), HOY.plusDays(13), 1));
+        // Las posiciones reutilizadas del array empiezan vacías
+        assertEquals(0, motor.getVendidas("Doble", HOY.plusDays(14)));
+        assertTrue(motor.reservar("Doble", HOY.plusDays(14), HOY.plusDays(15), 2));
+
+        motor.deshacer("Doble", HOY.plusDays(8), HOY.plusDays(14), 2);
+        assertTrue(motor.reservar("Doble", HOY.plusDays(12), HOY.plusDays(13), 2));
+    }
+
+    @Test
+    void avanzarMasDeUnHorizonteEmpiezaVacio() {
+        MotorInventario motor = motor(1, 5);
+        assertTrue(motor.reservar("Doble", HOY, HOY.plusDays(3), 1));
+        assertTrue(motor.reservar("Doble", HOY.plusDays(20), HOY.plusDays(21), 1));
+
+        motor.avanzar(HOY.plusDays(12));
+        motor.avanzar(HOY.plusDays(11)); // Hacia atrás no hace nada
+
+        assertEquals(0, motor.getVendidas("Doble", HOY.plusDays(12)));
+        assertEquals(1, motor.getVendidas("Doble", HOY.plusDays(20)));
+        assertTrue(motor.reservar("Doble", HOY.plusDays(12), HOY.plusDays(17), 1));
+    }
+
+    private static MotorInventario motor(int fisicas, int horizonte) {
+        MotorInventario motor = new MotorInventario(HOY, horizonte);
+        for (int i = 0; i < fisicas; i++) {
+            motor.registrarHabitacion(new HabitacionDoble(100 + i, 80.0));
+        }
+        return motor;
+    }
+}
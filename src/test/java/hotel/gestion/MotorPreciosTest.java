@@ -0,0 +1,112 @@
+package hotel.gestion;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Usa las reglas de hotel.properties: ocupación 0:0.90,0.50:1.00,0.70:1.10,0.85:1.25,0.95:1.40 y
+ * fin de semana 1.10.
+ */
+class MotorPreciosTest {
+    private static final LocalDate LUNES = LocalDate.of(2025, 6, 2);
+    private static final LocalDate VIERNES = LocalDate.of(2025, 6, 6);
+
+    private MotorInventario inventario;
+    private MotorPrecios precios;
+    private BigDecimal baseDoble;
+
+    @BeforeEach
+    void crearMotores() {
+        inventario = new MotorInventario(LUNES, 60);
+        precios = new MotorPrecios(inventario);
+        for (int i = 0; i < 10; i++) {
+            Habitacion doble = new HabitacionDoble(200 + i, 80.0 + i); // La más barata fija el precio base
+            inventario.registrarHabitacion(doble);
+            precios.registrarHabitacion(doble);
+        }
+        Habitacion suite = new HabitacionSuite(300, 150.0);
+        inventario.registrarHabitacion(suite);
+        precios.registrarHabitacion(suite);
+        baseDoble = BigDecimal.valueOf(new HabitacionDoble(200, 80.0).calcularCostoNoche()).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @AfterEach
+    void cerrar() {
+        precios.close();
+    }
+
+    @Test
+    void aplicaElTramoDeOcupacionDeCadaNoche() throws HotelException {
+        vender(LUNES.plusDays(1), 5);   // 50%: justo en el límite del tramo
+        vender(LUNES.plusDays(2), 7);   // 70%
+        vender(LUNES.plusDays(3), 10);  // 100%
+
+        MotorPrecios.Cotizacion c = precios.cotizar("Doble", LUNES, LUNES.plusDays(4));
+
+        assertEquals(4, c.getNoches());
+        assertEquals(precio("0.90"), c.getPrecioNoche(0));
+        assertEquals(precio("1.00"), c.getPrecioNoche(1));
+        assertEquals(precio("1.10"), c.getPrecioNoche(2));
+        assertEquals(precio("1.40"), c.getPrecioNoche(3));
+        assertEquals(precio("0.90").add(precio("1.00")).add(precio("1.10")).add(precio("1.40")), c.getTotal());
+    }
+
+    @Test
+    void losViernesYSabadosLlevanElRecargoDeFinDeSemana() throws HotelException {
+        MotorPrecios.Cotizacion c = precios.cotizar("Doble", VIERNES.minusDays(1), VIERNES.plusDays(3));
+
+        BigDecimal finDeSemana = baseDoble.multiply(new BigDecimal("0.90")).multiply(new BigDecimal("1.10"))
+                .setScale(2, RoundingMode.HALF_UP);
+        assertEquals(precio("0.90"), c.getPrecioNoche(0)); // Jueves
+        assertEquals(finDeSemana, c.getPrecioNoche(1));
+        assertEquals(finDeSemana, c.getPrecioNoche(2));
+        assertEquals(precio("0.90"), c.getPrecioNoche(3)); // Domingo
+    }
+
+    @Test
+    void laCacheSeDescartaAlCambiarLaOcupacion() throws HotelException {
+        MotorPrecios.Cotizacion antes = precios.cotizar("Doble", LUNES, LUNES.plusDays(1));
+        assertSame(antes, precios.cotizar("Doble", LUNES, LUNES.plusDays(1)));
+
+        vender(LUNES, 9);
+        MotorPrecios.Cotizacion despues = precios.cotizar("Doble", LUNES, LUNES.plusDays(1));
+
+        assertNotSame(antes, despues);
+        assertEquals(precio("1.25"), despues.getPrecioNoche(0));
+    }
+
+    @Test
+    void cotizarTodosOrdenaDelMasBaratoAlMasCaro() throws HotelException {
+        Map<String, MotorPrecios.Cotizacion> todas = precios.cotizarTodos(LUNES, LUNES.plusDays(2));
+
+        assertEquals(List.of("Doble", "Suite"), List.copyOf(todas.keySet()));
+        assertTrue(todas.get("Doble").getTotal().compareTo(todas.get("Suite").getTotal()) < 0);
+    }
+
+    @Test
+    void rechazaFechasInvalidasYTiposSinHabitaciones() {
+        assertThrows(HotelException.class, () -> precios.cotizar("Doble", LUNES, LUNES));
+        assertThrows(HotelException.class, () -> precios.cotizar("Simple", LUNES, LUNES.plusDays(1)));
+    }
+
+    private void vender(LocalDate noche, int cantidad) {
+        assertTrue(inventario.reservar("Doble", noche, noche.plusDays(1), cantidad));
+    }
+
+    private BigDecimal precio(String multiplicador) {
+        return baseDoble.multiply(new BigDecimal(multiplicador)).setScale(2, RoundingMode.HALF_UP);
+    }
+}